@@ -0,0 +1,133 @@
+package rei.java.springboot.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import rei.java.springboot.SpringBootTestingApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application against an embedded H2 database and seeds it for the benchmarks.
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    static final int LAST_NAMES = 1000;
+
+    static final int FIRST_NAMES = 7;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application context without a web server, with the schema created by Flyway in H2.
+     * @param database The name of the in-memory database, unique per benchmark.
+     * @param args Further properties as command line arguments, e.g. "--team.snapshot.directory=...".
+     * @return The started application context.
+     */
+    static ConfigurableApplicationContext start(String database, String... args) {
+        return start(WebApplicationType.NONE, database, args);
+    }
+
+    /**
+     * Starts the application with its web server on a random port, handling requests on virtual
+     * or platform threads. The connection limits are raised so that only the threading differs.
+     * @param database The name of the in-memory database, unique per run.
+     * @param virtualThreads Whether requests are handled on virtual threads.
+     * @param args Further properties as command line arguments, e.g. "--spring.jpa.open-in-view=true".
+     * @return The started application context.
+     */
+    static ConfigurableApplicationContext startServer(String database, boolean virtualThreads, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000",
+                "--spring.threads.virtual.enabled=" + virtualThreads));
+        arguments.addAll(List.of(args));
+        return start(WebApplicationType.SERVLET, database, arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Starts the reactive variant of the application on Netty on a random port, reading H2 through R2DBC.
+     * @param database The name of the in-memory database, unique per run.
+     * @return The started application context.
+     */
+    static ConfigurableApplicationContext startReactiveServer(String database) {
+        return start(WebApplicationType.REACTIVE, database,
+                "--spring.profiles.active=reactive",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--server.port=0");
+    }
+
+    /**
+     * Starts the application on H2. The overrides are passed as command line arguments so that
+     * they take precedence over application.properties.
+     */
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String database,
+                                                        String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(webApplicationType)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Inserts team members with plain JDBC batches, bypassing JPA and the caches.
+     * Names repeat like in a real organisation: there are {@value #LAST_NAMES} last names, each shared
+     * by rows / {@value #LAST_NAMES} team members with {@value #FIRST_NAMES} different first names.
+     * The reactive variant has no JDBC data source, so one is opened on the same database then.
+     * @param context The started application context.
+     * @param rows The number of team members to insert.
+     */
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBeanProvider(JdbcTemplate.class).getIfAvailable(() -> new JdbcTemplate(
+                new DriverManagerDataSource(context.getEnvironment().getRequiredProperty("spring.datasource.url"), "sa", "")));
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{memberId(i), firstName(i), lastName(i), "member" + i + "@example.com"});
+            if (batch.size() == SEED_BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO team_member (member_id, first_name, last_name, email) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * @param i The position of a seeded team member.
+     * @return The first name of the seeded team member.
+     */
+    static String firstName(int i) {
+        return "First" + i % FIRST_NAMES;
+    }
+
+    /**
+     * @param i The position of a seeded team member.
+     * @return The last name of the seeded team member.
+     */
+    static String lastName(int i) {
+        return "Last" + i % LAST_NAMES;
+    }
+
+    /**
+     * @param i The position of a seeded team member.
+     * @return The memberId of the seeded team member, sorting in seeding order.
+     */
+    static String memberId(int i) {
+        return String.format("TM%07d", i);
+    }
+}
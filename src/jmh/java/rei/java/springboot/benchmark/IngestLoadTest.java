@@ -0,0 +1,143 @@
+package rei.java.springboot.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import rei.java.springboot.repository.TeamMemberRepository;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Load test for bursts of POST /api/team, created synchronously and through the write-behind
+ * ingest queue with Prefer: respond-async. The application is started on embedded H2 once per
+ * mode, then a burst of new team members is posted by a fixed number of concurrent clients.
+ * <p>
+ * Each mode reports the latency seen by the clients and the time until every team member of the
+ * burst is in the database. H2 commits in memory, so the synchronous mode is faster here than
+ * against MySQL, where every request waits for a commit of its own.
+ * <p>
+ * Arguments are the numbers of team members per burst, 20000 by default.
+ */
+public final class IngestLoadTest {
+
+    private static final int CONCURRENCY = 200;
+
+    private static final int WARMUP = 5_000;
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private IngestLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] bursts = args.length == 0
+                ? new int[]{20_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        run(false, bursts);
+        run(true, bursts);
+    }
+
+    private static void run(boolean async, int[] bursts) throws Exception {
+        Path directory = Files.createTempDirectory("team-member-ingest");
+        String mode = async ? "async" : "sync";
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startServer("ingest" + mode, false,
+                "--team.ingest.directory=" + directory)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            TeamMemberRepository teamMemberRepository = context.getBean(TeamMemberRepository.class);
+            long first = 0;
+            burst(port, async, first, WARMUP);
+            first += WARMUP;
+            awaitRows(teamMemberRepository, first);
+            for (int size : bursts) {
+                long start = System.nanoTime();
+                Result result = burst(port, async, first, size);
+                first += size;
+                awaitRows(teamMemberRepository, first);
+                double persisted = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-5s %6d team members %8.0f req/s   p50 %7.2f ms   p99 %7.2f ms   max %7.2f ms   all persisted after %5.2f s   errors %d%n",
+                        mode, size, result.throughput(), result.p50(), result.p99(), result.max(), persisted, result.errors());
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Posts the given number of new team members, keeping {@value #CONCURRENCY} requests in flight.
+     */
+    private static Result burst(int port, boolean async, long first, int size) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        Timer timer = Timer.builder("ingest.requests")
+                .publishPercentiles(0.5, 0.99)
+                .register(new SimpleMeterRegistry());
+        AtomicLong errors = new AtomicLong();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        int expectedStatus = async ? 202 : 201;
+        long start = System.nanoTime();
+        for (long i = first; i < first + size; i++) {
+            inFlight.acquire();
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/team"))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                            "{\"memberId\":\"IN%09d\",\"firstName\":\"First%d\",\"lastName\":\"Last%d\",\"email\":\"ingest%d@example.com\"}",
+                            i, i, i % 1000, i)));
+            if (async) {
+                request.header("Prefer", "respond-async");
+            }
+            long requestStart = System.nanoTime();
+            client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        timer.record(System.nanoTime() - requestStart, TimeUnit.NANOSECONDS);
+                        if (e != null || response.statusCode() != expectedStatus) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(CONCURRENCY);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        return new Result(size / seconds,
+                percentiles[0].value(TimeUnit.MILLISECONDS),
+                percentiles[1].value(TimeUnit.MILLISECONDS),
+                timer.max(TimeUnit.MILLISECONDS),
+                errors.get());
+    }
+
+    private static void awaitRows(TeamMemberRepository teamMemberRepository, long rows) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (teamMemberRepository.count() < rows && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private record Result(double throughput, double p50, double p99, double max, long errors) {
+    }
+}
@@ -0,0 +1,165 @@
+package rei.java.springboot.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Load test for the read paths of {@code GET /api/team}: the streamed list of all team members and
+ * keyset pages of 100. The servlet application is started on embedded H2 once per open-in-view
+ * setting, then a fixed number of concurrent clients is kept busy on one read path at a time.
+ * <p>
+ * Besides throughput and latency percentiles it reports the heap allocated per request, summed over
+ * all threads of the JVM, and the peak heap usage during the measurement. The clients run in the same
+ * JVM, so their share of the allocations is included but equal for every setting.
+ * <p>
+ * Arguments are the settings to compare: the open-in-view values, and "snapshot" for open-in-view
+ * disabled with the full list sent from the memory-mapped roster snapshot. "false true" by default.
+ */
+public final class ReadPathLoadTest {
+
+    private static final int ROWS = 10_000;
+
+    private static final int CONCURRENCY = 4;
+
+    private static final Duration WARMUP = Duration.ofSeconds(15);
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private ReadPathLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        List<String> settings = args.length == 0 ? List.of("false", "true") : Arrays.asList(args);
+        for (String setting : settings) {
+            run(setting);
+        }
+    }
+
+    private static void run(String setting) throws InterruptedException, IOException {
+        List<String> arguments = new ArrayList<>();
+        if (setting.equals("snapshot")) {
+            arguments.add("--spring.jpa.open-in-view=false");
+            arguments.add("--team.snapshot.directory=" + Files.createTempDirectory("roster-load"));
+        } else {
+            arguments.add("--spring.jpa.open-in-view=" + setting);
+        }
+        String label = setting.equals("snapshot") ? setting : "open-in-view=" + setting;
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startServer("reads" + setting, false,
+                arguments.toArray(String[]::new))) {
+            BenchmarkApplication.seed(context, ROWS);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            report(label, "all", port, n -> "/api/team");
+            report(label, "page", port, n -> {
+                String memberId = BenchmarkApplication.memberId(ThreadLocalRandom.current().nextInt(ROWS));
+                return "/api/team?limit=100&next="
+                        + Base64.getUrlEncoder().withoutPadding().encodeToString(memberId.getBytes(StandardCharsets.UTF_8));
+            });
+        }
+    }
+
+    private static void report(String label, String readPath, int port, IntFunction<String> paths)
+            throws InterruptedException {
+        load(port, paths, WARMUP);
+        Result result = load(port, paths, MEASUREMENT);
+        System.out.printf("%-18s %-4s %8.0f req/s   p50 %7.2f ms   p99 %7.2f ms   %8.1f KB/req   peak heap %5d MB   errors %d%n",
+                label, readPath, result.throughput(), result.p50(), result.p99(),
+                result.allocatedPerRequest() / 1024.0, result.peakHeap() >> 20, result.errors());
+    }
+
+    /**
+     * Keeps {@value #CONCURRENCY} requests in flight for the given duration.
+     */
+    private static Result load(int port, IntFunction<String> paths, Duration duration) throws InterruptedException {
+        // a fixed pool keeps the client threads, and so their allocation counters, alive until the end
+        ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .build();
+        Timer timer = Timer.builder("load.requests")
+                .publishPercentiles(0.5, 0.99)
+                .register(new SimpleMeterRegistry());
+        AtomicLong errors = new AtomicLong();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long allocatedBefore = allocatedBytes();
+        int sent = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + paths.apply(sent++)))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            long requestStart = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        timer.record(System.nanoTime() - requestStart, TimeUnit.NANOSECONDS);
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(CONCURRENCY);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = allocatedBytes() - allocatedBefore;
+        clientThreads.shutdown();
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        return new Result(timer.count() / seconds,
+                percentiles[0].value(TimeUnit.MILLISECONDS),
+                percentiles[1].value(TimeUnit.MILLISECONDS),
+                (double) allocated / timer.count(),
+                peakHeap,
+                errors.get());
+    }
+
+    /**
+     * @return The bytes allocated so far by all live threads.
+     */
+    private static long allocatedBytes() {
+        return Arrays.stream(THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private record Result(double throughput, double p50, double p99, double allocatedPerRequest, long peakHeap,
+                          long errors) {
+    }
+}
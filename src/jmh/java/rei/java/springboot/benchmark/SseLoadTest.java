@@ -0,0 +1,184 @@
+package rei.java.springboot.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.service.TeamMemberService;
+import rei.java.springboot.service.implementation.TeamMemberChangeBroadcaster;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test for GET /api/team/stream. The application is started on embedded H2, a given number of
+ * subscribers connects from a second JVM, then team members are updated at a steady rate and every
+ * change is awaited by every subscriber.
+ * <p>
+ * The server side reports its live threads, the heap retained per subscription and its CPU time
+ * per delivered change while the changes are fanned out; the client side reports the delivery latency from the moment a change is logged, inside its transaction,
+ * until a subscriber reads it. Both JVMs share the clock of this machine.
+ * <p>
+ * Arguments are the numbers of subscribers to run, 1000 and 10000 by default. The clients run in
+ * their own JVM because each connection costs a file descriptor on both ends and the open file
+ * limit applies per process.
+ */
+public final class SseLoadTest {
+
+    private static final int ROWS = 1_000;
+
+    private static final int CHANGES = 25;
+
+    private static final Duration CHANGE_INTERVAL = Duration.ofMillis(200);
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private static final Pattern CHANGED_AT = Pattern.compile("\"changedAt\":\"([^\"]+)\"");
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private static final com.sun.management.OperatingSystemMXBean OPERATING_SYSTEM =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private SseLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--clients")) {
+            subscribe(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        int[] subscribers = args.length == 0
+                ? new int[]{1_000, 10_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        for (int count : subscribers) {
+            run(count);
+        }
+    }
+
+    private static void run(int subscribers) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startServer("sse" + subscribers, false)) {
+            BenchmarkApplication.seed(context, ROWS);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            TeamMemberService teamMemberService = context.getBean(TeamMemberService.class);
+            TeamMemberChangeBroadcaster broadcaster = context.getBean(TeamMemberChangeBroadcaster.class);
+            long heapBefore = usedHeapAfterGc();
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            Process clients = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    SseLoadTest.class.getName(), "--clients", String.valueOf(port), String.valueOf(subscribers))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (broadcaster.subscriberCount() < subscribers && System.nanoTime() < deadline && clients.isAlive()) {
+                Thread.sleep(100);
+            }
+            long heapPerSubscriber = (usedHeapAfterGc() - heapBefore) / Math.max(1, broadcaster.subscriberCount());
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            long cpuBefore = OPERATING_SYSTEM.getProcessCpuTime();
+            for (int i = 0; i < CHANGES; i++) {
+                teamMemberService.patchTeamMember(BenchmarkApplication.memberId(i),
+                        TeamMember.builder().email("changed" + i + "@example.com").build(), null);
+                Thread.sleep(CHANGE_INTERVAL.toMillis());
+            }
+            String clientResult;
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(clients.getInputStream()))) {
+                clientResult = output.readLine();
+            }
+            double cpuPerDelivery = (OPERATING_SYSTEM.getProcessCpuTime() - cpuBefore) / 1e3 / ((long) subscribers * CHANGES);
+            clients.waitFor(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            System.out.printf("%6d subscribers   %4d threads (%d before)   %5.1f KB heap/subscriber   %5.1f us cpu/delivery   %s%n",
+                    broadcaster.subscriberCount(), threads, threadsBefore, heapPerSubscriber / 1024.0, cpuPerDelivery,
+                    clientResult);
+            clients.destroy();
+        }
+    }
+
+    /**
+     * Client side: opens the subscriptions, awaits {@value #CHANGES} changes on each of them and
+     * prints one line with the delivery statistics.
+     */
+    private static void subscribe(int port, int subscribers) throws InterruptedException {
+        ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .build();
+        Timer latency = Timer.builder("sse.delivery")
+                .publishPercentiles(0.5, 0.99)
+                .register(new SimpleMeterRegistry());
+        AtomicLong received = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/team/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+        for (int i = 0; i < subscribers; i++) {
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new Flow.Subscriber<String>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(String line) {
+                    Matcher changedAt = CHANGED_AT.matcher(line);
+                    if (line.startsWith("data:") && changedAt.find()) {
+                        latency.record(Duration.between(Instant.parse(changedAt.group(1)), Instant.now()));
+                        received.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    failed.incrementAndGet();
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            })).exceptionally(e -> {
+                failed.incrementAndGet();
+                return null;
+            });
+        }
+        long expected = (long) subscribers * CHANGES;
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (received.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+        System.out.printf("delivered %d/%d   p50 %7.2f ms   p99 %7.2f ms   max %7.2f ms   failed %d%n",
+                received.get(), expected,
+                percentiles[0].value(TimeUnit.MILLISECONDS), percentiles[1].value(TimeUnit.MILLISECONDS),
+                latency.max(TimeUnit.MILLISECONDS), failed.get());
+        System.out.flush();
+        System.exit(0);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
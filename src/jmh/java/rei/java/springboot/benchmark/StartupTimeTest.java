@@ -0,0 +1,118 @@
+package rei.java.springboot.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Startup benchmark measuring the time from launching a new JVM until its first successful
+ * GET /api/team, which is what an autoscaled instance needs before it can take traffic. Every run
+ * starts a fresh process on an empty in-memory H2 database and a free port.
+ * <p>
+ * The application is started from the classpath with the repositories bootstrapped eagerly and
+ * deferred, and, when target/fast-start was built with mvn -P fast-start -DskipTests package, from
+ * the Spring AOT jar with and without its Class Data Sharing archive. Each mode reports the median,
+ * fastest and slowest of its runs.
+ * <p>
+ * The only argument is the number of runs per mode, 5 by default.
+ */
+public final class StartupTimeTest {
+
+    private static final Path FAST_START = Path.of("target", "fast-start");
+
+    private static final String FAST_START_JAR = "spring-boot-testing-0.0.1-SNAPSHOT-fast-start.jar";
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupTimeTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length == 0 ? 5 : Integer.parseInt(args[0]);
+        String classpath = System.getProperty("java.class.path");
+        run("eager JPA", runs, null, List.of("-cp", classpath, "rei.java.springboot.SpringBootTestingApplication",
+                "--spring.data.jpa.repositories.bootstrap-mode=default"));
+        run("deferred JPA", runs, null, List.of("-cp", classpath, "rei.java.springboot.SpringBootTestingApplication"));
+        if (!Files.exists(FAST_START.resolve(FAST_START_JAR))) {
+            System.out.println("target/fast-start not found, build it with mvn -P fast-start -DskipTests package");
+            return;
+        }
+        run("AOT", runs, FAST_START, List.of("-Dspring.aot.enabled=true", "-jar", FAST_START_JAR));
+        run("AOT + CDS", runs, FAST_START, List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                "-jar", FAST_START_JAR));
+    }
+
+    private static void run(String mode, int runs, Path directory, List<String> arguments) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = start(directory, arguments, "startup" + i);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-13s first GET /api/team after   median %6d ms   min %6d ms   max %6d ms%n",
+                mode, millis[runs / 2], millis[0], millis[runs - 1]);
+    }
+
+    /**
+     * Launches the application and polls GET /api/team until it answers 200, then destroys it.
+     * @return The milliseconds from launching the JVM until the first successful response.
+     */
+    private static long start(Path directory, List<String> arguments, String database) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(arguments);
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--logging.level.root=WARN"));
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        if (directory != null) {
+            builder.directory(directory.toFile());
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/team"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // the web server is not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("The application did not answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package rei.java.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import rei.java.springboot.model.TeamMember;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the JSON serialization of team member lists, as a whole and streamed
+ * element by element the way GET /api/team writes them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamMemberJsonBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<TeamMember> teamMembers;
+
+    /**
+     * Builds the mapper the way Spring MVC does and the team members to serialize.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        teamMembers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            teamMembers.add(TeamMember.builder()
+                    .memberId(BenchmarkApplication.memberId(i))
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("member" + i + "@example.com")
+                    .version(0L)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return objectMapper.writeValueAsBytes(teamMembers);
+    }
+
+    @Benchmark
+    public void streamList() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (TeamMember teamMember : teamMembers) {
+                generator.writeObject(teamMember);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
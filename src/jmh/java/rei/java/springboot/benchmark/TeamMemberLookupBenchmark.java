@@ -0,0 +1,77 @@
+package rei.java.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberLookupCoalescer;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for concurrent lookups by memberId that miss the cache, querying the repository
+ * directly and through the coalescer, with and without a micro-batching window. The hot lookups
+ * all ask for the same team member, the random ones for any of the seeded team members.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class TeamMemberLookupBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"0", "200us"})
+    private String batchWindow;
+
+    private ConfigurableApplicationContext context;
+
+    private TeamMemberRepository teamMemberRepository;
+
+    private TeamMemberLookupCoalescer lookupCoalescer;
+
+    /**
+     * Starts the application with the batch window and seeds the team members once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("lookups" + batchWindow, "--team.lookups.batch-window=" + batchWindow);
+        BenchmarkApplication.seed(context, ROWS);
+        teamMemberRepository = context.getBean(TeamMemberRepository.class);
+        lookupCoalescer = context.getBean(TeamMemberLookupCoalescer.class);
+    }
+
+    /**
+     * Stops the application, dropping the in-memory database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<TeamMemberView> hotFindViewById() {
+        return teamMemberRepository.findViewById(BenchmarkApplication.memberId(0));
+    }
+
+    @Benchmark
+    public Optional<TeamMemberView> hotCoalesced() {
+        return lookupCoalescer.findViewById(BenchmarkApplication.memberId(0));
+    }
+
+    @Benchmark
+    public Optional<TeamMemberView> randomFindViewById() {
+        return teamMemberRepository.findViewById(randomMemberId());
+    }
+
+    @Benchmark
+    public Optional<TeamMemberView> randomCoalesced() {
+        return lookupCoalescer.findViewById(randomMemberId());
+    }
+
+    private String randomMemberId() {
+        return BenchmarkApplication.memberId(ThreadLocalRandom.current().nextInt(ROWS));
+    }
+}
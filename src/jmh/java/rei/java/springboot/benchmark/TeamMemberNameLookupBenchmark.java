@@ -0,0 +1,69 @@
+package rei.java.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for looking team members up by last name, comparing a Slice, which reads one row more
+ * than the page size, with a Page of the same rows, which also runs a COUNT query over all matches.
+ * With 1M rows every last name is shared by 1000 team members.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamMemberNameLookupBenchmark {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20, Sort.by("firstName", "memberId"));
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private TeamMemberRepository teamMemberRepository;
+
+    /**
+     * Starts the application and seeds the team members once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("names" + rows);
+        BenchmarkApplication.seed(context, rows);
+        teamMemberRepository = context.getBean(TeamMemberRepository.class);
+    }
+
+    /**
+     * Stops the application, dropping the in-memory database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<TeamMemberView> sliceByLastName() {
+        return teamMemberRepository.findByLastName(randomLastName(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<TeamMember> pageByLastName() {
+        // the null properties of the probe are ignored, so this matches the last name only
+        TeamMember probe = TeamMember.builder().lastName(randomLastName()).build();
+        return teamMemberRepository.findAll(Example.of(probe), FIRST_PAGE);
+    }
+
+    private String randomLastName() {
+        return BenchmarkApplication.lastName(ThreadLocalRandom.current().nextInt(Math.min(rows, BenchmarkApplication.LAST_NAMES)));
+    }
+}
@@ -0,0 +1,105 @@
+package rei.java.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.TeamMemberService;
+import rei.java.springboot.service.implementation.TeamMemberRosterSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for writing the whole roster as GET /api/team does: loading it with findAll() and
+ * serializing the list, streaming it from the database, and copying the memory-mapped roster
+ * snapshot with FileChannel.transferTo. Tomcat sends the snapshot with sendfile instead, which
+ * skips even that copy; ReadPathLoadTest measures the server end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamMemberRosterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private TeamMemberRepository teamMemberRepository;
+
+    private TeamMemberService teamMemberService;
+
+    private TeamMemberRosterSnapshot snapshot;
+
+    private ObjectMapper objectMapper;
+
+    private WritableByteChannel nullChannel;
+
+    /**
+     * Starts the application with the roster snapshot enabled, seeds the team members and builds
+     * the snapshot once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path directory = Files.createTempDirectory("roster-benchmark");
+        context = BenchmarkApplication.start("roster" + rows, "--team.snapshot.directory=" + directory);
+        BenchmarkApplication.seed(context, rows);
+        teamMemberRepository = context.getBean(TeamMemberRepository.class);
+        teamMemberService = context.getBean(TeamMemberService.class);
+        snapshot = context.getBean(TeamMemberRosterSnapshot.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        nullChannel = Channels.newChannel(OutputStream.nullOutputStream());
+        snapshot.current(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Stops the application, deleting the snapshot files and dropping the in-memory database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void findAll() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), teamMemberRepository.findAll());
+    }
+
+    @Benchmark
+    public void streamAllTeamMembers() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            teamMemberService.streamAllTeamMembers(teamMember -> {
+                try {
+                    generator.writeObject(teamMember);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public long rosterSnapshot() throws IOException {
+        TeamMemberRosterSnapshot.RosterFile roster = snapshot.current(MediaType.APPLICATION_JSON);
+        try (FileChannel file = FileChannel.open(roster.path(), StandardOpenOption.READ)) {
+            long sent = 0;
+            while (sent < roster.size()) {
+                sent += file.transferTo(sent, roster.size() - sent, nullChannel);
+            }
+            return sent;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package rei.java.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.service.implementation.TeamMemberSearchIndex;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for type-ahead searches in the in-memory TeamMemberSearchIndex.
+ * The index is filled directly with generated team members whose names are combined from
+ * common first and last names, so that short prefixes match many team members.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamMemberSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen", "Alice", "Alicia", "Alan", "Albert", "Alexander"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+            "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private TeamMemberSearchIndex searchIndex;
+
+    /**
+     * Fills the index once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        searchIndex = new TeamMemberSearchIndex(null, null);
+        for (int i = 0; i < size; i++) {
+            String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+            String lastName = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + (i % 997);
+            searchIndex.put(new TeamMemberView(BenchmarkApplication.memberId(i), firstName, lastName,
+                    firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@example.com", 0L));
+        }
+    }
+
+    @Benchmark
+    public List<TeamMemberView> singleLetterPrefix() {
+        return searchIndex.search(String.valueOf((char) ('a' + ThreadLocalRandom.current().nextInt(26))), 10);
+    }
+
+    @Benchmark
+    public List<TeamMemberView> twoTerms() {
+        return searchIndex.search("ali john", 10);
+    }
+
+    @Benchmark
+    public List<TeamMemberView> emailPrefix() {
+        return searchIndex.search("jennifer.garcia", 10);
+    }
+
+    @Benchmark
+    public List<TeamMemberView> misspelledTerm() {
+        return searchIndex.search("jnohson", 10);
+    }
+
+    @Benchmark
+    public List<TeamMemberView> noMatch() {
+        return searchIndex.search("zzyzx", 10);
+    }
+}
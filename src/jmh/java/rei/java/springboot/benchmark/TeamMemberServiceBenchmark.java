@@ -0,0 +1,84 @@
+package rei.java.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.TeamMemberService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks for the TeamMemberService and TeamMemberRepository hot paths against embedded H2.
+ * Throughput shows the operations per second, sample time the latency percentiles including p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamMemberServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private TeamMemberService teamMemberService;
+
+    private TeamMemberRepository teamMemberRepository;
+
+    private final AtomicLong created = new AtomicLong();
+
+    /**
+     * Starts the application and seeds the team members once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("service" + rows);
+        BenchmarkApplication.seed(context, rows);
+        teamMemberService = context.getBean(TeamMemberService.class);
+        teamMemberRepository = context.getBean(TeamMemberRepository.class);
+    }
+
+    /**
+     * Stops the application, dropping the in-memory database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TeamMember saveTeamMember() {
+        long n = created.incrementAndGet();
+        return teamMemberService.saveTeamMember(TeamMember.builder()
+                .memberId("NEW" + n)
+                .firstName("New")
+                .lastName("Member" + n)
+                .email("new" + n + "@example.com")
+                .build());
+    }
+
+    @Benchmark
+    public Optional<TeamMemberView> getTeamMemberByMemberId() {
+        return teamMemberService.getTeamMemberByMemberId(randomMemberId());
+    }
+
+    @Benchmark
+    public Optional<TeamMember> findById() {
+        return teamMemberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public List<TeamMemberView> getAllTeamMembers() {
+        return teamMemberService.getAllTeamMembers();
+    }
+
+    private String randomMemberId() {
+        return BenchmarkApplication.memberId(ThreadLocalRandom.current().nextInt(rows));
+    }
+}
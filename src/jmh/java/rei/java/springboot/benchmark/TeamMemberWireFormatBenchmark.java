@@ -0,0 +1,87 @@
+package rei.java.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import rei.java.springboot.dto.TeamMemberView;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmarks for the wire formats GET /api/team can be negotiated to: the cost of streaming a list
+ * of team members as JSON, Smile or CBOR, plain and gzip compressed as the server compresses it.
+ * The payload sizes are printed once per trial, as they do not vary between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamMemberWireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<TeamMemberView> teamMembers;
+
+    /**
+     * Builds the mapper of the format the way the controller derives it from the JSON mapper,
+     * the team members to serialize, and prints the payload sizes.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper = switch (format) {
+            case "smile" -> json.copyWith(new SmileFactory());
+            case "cbor" -> json.copyWith(new CBORFactory());
+            default -> json;
+        };
+        teamMembers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            teamMembers.add(new TeamMemberView(BenchmarkApplication.memberId(i), BenchmarkApplication.firstName(i),
+                    BenchmarkApplication.lastName(i), "member" + i + "@example.com", 0L));
+        }
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        stream(plain);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            stream(gzip);
+        }
+        System.out.printf("%n%s, %d team members: %d bytes (%.1f per team member), %d bytes gzipped%n",
+                format, size, plain.size(), (double) plain.size() / size, compressed.size());
+    }
+
+    @Benchmark
+    public void stream() throws IOException {
+        stream(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void streamGzipped() throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+            stream(gzip);
+        }
+    }
+
+    private void stream(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (TeamMemberView teamMember : teamMembers) {
+                generator.writeObject(teamMember);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
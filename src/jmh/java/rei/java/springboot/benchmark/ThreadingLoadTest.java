@@ -0,0 +1,128 @@
+package rei.java.springboot.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test comparing request handling on platform threads, on virtual threads and on the
+ * reactive stack. The application is started on embedded H2 once per mode, then a fixed number of
+ * concurrent clients is kept busy. Nine in ten requests are lookups by memberId, the tenth is a
+ * keyset page read, so slow database calls compete with fast requests for request threads.
+ * The servlet modes serve the lookups from the cache; the reactive stack has no cache and reads
+ * every lookup through R2DBC on a handful of event loop threads.
+ * <p>
+ * Arguments are the numbers of concurrent clients to run, 1000 and 10000 by default. Virtual
+ * threads are only compared when running on Java 21 or later. Each client holds a connection,
+ * so the open file limit must allow about twice the number of clients.
+ */
+public final class ThreadingLoadTest {
+
+    private static final int ROWS = 100_000;
+
+    private static final int PAGE_READ_EVERY = 10;
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private ThreadingLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] clients = args.length == 0
+                ? new int[]{1_000, 10_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        run("platform", clients);
+        if (Runtime.version().feature() >= 21) {
+            run("virtual", clients);
+        } else {
+            System.out.println("Skipping virtual threads, they need Java 21 or later: running on " + Runtime.version());
+        }
+        run("reactive", clients);
+    }
+
+    private static void run(String mode, int[] clients) throws InterruptedException {
+        try (ConfigurableApplicationContext context = mode.equals("reactive")
+                ? BenchmarkApplication.startReactiveServer("load" + mode)
+                : BenchmarkApplication.startServer("load" + mode, mode.equals("virtual"))) {
+            BenchmarkApplication.seed(context, ROWS);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            for (int concurrency : clients) {
+                load(port, concurrency, WARMUP);
+                Result result = load(port, concurrency, MEASUREMENT);
+                System.out.printf("%-8s %6d clients %10.0f req/s   p50 %8.1f ms   p99 %8.1f ms   errors %d%n",
+                        mode, concurrency, result.throughput(), result.p50(), result.p99(), result.errors());
+            }
+        }
+    }
+
+    /**
+     * Keeps the given number of requests in flight for the given duration.
+     */
+    private static Result load(int port, int concurrency, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        Timer timer = Timer.builder("load.requests")
+                .publishPercentiles(0.5, 0.99)
+                .register(new SimpleMeterRegistry());
+        AtomicLong errors = new AtomicLong();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long sent = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(uri(port, sent++))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            long requestStart = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        timer.record(System.nanoTime() - requestStart, TimeUnit.NANOSECONDS);
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(concurrency);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        return new Result(timer.count() / seconds,
+                percentiles[0].value(TimeUnit.MILLISECONDS),
+                percentiles[1].value(TimeUnit.MILLISECONDS),
+                errors.get());
+    }
+
+    private static URI uri(int port, long n) {
+        String memberId = BenchmarkApplication.memberId(ThreadLocalRandom.current().nextInt(ROWS));
+        if (n % PAGE_READ_EVERY != 0) {
+            return URI.create("http://localhost:" + port + "/api/team/" + memberId);
+        }
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(memberId.getBytes(StandardCharsets.UTF_8));
+        return URI.create("http://localhost:" + port + "/api/team?limit=50&next=" + cursor);
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors) {
+    }
+}
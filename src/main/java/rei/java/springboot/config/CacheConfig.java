@@ -0,0 +1,18 @@
+package rei.java.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache abstraction.
+ * The caches themselves are configured through the spring.cache properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Name of the cache holding team members keyed by memberId.
+     */
+    public static final String TEAM_MEMBERS_CACHE = "teamMembers";
+}
@@ -0,0 +1,29 @@
+package rei.java.springboot.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ReactorResourceFactory;
+
+/**
+ * Configuration of the reactive variant of the API, active with the "reactive" profile.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Serves the reactive API on Netty. With Tomcat also on the classpath for the servlet variant,
+     * Spring Boot would otherwise run WebFlux on Tomcat, which blocks a thread per open connection
+     * while waiting for requests.
+     * @param resourceFactory The shared Reactor Netty event loops.
+     * @return The Netty server factory.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.setResourceFactory(resourceFactory);
+        return factory;
+    }
+}
@@ -0,0 +1,86 @@
+package rei.java.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import rei.java.springboot.replica.ReadYourWritesFilter;
+import rei.java.springboot.replica.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serves read-only transactions from the replicas of team.replicas.instances, active with
+ * team.replicas.enabled=true. The application then uses a {@link ReplicaRoutingDataSource} over
+ * spring.datasource, the primary, which alone is migrated by Flyway and receives every write.
+ * Replicas are not used with sharding, where each shard is a single database.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("${team.replicas.enabled:false} and !${team.sharding.enabled:false}")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    /**
+     * The paths of requests that only read although they are not GETs, so they do not start a read-your-writes window.
+     */
+    static final Set<String> READ_ONLY_PATHS = Set.of("/api/team/lookup");
+
+    /**
+     * Opens a connection pool for the primary and one per replica, named after the replica,
+     * with the spring.datasource.hikari settings.
+     * @param dataSourceProperties The connection settings of the primary.
+     * @param properties The replica properties.
+     * @param environment The environment holding the pool settings.
+     * @param meterRegistry The registry of the pool metrics and the replica failover counters.
+     * @return The data source routing read-only transactions to the replicas.
+     */
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties properties,
+                                               Environment environment, MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        try {
+            HikariDataSource primary = pool("primary", dataSourceProperties, environment, meterRegistry);
+            pools.add(primary);
+            properties.getInstances().forEach((name, replica) -> {
+                HikariDataSource dataSource = pool(name, replica, environment, meterRegistry);
+                dataSource.setReadOnly(true);
+                pools.add(dataSource);
+            });
+            return new ReplicaRoutingDataSource(primary, List.<DataSource>copyOf(pools.subList(1, pools.size())),
+                    properties.getSelection(), meterRegistry);
+        } catch (RuntimeException e) {
+            pools.forEach(HikariDataSource::close);
+            throw e;
+        }
+    }
+
+    /**
+     * @param properties The replica properties.
+     * @return The filter serving the reads of a client that wrote recently from the primary.
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties properties) {
+        return new ReadYourWritesFilter(properties.getReadYourWritesWindow(), READ_ONLY_PATHS);
+    }
+
+    private static HikariDataSource pool(String name, DataSourceProperties properties, Environment environment,
+                                         MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,41 @@
+package rei.java.springboot.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import rei.java.springboot.replica.ReplicaRoutingDataSource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read replicas of spring.datasource, bound from the team.replicas properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("team.replicas")
+public class ReplicaProperties {
+
+    /**
+     * Whether read-only transactions are served by the replicas rather than spring.datasource.
+     */
+    private boolean enabled;
+
+    /**
+     * The connection settings of each replica, by replica name, such as team.replicas.instances.r1.url.
+     * The pool settings of spring.datasource.hikari apply to every replica.
+     */
+    private Map<String, DataSourceProperties> instances = new LinkedHashMap<>();
+
+    /**
+     * How the replica serving a read-only transaction is picked, round-robin or least-connections.
+     */
+    private ReplicaRoutingDataSource.Selection selection = ReplicaRoutingDataSource.Selection.ROUND_ROBIN;
+
+    /**
+     * How long the reads of a client are served by the primary after it wrote; longer than the usual replica lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
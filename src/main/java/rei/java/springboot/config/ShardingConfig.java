@@ -0,0 +1,75 @@
+package rei.java.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import rei.java.springboot.tenant.TenantRoutingDataSource;
+import rei.java.springboot.tenant.TenantShardRing;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spreads the tenants over the shards of team.sharding.shards, active with team.sharding.enabled=true.
+ * The application then uses a {@link TenantRoutingDataSource} instead of spring.datasource, and the
+ * Flyway migrations are applied to every shard.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty("team.sharding.enabled")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Opens a connection pool per shard, named after the shard, with the spring.datasource.hikari settings.
+     * @param properties The sharding properties.
+     * @param environment The environment holding the pool settings.
+     * @param meterRegistry The registry of the pool metrics.
+     * @return The data source routing to the shard of the current tenant.
+     */
+    @Bean
+    public TenantRoutingDataSource dataSource(ShardingProperties properties, Environment environment,
+                                              MeterRegistry meterRegistry) {
+        TenantShardRing ring = new TenantShardRing(properties.getShards().keySet(), properties.getVirtualNodes(),
+                properties.getTenants());
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        try {
+            properties.getShards().forEach((name, shard) -> {
+                HikariDataSource dataSource = shard.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+                Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+                dataSource.setPoolName(name);
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                shards.put(name, dataSource);
+            });
+            return new TenantRoutingDataSource(ring, shards);
+        } catch (RuntimeException e) {
+            shards.values().forEach(dataSource -> ((HikariDataSource) dataSource).close());
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the migrations to every shard rather than only to the one of the default tenant.
+     * @param dataSource The data source routing to the shards.
+     * @return The migration strategy.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(TenantRoutingDataSource dataSource) {
+        return flyway -> dataSource.getResolvedDataSources().values().forEach(shard -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(shard)
+                .load()
+                .migrate());
+    }
+}
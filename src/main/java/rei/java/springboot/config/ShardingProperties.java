@@ -0,0 +1,39 @@
+package rei.java.springboot.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shards of the team member storage, bound from the team.sharding properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("team.sharding")
+public class ShardingProperties {
+
+    /**
+     * Whether the tenants are spread over the shards rather than stored in spring.datasource.
+     */
+    private boolean enabled;
+
+    /**
+     * The connection settings of each shard, by shard name, such as team.sharding.shards.eu1.url.
+     * The pool settings of spring.datasource.hikari apply to every shard.
+     */
+    private Map<String, DataSourceProperties> shards = new LinkedHashMap<>();
+
+    /**
+     * The shards of tenants pinned to a shard rather than placed by hashing, by tenant.
+     */
+    private Map<String, String> tenants = new LinkedHashMap<>();
+
+    /**
+     * The number of positions of each shard on the hash ring; more spread the tenants more evenly.
+     */
+    private int virtualNodes = 128;
+}
@@ -0,0 +1,25 @@
+package rei.java.springboot.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import rei.java.springboot.replica.ReplicaTaskDecorator;
+import rei.java.springboot.tenant.TenantTaskDecorator;
+
+import java.util.List;
+
+/**
+ * Decorates the tasks of the application task executor, which only applies a single decorator.
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+    /**
+     * @return The decorator running the tasks for the tenant, and with the replica routing, of the submitting thread.
+     */
+    @Bean
+    public TaskDecorator taskDecorator() {
+        return new CompositeTaskDecorator(List.of(new TenantTaskDecorator(), new ReplicaTaskDecorator()));
+    }
+}
@@ -0,0 +1,172 @@
+package rei.java.springboot.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.service.ReactiveTeamMemberService;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking controller for managing team members, serving the same endpoints as
+ * {@link TeamMemberController} on WebFlux when the "reactive" profile is active.
+ */
+@RestController
+@RequestMapping("/api/team")
+@Profile("reactive")
+public class ReactiveTeamMemberController {
+
+    private final ReactiveTeamMemberService teamMemberService;
+
+    /**
+     * Constructor-based injection of the ReactiveTeamMemberService.
+     * @param teamMemberService The service handling team member logic.
+     */
+    public ReactiveTeamMemberController(ReactiveTeamMemberService teamMemberService) {
+        this.teamMemberService = teamMemberService;
+    }
+
+    /**
+     * Create a new team member.
+     * @param teamMember The team member to create.
+     * @return The created team member.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<TeamMember> createTeamMember(@RequestBody TeamMember teamMember) {
+        return teamMemberService.saveTeamMember(teamMember);
+    }
+
+    /**
+     * Retrieve all team members.
+     * By default every team member is written and flushed as one line of newline-delimited JSON;
+     * rows are only read from the database as fast as the client consumes them.
+     * Clients accepting only application/json get a JSON array instead.
+     * @return All team members.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TeamMember> getAllTeamMembers() {
+        return teamMemberService.getAllTeamMembers();
+    }
+
+    /**
+     * Retrieve one page of team members using keyset pagination.
+     * @param limit The maximum number of team members to return.
+     * @param next The cursor returned with the previous page, absent for the first page.
+     * @return The page of team members and the cursor for the following page.
+     */
+    @GetMapping(params = "limit")
+    public Mono<TeamMemberPage> getTeamMemberPage(@RequestParam("limit") int limit,
+                                                 @RequestParam(name = "next", required = false) String next) {
+        return teamMemberService.getTeamMemberPage(next, limit);
+    }
+
+    /**
+     * Retrieve a single team member by their unique identifier, with its version as a strong ETag.
+     * @param memberId The unique identifier of the team member.
+     * @return The team member if found.
+     */
+    @GetMapping("{memberId}")
+    public Mono<ResponseEntity<TeamMember>> getTeamMemberByMemberId(@PathVariable("memberId") String memberId) {
+        return teamMemberService.getTeamMemberByMemberId(memberId)
+                .map(TeamMemberETags::okWithETag)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Update an existing team member.
+     * @param memberId The unique identifier of the team member to update.
+     * @param ifMatch The ETag the client last read; the update fails with 412 if the team member changed since.
+     * @param teamMember The updated team member data.
+     * @return The updated team member if the original was found, otherwise not found.
+     */
+    @PutMapping("{memberId}")
+    public Mono<ResponseEntity<TeamMember>> updateTeamMember(@PathVariable("memberId") String memberId,
+                                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                             @RequestBody TeamMember teamMember) {
+        return teamMemberService.updateTeamMember(memberId, teamMember, TeamMemberETags.parseIfMatch(ifMatch))
+                .map(TeamMemberETags::okWithETag)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Partially update an existing team member; only the fields present in the body are changed.
+     * @param memberId The unique identifier of the team member to update.
+     * @param ifMatch The ETag the client last read; the update fails with 412 if the team member changed since.
+     * @param changes The team member fields to change.
+     * @return The updated team member if the original was found, otherwise not found.
+     */
+    @PatchMapping("{memberId}")
+    public Mono<ResponseEntity<TeamMember>> patchTeamMember(@PathVariable("memberId") String memberId,
+                                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                            @RequestBody TeamMember changes) {
+        return teamMemberService.patchTeamMember(memberId, changes, TeamMemberETags.parseIfMatch(ifMatch))
+                .map(TeamMemberETags::okWithETag)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Delete a team member by their identifier.
+     * @param memberId The unique identifier of the team member to delete.
+     * @param ifMatch The ETag the client last read; the delete fails with 412 if the team member changed since.
+     * @return A response indicating successful deletion, or 404 if no team member was found.
+     */
+    @DeleteMapping("{memberId}")
+    public Mono<ResponseEntity<String>> deleteTeamMember(@PathVariable("memberId") String memberId,
+                                                         @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teamMemberService.deleteTeamMember(memberId, TeamMemberETags.parseIfMatch(ifMatch))
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Team member deleted successfully!", HttpStatus.OK)
+                        : ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Delete many team members by their identifiers in one statement.
+     * @param memberIds The unique identifiers of the team members to delete.
+     * @return The number of deleted team members; unknown identifiers are ignored.
+     */
+    @DeleteMapping(params = "ids")
+    public Mono<Map<String, Long>> deleteTeamMembers(@RequestParam("ids") List<String> memberIds) {
+        return teamMemberService.deleteTeamMembers(memberIds)
+                .map(deleted -> Map.of("deleted", deleted));
+    }
+
+    /**
+     * Map invalid arguments, such as a malformed page cursor or If-Match header, to a bad request.
+     * @param e The exception raised while handling the request.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Map conflicts with existing team members, such as a taken email, to a conflict.
+     * @param e The exception raised by the service.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleIllegalState(IllegalStateException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Map writes based on an outdated ETag to a failed precondition.
+     * @param e The exception raised by the service.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+}
@@ -1,29 +1,109 @@
 package rei.java.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.dto.TeamMemberLookup;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberSlice;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberPage;
 import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
 import rei.java.springboot.service.TeamMemberService;
+import rei.java.springboot.service.implementation.TeamMemberChangeBroadcaster;
+import rei.java.springboot.service.implementation.TeamMemberRosterSnapshot;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for managing team members.
  * Provides RESTful endpoints for creating, retrieving, updating, and deleting team members.
+ * Responses are JSON, or CBOR or Smile for clients that prefer those in their Accept header.
+ * Replaced by {@link ReactiveTeamMemberController} when the "reactive" profile is active.
  */
 @RestController
 @RequestMapping("/api/team")
+@Profile("!reactive")
 public class TeamMemberController {
 
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    /**
+     * Request attributes of Tomcat's sendfile support, as used by its default servlet.
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final TeamMemberService teamMemberService;
 
+    private final ObjectMapper objectMapper;
+
+    private final TeamMemberChangeBroadcaster changeBroadcaster;
+
+    private final TeamMemberWireFormats wireFormats;
+
+    private final ObjectProvider<TeamMemberRosterSnapshot> rosterSnapshot;
+
+    private final boolean compression;
+
+    private final byte[] adminToken;
+
     /**
      * Constructor-based injection of the TeamMemberService.
      * @param teamMemberService The service handling team member logic.
+     * @param objectMapper The mapper used to write streamed responses.
+     * @param changeBroadcaster The broadcaster pushing changes to stream subscribers.
+     * @param rosterSnapshot The snapshot GET /api/team is served from, if enabled.
+     * @param compression Whether the server compresses responses for clients accepting gzip.
+     * @param adminToken The token admin requests must send, empty to refuse all of them.
      */
-    public TeamMemberController(TeamMemberService teamMemberService) {
+    public TeamMemberController(TeamMemberService teamMemberService, ObjectMapper objectMapper,
+                                TeamMemberChangeBroadcaster changeBroadcaster,
+                                ObjectProvider<TeamMemberRosterSnapshot> rosterSnapshot,
+                                @Value("${server.compression.enabled:false}") boolean compression,
+                                @Value("${team.admin.token:}") String adminToken) {
         this.teamMemberService = teamMemberService;
+        this.objectMapper = objectMapper;
+        this.changeBroadcaster = changeBroadcaster;
+        this.wireFormats = new TeamMemberWireFormats(objectMapper);
+        this.rosterSnapshot = rosterSnapshot;
+        this.compression = compression;
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
     }
 
     /**
@@ -37,59 +117,340 @@ public class TeamMemberController {
         return teamMemberService.saveTeamMember(teamMember);
     }
 
+    /**
+     * Accept a new team member for asynchronous creation, for clients sending Prefer: respond-async
+     * during bursts. The team member is written to a local log and inserted by a background writer,
+     * so the response does not wait for the database. If the ingest queue is not enabled the
+     * preference is ignored and the team member is created before responding.
+     * @param teamMember The team member to create.
+     * @return 202 Accepted with the QUEUED outcome and its Location, or 201 Created with the team member.
+     */
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<?> enqueueTeamMember(@RequestBody TeamMember teamMember) {
+        return teamMemberService.enqueueTeamMember(teamMember)
+                .<ResponseEntity<?>>map(ingest -> ResponseEntity
+                        .accepted()
+                        .location(URI.create("/api/team/ingest/" + ingest.getTrackingId()))
+                        .header("Preference-Applied", "respond-async")
+                        .body(ingest))
+                .orElseGet(() -> new ResponseEntity<>(teamMemberService.saveTeamMember(teamMember), HttpStatus.CREATED));
+    }
+
+    /**
+     * Retrieve the outcome of a team member accepted for asynchronous creation.
+     * @param trackingId The tracking id returned when the team member was accepted.
+     * @return The outcome: QUEUED, CREATED, or FAILED with the reason; 404 if the tracking id is unknown.
+     */
+    @GetMapping("ingest/{trackingId}")
+    public ResponseEntity<TeamMemberIngest> getTeamMemberIngest(@PathVariable("trackingId") String trackingId) {
+        return ResponseEntity.of(teamMemberService.getTeamMemberIngest(trackingId));
+    }
+
+    /**
+     * Create many team members at once.
+     * The body is either a JSON array or newline-delimited JSON and is read incrementally,
+     * so large imports are not buffered in memory before they are written.
+     * @param body The request body holding the team members to create.
+     * @return The result for each submitted team member, in submission order.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(path = "batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<TeamMemberBatchResult> createTeamMembers(InputStream body) throws IOException {
+        try (MappingIterator<TeamMember> teamMembers = objectMapper.readerFor(TeamMember.class).readValues(body)) {
+            return teamMemberService.saveTeamMembers(teamMembers);
+        }
+    }
+
     /**
      * Retrieve all team members.
-     * @return A list of all team members.
+     * The array is written to the response while rows are read from the database,
+     * so memory use does not depend on the size of the table.
+     * With the roster snapshot enabled, the array is sent from its snapshot file instead.
+     * @param accept The Accept header; application/cbor or application/x-jackson-smile select a binary encoding.
+     * @param acceptEncoding The Accept-Encoding header.
+     * @param request The request, telling whether the server can send files itself.
+     * @return A streamed array of all team members, JSON unless a binary encoding is preferred.
+     * @throws IOException if the snapshot file cannot be opened.
      */
     @GetMapping
-    public List<TeamMember> getAllTeamMembers() {
-        return teamMemberService.getAllTeamMembers();
+    public ResponseEntity<StreamingResponseBody> getAllTeamMembers(@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                   @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                   HttpServletRequest request) throws IOException {
+        MediaType contentType = wireFormats.negotiate(accept);
+        TeamMemberRosterSnapshot snapshot = rosterSnapshot.getIfAvailable();
+        if (snapshot != null) {
+            return sendRoster(snapshot.current(contentType), contentType, acceptEncoding, request);
+        }
+        ObjectMapper mapper = wireFormats.mapper(contentType);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                teamMemberService.streamAllTeamMembers(teamMember -> {
+                    try {
+                        generator.writeObject(teamMember);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(contentType).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    /**
+     * Sends a roster snapshot file. Tomcat sends it with sendfile, so the bytes go from the page
+     * cache to the socket without being copied through the heap; responses the server compresses,
+     * or that cannot use sendfile, are copied from the file with FileChannel.transferTo.
+     * The file is opened before returning, so a newer generation replacing it does not affect the response.
+     */
+    private ResponseEntity<StreamingResponseBody> sendRoster(TeamMemberRosterSnapshot.RosterFile roster, MediaType contentType,
+                                                             String acceptEncoding, HttpServletRequest request) throws IOException {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType).varyBy(HttpHeaders.ACCEPT);
+        boolean compressed = compression && acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (!compressed && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, roster.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, roster.size());
+            return response.contentLength(roster.size()).build();
+        }
+        FileChannel file = FileChannel.open(roster.path(), StandardOpenOption.READ);
+        return response.body(outputStream -> {
+            try (file) {
+                WritableByteChannel channel = Channels.newChannel(outputStream);
+                long sent = 0;
+                while (sent < roster.size()) {
+                    sent += file.transferTo(sent, roster.size() - sent, channel);
+                }
+            }
+        });
+    }
+
+    /**
+     * Retrieve one page of team members using keyset pagination.
+     * @param limit The maximum number of team members to return.
+     * @param next The cursor returned with the previous page, absent for the first page.
+     * @return The page of team members and the cursor for the following page.
+     */
+    @GetMapping(params = {"limit", "!lastName"})
+    public TeamMemberPage getTeamMemberPage(@RequestParam("limit") int limit,
+                                           @RequestParam(name = "next", required = false) String next) {
+        return teamMemberService.getTeamMemberPage(next, limit);
+    }
+
+    /**
+     * Retrieve one page of the team members of all tenants for admin views, e.g.
+     * {@code ?allTenants=true&limit=100}, read from every shard in parallel. Only served to
+     * requests sending the configured team.admin.token in their X-Admin-Token header.
+     * @param limit The maximum number of team members to return.
+     * @param next The cursor returned with the previous page, absent for the first page.
+     * @param token The admin token sent with the request.
+     * @return The page of team members with their tenants and the cursor for the following page,
+     *         or 403 FORBIDDEN if the token is missing or wrong, or no token is configured.
+     */
+    @GetMapping(params = {"limit", "!lastName", "allTenants=true"})
+    public ResponseEntity<TenantTeamMemberPage> getTeamMemberPageAcrossTenants(@RequestParam("limit") int limit,
+                                                                               @RequestParam(name = "next", required = false) String next,
+                                                                               @RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(teamMemberService.getTeamMemberPageAcrossTenants(next, limit));
+    }
+
+    /**
+     * Tells whether a request sent the configured admin token, comparing in constant time.
+     */
+    private boolean isAdmin(String token) {
+        return adminToken.length > 0 && token != null
+                && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retrieve the team members with a given name, one slice at a time, e.g.
+     * {@code ?lastName=Smith&firstName=John&page=0&size=20&sort=email}.
+     * @param firstName The first name, absent to match any first name.
+     * @param lastName The last name.
+     * @param pageable The page, size and sort, by default the first 20 team members by first name.
+     * @return The slice of matching team members and whether more follow.
+     */
+    @GetMapping(params = "lastName")
+    public TeamMemberSlice getTeamMembersByName(@RequestParam(name = "firstName", required = false) String firstName,
+                                                @RequestParam("lastName") String lastName,
+                                                @PageableDefault(size = 20) Pageable pageable) {
+        return TeamMemberSlice.of(teamMemberService.getTeamMembersByName(firstName, lastName, pageable));
+    }
+
+    /**
+     * Reject name lookups by first name only, which the (last_name, first_name) index cannot serve.
+     * @param firstName The first name.
+     * @return Never returns normally.
+     */
+    @GetMapping(params = {"firstName", "!lastName"})
+    public TeamMemberSlice getTeamMembersByFirstName(@RequestParam("firstName") String firstName) {
+        throw new IllegalArgumentException("A lastName is required to look team members up by name");
+    }
+
+    /**
+     * Search team members by name or email as the user types, served from an in-memory index.
+     * @param query The search terms, e.g. "ali joh".
+     * @param limit The maximum number of team members to return.
+     * @return The best matching team members, best first.
+     */
+    @GetMapping("search")
+    public List<TeamMemberView> searchTeamMembers(@RequestParam("q") String query,
+                                              @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return teamMemberService.searchTeamMembers(query, limit);
+    }
+
+    /**
+     * Retrieve the changes made to team members since a client last synchronized, instead of the
+     * whole list: creations and updates with the new details, deletions as tombstones.
+     * @param since The next value of the previous response, 0 for all changes.
+     * @param limit The maximum number of changes to return.
+     * @return The changes in sequence order and the value to pass as since next time.
+     */
+    @GetMapping("changes")
+    public TeamMemberChanges getTeamMemberChanges(@RequestParam(name = "since", defaultValue = "0") long since,
+                                                  @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return teamMemberService.getTeamMemberChanges(since, limit);
+    }
+
+    /**
+     * Subscribe to the changes made to team members as Server-Sent Events, instead of polling.
+     * Each event holds one change as returned by GET /api/team/changes, with its sequence number as id.
+     * A client reconnecting with Last-Event-ID first receives the changes it missed, up to
+     * {@value TeamMemberChangeBroadcaster#BUFFER_SIZE}; slow clients lose the oldest undelivered
+     * changes and reconcile through GET /api/team/changes.
+     * @param lastEventId The id of the last event received before reconnecting, if any.
+     * @return The event stream.
+     */
+    @GetMapping(path = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTeamMemberChanges(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeBroadcaster.subscribe(lastEventId);
     }
 
     /**
      * Retrieve a single team member by their unique identifier.
+     * The version of the team member is returned as a strong ETag; a request whose If-None-Match
+     * holds the current ETag gets 304 Not Modified without the body being serialized.
      * @param memberId The unique identifier of the team member.
      * @return The team member if found.
      */
     @GetMapping("{memberId}")
-    public ResponseEntity<TeamMember> getTeamMemberByMemberId(@PathVariable("memberId") String memberId) {
+    public ResponseEntity<TeamMemberView> getTeamMemberByMemberId(@PathVariable("memberId") String memberId) {
         return teamMemberService.getTeamMemberByMemberId(memberId)
-                .map(ResponseEntity::ok)
+                .map(TeamMemberETags::okWithETag)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieve many team members by their unique identifiers in one request, such as the members
+     * of a team to render, instead of one request per team member.
+     * @param memberIds The unique identifiers of the team members, as a JSON array.
+     * @return The found team members and the identifiers of the missing ones, both in request order.
+     */
+    @PostMapping(path = "lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TeamMemberLookup> lookupTeamMembers(@RequestBody List<String> memberIds) {
+        return ResponseEntity.ok(teamMemberService.getTeamMembersByMemberIds(memberIds));
+    }
+
     /**
      * Update an existing team member.
      * @param memberId The unique identifier of the team member to update.
+     * @param ifMatch The ETag the client last read; the update fails with 412 if the team member changed since.
      * @param teamMember The updated team member data.
      * @return The updated team member if the original was found, otherwise not found.
      */
     @PutMapping("{memberId}")
-    public ResponseEntity<TeamMember> updateTeamMember(@PathVariable("memberId") String memberId, @RequestBody TeamMember teamMember) {
-       // Check if the team member exists
-       return teamMemberService.getTeamMemberByMemberId(memberId).map(foundTeamMember -> {
-            // Update the team member details
-           foundTeamMember.setFirstName(teamMember.getFirstName());
-           foundTeamMember.setLastName(teamMember.getLastName());
-           foundTeamMember.setEmail(teamMember.getEmail());
-           TeamMember updatedTeamMember = teamMemberService.updateTeamMember(foundTeamMember);
+    public ResponseEntity<TeamMember> updateTeamMember(@PathVariable("memberId") String memberId,
+                                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestBody TeamMember teamMember) {
+        return teamMemberService.updateTeamMember(memberId, teamMember, TeamMemberETags.parseIfMatch(ifMatch))
+                .map(TeamMemberETags::okWithETag)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-           // Return the updated team member
-           return new ResponseEntity<>(updatedTeamMember, HttpStatus.OK);
-        
-        // If the team member does not exist, return not found
-       }).orElseGet(() -> ResponseEntity.notFound().build());
+    /**
+     * Partially update an existing team member; only the fields present in the body are changed.
+     * @param memberId The unique identifier of the team member to update.
+     * @param ifMatch The ETag the client last read; the update fails with 412 if the team member changed since.
+     * @param changes The team member fields to change.
+     * @return The updated team member if the original was found, otherwise not found.
+     */
+    @PatchMapping("{memberId}")
+    public ResponseEntity<TeamMember> patchTeamMember(@PathVariable("memberId") String memberId,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestBody TeamMember changes) {
+        return teamMemberService.patchTeamMember(memberId, changes, TeamMemberETags.parseIfMatch(ifMatch))
+                .map(TeamMemberETags::okWithETag)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * Delete a team member by their identifier.
      * @param memberId The unique identifier of the team member to delete.
-     * @return A response indicating successful deletion.
+     * @param ifMatch The ETag the client last read; the delete fails with 412 if the team member changed since.
+     * @return A response indicating successful deletion, or 404 if no team member was found.
      */
     @DeleteMapping("{memberId}")
-    public ResponseEntity<String> deleteTeamMember(@PathVariable("memberId") String memberId) {
-        teamMemberService.deleteTeamMember(memberId);
+    public ResponseEntity<String> deleteTeamMember(@PathVariable("memberId") String memberId,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!teamMemberService.deleteTeamMember(memberId, TeamMemberETags.parseIfMatch(ifMatch))) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<>("Team member deleted successfully!", HttpStatus.OK);
     }
-}
 
+    /**
+     * Delete many team members by their identifiers in one statement.
+     * @param memberIds The unique identifiers of the team members to delete.
+     * @return The number of deleted team members; unknown identifiers are ignored.
+     */
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<Map<String, Integer>> deleteTeamMembers(@RequestParam("ids") List<String> memberIds) {
+        return ResponseEntity.ok(Map.of("deleted", teamMemberService.deleteTeamMembers(memberIds)));
+    }
+
+    /**
+     * Map invalid arguments, such as a malformed page cursor or batch body, to a bad request.
+     * @param e The exception raised while handling the request.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler({IllegalArgumentException.class, RuntimeJsonMappingException.class})
+    public ResponseEntity<String> handleIllegalArgument(RuntimeException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Map conflicts with existing team members, such as a taken email, to a conflict.
+     * @param e The exception raised by the service.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleIllegalState(IllegalStateException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Map a full ingest queue to a temporary unavailability, so clients back off and retry.
+     * @param e The exception raised by the ingest queue.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    /**
+     * Map writes based on an outdated ETag to a failed precondition.
+     * @param e The exception raised by the service.
+     * @return A response with the error message.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+}
@@ -0,0 +1,58 @@
+package rei.java.springboot.controller;
+
+import org.springframework.http.ResponseEntity;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+
+/**
+ * Maps team member versions to strong ETags and back, shared by the servlet and the reactive controller.
+ */
+final class TeamMemberETags {
+
+    private TeamMemberETags() {
+    }
+
+    /**
+     * @param teamMember The team member to return.
+     * @return A 200 OK response with the team member, tagged with its version when it is known.
+     */
+    static ResponseEntity<TeamMember> okWithETag(TeamMember teamMember) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (teamMember.getVersion() != null) {
+            response.eTag("\"" + teamMember.getVersion() + "\"");
+        }
+        return response.body(teamMember);
+    }
+
+    /**
+     * @param teamMember The view of the team member to return.
+     * @return A 200 OK response with the view, tagged with its version when it is known.
+     */
+    static ResponseEntity<TeamMemberView> okWithETag(TeamMemberView teamMember) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (teamMember.version() != null) {
+            response.eTag("\"" + teamMember.version() + "\"");
+        }
+        return response.body(teamMember);
+    }
+
+    /**
+     * Reads the expected version from an If-Match header.
+     * @param ifMatch A single strong ETag, "*" or null.
+     * @return The expected version, or null if any version may be changed.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        try {
+            if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("If-Match must be a single strong ETag of this API or *: " + ifMatch);
+    }
+}
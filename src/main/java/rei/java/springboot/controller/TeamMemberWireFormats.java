@@ -0,0 +1,70 @@
+package rei.java.springboot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The encodings team members are served in: JSON, and the CBOR and Smile binary encodings of the
+ * same Jackson model for service-to-service callers. Responses returned as objects are negotiated by
+ * the message converters Spring MVC registers for these formats; this class negotiates the
+ * responses the controller writes itself.
+ */
+final class TeamMemberWireFormats {
+
+    static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private static final Comparator<MediaType> PREFERENCE = Comparator
+            .comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype);
+
+    private final Map<MediaType, ObjectMapper> mappers;
+
+    /**
+     * @param objectMapper The JSON mapper, whose configuration the binary encodings share.
+     */
+    TeamMemberWireFormats(ObjectMapper objectMapper) {
+        this.mappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()),
+                APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * Picks the encoding the client prefers.
+     * @param accept The Accept header of the request, or null.
+     * @return The preferred supported encoding, JSON if the client accepts none of them.
+     * @throws org.springframework.http.InvalidMediaTypeException if the header cannot be parsed.
+     */
+    MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept).stream()
+                .filter(mediaType -> mediaType.getQualityValue() > 0)
+                .sorted(PREFERENCE)
+                .toList();
+        for (MediaType mediaType : accepted) {
+            for (MediaType supported : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE)) {
+                if (mediaType.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * @param contentType An encoding returned by {@link #negotiate(String)}.
+     * @return The mapper writing that encoding.
+     */
+    ObjectMapper mapper(MediaType contentType) {
+        return mappers.get(contentType);
+    }
+}
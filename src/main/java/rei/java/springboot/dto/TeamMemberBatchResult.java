@@ -0,0 +1,27 @@
+package rei.java.springboot.dto;
+
+/**
+ * The outcome of creating one team member of a batch.
+ * @param index The position of the team member in the submitted batch.
+ * @param memberId The memberId of the submitted team member.
+ * @param status Whether the team member was created.
+ * @param message The reason the team member was rejected, or null if it was created.
+ */
+public record TeamMemberBatchResult(int index, String memberId, Status status, String message) {
+
+    /**
+     * The status of a single batch item.
+     */
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public static TeamMemberBatchResult created(int index, String memberId) {
+        return new TeamMemberBatchResult(index, memberId, Status.CREATED, null);
+    }
+
+    public static TeamMemberBatchResult failed(int index, String memberId, String message) {
+        return new TeamMemberBatchResult(index, memberId, Status.FAILED, message);
+    }
+}
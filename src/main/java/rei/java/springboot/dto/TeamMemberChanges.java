@@ -0,0 +1,29 @@
+package rei.java.springboot.dto;
+
+import rei.java.springboot.model.TeamMemberChange;
+
+import java.util.List;
+
+/**
+ * One batch of the team member change log.
+ * @param items The changes in sequence order; deletions are tombstones with only the memberId.
+ * @param next The sequence number to pass as since to read the following changes. It equals the
+ *             requested since when no changes are available yet.
+ * @param hasNext Whether more changes are available right away.
+ */
+public record TeamMemberChanges(List<TeamMemberChange> items, long next, boolean hasNext) {
+
+    /**
+     * Builds the batch from the changes read for it, which hold one change more than the limit
+     * when more changes are available.
+     * @param rows The changes read, at most limit + 1, in sequence order.
+     * @param since The sequence number the changes were read after.
+     * @param limit The maximum number of changes in the batch.
+     * @return The batch of changes.
+     */
+    public static TeamMemberChanges of(List<TeamMemberChange> rows, long since, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<TeamMemberChange> items = hasNext ? rows.subList(0, limit) : rows;
+        return new TeamMemberChanges(items, items.isEmpty() ? since : items.get(items.size() - 1).getSeq(), hasNext);
+    }
+}
@@ -0,0 +1,11 @@
+package rei.java.springboot.dto;
+
+import java.util.List;
+
+/**
+ * The result of looking up many team members by memberId at once.
+ * @param found The views of the found team members, in the order their memberIds were first requested.
+ * @param missing The requested memberIds no team member has, in request order.
+ */
+public record TeamMemberLookup(List<TeamMemberView> found, List<String> missing) {
+}
@@ -0,0 +1,50 @@
+package rei.java.springboot.dto;
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A keyset-paginated page of team members.
+ * @param items The team members on this page, ordered by memberId.
+ * @param next The opaque cursor for the following page, or null if this is the last page.
+ */
+public record TeamMemberPage(List<TeamMemberView> items, String next) {
+
+    /**
+     * Builds the page from the rows read for it, which hold one row more than the limit
+     * when a following page exists.
+     * @param rows The team members read, at most limit + 1, ordered by memberId.
+     * @param limit The maximum number of team members on the page.
+     * @return The page, with a cursor only if a following page exists.
+     */
+    public static TeamMemberPage of(List<TeamMemberView> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new TeamMemberPage(rows, null);
+        }
+        List<TeamMemberView> items = rows.subList(0, limit);
+        return new TeamMemberPage(items, encodeCursor(items.get(limit - 1).memberId()));
+    }
+
+    /**
+     * @param memberId The memberId of the last team member on a page.
+     * @return The opaque cursor pointing after that team member.
+     */
+    public static String encodeCursor(String memberId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(memberId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor A cursor returned with a previous page.
+     * @return The memberId after which the following page starts.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package rei.java.springboot.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * An offset-paginated slice of team members, which knows whether more team members follow
+ * but not how many there are in total.
+ * @param items The team members in this slice.
+ * @param page The zero-based number of this slice.
+ * @param size The requested slice size.
+ * @param hasNext Whether a following slice exists.
+ */
+public record TeamMemberSlice(List<TeamMemberView> items, int page, int size, boolean hasNext) {
+
+    /**
+     * @param slice The slice read from the repository.
+     * @return The slice of team members.
+     */
+    public static TeamMemberSlice of(Slice<TeamMemberView> slice) {
+        return new TeamMemberSlice(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,27 @@
+package rei.java.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import rei.java.springboot.model.TeamMember;
+
+/**
+ * Read-only projection of a team member, returned by the read endpoints instead of the entity.
+ * Views are built directly from the selected columns, so reading them adds nothing to the
+ * persistence context and they can be shared and cached safely.
+ * @param memberId The unique memberId.
+ * @param firstName The first name.
+ * @param lastName The last name.
+ * @param email The email address.
+ * @param version The version, exposed as the ETag rather than in the body.
+ */
+public record TeamMemberView(String memberId, String firstName, String lastName, String email,
+                             @JsonIgnore Long version) {
+
+    /**
+     * @param teamMember The team member to project.
+     * @return The view of the team member's current details.
+     */
+    public static TeamMemberView of(TeamMember teamMember) {
+        return new TeamMemberView(teamMember.getMemberId(), teamMember.getFirstName(), teamMember.getLastName(),
+                teamMember.getEmail(), teamMember.getVersion());
+    }
+}
@@ -0,0 +1,59 @@
+package rei.java.springboot.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A keyset-paginated page of the team members of all tenants.
+ * @param items The team members on this page, ordered by tenant and memberId.
+ * @param next The opaque cursor for the following page, or null if this is the last page.
+ */
+public record TenantTeamMemberPage(List<TenantTeamMemberView> items, String next) {
+
+    /**
+     * Builds the page from the rows read for it, which hold one row more than the limit
+     * when a following page exists.
+     * @param rows The team members read, at most limit + 1, ordered by tenant and memberId.
+     * @param limit The maximum number of team members on the page.
+     * @return The page, with a cursor only if a following page exists.
+     */
+    public static TenantTeamMemberPage of(List<TenantTeamMemberView> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new TenantTeamMemberPage(rows, null);
+        }
+        List<TenantTeamMemberView> items = rows.subList(0, limit);
+        TenantTeamMemberView last = items.get(limit - 1);
+        return new TenantTeamMemberPage(items, encodeCursor(last.tenantId(), last.memberId()));
+    }
+
+    /**
+     * @param tenantId The tenant of the last team member on a page.
+     * @param memberId The memberId of the last team member on a page.
+     * @return The opaque cursor pointing after that team member.
+     */
+    public static String encodeCursor(String tenantId, String memberId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((tenantId + '/' + memberId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor A cursor returned with a previous page.
+     * @return The tenant and the memberId after which the following page starts.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static String[] decodeCursor(String cursor) {
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+        // tenant identifiers cannot hold a slash, memberIds can
+        int separator = key.indexOf('/');
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+        return new String[]{key.substring(0, separator), key.substring(separator + 1)};
+    }
+}
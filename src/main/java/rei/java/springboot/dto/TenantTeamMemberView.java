@@ -0,0 +1,23 @@
+package rei.java.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Read-only projection of a team member together with its tenant, for the views across tenants.
+ * @param tenantId The tenant the team member belongs to.
+ * @param memberId The memberId, unique within the tenant.
+ * @param firstName The first name.
+ * @param lastName The last name.
+ * @param email The email address.
+ * @param version The version, not exposed in the body.
+ */
+public record TenantTeamMemberView(String tenantId, String memberId, String firstName, String lastName, String email,
+                                   @JsonIgnore Long version) {
+
+    /**
+     * @return The view of the team member without its tenant.
+     */
+    public TeamMemberView toView() {
+        return new TeamMemberView(memberId, firstName, lastName, email, version);
+    }
+}
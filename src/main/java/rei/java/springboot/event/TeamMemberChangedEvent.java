@@ -0,0 +1,37 @@
+package rei.java.springboot.event;
+
+import rei.java.springboot.model.TeamMember;
+
+/**
+ * Published by the team member service for every created, updated or deleted team member.
+ * Events are published within the transaction of the write, so plain listeners, such as the change
+ * log, take part in it; listeners that must only see committed changes use {@code @TransactionalEventListener}.
+ * A bulk delete publishes a deletion for every memberId that existed.
+ * @param type The kind of change.
+ * @param memberId The memberId of the changed team member.
+ * @param teamMember The team member as written, or null if it was deleted or its new state is not
+ *                   fully known, such as the version after an unconditional update.
+ */
+public record TeamMemberChangedEvent(Type type, String memberId, TeamMember teamMember) {
+
+    /**
+     * The kind of change made to a team member.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TeamMemberChangedEvent created(TeamMember teamMember) {
+        return new TeamMemberChangedEvent(Type.CREATED, teamMember.getMemberId(), teamMember);
+    }
+
+    public static TeamMemberChangedEvent updated(String memberId, TeamMember teamMember) {
+        return new TeamMemberChangedEvent(Type.UPDATED, memberId, teamMember);
+    }
+
+    public static TeamMemberChangedEvent deleted(String memberId) {
+        return new TeamMemberChangedEvent(Type.DELETED, memberId, null);
+    }
+}
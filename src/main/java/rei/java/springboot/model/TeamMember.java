@@ -1,10 +1,14 @@
 package rei.java.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 /**
  * Entity class representing a team member in the database.
+ * Concurrent updates are detected through the version column, which the API exposes as the ETag.
+ * Every team member belongs to a tenant; memberIds and emails are only unique within a tenant.
  */
 @Getter
 @Setter
@@ -12,9 +16,24 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "team_member")
+@Table(name = "team_member",
+        uniqueConstraints = @UniqueConstraint(name = TeamMember.EMAIL_CONSTRAINT, columnNames = {"tenant_id", "email"}),
+        indexes = @Index(name = "ix_team_member_name", columnList = "tenant_id, last_name, first_name"))
 public class TeamMember {
 
+    /**
+     * Name of the unique index on tenant and email, see db/migration/V6__add_tenant_id.sql.
+     */
+    public static final String EMAIL_CONSTRAINT = "ux_team_member_email";
+
+    /**
+     * Set by Hibernate from the current tenant on insert; queries only see the rows of the current tenant.
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private String tenantId;
+
     @Id
     @Column(name = "member_id")
     private String memberId;
@@ -27,6 +46,10 @@ public class TeamMember {
 
     @Column(nullable = false)
     private String email;
+
+    @Version
+    @JsonIgnore
+    private Long version;
 }
 
 
@@ -0,0 +1,60 @@
+package rei.java.springboot.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.type.SqlTypes;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * Entity class representing one entry of the append-only team member change log.
+ * Entries are never updated, so Hibernate keeps no dirty-checking snapshots of them.
+ * A deletion is a tombstone that only carries the memberId.
+ * Entries belong to the tenant of the team member, and each tenant only reads its own.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Immutable
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Table(name = "team_member_change")
+public class TeamMemberChange {
+
+    @Id
+    private Long seq;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private TeamMemberChangedEvent.Type type;
+
+    @Column(name = "member_id", nullable = false)
+    private String memberId;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    private String email;
+
+    private Long version;
+
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,52 @@
+package rei.java.springboot.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Entity class representing the outcome of a team member accepted for asynchronous creation.
+ * Rows are written once, when the team member was inserted or rejected; team members still
+ * waiting in the ingest queue are reported with status QUEUED and are not stored.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Immutable
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Table(name = "team_member_ingest")
+public class TeamMemberIngest {
+
+    /**
+     * Progress of an asynchronous creation.
+     */
+    public enum Status {
+        QUEUED, CREATED, FAILED
+    }
+
+    @Id
+    @Column(name = "tracking_id", length = 36)
+    private String trackingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "member_id")
+    private String memberId;
+
+    @Column(length = 512)
+    private String message;
+
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
@@ -0,0 +1,92 @@
+package rei.java.springboot.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Serves the reads of a client from the primary for a short window after the client wrote, so that it
+ * reads its own writes although the replicas lag behind the primary. Write requests set a cookie holding
+ * the end of the window; requests carrying a cookie whose window has not ended read from the primary.
+ * Requests are writes by their method, except for the paths of requests known to only read, such as
+ * lookups posting their keys in the body.
+ * <p>
+ * The window is kept by the client rather than the server, so it holds whichever instance serves the
+ * next request, and clients that do not keep cookies read from the replicas.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String PRIMARY_UNTIL_COOKIE = "TM-Primary-Until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    private final Set<String> readOnlyPaths;
+
+    /**
+     * Constructs the ReadYourWritesFilter.
+     * @param window How long the reads of a client are served by the primary after it wrote.
+     * @param readOnlyPaths The paths of requests that only read whatever their method, such as POST lookups.
+     */
+    public ReadYourWritesFilter(Duration window, Set<String> readOnlyPaths) {
+        this.window = window;
+        this.readOnlyPaths = Set.copyOf(readOnlyPaths);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod())
+                && !readOnlyPaths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+        if (write) {
+            // set before the response is committed by the handler
+            Cookie cookie = new Cookie(PRIMARY_UNTIL_COOKIE, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (!write && primaryUntil(request) <= now) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Boolean previous = ReplicaRouting.set(Boolean.TRUE);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.restore(previous);
+        }
+    }
+
+    /**
+     * @return The end of the window of the client in epoch milliseconds, or 0 without a valid cookie.
+     */
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (PRIMARY_UNTIL_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
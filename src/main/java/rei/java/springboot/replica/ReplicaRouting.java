@@ -0,0 +1,73 @@
+package rei.java.springboot.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Tells whether the reads of the current thread must be served by the primary although they run in
+ * a read-only transaction, which is otherwise routed to a read replica, see {@link ReplicaRoutingDataSource}.
+ * Requests of a client that wrote recently set it, see {@link ReadYourWritesFilter}; reads that must
+ * not see a lagging replica, such as the change log, set it explicitly with {@link #callOnPrimary}.
+ * <p>
+ * The routing is decided when the transaction acquires its connection, on its first statement.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * @return Whether the reads of the current thread must be served by the primary.
+     */
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    /**
+     * Runs an action whose reads are served by the primary, then restores the routing of the current thread.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        Boolean previous = set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs an action whose reads are served by the primary, then restores the routing of the current thread.
+     * @param action The action to run.
+     */
+    public static void runOnPrimary(Runnable action) {
+        callOnPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Sets the routing of the current thread.
+     * @param primary Whether the reads must be served by the primary.
+     * @return The routing set before, to be passed to {@link #restore}.
+     */
+    static Boolean set(Boolean primary) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(primary);
+        return previous;
+    }
+
+    /**
+     * @param previous The routing returned by {@link #set}, or null to unset the routing.
+     */
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY.remove();
+        } else {
+            PRIMARY.set(previous);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package rei.java.springboot.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source serving read-only transactions from read replicas and all other work from the primary.
+ * Connections are acquired on the first statement of a transaction, once it is known to be read-only,
+ * and a read-only connection comes from the replica picked by the {@link Selection}.
+ * <p>
+ * Reads required to see the latest writes, see {@link ReplicaRouting}, are served by the primary.
+ * A replica that fails to connect is skipped for the next one, and the primary serves the read
+ * when no replica connects. Each failure is logged and counted by the team.replicas.failovers
+ * counter of the replica.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * How the replica serving a read-only transaction is picked.
+     */
+    public enum Selection {
+
+        /**
+         * Each replica in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the fewest connections in use or awaited, each in turn on ties.
+         */
+        LEAST_CONNECTIONS
+    }
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    private final Selection selection;
+
+    private final List<String> names;
+
+    private final List<Counter> failovers;
+
+    private final AtomicInteger turn = new AtomicInteger();
+
+    /**
+     * Constructs the ReplicaRoutingDataSource.
+     * @param primary The data source of the primary.
+     * @param replicas The data sources of the read replicas.
+     * @param selection How the replica serving a read-only transaction is picked.
+     * @param meterRegistry The registry of the failover counters, tagged with the pool name of each replica.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection,
+                                    MeterRegistry meterRegistry) {
+        super(primary);
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one read replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.names = new ArrayList<>(replicas.size());
+        this.failovers = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String name = replicas.get(i) instanceof HikariDataSource hikari && hikari.getPoolName() != null
+                    ? hikari.getPoolName() : "replica-" + i;
+            names.add(name);
+            failovers.add(Counter.builder("team.replicas.failovers")
+                    .description("Read-only connections a replica failed to open, served by the next replica or the primary")
+                    .tag("replica", name)
+                    .register(meterRegistry));
+        }
+        setReadOnlyDataSource(new ReplicaDataSource());
+    }
+
+    /**
+     * @return The data sources of the read replicas.
+     */
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return The index of the replica to try first for the next read-only transaction.
+     */
+    int selectReplica() {
+        int first = Math.floorMod(turn.getAndIncrement(), replicas.size());
+        if (selection == Selection.ROUND_ROBIN) {
+            return first;
+        }
+        int selected = first;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (first + i) % replicas.size();
+            int connections = connectionsInUse(replicas.get(index));
+            if (connections < fewest) {
+                selected = index;
+                fewest = connections;
+            }
+        }
+        return selected;
+    }
+
+    private static int connectionsInUse(DataSource replica) {
+        if (replica instanceof HikariDataSource hikari) {
+            // null until the pool has opened its first connection
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+        return 0;
+    }
+
+    /**
+     * Closes the connection pools of the primary and the replicas.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * The data source of read-only connections.
+     */
+    private class ReplicaDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (ReplicaRouting.isPrimaryRequired()) {
+                return primary.getConnection();
+            }
+            int first = selectReplica();
+            for (int i = 0; i < replicas.size(); i++) {
+                int index = (first + i) % replicas.size();
+                try {
+                    return replicas.get(index).getConnection();
+                } catch (SQLException e) {
+                    // the next replica, or else the primary, serves the read
+                    failovers.get(index).increment();
+                    log.warn("Read replica {} failed to connect, reading from the {}: {}", names.get(index),
+                            i + 1 < replicas.size() ? "next replica" : "primary", e.getMessage());
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("The replicas are connected with the credentials of their pools");
+        }
+    }
+}
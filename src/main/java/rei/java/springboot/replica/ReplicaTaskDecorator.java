@@ -0,0 +1,15 @@
+package rei.java.springboot.replica;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs the tasks of the application task executor with the replica routing of the thread that
+ * submitted them, so the streamed responses of a client that wrote recently are read from the primary.
+ */
+public class ReplicaTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return ReplicaRouting.isPrimaryRequired() ? () -> ReplicaRouting.runOnPrimary(runnable) : runnable;
+    }
+}
@@ -0,0 +1,226 @@
+package rei.java.springboot.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking repository for the team_member table, used by the reactive variant of the API.
+ * Statements are written against the table directly rather than derived from the JPA entity,
+ * so the JPA repository and this one can share the same schema and Flyway migrations.
+ * <p>
+ * The reactive variant is not tenant-aware: every statement is restricted to the default tenant,
+ * so it neither reads nor changes the team members of other tenants sharing the table.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTeamMemberRepository {
+
+    private static final String SELECT = "SELECT member_id, first_name, last_name, email, version FROM team_member";
+
+    private static final String TENANT_ID = TenantContext.DEFAULT_TENANT;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructs the ReactiveTeamMemberRepository with the R2DBC client.
+     * @param databaseClient The client executing the statements.
+     */
+    public ReactiveTeamMemberRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserts a new team member with its initial version.
+     * @param teamMember The team member to insert.
+     * @return The inserted team member, with version 0.
+     */
+    public Mono<TeamMember> insert(TeamMember teamMember) {
+        return databaseClient.sql("INSERT INTO team_member (tenant_id, member_id, first_name, last_name, email, version) "
+                        + "VALUES (:tenantId, :memberId, :firstName, :lastName, :email, 0)")
+                .bind("tenantId", TENANT_ID)
+                .bind("memberId", teamMember.getMemberId())
+                .bind("firstName", teamMember.getFirstName())
+                .bind("lastName", teamMember.getLastName())
+                .bind("email", teamMember.getEmail())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(TeamMember.builder()
+                        .memberId(teamMember.getMemberId())
+                        .firstName(teamMember.getFirstName())
+                        .lastName(teamMember.getLastName())
+                        .email(teamMember.getEmail())
+                        .version(0L)
+                        .build());
+    }
+
+    /**
+     * @param memberId The memberId of the team member.
+     * @return The team member, or empty if none has the given memberId.
+     */
+    public Mono<TeamMember> findById(String memberId) {
+        return databaseClient.sql(SELECT + " WHERE tenant_id = :tenantId AND member_id = :memberId")
+                .bind("tenantId", TENANT_ID)
+                .bind("memberId", memberId)
+                .map(ReactiveTeamMemberRepository::toTeamMember)
+                .one();
+    }
+
+    /**
+     * @param memberId The memberId of the team member.
+     * @return Whether a team member has the given memberId.
+     */
+    public Mono<Boolean> existsById(String memberId) {
+        return databaseClient.sql("SELECT 1 FROM team_member WHERE tenant_id = :tenantId AND member_id = :memberId")
+                .bind("tenantId", TENANT_ID)
+                .bind("memberId", memberId)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Streams all team members ordered by memberId. Rows are read as they are requested
+     * downstream, so a slow consumer holds back the reads instead of buffering the table.
+     * @return All team members.
+     */
+    public Flux<TeamMember> findAll() {
+        return databaseClient.sql(SELECT + " WHERE tenant_id = :tenantId ORDER BY member_id")
+                .bind("tenantId", TENANT_ID)
+                .map(ReactiveTeamMemberRepository::toTeamMember)
+                .all();
+    }
+
+    /**
+     * Reads one keyset page of team member views ordered by memberId.
+     * @param after The memberId after which the page starts, or null for the first page.
+     * @param size The maximum number of team members to read.
+     * @return The views of the team members of the page.
+     */
+    public Flux<TeamMemberView> findPage(String after, int size) {
+        DatabaseClient.GenericExecuteSpec spec = after == null
+                ? databaseClient.sql(SELECT + " WHERE tenant_id = :tenantId ORDER BY member_id LIMIT :size")
+                : databaseClient.sql(SELECT + " WHERE tenant_id = :tenantId AND member_id > :after ORDER BY member_id LIMIT :size")
+                        .bind("after", after);
+        return spec.bind("tenantId", TENANT_ID)
+                .bind("size", size)
+                .map(row -> TeamMemberView.of(toTeamMember(row)))
+                .all();
+    }
+
+    /**
+     * Replaces the details of a team member and increments its version in one statement.
+     * @param memberId The memberId of the team member to update.
+     * @param firstName The new first name.
+     * @param lastName The new last name.
+     * @param email The new email.
+     * @param version The version the team member must have, or null to update any version.
+     * @return The number of updated rows, 0 or 1.
+     */
+    public Mono<Long> updateByMemberId(String memberId, String firstName, String lastName, String email, Long version) {
+        return bindVersion(databaseClient.sql("UPDATE team_member SET first_name = :firstName, last_name = :lastName, "
+                        + "email = :email, version = version + 1 WHERE tenant_id = :tenantId AND member_id = :memberId"
+                        + versionClause(version))
+                .bind("tenantId", TENANT_ID)
+                .bind("memberId", memberId)
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .bind("email", email), version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Updates only the non-null details of a team member and increments its version in one statement.
+     * @param memberId The memberId of the team member to update.
+     * @param changes The details to change; null fields are left unchanged.
+     * @param version The version the team member must have, or null to update any version.
+     * @return The number of updated rows, 0 or 1.
+     */
+    public Mono<Long> patchByMemberId(String memberId, TeamMember changes, Long version) {
+        List<String> assignments = new ArrayList<>();
+        if (changes.getFirstName() != null) {
+            assignments.add("first_name = :firstName");
+        }
+        if (changes.getLastName() != null) {
+            assignments.add("last_name = :lastName");
+        }
+        if (changes.getEmail() != null) {
+            assignments.add("email = :email");
+        }
+        assignments.add("version = version + 1");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("UPDATE team_member SET "
+                        + String.join(", ", assignments) + " WHERE tenant_id = :tenantId AND member_id = :memberId"
+                        + versionClause(version))
+                .bind("tenantId", TENANT_ID)
+                .bind("memberId", memberId);
+        if (changes.getFirstName() != null) {
+            spec = spec.bind("firstName", changes.getFirstName());
+        }
+        if (changes.getLastName() != null) {
+            spec = spec.bind("lastName", changes.getLastName());
+        }
+        if (changes.getEmail() != null) {
+            spec = spec.bind("email", changes.getEmail());
+        }
+        return bindVersion(spec, version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Deletes a team member in one statement.
+     * @param memberId The memberId of the team member to delete.
+     * @param version The version the team member must have, or null to delete any version.
+     * @return The number of deleted rows, 0 or 1.
+     */
+    public Mono<Long> deleteByMemberId(String memberId, Long version) {
+        return bindVersion(databaseClient.sql("DELETE FROM team_member WHERE tenant_id = :tenantId AND member_id = :memberId"
+                        + versionClause(version))
+                .bind("tenantId", TENANT_ID)
+                .bind("memberId", memberId), version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Deletes many team members in one statement.
+     * @param memberIds The memberIds of the team members to delete.
+     * @return The number of deleted rows.
+     */
+    public Mono<Long> deleteByMemberIdIn(Collection<String> memberIds) {
+        return databaseClient.sql("DELETE FROM team_member WHERE tenant_id = :tenantId AND member_id IN (:memberIds)")
+                .bind("tenantId", TENANT_ID)
+                .bind("memberIds", memberIds)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String versionClause(Long version) {
+        return version == null ? "" : " AND version = :version";
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindVersion(DatabaseClient.GenericExecuteSpec spec, Long version) {
+        return version == null ? spec : spec.bind("version", version);
+    }
+
+    private static TeamMember toTeamMember(Readable row) {
+        return TeamMember.builder()
+                .memberId(row.get("member_id", String.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
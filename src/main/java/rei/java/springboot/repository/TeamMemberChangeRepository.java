@@ -0,0 +1,59 @@
+package rei.java.springboot.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import rei.java.springboot.model.TeamMemberChange;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the team member change log, read in seq order by sync clients, and for
+ * the last sequence number of each tenant, from which the next change takes its number.
+ */
+public interface TeamMemberChangeRepository extends JpaRepository<TeamMemberChange, Long> {
+
+    /**
+     * Finds the changes in a range of sequence numbers, using the primary key index.
+     * @param since The sequence number after which changes are returned.
+     * @param upTo The highest sequence number to return.
+     * @param pageable The maximum number of changes to return.
+     * @return The changes ordered by sequence number.
+     */
+    @Query("SELECT c FROM TeamMemberChange c WHERE c.seq > ?1 AND c.seq <= ?2 ORDER BY c.seq")
+    List<TeamMemberChange> findChanges(long since, long upTo, Pageable pageable);
+
+    /**
+     * @return The highest sequence number in the change log, or null if it is empty.
+     */
+    @Query("SELECT MAX(c.seq) FROM TeamMemberChange c")
+    Long findMaxSeq();
+
+    /**
+     * Reads the last sequence number of a tenant, without locking it.
+     * @param tenantId The tenant of the change log.
+     * @return The last sequence number, or empty if the tenant did not log a change yet.
+     */
+    @Query(value = "SELECT seq FROM team_member_change_seq WHERE tenant_id = ?1", nativeQuery = true)
+    Optional<Long> findLastSeq(String tenantId);
+
+    /**
+     * Creates the sequence number of a tenant.
+     * @param tenantId The tenant of the change log.
+     * @param seq The last sequence number the tenant logged.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO team_member_change_seq (tenant_id, seq) VALUES (?1, ?2)", nativeQuery = true)
+    void insertLastSeq(String tenantId, long seq);
+
+    /**
+     * Increments the last sequence number of a tenant, locking it until the transaction completes.
+     * @param tenantId The tenant of the change log.
+     * @return 1 if the sequence number was incremented, 0 if the tenant has none.
+     */
+    @Modifying
+    @Query(value = "UPDATE team_member_change_seq SET seq = seq + 1 WHERE tenant_id = ?1", nativeQuery = true)
+    int incrementLastSeq(String tenantId);
+}
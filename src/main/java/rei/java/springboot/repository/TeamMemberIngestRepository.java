@@ -0,0 +1,10 @@
+package rei.java.springboot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import rei.java.springboot.model.TeamMemberIngest;
+
+/**
+ * Repository interface for the outcomes of asynchronously created team members, keyed by tracking id.
+ */
+public interface TeamMemberIngestRepository extends JpaRepository<TeamMemberIngest, String> {
+}
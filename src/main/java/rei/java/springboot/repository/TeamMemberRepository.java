@@ -1,19 +1,49 @@
 package rei.java.springboot.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberView;
 import rei.java.springboot.model.TeamMember;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for TeamMember entities, handling data operations.
  * Extends JpaRepository for CRUD operations and includes custom JPQL and SQL queries.
+ * Every query only sees the TeamMembers of the current tenant, except native queries, which restrict
+ * themselves to it, and loads by primary key, which Hibernate does not restrict: findById therefore
+ * only serves TeamMembers of the session's tenant from the persistence context and queries for the
+ * others, and EntityManager.find must not be used for TeamMembers. Updates and removals of loaded
+ * entities are not restricted either: they fail rather than write when another tenant of the shard has
+ * a TeamMember with the same memberId and version, so writes go through the bulk statements below.
+ * Read-only callers use the TeamMemberView queries, which select the columns into records
+ * without creating managed entities or dirty-checking snapshots.
+ * Names are not unique: the single-result name lookups fail with IncorrectResultSizeDataAccessException
+ * once two TeamMembers share a name, so prefer their Slice variants taking a Pageable.
  */
-public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
-    
+public interface TeamMemberRepository extends JpaRepository<TeamMember, String>, TeamMemberRepositoryCustom {
+
+    /**
+     * Finds a TeamMember of the current tenant by their memberId, implemented by
+     * {@link TeamMemberRepositoryCustomImpl#findById(String)}.
+     * @param memberId The memberId of the TeamMember.
+     * @return An Optional containing the found TeamMember or empty if not found.
+     */
+    @Override
+    Optional<TeamMember> findById(String memberId);
+
     /**
      * Finds a TeamMember by their unique memberId.
      * @param memberId The unique memberId of the TeamMember.
@@ -22,6 +52,14 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     @Query("SELECT t FROM TeamMember t WHERE t.memberId = ?1")
     Optional<TeamMember> findByMemberId(String memberId);
 
+    /**
+     * Finds the version of a TeamMember by their memberId, without loading the TeamMember.
+     * @param memberId The memberId of the TeamMember.
+     * @return An Optional containing the version or empty if not found.
+     */
+    @Query("SELECT t.version FROM TeamMember t WHERE t.memberId = ?1")
+    Optional<Long> findVersionById(String memberId);
+
     /**
      * Finds a TeamMember by their email address.
      * @param email The email address of the TeamMember.
@@ -30,6 +68,22 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     @Query("SELECT t FROM TeamMember t WHERE t.email = ?1")
     Optional<TeamMember> findByEmail(String email);
 
+    /**
+     * Finds which of the given email addresses are already taken, in a single IN query.
+     * @param emails The email addresses to check.
+     * @return The email addresses that already belong to a TeamMember.
+     */
+    @Query("SELECT t.email FROM TeamMember t WHERE t.email IN ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Finds which of the given memberIds are already taken, in a single IN query.
+     * @param memberIds The memberIds to check.
+     * @return The memberIds that already belong to a TeamMember.
+     */
+    @Query("SELECT t.memberId FROM TeamMember t WHERE t.memberId IN ?1")
+    List<String> findExistingMemberIds(Collection<String> memberIds);
+
     /**
      * JPQL query to find a TeamMember by memberId.
      * @param memberId The memberId of the TeamMember.
@@ -47,6 +101,18 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     @Query("SELECT t FROM TeamMember t WHERE t.firstName = ?1 AND t.lastName = ?2")
     TeamMember findByJPQL(String firstName, String lastName);
 
+    /**
+     * JPQL query to find one slice of the TeamMembers with the given first and last name.
+     * A Slice only reads one row more than the page size to know whether a next slice exists,
+     * so no COUNT query is issued.
+     * @param firstName The first name of the TeamMembers.
+     * @param lastName The last name of the TeamMembers.
+     * @param pageable The page and sort to read, sorted by entity properties.
+     * @return The slice of matching TeamMembers.
+     */
+    @Query("SELECT t FROM TeamMember t WHERE t.firstName = ?1 AND t.lastName = ?2")
+    Slice<TeamMember> findByJPQL(String firstName, String lastName, Pageable pageable);
+
     /**
      * JPQL query using named parameters to find a TeamMember by first and last name.
      * @param firstName The first name of the TeamMember.
@@ -56,12 +122,24 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     @Query("SELECT t FROM TeamMember t WHERE t.firstName =:firstName AND t.lastName =:lastName")
     TeamMember findByJPQLNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
+    /**
+     * JPQL query using named parameters to find one slice of the TeamMembers with the given first and last name,
+     * without a COUNT query.
+     * @param firstName The first name of the TeamMembers.
+     * @param lastName The last name of the TeamMembers.
+     * @param pageable The page and sort to read, sorted by entity properties.
+     * @return The slice of matching TeamMembers.
+     */
+    @Query("SELECT t FROM TeamMember t WHERE t.firstName =:firstName AND t.lastName =:lastName")
+    Slice<TeamMember> findByJPQLNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName,
+                                                Pageable pageable);
+
     /**
      * Native SQL query to find a TeamMember by memberId.
      * @param memberId The unique memberId of the TeamMember.
      * @return The found TeamMember.
      */
-    @Query(value = "SELECT * FROM team_member t WHERE t.member_id = ?1", nativeQuery = true)
+    @Query(value = "SELECT * FROM team_member t WHERE t.member_id = ?1 AND t.tenant_id = ?#{T(rei.java.springboot.tenant.TenantContext).getTenantId()}", nativeQuery = true)
     TeamMember findByNativeMemberId(String memberId);
 
     /**
@@ -70,26 +148,196 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
      * @param lastName The last name.
      * @return The found TeamMember.
      */
-    @Query(value = "SELECT * FROM team_member t WHERE t.first_name = ?1 AND t.last_name = ?2", nativeQuery = true)
+    @Query(value = "SELECT * FROM team_member t WHERE t.first_name = ?1 AND t.last_name = ?2 AND t.tenant_id = ?#{T(rei.java.springboot.tenant.TenantContext).getTenantId()}", nativeQuery = true)
     TeamMember findByNative(String firstName, String lastName);
 
+    /**
+     * Native SQL query to find one slice of the TeamMembers with the given first and last name,
+     * without a COUNT query.
+     * @param firstName The first name.
+     * @param lastName The last name.
+     * @param pageable The page and sort to read, sorted by column names such as first_name.
+     * @return The slice of matching TeamMembers.
+     */
+    @Query(value = "SELECT * FROM team_member t WHERE t.first_name = ?1 AND t.last_name = ?2 AND t.tenant_id = ?#{T(rei.java.springboot.tenant.TenantContext).getTenantId()}", nativeQuery = true)
+    Slice<TeamMember> findByNative(String firstName, String lastName, Pageable pageable);
+
     /**
      * Native SQL query using named parameters to find a TeamMember by first and last name.
      * @param firstName The first name.
      * @param lastName The last name.
      * @return The found TeamMember.
      */
-    @Query(value = "SELECT * FROM team_member t WHERE t.first_name =:firstName AND t.last_name =:lastName", nativeQuery = true)
+    @Query(value = "SELECT * FROM team_member t WHERE t.first_name =:firstName AND t.last_name =:lastName AND t.tenant_id = :#{T(rei.java.springboot.tenant.TenantContext).getTenantId()}", nativeQuery = true)
     TeamMember findByNativeNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
-   
     /**
-     * Deletes a TeamMember by their unique memberId.
+     * Native SQL query using named parameters to find one slice of the TeamMembers with the given
+     * first and last name, without a COUNT query.
+     * @param firstName The first name.
+     * @param lastName The last name.
+     * @param pageable The page and sort to read, sorted by column names such as first_name.
+     * @return The slice of matching TeamMembers.
+     */
+    @Query(value = "SELECT * FROM team_member t WHERE t.first_name =:firstName AND t.last_name =:lastName AND t.tenant_id = :#{T(rei.java.springboot.tenant.TenantContext).getTenantId()}", nativeQuery = true)
+    Slice<TeamMember> findByNativeNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName,
+                                                  Pageable pageable);
+
+    /**
+     * Finds the view of a TeamMember by their unique memberId.
+     * @param memberId The unique memberId of the TeamMember.
+     * @return An Optional containing the view of the found TeamMember or empty if not found.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t WHERE t.memberId = ?1")
+    Optional<TeamMemberView> findViewById(String memberId);
+
+    /**
+     * Finds the views of the TeamMembers with the given memberIds with one primary key IN lookup.
+     * @param memberIds The memberIds of the TeamMembers, a bounded number of them.
+     * @return The views of the found TeamMembers, in no particular order.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t WHERE t.memberId IN ?1")
+    List<TeamMemberView> findViewsByIdIn(Collection<String> memberIds);
+
+    /**
+     * Reads the views of all TeamMembers at once; prefer streamAll or the keyset pages for large tables.
+     * @return The views of all TeamMembers in memberId order.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t ORDER BY t.memberId")
+    List<TeamMemberView> findAllViews();
+
+    /**
+     * Finds one slice of the views of the TeamMembers with the given last name, without a COUNT query.
+     * The last name leads the (last_name, first_name) index, so the lookup is an index range scan.
+     * @param lastName The last name of the TeamMembers.
+     * @param pageable The page and sort to read, sorted by entity properties.
+     * @return The slice of matching TeamMembers.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t WHERE t.lastName = ?1")
+    Slice<TeamMemberView> findByLastName(String lastName, Pageable pageable);
+
+    /**
+     * Finds one slice of the views of the TeamMembers with the given last and first name, without a COUNT query.
+     * @param lastName The last name of the TeamMembers.
+     * @param firstName The first name of the TeamMembers.
+     * @param pageable The page and sort to read, sorted by entity properties.
+     * @return The slice of matching TeamMembers.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t WHERE t.lastName = ?1 AND t.firstName = ?2")
+    Slice<TeamMemberView> findByLastNameAndFirstName(String lastName, String firstName, Pageable pageable);
+
+    /**
+     * Keyset query for the first page of TeamMembers ordered by memberId.
+     * Only the page size of the pageable is used, so no count query is issued.
+     * @param pageable The page request carrying the maximum number of rows to return.
+     * @return The first TeamMembers in memberId order.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t ORDER BY t.memberId")
+    List<TeamMemberView> findFirstPage(Pageable pageable);
+
+    /**
+     * Keyset query for the TeamMembers that follow the given memberId.
+     * @param memberId The last memberId of the previous page.
+     * @param pageable The page request carrying the maximum number of rows to return.
+     * @return The next TeamMembers in memberId order.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t WHERE t.memberId > ?1 ORDER BY t.memberId")
+    List<TeamMemberView> findPageAfter(String memberId, Pageable pageable);
+
+    /**
+     * Streams the views of all TeamMembers in memberId order using a JDBC cursor.
+     * Must be consumed inside a transaction and closed after use.
+     * @return A stream of the views of all TeamMembers.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TeamMemberView(t.memberId, t.firstName, t.lastName, t.email, t.version) FROM TeamMember t ORDER BY t.memberId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TeamMemberView> streamAll();
+
+    /**
+     * Keyset query for the first page of the TeamMembers of all tenants, ordered by tenant and memberId.
+     * Only sees other tenants when run for {@link rei.java.springboot.tenant.TenantContext#ALL_TENANTS}.
+     * @param pageable The page request carrying the maximum number of rows to return.
+     * @return The first TeamMembers in tenant and memberId order.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TenantTeamMemberView(t.tenantId, t.memberId, t.firstName, t.lastName, t.email, t.version) "
+            + "FROM TeamMember t ORDER BY t.tenantId, t.memberId")
+    List<TenantTeamMemberView> findFirstPageAcrossTenants(Pageable pageable);
+
+    /**
+     * Keyset query for the TeamMembers of all tenants that follow the given tenant and memberId.
+     * @param tenantId The tenant of the last TeamMember of the previous page.
+     * @param memberId The memberId of the last TeamMember of the previous page.
+     * @param pageable The page request carrying the maximum number of rows to return.
+     * @return The next TeamMembers in tenant and memberId order.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TenantTeamMemberView(t.tenantId, t.memberId, t.firstName, t.lastName, t.email, t.version) "
+            + "FROM TeamMember t WHERE (t.tenantId, t.memberId) > (?1, ?2) ORDER BY t.tenantId, t.memberId")
+    List<TenantTeamMemberView> findPageAcrossTenantsAfter(String tenantId, String memberId, Pageable pageable);
+
+    /**
+     * Streams the views of the TeamMembers of all tenants using a JDBC cursor, for rebuilding in-memory state.
+     * Must be consumed inside a transaction run for {@link rei.java.springboot.tenant.TenantContext#ALL_TENANTS}
+     * and closed after use.
+     * @return A stream of the views of all TeamMembers with their tenants.
+     */
+    @Query("SELECT new rei.java.springboot.dto.TenantTeamMemberView(t.tenantId, t.memberId, t.firstName, t.lastName, t.email, t.version) "
+            + "FROM TeamMember t")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TenantTeamMemberView> streamAllTenants();
+
+    /**
+     * Replaces the details of a TeamMember in a single UPDATE statement, without loading it first.
+     * The version is incremented so that concurrent writers holding the previous version fail.
+     * @param memberId The unique memberId of the TeamMember to update.
+     * @param firstName The new first name.
+     * @param lastName The new last name.
+     * @param email The new email address.
+     * @param version The version the TeamMember must still have, or null to update any version.
+     * @return The number of updated rows, 0 if no TeamMember has the given memberId and version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TeamMember t SET t.firstName = :firstName, t.lastName = :lastName, t.email = :email, t.version = t.version + 1 "
+            + "WHERE t.memberId = :memberId AND (:version IS NULL OR t.version = :version)")
+    int updateByMemberId(@Param("memberId") String memberId, @Param("firstName") String firstName,
+                         @Param("lastName") String lastName, @Param("email") String email,
+                         @Param("version") Long version);
+
+    /**
+     * Deletes a TeamMember by their unique memberId in a single DELETE statement, without loading it first.
      * @param memberId The unique memberId of the TeamMember to delete.
+     * @param version The version the TeamMember must still have, or null to delete any version.
+     * @return The number of deleted rows, 0 if no TeamMember has the given memberId and version.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TeamMember t WHERE t.memberId = :memberId AND (:version IS NULL OR t.version = :version)")
+    int deleteByMemberId(@Param("memberId") String memberId, @Param("version") Long version);
+
+    /**
+     * Deletes all TeamMembers of the current tenant in a single DELETE statement, rather than
+     * removing them one by one by primary key.
+     */
+    @Override
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TeamMember t")
+    void deleteAll();
+
+    /**
+     * Deletes all TeamMembers with one of the given memberIds in a single DELETE statement.
+     * @param memberIds The memberIds of the TeamMembers to delete.
+     * @return The number of deleted rows.
      */
-    @Modifying
-    @Query("DELETE FROM TeamMember t WHERE t.memberId = :memberId")
-    void deleteByMemberId(@Param("memberId") String memberId);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TeamMember t WHERE t.memberId IN :memberIds")
+    int deleteByMemberIdIn(@Param("memberIds") Collection<String> memberIds);
 }
 
 
@@ -0,0 +1,28 @@
+package rei.java.springboot.repository;
+
+import rei.java.springboot.model.TeamMember;
+
+import java.util.Optional;
+
+/**
+ * Custom repository fragment for TeamMember operations that cannot be expressed as a static query.
+ */
+public interface TeamMemberRepositoryCustom {
+
+    /**
+     * Finds a TeamMember of the current tenant by their memberId, from the persistence context when it
+     * already holds them, otherwise with a query rather than a load by primary key, which would ignore the tenant.
+     * @param memberId The memberId of the TeamMember.
+     * @return An Optional containing the found TeamMember or empty if not found.
+     */
+    Optional<TeamMember> findById(String memberId);
+
+    /**
+     * Updates only the columns whose new value is set, in a single UPDATE statement.
+     * @param memberId The unique memberId of the TeamMember to update.
+     * @param changes The new values; null fields are left unchanged.
+     * @param version The version the TeamMember must still have, or null to update any version.
+     * @return The number of updated rows, 0 if no TeamMember has the given memberId and version.
+     */
+    int patchByMemberId(String memberId, TeamMember changes, Long version);
+}
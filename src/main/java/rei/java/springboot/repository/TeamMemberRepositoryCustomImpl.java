@@ -0,0 +1,108 @@
+package rei.java.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.model.TeamMember;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Criteria API implementation of the TeamMemberRepositoryCustom fragment.
+ */
+public class TeamMemberRepositoryCustomImpl implements TeamMemberRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public TeamMemberRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Looks the TeamMember up in the persistence context first, as EntityManager.find would, without a
+     * statement. Only a managed TeamMember of the session's tenant is served from it, as the context is
+     * keyed by memberId alone; otherwise the TeamMember is read with a query restricted to the tenant.
+     * @param memberId The memberId of the TeamMember.
+     * @return An Optional containing the found TeamMember or empty if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TeamMember> findById(String memberId) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(TeamMember.class);
+        PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        if (persistenceContext.getEntity(session.generateEntityKey(memberId, persister)) instanceof TeamMember managed
+                && Objects.equals(managed.getTenantId(), session.getTenantIdentifier())) {
+            EntityEntry entry = persistenceContext.getEntry(managed);
+            if (entry != null && (entry.getStatus() == Status.MANAGED || entry.getStatus() == Status.READ_ONLY)) {
+                return Optional.of(managed);
+            }
+        }
+        return entityManager.createQuery("SELECT t FROM TeamMember t WHERE t.memberId = ?1", TeamMember.class)
+                .setParameter(1, memberId)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Builds an UPDATE that sets only the non-null fields of the changes.
+     * The version is incremented with the changes. If no field is set, the row is counted
+     * instead of updated and its version is left alone.
+     * Like the @Modifying queries, pending changes are flushed first and the persistence
+     * context is cleared afterwards so later reads see the new values.
+     * @param memberId The unique memberId of the TeamMember to update.
+     * @param changes The new values; null fields are left unchanged.
+     * @param version The version the TeamMember must still have, or null to update any version.
+     * @return The number of matching rows.
+     */
+    @Override
+    public int patchByMemberId(String memberId, TeamMember changes, Long version) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<TeamMember> update = criteriaBuilder.createCriteriaUpdate(TeamMember.class);
+        Root<TeamMember> root = update.from(TeamMember.class);
+
+        boolean changed = false;
+        if (changes.getFirstName() != null) {
+            update.set(root.<String>get("firstName"), changes.getFirstName());
+            changed = true;
+        }
+        if (changes.getLastName() != null) {
+            update.set(root.<String>get("lastName"), changes.getLastName());
+            changed = true;
+        }
+        if (changes.getEmail() != null) {
+            update.set(root.<String>get("email"), changes.getEmail());
+            changed = true;
+        }
+        if (!changed) {
+            // a query rather than EntityManager.find, which ignores the tenant
+            List<Long> current = entityManager
+                    .createQuery("SELECT t.version FROM TeamMember t WHERE t.memberId = ?1", Long.class)
+                    .setParameter(1, memberId)
+                    .getResultList();
+            return current.isEmpty() || (version != null && !version.equals(current.get(0))) ? 0 : 1;
+        }
+        Path<Long> versionPath = root.get("version");
+        update.set(versionPath, criteriaBuilder.sum(versionPath, 1L));
+        Predicate matches = criteriaBuilder.equal(root.get("memberId"), memberId);
+        if (version != null) {
+            matches = criteriaBuilder.and(matches, criteriaBuilder.equal(versionPath, version));
+        }
+        update.where(matches);
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
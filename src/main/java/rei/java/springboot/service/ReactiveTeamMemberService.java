@@ -0,0 +1,76 @@
+package rei.java.springboot.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.model.TeamMember;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking service interface for managing team members, the reactive counterpart of {@link TeamMemberService}.
+ * Errors are signalled through the returned publishers with the same exception types.
+ */
+public interface ReactiveTeamMemberService {
+
+    /**
+     * Saves a new team member to the database.
+     * @param teamMember The team member to save.
+     * @return The saved team member.
+     */
+    Mono<TeamMember> saveTeamMember(TeamMember teamMember);
+
+    /**
+     * Streams all team members ordered by memberId, reading rows as they are requested.
+     * @return All team members.
+     */
+    Flux<TeamMember> getAllTeamMembers();
+
+    /**
+     * Retrieves one keyset-paginated page of team members ordered by memberId.
+     * @param next The opaque cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of team members to return.
+     * @return The page of team members and the cursor for the following page.
+     */
+    Mono<TeamMemberPage> getTeamMemberPage(String next, int limit);
+
+    /**
+     * Retrieves a team member by their unique memberId.
+     * @param memberId The unique identifier of the team member.
+     * @return The team member, or empty if not found.
+     */
+    Mono<TeamMember> getTeamMemberByMemberId(String memberId);
+
+    /**
+     * Replaces the details of an existing team member.
+     * @param memberId The unique identifier of the team member to update.
+     * @param teamMember The team member with updated details.
+     * @param expectedVersion The version the client last read, or null to overwrite any version.
+     * @return The updated team member, or empty if not found.
+     */
+    Mono<TeamMember> updateTeamMember(String memberId, TeamMember teamMember, Long expectedVersion);
+
+    /**
+     * Updates only the given details of an existing team member.
+     * @param memberId The unique identifier of the team member to update.
+     * @param changes The details to change; null fields are left unchanged.
+     * @param expectedVersion The version the client last read, or null to update any version.
+     * @return The updated team member, or empty if not found.
+     */
+    Mono<TeamMember> patchTeamMember(String memberId, TeamMember changes, Long expectedVersion);
+
+    /**
+     * Deletes a team member from the database using their memberId.
+     * @param memberId The memberId of the team member to delete.
+     * @param expectedVersion The version the client last read, or null to delete any version.
+     * @return true if a team member was deleted, false if none has the given memberId.
+     */
+    Mono<Boolean> deleteTeamMember(String memberId, Long expectedVersion);
+
+    /**
+     * Deletes many team members from the database in one statement.
+     * @param memberIds The memberIds of the team members to delete; unknown ones are ignored.
+     * @return The number of deleted team members.
+     */
+    Mono<Long> deleteTeamMembers(Collection<String> memberIds);
+}
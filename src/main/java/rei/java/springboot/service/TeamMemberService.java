@@ -1,9 +1,21 @@
 package rei.java.springboot.service;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.dto.TeamMemberLookup;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberPage;
 import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing team members.
@@ -17,29 +29,142 @@ public interface TeamMemberService {
      */
     TeamMember saveTeamMember(TeamMember teamMember);
 
+    /**
+     * Accepts a new team member for asynchronous creation, if the ingest queue is enabled.
+     * The team member is validated and inserted later; its outcome is read by tracking id.
+     * @param teamMember The team member to create.
+     * @return The QUEUED outcome holding the tracking id, or empty if the ingest queue is not enabled.
+     * @throws java.util.concurrent.RejectedExecutionException if the ingest queue is full.
+     */
+    Optional<TeamMemberIngest> enqueueTeamMember(TeamMember teamMember);
+
+    /**
+     * Retrieves the outcome of a team member accepted for asynchronous creation.
+     * @param trackingId The tracking id returned when the team member was accepted.
+     * @return An Optional containing the outcome, QUEUED while the team member is not yet written,
+     * or empty if the tracking id is unknown.
+     */
+    Optional<TeamMemberIngest> getTeamMemberIngest(String trackingId);
+
+    /**
+     * Saves many new team members using batched inserts.
+     * The team members are consumed from the iterator chunk by chunk, so the batch does not
+     * have to be held in memory at once.
+     * @param teamMembers The team members to save.
+     * @return The result for each team member, in submission order.
+     */
+    List<TeamMemberBatchResult> saveTeamMembers(Iterator<TeamMember> teamMembers);
+
     /**
      * Retrieves all team members from the database.
-     * @return A list of all team members.
+     * @return A list of the views of all team members.
+     */
+    List<TeamMemberView> getAllTeamMembers();
+
+    /**
+     * Retrieves one keyset-paginated page of team members ordered by memberId.
+     * @param next The opaque cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of team members to return.
+     * @return The page of team members and the cursor for the following page.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    TeamMemberPage getTeamMemberPage(String next, int limit);
+
+    /**
+     * Retrieves one keyset-paginated page of the team members of all tenants, ordered by tenant and memberId,
+     * for admin views.
+     * @param next The opaque cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of team members to return.
+     * @return The page of team members with their tenants and the cursor for the following page.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    TenantTeamMemberPage getTeamMemberPageAcrossTenants(String next, int limit);
+
+    /**
+     * Retrieves one slice of the team members with the given name, without counting all matches.
+     * @param firstName The first name, or null to match any first name.
+     * @param lastName The last name.
+     * @param pageable The page, page size and sort to read; sortable by firstName, lastName, email and memberId.
+     * @return The slice of matching team members.
+     * @throws IllegalArgumentException if the last name is missing, or the page size or sort is invalid.
      */
-    List<TeamMember> getAllTeamMembers();
+    Slice<TeamMemberView> getTeamMembersByName(String firstName, String lastName, Pageable pageable);
+
+    /**
+     * Streams all team members ordered by memberId to the given action, one at a time,
+     * without loading the whole table into memory.
+     * @param action The action to perform for each team member.
+     */
+    void streamAllTeamMembers(Consumer<TeamMemberView> action);
+
+    /**
+     * Searches team members for type-ahead: every term of the query must prefix the first name,
+     * last name or email of a match; a misspelled term may still match one edit away.
+     * @param query The search terms.
+     * @param limit The maximum number of team members to return.
+     * @return The best matching team members, best first.
+     * @throws IllegalArgumentException if the query is blank or the limit is invalid.
+     */
+    List<TeamMemberView> searchTeamMembers(String query, int limit);
 
     /**
      * Retrieves a team member by their unique memberId.
      * @param memberId The unique identifier of the team member.
-     * @return An Optional containing the team member if found.
+     * @return An Optional containing the view of the team member if found.
+     */
+    Optional<TeamMemberView> getTeamMemberByMemberId(String memberId);
+
+    /**
+     * Retrieves many team members by their unique memberIds at once.
+     * @param memberIds The memberIds of the team members; repeated memberIds are looked up once.
+     * @return The found team members and the missing memberIds, both in request order.
+     * @throws IllegalArgumentException if no or too many memberIds are given.
      */
-    Optional<TeamMember> getTeamMemberByMemberId(String memberId);
+    TeamMemberLookup getTeamMembersByMemberIds(List<String> memberIds);
 
     /**
-     * Updates the details of an existing team member.
+     * Replaces the details of an existing team member.
+     * @param memberId The unique identifier of the team member to update.
      * @param teamMember The team member with updated details.
-     * @return The updated team member.
+     * @param expectedVersion The version the client last read, or null to overwrite any version.
+     * @return An Optional containing the updated team member, or empty if not found.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the team member has another version.
      */
-    TeamMember updateTeamMember(TeamMember teamMember);
+    Optional<TeamMember> updateTeamMember(String memberId, TeamMember teamMember, Long expectedVersion);
+
+    /**
+     * Updates only the given details of an existing team member.
+     * @param memberId The unique identifier of the team member to update.
+     * @param changes The details to change; null fields are left unchanged.
+     * @param expectedVersion The version the client last read, or null to update any version.
+     * @return An Optional containing the updated team member, or empty if not found.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the team member has another version.
+     */
+    Optional<TeamMember> patchTeamMember(String memberId, TeamMember changes, Long expectedVersion);
 
     /**
      * Deletes a team member from the database using their memberId.
      * @param memberId The memberId of the team member to delete.
+     * @param expectedVersion The version the client last read, or null to delete any version.
+     * @return true if a team member was deleted, false if none has the given memberId.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the team member has another version.
+     */
+    boolean deleteTeamMember(String memberId, Long expectedVersion);
+
+    /**
+     * Deletes many team members from the database in one statement.
+     * @param memberIds The memberIds of the team members to delete; unknown ones are ignored.
+     * @return The number of deleted team members.
+     */
+    int deleteTeamMembers(Collection<String> memberIds);
+
+    /**
+     * Reads the changes made to team members after a sequence number of the change log:
+     * creations and updates with the new details, deletions as tombstones.
+     * @param since The sequence number returned as next by the previous read, 0 for all changes.
+     * @param limit The maximum number of changes to return.
+     * @return The changes in sequence order and the sequence number to continue from.
+     * @throws IllegalArgumentException if since is negative or the limit is invalid.
      */
-    void deleteTeamMember(String memberId);
+    TeamMemberChanges getTeamMemberChanges(long since, int limit);
 }
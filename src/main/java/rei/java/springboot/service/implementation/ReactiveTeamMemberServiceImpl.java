@@ -0,0 +1,187 @@
+package rei.java.springboot.service.implementation;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.ReactiveTeamMemberRepository;
+import rei.java.springboot.service.ReactiveTeamMemberService;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * Non-blocking service layer implementation for TeamMember operations, active with the "reactive" profile.
+ * It follows the rules of {@link TeamMemberServiceImpl}: single-statement writes, the row count telling
+ * a missing team member apart, and uniqueness enforced by the database.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTeamMemberServiceImpl implements ReactiveTeamMemberService {
+
+    private final ReactiveTeamMemberRepository teamMemberRepository;
+
+    /**
+     * Constructs the ReactiveTeamMemberServiceImpl with dependency injection of ReactiveTeamMemberRepository.
+     * @param teamMemberRepository The repository used for database operations.
+     */
+    public ReactiveTeamMemberServiceImpl(ReactiveTeamMemberRepository teamMemberRepository) {
+        this.teamMemberRepository = teamMemberRepository;
+    }
+
+    /**
+     * Saves a new team member in the database.
+     * @param teamMember The team member to save.
+     * @return The saved team member, or an IllegalStateException if the email or memberId is taken.
+     */
+    @Override
+    public Mono<TeamMember> saveTeamMember(TeamMember teamMember) {
+        return teamMemberRepository.insert(teamMember)
+                .onErrorMap(DataIntegrityViolationException.class, e -> conflictOrRethrow(e, teamMember));
+    }
+
+    /**
+     * Streams all team members from the database.
+     * @return All team members, ordered by memberId.
+     */
+    @Override
+    public Flux<TeamMember> getAllTeamMembers() {
+        return teamMemberRepository.findAll();
+    }
+
+    /**
+     * Retrieves one page of team members using keyset pagination on memberId.
+     * One extra row is fetched to find out whether a following page exists.
+     * @param next The opaque cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of team members to return.
+     * @return The page of team members, or an IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Override
+    public Mono<TeamMemberPage> getTeamMemberPage(String next, int limit) {
+        if (limit < 1 || limit > TeamMemberServiceImpl.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "The limit must be between 1 and " + TeamMemberServiceImpl.MAX_PAGE_SIZE + ": " + limit));
+        }
+        String after;
+        try {
+            after = next == null ? null : TeamMemberPage.decodeCursor(next);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        return teamMemberRepository.findPage(after, limit + 1)
+                .collectList()
+                .map(teamMembers -> TeamMemberPage.of(teamMembers, limit));
+    }
+
+    /**
+     * Retrieves a team member by their unique memberId.
+     * @param memberId The memberId of the team member.
+     * @return The found team member, or empty if not found.
+     */
+    @Override
+    public Mono<TeamMember> getTeamMemberByMemberId(String memberId) {
+        return teamMemberRepository.findById(memberId);
+    }
+
+    /**
+     * Replaces an existing team member's details with a single UPDATE statement.
+     * @param memberId The unique memberId of the team member to update.
+     * @param teamMember The team member with updated information.
+     * @param expectedVersion The version the client last read, or null to overwrite any version.
+     * @return The updated team member, or empty if not found.
+     *         The version of the returned team member is only known when an expected version was given.
+     */
+    @Override
+    public Mono<TeamMember> updateTeamMember(String memberId, TeamMember teamMember, Long expectedVersion) {
+        if (teamMember.getFirstName() == null || teamMember.getLastName() == null || teamMember.getEmail() == null) {
+            return Mono.error(new IllegalArgumentException("firstName, lastName and email are required"));
+        }
+        return teamMemberRepository.updateByMemberId(memberId,
+                        teamMember.getFirstName(), teamMember.getLastName(), teamMember.getEmail(), expectedVersion)
+                .onErrorMap(DataIntegrityViolationException.class, e -> conflictOrRethrow(e, teamMember))
+                .flatMap(updated -> updated == 0
+                        ? failIfVersionConflict(memberId, expectedVersion).then(Mono.<TeamMember>empty())
+                        : Mono.just(TeamMember.builder()
+                                .memberId(memberId)
+                                .firstName(teamMember.getFirstName())
+                                .lastName(teamMember.getLastName())
+                                .email(teamMember.getEmail())
+                                .version(expectedVersion == null ? null : expectedVersion + 1)
+                                .build()));
+    }
+
+    /**
+     * Updates only the changed columns of an existing team member, then reads it back.
+     * @param memberId The unique memberId of the team member to update.
+     * @param changes The details to change; null fields are left unchanged.
+     * @param expectedVersion The version the client last read, or null to update any version.
+     * @return The updated team member, or empty if not found.
+     */
+    @Override
+    public Mono<TeamMember> patchTeamMember(String memberId, TeamMember changes, Long expectedVersion) {
+        return teamMemberRepository.patchByMemberId(memberId, changes, expectedVersion)
+                .onErrorMap(DataIntegrityViolationException.class, e -> conflictOrRethrow(e, changes))
+                .flatMap(updated -> updated == 0
+                        ? failIfVersionConflict(memberId, expectedVersion).then(Mono.<TeamMember>empty())
+                        : teamMemberRepository.findById(memberId));
+    }
+
+    /**
+     * Deletes a team member from the database by their memberId in a single DELETE statement.
+     * @param memberId The unique memberId of the team member to delete.
+     * @param expectedVersion The version the client last read, or null to delete any version.
+     * @return true if a team member was deleted, false if none has the given memberId.
+     */
+    @Override
+    public Mono<Boolean> deleteTeamMember(String memberId, Long expectedVersion) {
+        return teamMemberRepository.deleteByMemberId(memberId, expectedVersion)
+                .flatMap(deleted -> deleted > 0
+                        ? Mono.just(true)
+                        : failIfVersionConflict(memberId, expectedVersion).thenReturn(false));
+    }
+
+    /**
+     * Deletes many team members by their memberIds in a single DELETE statement.
+     * @param memberIds The memberIds of the team members to delete, at most
+     *                  {@value TeamMemberServiceImpl#MAX_BULK_DELETE_SIZE}.
+     * @return The number of deleted team members.
+     */
+    @Override
+    public Mono<Long> deleteTeamMembers(Collection<String> memberIds) {
+        if (memberIds == null || memberIds.isEmpty() || memberIds.size() > TeamMemberServiceImpl.MAX_BULK_DELETE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "between 1 and " + TeamMemberServiceImpl.MAX_BULK_DELETE_SIZE + " memberIds are required"));
+        }
+        return teamMemberRepository.deleteByMemberIdIn(new HashSet<>(memberIds));
+    }
+
+    private Mono<Void> failIfVersionConflict(String memberId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return teamMemberRepository.existsById(memberId)
+                .flatMap(exists -> exists
+                        ? Mono.error(new ObjectOptimisticLockingFailureException(TeamMember.class, memberId))
+                        : Mono.empty());
+    }
+
+    /**
+     * R2DBC drivers do not expose the violated constraint, so it is taken from the driver message,
+     * which names the unique index or the primary key on both MySQL and H2.
+     */
+    private static Throwable conflictOrRethrow(DataIntegrityViolationException e, TeamMember teamMember) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(TeamMember.EMAIL_CONSTRAINT)) {
+            return new IllegalStateException("A team member already exists with the given email: " + teamMember.getEmail(), e);
+        }
+        if (message.contains("primary")) {
+            return new IllegalStateException("A team member already exists with the given memberId: " + teamMember.getMemberId(), e);
+        }
+        return e;
+    }
+}
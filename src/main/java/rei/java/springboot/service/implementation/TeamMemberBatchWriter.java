@@ -0,0 +1,144 @@
+package rei.java.springboot.service.implementation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Inserts chunks of new team members using JDBC batching, one transaction per chunk.
+ * The chunk is flushed through the entity manager directly, so the exceptions of a chunk the
+ * database rejects are translated here, as Spring Data does for its repositories.
+ */
+@Component
+@Profile("!reactive")
+public class TeamMemberBatchWriter {
+
+    private static final HibernateJpaDialect JPA_DIALECT = new HibernateJpaDialect();
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int batchSize;
+
+    /**
+     * Constructs the TeamMemberBatchWriter.
+     * @param teamMemberRepository The repository used for the uniqueness checks.
+     * @param entityManager The entity manager used to persist the team members.
+     * @param eventPublisher The publisher of the created team members.
+     * @param batchSize The number of team members written per chunk, matching the JDBC batch size.
+     */
+    public TeamMemberBatchWriter(TeamMemberRepository teamMemberRepository, EntityManager entityManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.teamMemberRepository = teamMemberRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return The number of team members that should be passed to {@link #insert} at once.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Validates and inserts one chunk of team members.
+     * Email and memberId uniqueness is checked for the whole chunk with one IN query each,
+     * then the accepted team members are persisted and flushed as a single JDBC batch.
+     * Their creations are published within the transaction, so they are logged with the chunk.
+     * @param teamMembers The team members to insert.
+     * @param firstIndex The batch index of the first team member of the chunk.
+     * @return The result for each team member of the chunk, in order.
+     * @throws DataAccessException if the database rejects the chunk, which is then rolled back.
+     */
+    @Transactional
+    public List<TeamMemberBatchResult> insert(List<TeamMember> teamMembers, int firstIndex) {
+        Set<String> emails = new HashSet<>();
+        Set<String> memberIds = new HashSet<>();
+        for (TeamMember teamMember : teamMembers) {
+            if (isComplete(teamMember)) {
+                emails.add(teamMember.getEmail());
+                memberIds.add(teamMember.getMemberId());
+            }
+        }
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenMemberIds = new HashSet<>();
+        if (!emails.isEmpty()) {
+            teamMemberRepository.findExistingEmails(emails).forEach(email -> takenEmails.add(normalize(email)));
+            takenMemberIds.addAll(teamMemberRepository.findExistingMemberIds(memberIds));
+        }
+
+        List<TeamMemberBatchResult> results = new ArrayList<>(teamMembers.size());
+        for (int i = 0; i < teamMembers.size(); i++) {
+            TeamMember teamMember = teamMembers.get(i);
+            int index = firstIndex + i;
+            if (!isComplete(teamMember)) {
+                String memberId = teamMember == null ? null : teamMember.getMemberId();
+                results.add(TeamMemberBatchResult.failed(index, memberId,
+                        "memberId, firstName, lastName and email are required"));
+            } else if (takenMemberIds.contains(teamMember.getMemberId())) {
+                results.add(TeamMemberBatchResult.failed(index, teamMember.getMemberId(),
+                        "A team member already exists with the given memberId: " + teamMember.getMemberId()));
+            } else if (takenEmails.contains(normalize(teamMember.getEmail()))) {
+                results.add(TeamMemberBatchResult.failed(index, teamMember.getMemberId(),
+                        "A team member already exists with the given email: " + teamMember.getEmail()));
+            } else {
+                takenMemberIds.add(teamMember.getMemberId());
+                takenEmails.add(normalize(teamMember.getEmail()));
+                results.add(TeamMemberBatchResult.created(index, teamMember.getMemberId()));
+            }
+        }
+        try {
+            for (int i = 0; i < teamMembers.size(); i++) {
+                if (results.get(i).status() == TeamMemberBatchResult.Status.CREATED) {
+                    entityManager.persist(teamMembers.get(i));
+                }
+            }
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            DataAccessException translated = JPA_DIALECT.translateExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+        entityManager.clear();
+        for (int i = 0; i < teamMembers.size(); i++) {
+            if (results.get(i).status() == TeamMemberBatchResult.Status.CREATED) {
+                eventPublisher.publishEvent(TeamMemberChangedEvent.created(teamMembers.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private static boolean isComplete(TeamMember teamMember) {
+        return teamMember != null
+                && Objects.nonNull(teamMember.getMemberId())
+                && Objects.nonNull(teamMember.getFirstName())
+                && Objects.nonNull(teamMember.getLastName())
+                && Objects.nonNull(teamMember.getEmail());
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
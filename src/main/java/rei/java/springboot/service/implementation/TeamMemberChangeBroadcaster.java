@@ -0,0 +1,354 @@
+package rei.java.springboot.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.model.TeamMemberChange;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed team member changes to Server-Sent Events subscribers.
+ * <p>
+ * Subscribers do not hold a thread: their connections are suspended in the servlet container and
+ * every change is serialized once, then appended to a bounded queue per subscriber without locking.
+ * A small pool of sender threads drains a queue whenever it is non-empty, one drain per subscriber
+ * at a time. A subscriber that reads slower than changes arrive loses the oldest queued changes,
+ * so a stalled dashboard never holds more than {@value #BUFFER_SIZE} changes in memory.
+ * <p>
+ * Writes block while the client's connection does not take more data. A write that does not
+ * complete within the write timeout drops the subscriber, and the pool gets a sender in place of
+ * the blocked one until the write fails or completes, so clients that stopped reading cannot hold
+ * up the others. The subscription then ends with an error, which closes the connection.
+ * <p>
+ * Each event carries the change log sequence number as its id. Changes commit in sequence order,
+ * but are published by the committing threads, so live events of concurrent writes may swap.
+ * A reconnecting client that sends Last-Event-ID first receives up to {@value #BUFFER_SIZE} missed
+ * changes from the change log. The stream is a notification channel: a client that must not miss
+ * a change, after drops or a long disconnect, reconciles through GET /api/team/changes.
+ * <p>
+ * A subscriber only receives the changes of the tenant it subscribed as.
+ */
+@Component
+@Profile("!reactive")
+public class TeamMemberChangeBroadcaster implements DisposableBean {
+
+    /**
+     * Upper bound for the changes queued per subscriber, and for the changes replayed on reconnect.
+     */
+    public static final int BUFFER_SIZE = 256;
+
+    /**
+     * Subscriptions end after this time; browsers reconnect with the last event id.
+     */
+    static final Duration SUBSCRIPTION_TIMEOUT = Duration.ofMinutes(30);
+
+    /**
+     * Interval of the comments sent to idle subscribers, so proxies keep the connection open and
+     * closed connections are noticed.
+     */
+    static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(20);
+
+    private static final int SENDER_THREADS = 4;
+
+    private static final MediaType EVENT_TEXT = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private static final Frame HEARTBEAT = new Frame(0, null, ":heartbeat\n\n");
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final TeamMemberChangeLog changeLog;
+
+    private final ObjectWriter changeWriter;
+
+    private final ThreadPoolExecutor senders;
+
+    private final ScheduledExecutorService heartbeats;
+
+    private final long writeTimeoutNanos;
+
+    private final Counter droppedChanges;
+
+    private final Counter writeTimeouts;
+
+    /**
+     * Constructs the TeamMemberChangeBroadcaster and starts its sender, heartbeat and write timeout threads.
+     * @param changeLog The change log read for the changes a reconnecting client missed.
+     * @param objectMapper The mapper used to serialize each change once for all subscribers.
+     * @param meterRegistry The registry of the subscriber gauge and the dropped change and write timeout counters.
+     * @param writeTimeout How long a write to a subscriber may block before the subscriber is dropped.
+     */
+    public TeamMemberChangeBroadcaster(TeamMemberChangeLog changeLog, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                       @Value("${team.changes.write-timeout:10s}") Duration writeTimeout) {
+        this.changeLog = changeLog;
+        // an event's data must stay on one line
+        this.changeWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        // threads above the core size only replace the senders blocked by a timed out write
+        this.senders = new ThreadPoolExecutor(SENDER_THREADS, Integer.MAX_VALUE, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), daemonThreads("team-change-sender-"));
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("team-change-heartbeat-"));
+        this.heartbeats.scheduleAtFixedRate(() -> broadcast(HEARTBEAT),
+                HEARTBEAT_INTERVAL.toMillis(), HEARTBEAT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        long checkInterval = Math.max(writeTimeoutNanos / 2, TimeUnit.MILLISECONDS.toNanos(10));
+        this.heartbeats.scheduleAtFixedRate(this::expireBlockedWrites, checkInterval, checkInterval, TimeUnit.NANOSECONDS);
+        Gauge.builder("team.changes.subscribers", subscribers, Set::size)
+                .description("Open Server-Sent Events subscriptions to team member changes")
+                .register(meterRegistry);
+        this.droppedChanges = Counter.builder("team.changes.dropped")
+                .description("Changes dropped from the queues of slow subscribers")
+                .register(meterRegistry);
+        this.writeTimeouts = Counter.builder("team.changes.write.timeouts")
+                .description("Subscribers dropped as a write to them did not complete in time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription to the changes of the current tenant committed from now on.
+     * @param lastEventId The id of the last event the client received before reconnecting, or null.
+     * @return The emitter of the subscription.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, TenantContext.getTenantId());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // registered before the replay is read, so no change committed in between is missed
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            TeamMemberChanges missed = changeLog.read(lastEventId, BUFFER_SIZE);
+            try {
+                for (TeamMemberChange change : missed.items()) {
+                    emitter.send(frame(change).data());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            subscriber.skipUpTo = missed.next();
+        }
+        subscriber.start();
+        return emitter;
+    }
+
+    /**
+     * @return The number of open subscriptions.
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Queues a committed change for every subscriber of its tenant.
+     * @param change The change, as appended to the change log.
+     */
+    @EventListener
+    public void onTeamMemberChangeCommitted(TeamMemberChange change) {
+        broadcast(frame(change));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // the web server already closed the connection while shutting down
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void broadcast(Frame frame) {
+        for (Subscriber subscriber : subscribers) {
+            if (frame == HEARTBEAT || frame.tenantId().equals(subscriber.tenantId)) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * Drops the subscribers whose current write started more than the write timeout ago, and adds
+     * a sender for each, as their senders stay blocked until the write fails or completes.
+     */
+    private void expireBlockedWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.expireWrite(now)) {
+                subscribers.remove(subscriber);
+                writeTimeouts.increment();
+                resizeSenders(1);
+            }
+        }
+    }
+
+    private synchronized void resizeSenders(int delta) {
+        senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+    }
+
+    private Frame frame(TeamMemberChange change) {
+        try {
+            return new Frame(change.getSeq(), change.getTenantId(), "id:" + change.getSeq() + "\ndata:" + changeWriter.writeValueAsString(change) + "\n\n");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize team member change " + change.getSeq(), e);
+        }
+    }
+
+    /**
+     * A serialized event, shared by all subscribers. The event is encoded once as a single part in
+     * the text/event-stream format, instead of the three parts SseEmitter.event() builds, as every
+     * part is converted, written and locked separately for each subscriber.
+     * @param seq The change log sequence number, or 0 for a heartbeat.
+     * @param tenantId The tenant of the change, or null for a heartbeat, which is sent to every subscriber.
+     * @param data The event as written to the response.
+     */
+    private record Frame(long seq, String tenantId, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+
+        private Frame(long seq, String tenantId, String event) {
+            this(seq, tenantId, Set.of(new ResponseBodyEmitter.DataWithMediaType(event, EVENT_TEXT)));
+        }
+    }
+
+    private final class Subscriber {
+
+        private static final long NOT_WRITING = 0;
+
+        private static final long WRITE_EXPIRED = Long.MIN_VALUE;
+
+        private final SseEmitter emitter;
+
+        private final String tenantId;
+
+        private final Queue<Frame> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+
+        /**
+         * Changes up to this sequence number were replayed from the change log and are not sent again.
+         */
+        private volatile long skipUpTo;
+
+        /**
+         * The System.nanoTime() at which the current write started, {@link #NOT_WRITING} between
+         * writes, or {@link #WRITE_EXPIRED} once the write timed out.
+         */
+        private final AtomicLong writeStarted = new AtomicLong(NOT_WRITING);
+
+        private Subscriber(SseEmitter emitter, String tenantId) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+        }
+
+        /**
+         * Appends a frame, dropping the oldest queued one when the queue is full.
+         */
+        private void offer(Frame frame) {
+            queue.offer(frame);
+            if (size.incrementAndGet() > BUFFER_SIZE && queue.poll() != null) {
+                size.decrementAndGet();
+                droppedChanges.increment();
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Allows draining once the replay was sent; frames queued meanwhile are sent now.
+         */
+        private void start() {
+            draining.set(false);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while ((frame = queue.poll()) != null) {
+                    size.decrementAndGet();
+                    if (frame.seq() == 0 || frame.seq() > skipUpTo) {
+                        send(frame);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter completed; the completion callback unsubscribes
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            scheduleDrain();
+        }
+
+        private void send(Frame frame) throws IOException {
+            long started = System.nanoTime();
+            writeStarted.set(started);
+            try {
+                emitter.send(frame.data());
+            } finally {
+                if (!writeStarted.compareAndSet(started, NOT_WRITING)) {
+                    // the write timed out meanwhile and this sender was replaced
+                    resizeSenders(-1);
+                    throw new SocketTimeoutException("Write to the subscriber did not complete in time");
+                }
+            }
+        }
+
+        /**
+         * @return Whether the current write started more than the write timeout before now; it is then expired.
+         */
+        private boolean expireWrite(long now) {
+            long started = writeStarted.get();
+            return started != NOT_WRITING && started != WRITE_EXPIRED && now - started > writeTimeoutNanos
+                    && writeStarted.compareAndSet(started, WRITE_EXPIRED);
+        }
+    }
+}
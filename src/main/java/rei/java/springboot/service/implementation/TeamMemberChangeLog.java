@@ -0,0 +1,176 @@
+package rei.java.springboot.service.implementation;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberChange;
+import rei.java.springboot.replica.ReplicaRouting;
+import rei.java.springboot.repository.TeamMemberChangeRepository;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only log of the changes made to team members, read by incremental sync clients.
+ * <p>
+ * Every {@link TeamMemberChangedEvent} is written to the log in the transaction that made the
+ * change, so the log holds a change if and only if it was committed. Each tenant numbers its
+ * changes 1, 2, 3, ... from a counter in the database, which a transaction increments for every
+ * change it logs and keeps locked until it completes. The writing transactions of a tenant thus
+ * commit in sequence order, on every application instance, and a rolled back transaction gives
+ * its numbers back, so readers simply read the committed changes after their sequence number
+ * without skipping one that commits later. The lock serializes the writes of a tenant from their
+ * first logged change to their commit; other tenants are not held up.
+ * <p>
+ * Once a transaction commits, each change it logged is published as an application event for
+ * {@link TeamMemberChangeBroadcaster}.
+ */
+@Component
+@Profile("!reactive")
+public class TeamMemberChangeLog {
+
+    private final TeamMemberChangeRepository changeRepository;
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate counterTransaction;
+
+    /**
+     * Tenants whose counter exists, so it is only looked for once per tenant.
+     */
+    private final Set<String> countedTenants = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs the TeamMemberChangeLog.
+     * @param changeRepository The repository of the change log and its counters.
+     * @param teamMemberRepository The repository used to read back changes whose new state is not fully known.
+     * @param entityManager The entity manager used to append changes.
+     * @param eventPublisher The publisher of the committed changes.
+     * @param transactionManager The transaction manager creating the counter of a tenant in a transaction of its own.
+     */
+    public TeamMemberChangeLog(TeamMemberChangeRepository changeRepository, TeamMemberRepository teamMemberRepository,
+                               EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.changeRepository = changeRepository;
+        this.teamMemberRepository = teamMemberRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.counterTransaction = new TransactionTemplate(transactionManager);
+        this.counterTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Appends a change to the log in the transaction that made it.
+     * Updates whose new state is not fully known are read back first.
+     * @param event The change made to a team member.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTeamMemberChanged(TeamMemberChangedEvent event) {
+        TeamMemberChange change = toChange(event);
+        change.setSeq(nextSeq(TenantContext.getTenantId()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(change);
+            }
+        });
+        entityManager.persist(change);
+    }
+
+    /**
+     * Reads the committed changes after a sequence number. They are read from the primary, so a
+     * client does not wait for a lagging read replica to see the changes it was notified of.
+     * @param since The sequence number after which changes are returned, 0 for all changes.
+     * @param limit The maximum number of changes to return.
+     * @return The changes and the sequence number to continue from.
+     */
+    public TeamMemberChanges read(long since, int limit) {
+        List<TeamMemberChange> changes = ReplicaRouting.callOnPrimary(
+                () -> changeRepository.findChanges(since, Long.MAX_VALUE, PageRequest.ofSize(limit + 1)));
+        return TeamMemberChanges.of(changes, since, limit);
+    }
+
+    private TeamMemberChange toChange(TeamMemberChangedEvent event) {
+        TeamMemberChange.TeamMemberChangeBuilder change = TeamMemberChange.builder()
+                .type(event.type())
+                .memberId(event.memberId())
+                .changedAt(Instant.now());
+        if (event.type() == TeamMemberChangedEvent.Type.DELETED) {
+            return change.build();
+        }
+        TeamMember teamMember = event.teamMember();
+        if (teamMember != null && teamMember.getVersion() != null) {
+            return change.firstName(teamMember.getFirstName())
+                    .lastName(teamMember.getLastName())
+                    .email(teamMember.getEmail())
+                    .version(teamMember.getVersion())
+                    .build();
+        }
+        TeamMemberView view = teamMemberRepository.findViewById(event.memberId()).orElse(null);
+        if (view == null) {
+            return change.type(TeamMemberChangedEvent.Type.DELETED).build();
+        }
+        return change.firstName(view.firstName())
+                .lastName(view.lastName())
+                .email(view.email())
+                .version(view.version())
+                .build();
+    }
+
+    /**
+     * Takes the next sequence number of a tenant, locking its counter until the transaction completes.
+     */
+    private long nextSeq(String tenantId) {
+        if (!countedTenants.contains(tenantId)) {
+            createCounter(tenantId);
+            countedTenants.add(tenantId);
+        }
+        if (changeRepository.incrementLastSeq(tenantId) == 0) {
+            countedTenants.remove(tenantId);
+            throw new IllegalStateException("The change log of tenant " + tenantId + " has no counter");
+        }
+        return changeRepository.findLastSeq(tenantId).orElseThrow();
+    }
+
+    /**
+     * Creates the counter of a tenant from its last logged change, unless it exists. This commits
+     * before the writing transaction looks the counter up, as a missing row locked by the writing
+     * transaction could not be inserted by another one. Another instance may create it first.
+     */
+    private void createCounter(String tenantId) {
+        try {
+            counterTransaction.executeWithoutResult(status -> {
+                if (changeRepository.findLastSeq(tenantId).isEmpty()) {
+                    Long maxSeq = changeRepository.findMaxSeq();
+                    changeRepository.insertLastSeq(tenantId, maxSeq == null ? 0 : maxSeq);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // created concurrently
+        }
+    }
+}
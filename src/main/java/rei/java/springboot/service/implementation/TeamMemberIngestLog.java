@@ -0,0 +1,345 @@
+package rei.java.springboot.service.implementation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable local log of the team members accepted for asynchronous creation, made of fixed-size
+ * memory-mapped segment files.
+ * <p>
+ * An append is a copy into the mapping of the current segment: the record survives a crash of the
+ * process as soon as the append returns, and a crash of the machine once the segment is forced to
+ * disk. Forces are shared: appends go on while the segment is forced, and a force covers every
+ * record appended before it started, so concurrent appenders waiting for their records to reach
+ * the disk are served by one force, a group commit. Each record holds its size, a CRC32 of the rest of the record, the tracking id and the
+ * payload; the size is written last, so a record is never seen half written. A zero size ends the
+ * log, a size of -1 marks the rest of a segment as unused, and a record whose checksum does not
+ * match is a torn append and ends the log as well.
+ * <p>
+ * Positions are byte offsets across all segments; a segment file is named after the position of
+ * its first byte. The position up to which records were written to the database is saved as the
+ * checkpoint, and segments entirely below it are deleted. The directory is locked, so only one
+ * process appends to the log. The segment size must not change while the log holds records.
+ */
+public class TeamMemberIngestLog implements Closeable {
+
+    /**
+     * Size of the record header: the record size, the checksum and the tracking id.
+     */
+    static final int HEADER_SIZE = 4 + 4 + 16;
+
+    private static final int ROLLED = -1;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final FileChannel checkpointChannel;
+
+    private final FileLock lock;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    /**
+     * The position up to which records were forced to disk, written under the force lock.
+     */
+    private volatile long forcedPosition;
+
+    // the following fields are guarded by the append lock
+    private MappedByteBuffer segment;
+
+    private long segmentBase;
+
+    private long writePosition;
+
+    private long checkpoint;
+
+    /**
+     * A record read back from the log.
+     * @param trackingId The tracking id of the record.
+     * @param payload The payload of the record.
+     * @param position The position following the record, to be passed to {@link #checkpoint(long)}
+     *                 once the record was written to the database.
+     */
+    public record Entry(UUID trackingId, byte[] payload, long position) {
+    }
+
+    /**
+     * Opens the log in a directory, creating it if needed. {@link #recover()} must be called before
+     * records are appended.
+     * @param directory The directory of the segment files and the checkpoint.
+     * @param segmentSize The size of a segment file, an upper bound for the size of a record.
+     * @throws IOException if the directory cannot be opened, or is locked by another process.
+     */
+    public TeamMemberIngestLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("The segment size must be larger than " + HEADER_SIZE + ": " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.checkpointChannel = FileChannel.open(directory.resolve("checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = checkpointChannel.tryLock();
+        } catch (IOException | RuntimeException e) {
+            checkpointChannel.close();
+            throw e;
+        }
+        if (fileLock == null) {
+            checkpointChannel.close();
+            throw new IOException("The ingest log is used by another process: " + directory);
+        }
+        this.lock = fileLock;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        this.checkpoint = checkpointChannel.read(buffer, 0) == Long.BYTES ? buffer.flip().getLong() : 0;
+    }
+
+    /**
+     * Reads the records following the checkpoint and positions the log after the last intact one.
+     * Segments below the checkpoint or after a torn record are deleted.
+     * @return The records not yet written to the database, in append order.
+     * @throws IOException if a segment cannot be read.
+     */
+    public List<Entry> recover() throws IOException {
+        appendLock.lock();
+        try {
+            return recoverSegments();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private List<Entry> recoverSegments() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long position = checkpoint;
+        while (true) {
+            long base = position - position % segmentSize;
+            Path path = segmentPath(base);
+            if (!Files.exists(path)) {
+                break;
+            }
+            segment = map(path);
+            segmentBase = base;
+            int offset = (int) (position - base);
+            Entry entry;
+            while ((entry = read(segment, base, offset)) != null) {
+                entries.add(entry);
+                offset = (int) (entry.position() - base);
+            }
+            position = base + offset;
+            if (segmentSize - offset >= Integer.BYTES && segment.getInt(offset) != ROLLED) {
+                break;
+            }
+            position = base + segmentSize;
+        }
+        if (segment == null || position >= segmentBase + segmentSize) {
+            segmentBase = position - position % segmentSize;
+            segment = map(segmentPath(segmentBase));
+        }
+        writePosition = position;
+        forcedPosition = position;
+        // clears what a torn append left behind, so it cannot be mistaken for records appended later
+        byte[] zeros = new byte[segmentSize - (int) (writePosition - segmentBase)];
+        segment.put((int) (writePosition - segmentBase), zeros);
+        for (long base : segmentBases()) {
+            if (base + segmentSize <= checkpoint || base > segmentBase) {
+                Files.deleteIfExists(segmentPath(base));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Appends a record, moving to a new segment when the current one is full.
+     * @param trackingId The tracking id of the record.
+     * @param payload The payload of the record.
+     * @return The position following the record.
+     * @throws IllegalArgumentException if the record is larger than a segment.
+     * @throws UncheckedIOException if a new segment cannot be created.
+     */
+    public long append(UUID trackingId, byte[] payload) {
+        int size = HEADER_SIZE + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("The record of " + size + " bytes is larger than a segment");
+        }
+        appendLock.lock();
+        try {
+            if (segment == null) {
+                throw new IllegalStateException("The ingest log is closed or was not recovered");
+            }
+            int offset = (int) (writePosition - segmentBase);
+            if (offset + size > segmentSize) {
+                roll(offset);
+                offset = 0;
+            }
+            segment.putLong(offset + 8, trackingId.getMostSignificantBits());
+            segment.putLong(offset + 16, trackingId.getLeastSignificantBits());
+            segment.put(offset + HEADER_SIZE, payload);
+            segment.putInt(offset + 4, checksum(segment, offset, size));
+            segment.putInt(offset, size);
+            writePosition = segmentBase + offset + size;
+            return writePosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the records up to a position to disk, unless a force already covered them. Callers
+     * wait for the force in progress, which covers the records appended before it started, and
+     * the first of them to find its records still unforced forces all records appended since.
+     * @param position A position returned by {@link #append}.
+     * @return Whether this call forced the log, rather than a force of another caller.
+     */
+    public boolean force(long position) {
+        if (forcedPosition >= position) {
+            return false;
+        }
+        forceLock.lock();
+        try {
+            if (forcedPosition >= position) {
+                return false;
+            }
+            MappedByteBuffer current;
+            long upTo;
+            appendLock.lock();
+            try {
+                // earlier segments were forced when the log rolled over to this one
+                current = segment;
+                upTo = writePosition;
+            } finally {
+                appendLock.unlock();
+            }
+            if (current == null) {
+                return false;
+            }
+            current.force();
+            forcedPosition = upTo;
+            return true;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the position up to which records were written to the database, and deletes the
+     * segments entirely below it. The checkpoint is not forced to disk: after a crash of the
+     * machine an older checkpoint may be read back and records written since are recovered again.
+     * @param position A position returned by {@link #append} or read with an entry.
+     */
+    public void checkpoint(long position) {
+        appendLock.lock();
+        try {
+            if (segment == null || position <= checkpoint) {
+                return;
+            }
+            checkpointChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position), 0);
+            for (long base = checkpoint - checkpoint % segmentSize; base + segmentSize <= position && base < segmentBase; base += segmentSize) {
+                Files.deleteIfExists(segmentPath(base));
+            }
+            checkpoint = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the current segment to disk and releases the directory. Records not yet checkpointed
+     * are recovered when the log is opened again.
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+                segment = null;
+            }
+            try {
+                lock.release();
+            } finally {
+                checkpointChannel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void roll(int offset) {
+        if (segmentSize - offset >= Integer.BYTES) {
+            segment.putInt(offset, ROLLED);
+        }
+        segment.force();
+        try {
+            segmentBase += segmentSize;
+            segment = map(segmentPath(segmentBase));
+        } catch (IOException e) {
+            segmentBase -= segmentSize;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Entry read(MappedByteBuffer buffer, long base, int offset) {
+        if (segmentSize - offset < HEADER_SIZE) {
+            return null;
+        }
+        int size = buffer.getInt(offset);
+        if (size < HEADER_SIZE || size > segmentSize - offset || buffer.getInt(offset + 4) != checksum(buffer, offset, size)) {
+            return null;
+        }
+        UUID trackingId = new UUID(buffer.getLong(offset + 8), buffer.getLong(offset + 16));
+        byte[] payload = new byte[size - HEADER_SIZE];
+        buffer.get(offset + HEADER_SIZE, payload);
+        return new Entry(trackingId, payload, base + offset + size);
+    }
+
+    /**
+     * @return The CRC32 of the tracking id and payload of the record at the offset.
+     */
+    private static int checksum(ByteBuffer buffer, int offset, int size) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 8, size - 8));
+        return (int) crc.getValue();
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .toList();
+        }
+    }
+}
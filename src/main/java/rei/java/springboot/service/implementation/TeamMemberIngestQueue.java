@@ -0,0 +1,411 @@
+package rei.java.springboot.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue for team members created with Prefer: respond-async.
+ * <p>
+ * A request only appends the team member to the memory-mapped {@link TeamMemberIngestLog} and
+ * returns its tracking id, so its latency does not depend on the database. A single drainer thread
+ * takes the queued team members in batches of up to the JDBC batch size and writes each batch with
+ * its outcomes in one transaction; under load batches fill up, so the database receives fewer and
+ * larger commits. The log is checkpointed after each written batch, and whatever was not checkpointed is
+ * queued again when the application starts. The queue is bounded: once it holds its capacity,
+ * new team members are rejected until the drainer catches up. With fsync, a request waits until its
+ * team member is forced to disk, outside the lock of the queue; requests arriving meanwhile share
+ * the next force.
+ * <p>
+ * A batch failing with a transient error, such as a lost connection, is retried with exponential
+ * backoff. A batch failing otherwise is retried one team member at a time, and a team member the
+ * database still rejects is recorded as failed. A batch failing with an unexpected exception has
+ * all its team members recorded as failed, so that one bad batch never stops the drainer.
+ * <p>
+ * Every team member is logged with the tenant of the request that queued it. A batch holding
+ * several tenants is written in one transaction per tenant, and checkpointed once all are committed.
+ * <p>
+ * Only enabled when team.ingest.directory is set,
+ * as the log must survive restarts to be of use.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty("team.ingest.directory")
+public class TeamMemberIngestQueue implements SmartLifecycle {
+
+    /**
+     * Started before the web server accepts requests, and stopped after it finished them.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final int capacity;
+
+    private final boolean fsync;
+
+    private final int batchSize;
+
+    private final TeamMemberIngestWriter ingestWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<Ingest> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * The team members accepted but not yet written, by tracking id.
+     */
+    private final Map<String, Ingest> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the capacity check and the order of the log and the queue, and starting and stopping.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile CountDownLatch stopping;
+
+    private volatile boolean running;
+
+    private TeamMemberIngestLog log;
+
+    private Thread drainer;
+
+    /**
+     * Constructs the TeamMemberIngestQueue; the log is opened when the queue is started.
+     * @param directory The directory of the ingest log, kept across restarts.
+     * @param segmentSize The size of the log segment files.
+     * @param capacity The maximum number of team members accepted but not yet written.
+     * @param fsync Whether each team member is forced to disk before it is acknowledged, so that
+     *              it also survives a crash of the machine rather than only of the process.
+     * @param teamMemberBatchWriter The batch writer, whose batch size is used for the drained batches.
+     * @param ingestWriter The writer of the drained batches.
+     * @param objectMapper The mapper used to serialize the team members into the log.
+     * @param meterRegistry The registry of the queued team member gauge.
+     */
+    public TeamMemberIngestQueue(@Value("${team.ingest.directory}") Path directory,
+                                 @Value("${team.ingest.segment-size:16777216}") int segmentSize,
+                                 @Value("${team.ingest.capacity:100000}") int capacity,
+                                 @Value("${team.ingest.fsync:false}") boolean fsync,
+                                 TeamMemberBatchWriter teamMemberBatchWriter, TeamMemberIngestWriter ingestWriter,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.capacity = capacity;
+        this.fsync = fsync;
+        this.batchSize = teamMemberBatchWriter.getBatchSize();
+        this.ingestWriter = ingestWriter;
+        this.objectMapper = objectMapper;
+        Gauge.builder("team.ingest.queued", pending, Map::size)
+                .description("Team members accepted for asynchronous creation and not yet written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends a team member of the current tenant to the log and queues it for the drainer.
+     * @param teamMember The team member to create.
+     * @return The QUEUED outcome holding the tracking id of the team member.
+     * @throws RejectedExecutionException if the queue is full or not running.
+     */
+    public TeamMemberIngest enqueue(TeamMember teamMember) {
+        String tenantId = TenantContext.getTenantId();
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(new Payload(tenantId, teamMember));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The team member cannot be serialized", e);
+        }
+        UUID trackingId = UUID.randomUUID();
+        long position;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new RejectedExecutionException("The team member ingest queue is not running");
+            }
+            if (pending.size() >= capacity) {
+                throw new RejectedExecutionException("The team member ingest queue is full");
+            }
+            position = log.append(trackingId, payload);
+            add(new Ingest(trackingId.toString(), tenantId, teamMember, position));
+        } finally {
+            lock.unlock();
+        }
+        if (fsync) {
+            log.force(position);
+        }
+        return queued(trackingId.toString());
+    }
+
+    /**
+     * @param trackingId The tracking id of a team member.
+     * @return The QUEUED outcome if the team member is accepted but not yet written, otherwise empty.
+     */
+    public Optional<TeamMemberIngest> getQueued(String trackingId) {
+        return pending.containsKey(trackingId) ? Optional.of(queued(trackingId)) : Optional.empty();
+    }
+
+    /**
+     * @return The number of team members accepted but not yet written.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Opens the log, queues the team members it holds that were not written yet, and starts the drainer.
+     */
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            log = new TeamMemberIngestLog(directory, segmentSize);
+            for (TeamMemberIngestLog.Entry entry : log.recover()) {
+                add(readIngest(entry));
+            }
+            stopping = new CountDownLatch(1);
+            running = true;
+            drainer = new Thread(this::drain, "team-member-ingest");
+            drainer.setDaemon(true);
+            drainer.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the team member ingest log in " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting team members and lets the drainer write the queued ones for up to
+     * {@link #SHUTDOWN_TIMEOUT}; the rest stays in the log and is written after the next start.
+     */
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        stopping.countDown();
+        try {
+            drainer.join(SHUTDOWN_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void add(Ingest ingest) {
+        pending.put(ingest.trackingId(), ingest);
+        queue.add(ingest);
+    }
+
+    private Ingest readIngest(TeamMemberIngestLog.Entry entry) {
+        String trackingId = entry.trackingId().toString();
+        try {
+            Payload payload = objectMapper.readValue(entry.payload(), Payload.class);
+            return new Ingest(trackingId, payload.tenantId(), payload.teamMember(), entry.position());
+        } catch (IOException e) {
+            // recorded as failed by the batch writer, which rejects incomplete team members
+            return new Ingest(trackingId, TenantContext.DEFAULT_TENANT, null, entry.position());
+        }
+    }
+
+    private static TeamMemberIngest queued(String trackingId) {
+        return TeamMemberIngest.builder()
+                .trackingId(trackingId)
+                .status(TeamMemberIngest.Status.QUEUED)
+                .build();
+    }
+
+    private void drain() {
+        long deadline = Long.MAX_VALUE;
+        List<Ingest> batch = new ArrayList<>(batchSize);
+        while (true) {
+            if (!running) {
+                deadline = Math.min(deadline, System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos());
+                if (queue.isEmpty() || System.nanoTime() > deadline) {
+                    return;
+                }
+            }
+            try {
+                Ingest first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!writeByTenant(batch)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                failAll(batch, e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the team members of each tenant of a batch, then checkpoints the log after the batch.
+     * @return false if the queue was stopped while the database was unavailable.
+     */
+    private boolean writeByTenant(List<Ingest> batch) throws InterruptedException {
+        Map<String, List<Ingest>> byTenant = new LinkedHashMap<>();
+        batch.forEach(ingest -> byTenant.computeIfAbsent(ingest.tenantId(), tenantId -> new ArrayList<>()).add(ingest));
+        for (List<Ingest> tenantBatch : byTenant.values()) {
+            if (!write(tenantBatch)) {
+                return false;
+            }
+        }
+        log.checkpoint(batch.get(batch.size() - 1).position());
+        batch.forEach(ingest -> pending.remove(ingest.trackingId()));
+        return true;
+    }
+
+    /**
+     * Writes team members of one tenant, retrying until they are committed.
+     * @return false if the queue was stopped while the database was unavailable.
+     */
+    private boolean write(List<Ingest> batch) throws InterruptedException {
+        String tenantId = batch.get(0).tenantId();
+        String failure = null;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                if (failure == null) {
+                    Map<String, TeamMember> teamMembers = new LinkedHashMap<>();
+                    batch.forEach(ingest -> teamMembers.put(ingest.trackingId(), ingest.teamMember()));
+                    TenantContext.runAs(tenantId, () -> ingestWriter.write(teamMembers));
+                } else {
+                    Ingest ingest = batch.get(0);
+                    String message = failure;
+                    TenantContext.runAs(tenantId, () -> ingestWriter.fail(ingest.trackingId(), ingest.teamMember(), message));
+                }
+                return true;
+            } catch (TransientDataAccessException | RecoverableDataAccessException | TransactionException e) {
+                if (!backoff(attempt)) {
+                    return false;
+                }
+            } catch (DataAccessException | PersistenceException e) {
+                if (batch.size() > 1) {
+                    for (Ingest ingest : batch) {
+                        if (!write(List.of(ingest))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                if (failure != null && !backoff(attempt)) {
+                    return false;
+                }
+                failure = "The team member was rejected by the database: "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            }
+        }
+    }
+
+    /**
+     * Records every team member of a batch that failed unexpectedly as failed, then checkpoints the
+     * log after the batch. A team member whose outcome cannot be recorded either is dropped, rather
+     * than retried with a batch that may keep failing.
+     */
+    private void failAll(List<Ingest> batch, RuntimeException e) {
+        String message = "The team member could not be written: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        for (Ingest ingest : batch) {
+            try {
+                TenantContext.runAs(ingest.tenantId(), () -> ingestWriter.fail(ingest.trackingId(), ingest.teamMember(), message));
+            } catch (RuntimeException ignored) {
+                // the database is failing too; the tracking id is forgotten with the rest of the batch
+            }
+        }
+        log.checkpoint(batch.get(batch.size() - 1).position());
+        batch.forEach(ingest -> pending.remove(ingest.trackingId()));
+    }
+
+    /**
+     * Waits before the next attempt, doubling the wait up to {@link #MAX_BACKOFF}.
+     * @return false if the queue was stopped meanwhile.
+     */
+    private boolean backoff(int attempt) throws InterruptedException {
+        long millis = Math.min(MAX_BACKOFF.toMillis(), MIN_BACKOFF.toMillis() << Math.min(attempt, 16));
+        return !stopping.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A team member accepted for asynchronous creation.
+     * @param trackingId The tracking id returned to the client.
+     * @param tenantId The tenant of the request that queued the team member.
+     * @param teamMember The team member to create.
+     * @param position The position following its record in the ingest log.
+     */
+    private record Ingest(String trackingId, String tenantId, TeamMember teamMember, long position) {
+    }
+
+    /**
+     * The record of a team member in the ingest log.
+     * @param tenantId The tenant of the team member.
+     * @param teamMember The team member to create.
+     */
+    private record Payload(String tenantId, TeamMember teamMember) {
+    }
+}
@@ -0,0 +1,120 @@
+package rei.java.springboot.service.implementation;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
+import rei.java.springboot.repository.TeamMemberIngestRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes the team members drained from the ingest queue, one transaction per batch, together with
+ * the outcome of each of them.
+ */
+@Component
+@Profile("!reactive")
+public class TeamMemberIngestWriter {
+
+    private final TeamMemberBatchWriter teamMemberBatchWriter;
+
+    private final TeamMemberIngestRepository ingestRepository;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs the TeamMemberIngestWriter.
+     * @param teamMemberBatchWriter The writer inserting the team members as a JDBC batch.
+     * @param ingestRepository The repository of the recorded outcomes.
+     * @param entityManager The entity manager used to record the outcomes.
+     */
+    public TeamMemberIngestWriter(TeamMemberBatchWriter teamMemberBatchWriter, TeamMemberIngestRepository ingestRepository,
+                                  EntityManager entityManager) {
+        this.teamMemberBatchWriter = teamMemberBatchWriter;
+        this.ingestRepository = ingestRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Inserts a batch of team members and records the outcome of each in the same transaction.
+     * Tracking ids whose outcome is already recorded were committed before the ingest log was
+     * checkpointed, and are skipped when the log is replayed. The team members are inserted as
+     * copies, so that a batch whose transaction rolled back can be written again.
+     * @param teamMembers The team members to create by tracking id, in queue order; a team member
+     *                    whose payload could not be read back is null, and is rejected.
+     * @return The outcomes recorded by this call.
+     */
+    @Transactional
+    public List<TeamMemberIngest> write(Map<String, TeamMember> teamMembers) {
+        Set<String> recorded = new HashSet<>();
+        ingestRepository.findAllById(teamMembers.keySet()).forEach(ingest -> recorded.add(ingest.getTrackingId()));
+        List<String> trackingIds = new ArrayList<>(teamMembers.size());
+        List<TeamMember> copies = new ArrayList<>(teamMembers.size());
+        teamMembers.forEach((trackingId, teamMember) -> {
+            if (!recorded.contains(trackingId)) {
+                trackingIds.add(trackingId);
+                copies.add(teamMember == null ? null : TeamMember.builder()
+                        .memberId(teamMember.getMemberId())
+                        .firstName(teamMember.getFirstName())
+                        .lastName(teamMember.getLastName())
+                        .email(teamMember.getEmail())
+                        .build());
+            }
+        });
+        if (copies.isEmpty()) {
+            return List.of();
+        }
+        List<TeamMemberBatchResult> results = teamMemberBatchWriter.insert(copies, 0);
+        Instant completedAt = Instant.now();
+        List<TeamMemberIngest> outcomes = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            TeamMemberBatchResult result = results.get(i);
+            TeamMemberIngest outcome = TeamMemberIngest.builder()
+                    .trackingId(trackingIds.get(i))
+                    .status(result.status() == TeamMemberBatchResult.Status.CREATED
+                            ? TeamMemberIngest.Status.CREATED
+                            : TeamMemberIngest.Status.FAILED)
+                    .memberId(result.memberId())
+                    .message(result.message())
+                    .completedAt(completedAt)
+                    .build();
+            entityManager.persist(outcome);
+            outcomes.add(outcome);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Records that a team member was rejected by the database, without inserting it, unless an
+     * outcome is already recorded for its tracking id.
+     * @param trackingId The tracking id of the team member.
+     * @param teamMember The team member, or null if its payload could not be read back.
+     * @param message The reason the team member was rejected.
+     * @return The recorded outcome.
+     */
+    @Transactional
+    public TeamMemberIngest fail(String trackingId, TeamMember teamMember, String message) {
+        Optional<TeamMemberIngest> recorded = ingestRepository.findById(trackingId);
+        if (recorded.isPresent()) {
+            return recorded.get();
+        }
+        TeamMemberIngest outcome = TeamMemberIngest.builder()
+                .trackingId(trackingId)
+                .status(TeamMemberIngest.Status.FAILED)
+                .memberId(teamMember == null ? null : teamMember.getMemberId())
+                .message(message.length() > 512 ? message.substring(0, 512) : message)
+                .completedAt(Instant.now())
+                .build();
+        entityManager.persist(outcome);
+        return outcome;
+    }
+}
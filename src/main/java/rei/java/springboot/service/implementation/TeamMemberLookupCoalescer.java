@@ -0,0 +1,322 @@
+package rei.java.springboot.service.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.replica.ReplicaRouting;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Coalesces concurrent lookups of team members by memberId, which all read the primary.
+ * <p>
+ * Lookups of the same memberId share one query: the first lookup registers its result in a
+ * concurrent map keyed by tenant and memberId and queries the database, later lookups arriving
+ * while it is in flight wait for that result instead of querying themselves. A committed change to
+ * a team member removes its in-flight lookup from the map, so lookups arriving after the change
+ * query again rather than share a result read before it. A lookup only hands on its result for
+ * caching while its entry is still in the map, so a view read before a change is never cached after it.
+ * <p>
+ * With a batch window, lookups of different memberIds are also merged: the first lookup of a tenant
+ * opens a batch and waits up to the window, or until {@code team.lookups.max-batch-size} memberIds
+ * joined, then reads all of them with one {@code WHERE member_id IN (...)} query. The window adds
+ * up to its length to the latency of the lookups of a quiet tenant, so batching is disabled by default.
+ * <p>
+ * Bulk lookups register each memberId they read as in flight too, so single lookups arriving
+ * meanwhile share their result, and only hand on for caching the team members that did not change
+ * while they were read.
+ */
+@Component
+@Profile("!reactive")
+public class TeamMemberLookupCoalescer {
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final long batchWindowNanos;
+
+    private final int maxBatchSize;
+
+    /**
+     * The lookups in flight, by tenant-qualified memberId.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Optional<TeamMemberView>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The batch of each tenant still accepting lookups.
+     */
+    private final ConcurrentMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+    private final Counter lookups;
+
+    private final Counter queries;
+
+    private final DistributionSummary batchSizes;
+
+    /**
+     * Constructs the TeamMemberLookupCoalescer.
+     * @param teamMemberRepository The repository the team members are read from.
+     * @param batchWindow How long the first lookup of a batch waits for others to join it, zero to disable batching.
+     * @param maxBatchSize The most memberIds read by one query, bounding the IN list.
+     * @param meterRegistry The registry of the lookup and query counters and the batch size summary.
+     */
+    public TeamMemberLookupCoalescer(TeamMemberRepository teamMemberRepository,
+                                     @Value("${team.lookups.batch-window:0}") Duration batchWindow,
+                                     @Value("${team.lookups.max-batch-size:100}") int maxBatchSize,
+                                     MeterRegistry meterRegistry) {
+        this.teamMemberRepository = teamMemberRepository;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.lookups = Counter.builder("team.lookups")
+                .description("Lookups of team members by memberId that missed the cache")
+                .register(meterRegistry);
+        this.queries = Counter.builder("team.lookups.queries")
+                .description("Queries run for the lookups of team members by memberId; lookups per query is the coalescing ratio")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("team.lookups.batch.size")
+                .description("Distinct memberIds read by one lookup query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds the view of a team member of the current tenant, sharing the query with concurrent lookups.
+     * @param memberId The memberId of the team member.
+     * @return An Optional containing the view of the found team member or empty if not found.
+     */
+    public Optional<TeamMemberView> findViewById(String memberId) {
+        return findViewById(memberId, (key, view) -> { });
+    }
+
+    /**
+     * Finds the view of a team member of the current tenant, sharing the query with concurrent lookups.
+     * If this call ran the query, found the team member and it was not changed while it was read, the
+     * view is passed to the given consumer, atomically with respect to forgetting the lookup on a change,
+     * so that a view read before a change is not cached after it. Lookups sharing the query of another
+     * call leave that to it.
+     * @param memberId The memberId of the team member.
+     * @param unchanged Receives the tenant-qualified memberId and the view of the found team member if it
+     *                  was read by this call and not changed meanwhile.
+     * @return An Optional containing the view of the found team member or empty if not found.
+     */
+    public Optional<TeamMemberView> findViewById(String memberId, BiConsumer<String, TeamMemberView> unchanged) {
+        lookups.increment();
+        String key = TenantContext.key(memberId);
+        CompletableFuture<Optional<TeamMemberView>> result = new CompletableFuture<>();
+        CompletableFuture<Optional<TeamMemberView>> shared = inFlight.putIfAbsent(key, result);
+        if (shared != null) {
+            return await(shared);
+        }
+        try {
+            if (batchWindowNanos > 0) {
+                batch(memberId, result);
+            } else {
+                queries.increment();
+                batchSizes.record(1);
+                result.complete(ReplicaRouting.callOnPrimary(() -> teamMemberRepository.findViewById(memberId)));
+            }
+            Optional<TeamMemberView> found = await(result);
+            found.ifPresent(view -> handOnIfUnchanged(key, result, view, unchanged));
+            return found;
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, result);
+        }
+    }
+
+    /**
+     * Finds the views of many team members of the current tenant with one IN query per chunk, sharing
+     * the lookups of those already in flight. Each found team member that was not changed while it was
+     * read is passed to the given consumer, atomically with respect to forgetting its lookup on a change,
+     * so that a view read before a change is not cached after it.
+     * @param memberIds The distinct memberIds of the team members.
+     * @param chunkSize The most memberIds read by one query.
+     * @param unchanged Receives the tenant-qualified memberId and the view of each found team member read by
+     *                  this call that was not changed meanwhile.
+     * @return The views of the found team members by memberId.
+     */
+    public Map<String, TeamMemberView> findViewsByIds(Collection<String> memberIds, int chunkSize,
+                                                      BiConsumer<String, TeamMemberView> unchanged) {
+        lookups.increment(memberIds.size());
+        Map<String, CompletableFuture<Optional<TeamMemberView>>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Optional<TeamMemberView>>> shared = new LinkedHashMap<>();
+        for (String memberId : memberIds) {
+            CompletableFuture<Optional<TeamMemberView>> result = new CompletableFuture<>();
+            CompletableFuture<Optional<TeamMemberView>> inFlightResult = inFlight.putIfAbsent(TenantContext.key(memberId), result);
+            if (inFlightResult == null) {
+                owned.put(memberId, result);
+            } else {
+                shared.put(memberId, inFlightResult);
+            }
+        }
+        Map<String, TeamMemberView> found = new HashMap<>();
+        try {
+            List<String> toRead = new ArrayList<>(owned.keySet());
+            for (int from = 0; from < toRead.size(); from += chunkSize) {
+                List<String> chunk = toRead.subList(from, Math.min(from + chunkSize, toRead.size()));
+                queries.increment();
+                batchSizes.record(chunk.size());
+                Map<String, TeamMemberView> read = new HashMap<>();
+                ReplicaRouting.callOnPrimary(() -> teamMemberRepository.findViewsByIdIn(chunk))
+                        .forEach(view -> read.put(view.memberId(), view));
+                for (String memberId : chunk) {
+                    TeamMemberView view = read.get(memberId);
+                    CompletableFuture<Optional<TeamMemberView>> result = owned.get(memberId);
+                    result.complete(Optional.ofNullable(view));
+                    if (view != null) {
+                        found.put(memberId, view);
+                        handOnIfUnchanged(TenantContext.key(memberId), result, view, unchanged);
+                    }
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            owned.values().forEach(result -> result.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach((memberId, result) -> inFlight.remove(TenantContext.key(memberId), result));
+        }
+        shared.forEach((memberId, result) -> await(result).ifPresent(view -> found.put(memberId, view)));
+        return found;
+    }
+
+    /**
+     * Forgets the in-flight lookup of a changed team member once the change is committed.
+     * @param event The change made to a team member.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamMemberChanged(TeamMemberChangedEvent event) {
+        inFlight.remove(TenantContext.key(event.memberId()));
+    }
+
+    /**
+     * Passes a view to the consumer if the lookup that read it is still in flight, that is its team
+     * member was not changed since the lookup started.
+     */
+    private void handOnIfUnchanged(String key, CompletableFuture<Optional<TeamMemberView>> result, TeamMemberView view,
+                                   BiConsumer<String, TeamMemberView> unchanged) {
+        inFlight.computeIfPresent(key, (k, current) -> {
+            if (current == result) {
+                unchanged.accept(k, view);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Adds a lookup to the open batch of the current tenant, opening one if there is none or it is full.
+     * The thread that opened the batch waits for the window to end, or the batch to fill, and runs
+     * its query; the others return at once and wait for their results.
+     */
+    private void batch(String memberId, CompletableFuture<Optional<TeamMemberView>> result) {
+        String tenant = TenantContext.getTenantId();
+        Lookup lookup = new Lookup(memberId, result);
+        // lookups are added while the map holds the tenant's entry, so none is added once the batch is removed
+        Batch batch = openBatches.compute(tenant, (t, open) -> open != null && open.add(lookup, maxBatchSize)
+                ? open : new Batch(lookup, maxBatchSize));
+        if (batch.first != lookup) {
+            return;
+        }
+        long deadline = System.nanoTime() + batchWindowNanos;
+        long remaining;
+        while (!batch.full && !Thread.currentThread().isInterrupted() && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+        openBatches.remove(tenant, batch);
+        run(batch.lookups);
+    }
+
+    /**
+     * Reads the team members of a batch with one query and completes their lookups.
+     */
+    private void run(List<Lookup> batch) {
+        Set<String> memberIds = new LinkedHashSet<>();
+        batch.forEach(lookup -> memberIds.add(lookup.memberId()));
+        queries.increment();
+        batchSizes.record(memberIds.size());
+        Map<String, TeamMemberView> found = new HashMap<>();
+        try {
+            ReplicaRouting.callOnPrimary(() -> teamMemberRepository.findViewsByIdIn(memberIds))
+                    .forEach(view -> found.put(view.memberId(), view));
+        } catch (RuntimeException | Error e) {
+            batch.forEach(lookup -> lookup.result().completeExceptionally(e));
+            throw e;
+        }
+        batch.forEach(lookup -> lookup.result().complete(Optional.ofNullable(found.get(lookup.memberId()))));
+    }
+
+    /**
+     * Waits for a lookup, rethrowing the exception of its query as it was thrown.
+     */
+    private static Optional<TeamMemberView> await(CompletableFuture<Optional<TeamMemberView>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Lookup(String memberId, CompletableFuture<Optional<TeamMemberView>> result) {
+    }
+
+    /**
+     * The lookups of one tenant read by the same query, led by the thread that opened it.
+     * Its list is only changed while the map of open batches holds it, and read once it was removed.
+     */
+    private static final class Batch {
+
+        private final Thread leader = Thread.currentThread();
+
+        private final Lookup first;
+
+        private final List<Lookup> lookups = new ArrayList<>();
+
+        private volatile boolean full;
+
+        private Batch(Lookup first, int maxSize) {
+            this.first = first;
+            this.lookups.add(first);
+            this.full = maxSize <= 1;
+        }
+
+        private boolean add(Lookup lookup, int maxSize) {
+            if (full) {
+                return false;
+            }
+            lookups.add(lookup);
+            if (lookups.size() >= maxSize) {
+                full = true;
+                LockSupport.unpark(leader);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,760 @@
+package rei.java.springboot.service.implementation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.replica.ReplicaRouting;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Pre-serialized snapshot of the full roster of each tenant, as served by GET /api/team, kept in
+ * one file per encoding in team.snapshot.directory. Responses are sent from the file by the web
+ * server rather than read from the database and serialized again, which the roster, read far more
+ * often than it changes, otherwise costs on every request.
+ * <p>
+ * The snapshot of a tenant is built from the database on its first read. Committed
+ * {@link TeamMemberChangedEvent}s are collected and applied by the next read, which writes a new
+ * generation of the files: the serialized team members that did not change are copied from the
+ * memory-mapped previous generation, so only the changed ones are serialized again. Files are never
+ * changed once written, so a response being sent keeps a consistent roster. A replaced generation
+ * is kept for team.snapshot.retention, 10 seconds by default, as Tomcat opens the file it sends with
+ * sendfile only after the request was handled, and tells nobody when it is done; it is deleted by
+ * a later write once that has passed and a newer generation was replaced as well.
+ * <p>
+ * The snapshot of a tenant that was not read for team.snapshot.idle-timeout, 10 minutes by default,
+ * is dropped, as are the least recently read ones beyond team.snapshot.max-tenants, so tenant ids
+ * that are only used once do not keep their files. The files of a dropped snapshot are deleted
+ * once the retention passed; a later read of the tenant builds its snapshot again.
+ * <p>
+ * The snapshot only sees the changes made through this instance, like the search index, and
+ * Smile snapshots are written without back-references, so that team members can be copied between
+ * generations as they are. Only enabled when team.snapshot.directory is set.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty("team.snapshot.directory")
+public class TeamMemberRosterSnapshot implements DisposableBean {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /**
+     * Encodings of the snapshot, in the order of the files of a generation.
+     */
+    static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private static final String FILE_PREFIX = "roster-";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Upper bound for the interval at which snapshots are checked for eviction.
+     */
+    private static final Duration EVICTION_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * A generation file of the snapshot.
+     * @param path The path of the file.
+     * @param size The size of the file in bytes.
+     */
+    public record RosterFile(Path path, long size) {
+    }
+
+    /**
+     * How a roster is laid out in one encoding: the array start, the team members separated by the
+     * separator, and the array end.
+     */
+    private record Encoding(String extension, ObjectWriter writer, byte[] start, byte[] separator, byte[] end) {
+    }
+
+    /**
+     * A generation replaced at a System.nanoTime() value.
+     */
+    private record Retired(Generation generation, long retiredAt) {
+    }
+
+    private final Path directory;
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final TransactionTemplate readTransaction;
+
+    private final List<Encoding> encodings;
+
+    private final long retentionNanos;
+
+    private final long idleTimeoutNanos;
+
+    private final int maxTenants;
+
+    private final ConcurrentMap<String, Roster> rosters = new ConcurrentHashMap<>();
+
+    private final AtomicLong generations = new AtomicLong();
+
+    /**
+     * The generations of evicted rosters, deleted once the retention passed.
+     */
+    private final Queue<Retired> evicted = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private volatile long nextEviction = System.nanoTime();
+
+    /**
+     * Constructs the TeamMemberRosterSnapshot, deleting the generation files left by a previous run.
+     * @param directory The directory of the snapshot files.
+     * @param teamMemberRepository The repository the snapshots are built from.
+     * @param objectMapper The JSON mapper, whose configuration the binary encodings share.
+     * @param transactionManager The transaction manager of the reads building the snapshots.
+     * @param retention How long a replaced generation is kept for the responses still to open it.
+     * @param idleTimeout How long the snapshot of a tenant is kept without being read.
+     * @param maxTenants The maximum number of tenants whose snapshot is kept.
+     * @throws IOException if the directory cannot be created or cleaned up.
+     */
+    public TeamMemberRosterSnapshot(@Value("${team.snapshot.directory}") Path directory,
+                                    TeamMemberRepository teamMemberRepository, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${team.snapshot.retention:10s}") Duration retention,
+                                    @Value("${team.snapshot.idle-timeout:10m}") Duration idleTimeout,
+                                    @Value("${team.snapshot.max-tenants:1000}") int maxTenants) throws IOException {
+        this.directory = directory;
+        this.retentionNanos = retention.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxTenants = maxTenants;
+        this.teamMemberRepository = teamMemberRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        ObjectMapper cbor = objectMapper.copyWith(new CBORFactory());
+        ObjectMapper smile = objectMapper.copyWith(smileFactory(true));
+        this.encodings = List.of(
+                encoding("json", objectMapper, objectMapper.writerFor(TeamMemberView.class), new byte[]{','}),
+                encoding("cbor", cbor, cbor.writerFor(TeamMemberView.class), new byte[0]),
+                encoding("smile", smile, objectMapper.copyWith(smileFactory(false)).writerFor(TeamMemberView.class), new byte[0]));
+        Files.createDirectories(directory);
+        deleteGenerationFiles();
+    }
+
+    /**
+     * @param header Whether the Smile header is written, which only starts the file, not each team member.
+     * @return A Smile factory without back-references to earlier names and values.
+     */
+    private static SmileFactory smileFactory(boolean header) {
+        return SmileFactory.builder()
+                .configure(SmileGenerator.Feature.WRITE_HEADER, header)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+
+    private static Encoding encoding(String extension, ObjectMapper mapper, ObjectWriter writer, byte[] separator)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(bytes)) {
+            generator.writeStartArray();
+            generator.flush();
+            byte[] start = bytes.toByteArray();
+            bytes.reset();
+            generator.writeEndArray();
+            generator.flush();
+            return new Encoding(extension, writer, start, separator, bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Returns the snapshot of the roster of the current tenant, building it or applying the changes
+     * committed since it was written first.
+     * @param encoding JSON, CBOR or Smile.
+     * @return The current generation file of the encoding.
+     * @throws UncheckedIOException if the snapshot cannot be written.
+     */
+    public RosterFile current(MediaType encoding) {
+        int index = ENCODINGS.indexOf(encoding);
+        if (index < 0) {
+            throw new IllegalArgumentException("The roster snapshot is not kept in " + encoding);
+        }
+        String tenantId = TenantContext.getTenantId();
+        Generation generation;
+        do {
+            // null if the roster was evicted meanwhile
+            generation = rosters.computeIfAbsent(tenantId, Roster::new).current();
+        } while (generation == null);
+        evictRosters();
+        return new RosterFile(generation.files[index], generation.sizes[index]);
+    }
+
+    /**
+     * @return The number of tenants whose snapshot is kept.
+     */
+    public int tenantCount() {
+        return rosters.size();
+    }
+
+    /**
+     * Collects a committed change for the next read of the snapshot of the tenant, if it has one.
+     * Changes whose new state is not fully known are read back from the primary.
+     * @param event The change made to a team member.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamMemberChanged(TeamMemberChangedEvent event) {
+        Roster roster = rosters.get(TenantContext.getTenantId());
+        if (roster == null) {
+            return;
+        }
+        TeamMemberView view = null;
+        if (event.type() != TeamMemberChangedEvent.Type.DELETED) {
+            TeamMember teamMember = event.teamMember();
+            view = teamMember == null || teamMember.getVersion() == null
+                    ? ReplicaRouting.callOnPrimary(() -> teamMemberRepository.findViewById(event.memberId())).orElse(null)
+                    : TeamMemberView.of(teamMember);
+        }
+        roster.record(event.memberId(), view);
+    }
+
+    /**
+     * Deletes the generation files of all tenants.
+     */
+    @Override
+    public void destroy() throws IOException {
+        rosters.clear();
+        evicted.clear();
+        deleteGenerationFiles();
+    }
+
+    /**
+     * Evicts the rosters not read for the idle timeout, and the least recently read ones beyond the
+     * maximum number of tenants, then deletes the generations of evicted rosters older than the
+     * retention. Runs at most once per interval unless there are too many rosters, and is skipped
+     * while another thread runs it.
+     */
+    private void evictRosters() {
+        long now = System.nanoTime();
+        if ((now - nextEviction < 0 && rosters.size() <= maxTenants) || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            nextEviction = now + Math.min(idleTimeoutNanos, EVICTION_INTERVAL.toNanos());
+            List<Roster> leastRecentlyRead = new ArrayList<>(rosters.values());
+            leastRecentlyRead.sort(Comparator.comparingLong(roster -> roster.lastRead - now));
+            int excess = leastRecentlyRead.size() - maxTenants;
+            for (Roster roster : leastRecentlyRead) {
+                if (excess <= 0 && now - roster.lastRead < idleTimeoutNanos) {
+                    break;
+                }
+                rosters.remove(roster.tenantId, roster);
+                roster.evict(now);
+                excess--;
+            }
+            evicted.removeIf(retired -> {
+                if (now - retired.retiredAt() < retentionNanos) {
+                    return false;
+                }
+                retired.generation().delete();
+                return true;
+            });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void deleteGenerationFiles() throws IOException {
+        try (DirectoryStream<Path> tenants = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path tenant : tenants) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(tenant, FILE_PREFIX + "*")) {
+                    for (Path file : files) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isOlder(TeamMemberView teamMember, Long version) {
+        return teamMember.version() != null && version != null && teamMember.version() < version;
+    }
+
+    /**
+     * The snapshot of the roster of one tenant and the changes not yet applied to it.
+     */
+    private final class Roster {
+
+        private final String tenantId;
+
+        private final Object changesLock = new Object();
+
+        /**
+         * Held while a generation is written; a lock rather than a monitor, as writing blocks on file I/O.
+         */
+        private final ReentrantLock writeLock = new ReentrantLock();
+
+        /**
+         * Changed team members by memberId, null for deleted ones.
+         */
+        private Map<String, TeamMemberView> changes = new HashMap<>();
+
+        /**
+         * MemberIds deleted since the changes were last applied. A team member created again restarts
+         * at version 0, so its change is applied even though its version is lower than the deleted one's.
+         */
+        private Set<String> deleted = new HashSet<>();
+
+        private volatile boolean dirty = true;
+
+        private volatile Generation current;
+
+        /**
+         * The replaced generations, oldest first.
+         */
+        private final Deque<Retired> retired = new ArrayDeque<>();
+
+        /**
+         * The System.nanoTime() of the last read.
+         */
+        private volatile long lastRead = System.nanoTime();
+
+        /**
+         * Set once the roster was evicted; guarded by the write lock.
+         */
+        private boolean closed;
+
+        Roster(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        void record(String memberId, TeamMemberView teamMember) {
+            synchronized (changesLock) {
+                TeamMemberView pending = changes.get(memberId);
+                if (teamMember != null && pending != null && isOlder(teamMember, pending.version())) {
+                    return;
+                }
+                if (teamMember == null) {
+                    deleted.add(memberId);
+                }
+                changes.put(memberId, teamMember);
+                dirty = true;
+            }
+        }
+
+        /**
+         * @return The current generation with the collected changes applied, or null if the roster was evicted.
+         */
+        Generation current() {
+            lastRead = System.nanoTime();
+            Generation generation = current;
+            if (!dirty && generation != null) {
+                return generation;
+            }
+            writeLock.lock();
+            try {
+                if (closed) {
+                    return null;
+                }
+                if (current == null) {
+                    install(build());
+                }
+                Map<String, TeamMemberView> applied;
+                Set<String> reset;
+                synchronized (changesLock) {
+                    applied = changes;
+                    reset = deleted;
+                    changes = new HashMap<>();
+                    deleted = new HashSet<>();
+                    dirty = false;
+                }
+                if (!applied.isEmpty()) {
+                    install(merge(current, applied, reset));
+                }
+                return current;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * Closes the roster and hands its generations over to be deleted once the retention passed.
+         */
+        void evict(long now) {
+            writeLock.lock();
+            try {
+                closed = true;
+                evicted.addAll(retired);
+                retired.clear();
+                if (current != null) {
+                    evicted.add(new Retired(current, now));
+                    current = null;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * Makes a generation current, deleting the replaced ones other than the last that were replaced
+         * longer than the retention ago.
+         */
+        private void install(Generation generation) {
+            long now = System.nanoTime();
+            if (current != null) {
+                retired.addLast(new Retired(current, now));
+            }
+            current = generation;
+            while (retired.size() > 1 && now - retired.peekFirst().retiredAt() >= retentionNanos) {
+                retired.removeFirst().generation().delete();
+            }
+        }
+
+        /**
+         * Writes the first generation from the primary, so it holds every change committed before the
+         * roster collected changes.
+         */
+        private Generation build() {
+            GenerationWriter writer = new GenerationWriter(tenantId, 0);
+            try {
+                ReplicaRouting.runOnPrimary(() -> readTransaction.executeWithoutResult(status -> {
+                    try (Stream<TeamMemberView> teamMembers = teamMemberRepository.streamAll()) {
+                        teamMembers.forEach(writer::add);
+                    }
+                }));
+                return writer.finish();
+            } catch (RuntimeException e) {
+                writer.abort();
+                throw e;
+            }
+        }
+
+        /**
+         * Writes a generation applying changes to the previous one. Team members keep their places;
+         * new ones are placed before the first team member with a greater memberId. A change older than
+         * the team member in the previous generation is ignored, unless the team member was deleted since.
+         */
+        private Generation merge(Generation from, Map<String, TeamMemberView> applied, Set<String> reset) {
+            Map<String, TeamMemberView> inserted = new TreeMap<>(applied);
+            for (String memberId : from.memberIds) {
+                inserted.remove(memberId);
+            }
+            inserted.values().removeIf(teamMember -> teamMember == null);
+            Iterator<TeamMemberView> insertions = inserted.values().iterator();
+            TeamMemberView insertion = insertions.hasNext() ? insertions.next() : null;
+            GenerationWriter writer = new GenerationWriter(tenantId, from.memberIds.length + inserted.size());
+            try {
+                int unchanged = -1;
+                for (int i = 0; i < from.memberIds.length; i++) {
+                    String memberId = from.memberIds[i];
+                    while (insertion != null && insertion.memberId().compareTo(memberId) < 0) {
+                        unchanged = writer.copy(from, unchanged, i);
+                        writer.add(insertion);
+                        insertion = insertions.hasNext() ? insertions.next() : null;
+                    }
+                    if (!applied.containsKey(memberId)) {
+                        unchanged = unchanged < 0 ? i : unchanged;
+                        continue;
+                    }
+                    TeamMemberView teamMember = applied.get(memberId);
+                    if (teamMember != null && !reset.contains(memberId) && isOlder(teamMember, from.versions[i])) {
+                        unchanged = unchanged < 0 ? i : unchanged;
+                        continue;
+                    }
+                    unchanged = writer.copy(from, unchanged, i);
+                    if (teamMember != null) {
+                        writer.add(teamMember);
+                    }
+                }
+                writer.copy(from, unchanged, from.memberIds.length);
+                while (insertion != null) {
+                    writer.add(insertion);
+                    insertion = insertions.hasNext() ? insertions.next() : null;
+                }
+                return writer.finish();
+            } catch (RuntimeException e) {
+                writer.abort();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * One immutable generation of the snapshot of a tenant: a file per encoding, mapped into memory
+     * so that the next generation can copy from it, and where each team member starts in each file.
+     */
+    private static final class Generation {
+
+        private final String[] memberIds;
+
+        private final long[] versions;
+
+        private final Path[] files;
+
+        private final long[] sizes;
+
+        /**
+         * Per encoding, the offset of each team member, followed by the offset after the last one.
+         */
+        private final int[][] offsets;
+
+        private final MappedByteBuffer[] buffers;
+
+        private Generation(String[] memberIds, long[] versions, Path[] files, long[] sizes, int[][] offsets,
+                           MappedByteBuffer[] buffers) {
+            this.memberIds = memberIds;
+            this.versions = versions;
+            this.files = files;
+            this.sizes = sizes;
+            this.offsets = offsets;
+            this.buffers = buffers;
+        }
+
+        /**
+         * @return The offset after the team member at a position, excluding the separator following it.
+         */
+        private int end(int encoding, int position, int separatorLength) {
+            return position + 1 < memberIds.length
+                    ? offsets[encoding][position + 1] - separatorLength
+                    : offsets[encoding][memberIds.length];
+        }
+
+        private void delete() {
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // left for the cleanup at the next start
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the files of a new generation, team member after team member, through a buffer per encoding.
+     */
+    private final class GenerationWriter {
+
+        private final Path[] files = new Path[ENCODINGS.size()];
+
+        private final FileChannel[] channels = new FileChannel[ENCODINGS.size()];
+
+        private final ByteBuffer[] buffers = new ByteBuffer[ENCODINGS.size()];
+
+        private final long[] positions = new long[ENCODINGS.size()];
+
+        private final int[][] offsets = new int[ENCODINGS.size()][];
+
+        private final List<String> memberIds;
+
+        private long[] versions;
+
+        GenerationWriter(String tenantId, int expectedSize) {
+            int capacity = Math.max(16, expectedSize + 1);
+            this.memberIds = new ArrayList<>(capacity);
+            this.versions = new long[capacity];
+            long number = generations.incrementAndGet();
+            try {
+                Path tenantDirectory = Files.createDirectories(directory.resolve(tenantId));
+                for (int e = 0; e < files.length; e++) {
+                    Encoding encoding = encodings.get(e);
+                    files[e] = tenantDirectory.resolve(FILE_PREFIX + number + '.' + encoding.extension());
+                    channels[e] = FileChannel.open(files[e], StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                            StandardOpenOption.READ);
+                    buffers[e] = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+                    offsets[e] = new int[capacity];
+                    write(e, ByteBuffer.wrap(encoding.start()));
+                }
+            } catch (IOException e) {
+                abort();
+                throw new UncheckedIOException("Cannot write the roster snapshot in " + directory, e);
+            }
+        }
+
+        /**
+         * Serializes a team member after the ones written so far.
+         */
+        void add(TeamMemberView teamMember) {
+            int position = grow();
+            memberIds.add(teamMember.memberId());
+            versions[position] = teamMember.version() == null ? -1 : teamMember.version();
+            try {
+                for (int e = 0; e < files.length; e++) {
+                    Encoding encoding = encodings.get(e);
+                    if (position > 0) {
+                        write(e, ByteBuffer.wrap(encoding.separator()));
+                    }
+                    offsets[e][position] = offset(e);
+                    write(e, ByteBuffer.wrap(encoding.writer().writeValueAsBytes(teamMember)));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write the roster snapshot in " + directory, e);
+            }
+        }
+
+        /**
+         * Copies the unchanged team members of the previous generation from the first one up to an end,
+         * as they are, in one write per encoding.
+         * @param first The position of the first unchanged team member, or -1 if there is none.
+         * @param end The position after the last unchanged team member.
+         * @return -1, the start of the next run of unchanged team members.
+         */
+        int copy(Generation from, int first, int end) {
+            if (first < 0 || first >= end) {
+                return -1;
+            }
+            int position = memberIds.size();
+            for (int i = first; i < end; i++) {
+                int added = grow();
+                memberIds.add(from.memberIds[i]);
+                versions[added] = from.versions[i];
+            }
+            try {
+                for (int e = 0; e < files.length; e++) {
+                    Encoding encoding = encodings.get(e);
+                    if (position > 0) {
+                        write(e, ByteBuffer.wrap(encoding.separator()));
+                    }
+                    int start = from.offsets[e][first];
+                    int base = offset(e);
+                    for (int i = first; i < end; i++) {
+                        offsets[e][position + i - first] = base + from.offsets[e][i] - start;
+                    }
+                    int length = from.end(e, end - 1, encoding.separator().length) - start;
+                    write(e, from.buffers[e].slice(start, length));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write the roster snapshot in " + directory, e);
+            }
+            return -1;
+        }
+
+        /**
+         * Writes the array ends, closes the files and maps them into memory.
+         */
+        Generation finish() {
+            int size = memberIds.size();
+            long[] sizes = new long[files.length];
+            MappedByteBuffer[] mapped = new MappedByteBuffer[files.length];
+            grow();
+            try {
+                for (int e = 0; e < files.length; e++) {
+                    offsets[e][size] = offset(e);
+                    write(e, ByteBuffer.wrap(encodings.get(e).end()));
+                    flush(e);
+                    sizes[e] = positions[e];
+                    mapped[e] = channels[e].map(FileChannel.MapMode.READ_ONLY, 0, sizes[e]);
+                    channels[e].close();
+                    offsets[e] = Arrays.copyOf(offsets[e], size + 1);
+                }
+            } catch (IOException e) {
+                abort();
+                throw new UncheckedIOException("Cannot write the roster snapshot in " + directory, e);
+            }
+            return new Generation(memberIds.toArray(String[]::new), Arrays.copyOf(versions, size), files, sizes,
+                    offsets, mapped);
+        }
+
+        void abort() {
+            for (int e = 0; e < files.length; e++) {
+                try {
+                    if (channels[e] != null) {
+                        channels[e].close();
+                    }
+                    if (files[e] != null) {
+                        Files.deleteIfExists(files[e]);
+                    }
+                } catch (IOException ignored) {
+                    // left for the cleanup at the next start
+                }
+            }
+        }
+
+        /**
+         * Makes room for one more team member, and the offset after the last one.
+         * @return The position of the next team member.
+         */
+        private int grow() {
+            int position = memberIds.size();
+            if (position + 1 >= versions.length) {
+                int capacity = versions.length * 2;
+                versions = Arrays.copyOf(versions, capacity);
+                for (int e = 0; e < offsets.length; e++) {
+                    offsets[e] = Arrays.copyOf(offsets[e], capacity);
+                }
+            }
+            return position;
+        }
+
+        private int offset(int encoding) {
+            long position = positions[encoding];
+            if (position > Integer.MAX_VALUE) {
+                throw new IllegalStateException("A roster snapshot file cannot exceed 2 GB");
+            }
+            return (int) position;
+        }
+
+        private void write(int encoding, ByteBuffer bytes) throws IOException {
+            ByteBuffer buffer = buffers[encoding];
+            positions[encoding] += bytes.remaining();
+            if (bytes.remaining() > buffer.remaining()) {
+                flush(encoding);
+            }
+            if (bytes.remaining() > buffer.capacity()) {
+                while (bytes.hasRemaining()) {
+                    channels[encoding].write(bytes);
+                }
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        private void flush(int encoding) throws IOException {
+            ByteBuffer buffer = buffers[encoding].flip();
+            while (buffer.hasRemaining()) {
+                channels[encoding].write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package rei.java.springboot.service.implementation;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.replica.ReplicaRouting;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.tenant.ShardRouter;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index for type-ahead search over team member names and emails.
+ * <p>
+ * Every team member is indexed under its first name, last name and email tokens, lower-cased and
+ * without accents. The postings are kept as "tenant\0token\0memberId" keys in one sorted set, so all
+ * team members of a tenant with a token starting with a prefix form one contiguous range that is walked in order
+ * and left as soon as enough results are found. Of several query terms, each in turn drives a walk
+ * with a growing budget while the others are checked against the team member's tokens. Results are therefore ranked by the matched
+ * token: exact token matches first, then longer tokens alphabetically, then by memberId.
+ * When prefix matching finds too few results, prefixes one edit away from the query are tried.
+ * <p>
+ * The index is built when the application is ready and then kept up to date from committed
+ * {@link TeamMemberChangedEvent}s. Team members are only replaced by the same or a newer version,
+ * so events handled out of order do not bring back older details. Removed team members leave a
+ * tombstone for {@link #TOMBSTONE_RETENTION}: a deletion carries no version, and a team member created
+ * again restarts at version 0, so a change arriving after the deletion is only indexed once the
+ * primary confirms that the team member exists again. Searches only find the team members of the
+ * current tenant.
+ */
+@Component
+@Profile("!reactive")
+public class TeamMemberSearchIndex {
+
+    /**
+     * Upper bound for the number of results of one search.
+     */
+    public static final int MAX_RESULTS = 100;
+
+    /**
+     * Query terms shorter than this are only prefix matched, as one edit away matches nearly everything.
+     */
+    static final int MIN_FUZZY_TERM_LENGTH = 3;
+
+    /**
+     * Upper bound for the postings walked per prefix, keeping very common prefixes of multi-term
+     * queries from scanning the whole index.
+     */
+    static final int MAX_SCANNED_POSTINGS = 4_096;
+
+    /**
+     * Postings walked per term in the first round; the budget grows up to {@link #MAX_SCANNED_POSTINGS}
+     * while too few results are found, so a common term cannot hold up a rare one.
+     */
+    static final int INITIAL_SCANNED_POSTINGS = 512;
+
+    /**
+     * How long a removed team member is remembered, far longer than a committed change takes to be handled.
+     */
+    static final Duration TOMBSTONE_RETENTION = Duration.ofMinutes(1);
+
+    private static final char SEPARATOR = '\0';
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[\\s\\-]+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final NavigableSet<String> postings = new ConcurrentSkipListSet<>();
+
+    /**
+     * Indexed team members by "tenant\0memberId".
+     */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Removed team members by "tenant\0memberId", only ever replaced by a new instance.
+     */
+    private final ConcurrentMap<String, Tombstone> tombstones = new ConcurrentHashMap<>();
+
+    /**
+     * The tombstones in the order they were made, for expiring them.
+     */
+    private final Queue<Map.Entry<String, Tombstone>> tombstoneOrder = new ConcurrentLinkedQueue<>();
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final ShardRouter shardRouter;
+
+    /**
+     * Constructs the TeamMemberSearchIndex.
+     * @param teamMemberRepository The repository the index is built from.
+     * @param shardRouter The router reading the team members of all tenants from every shard.
+     */
+    public TeamMemberSearchIndex(TeamMemberRepository teamMemberRepository, ShardRouter shardRouter) {
+        this.teamMemberRepository = teamMemberRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Indexes the team members of all tenants, reading their views from a database cursor per shard.
+     * They are read from the primary, as later changes only update the team members they change.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ReplicaRouting.runOnPrimary(() -> shardRouter.readAllTenants(() -> {
+            try (Stream<TenantTeamMemberView> teamMembers = teamMemberRepository.streamAllTenants()) {
+                teamMembers.forEach(teamMember -> put(teamMember.tenantId(), teamMember.toView()));
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Applies a committed change. Changes whose new state is not fully known, and changes to removed
+     * team members, which may have been made before the removal, are read back from the primary.
+     * @param event The change made to a team member.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamMemberChanged(TeamMemberChangedEvent event) {
+        if (event.type() == TeamMemberChangedEvent.Type.DELETED) {
+            remove(event.memberId());
+            return;
+        }
+        String tenantId = TenantContext.getTenantId();
+        Tombstone tombstone = tombstones.get(key(tenantId, event.memberId()));
+        TeamMember teamMember = event.teamMember();
+        TeamMemberView view = tombstone != null || teamMember == null || teamMember.getVersion() == null
+                ? ReplicaRouting.callOnPrimary(() -> teamMemberRepository.findViewById(event.memberId())).orElse(null)
+                : TeamMemberView.of(teamMember);
+        if (view == null) {
+            remove(event.memberId());
+        } else {
+            put(tenantId, view, tombstone);
+        }
+    }
+
+    /**
+     * Adds a team member of the current tenant to the index or replaces its indexed details,
+     * unless a newer version is indexed or the team member was removed.
+     * @param teamMember The view of the team member to index.
+     */
+    public void put(TeamMemberView teamMember) {
+        put(TenantContext.getTenantId(), teamMember);
+    }
+
+    /**
+     * Adds a team member to the index or replaces its indexed details, unless a newer version is indexed
+     * or the team member was removed.
+     * @param tenantId The tenant of the team member.
+     * @param teamMember The view of the team member to index.
+     */
+    public void put(String tenantId, TeamMemberView teamMember) {
+        put(tenantId, teamMember, null);
+    }
+
+    /**
+     * Indexes a team member unless a newer version is indexed, or it has a tombstone other than the one
+     * the team member was read after, which is then cleared.
+     */
+    private void put(String tenantId, TeamMemberView teamMember, Tombstone readAfter) {
+        String[] tokens = tokens(teamMember);
+        String memberId = teamMember.memberId();
+        entries.compute(key(tenantId, memberId), (key, indexed) -> {
+            Tombstone tombstone = tombstones.get(key);
+            if (tombstone != null && tombstone != readAfter) {
+                return indexed;
+            }
+            if (tombstone != null) {
+                tombstones.remove(key, tombstone);
+            } else if (indexed != null && isOlder(teamMember, indexed.teamMember())) {
+                return indexed;
+            }
+            for (String token : tokens) {
+                postings.add(posting(tenantId, token, memberId));
+            }
+            if (indexed != null) {
+                Set<String> kept = Set.of(tokens);
+                for (String token : indexed.tokens()) {
+                    if (!kept.contains(token)) {
+                        postings.remove(posting(tenantId, token, memberId));
+                    }
+                }
+            }
+            return new Entry(teamMember, tokens);
+        });
+    }
+
+    /**
+     * Removes a team member of the current tenant from the index, leaving a tombstone that keeps
+     * changes made before the removal from indexing it again.
+     * @param memberId The memberId of the team member to remove.
+     */
+    public void remove(String memberId) {
+        String tenantId = TenantContext.getTenantId();
+        long now = System.nanoTime();
+        entries.compute(key(tenantId, memberId), (key, indexed) -> {
+            if (indexed != null) {
+                for (String token : indexed.tokens()) {
+                    postings.remove(posting(tenantId, token, memberId));
+                }
+            }
+            Tombstone tombstone = new Tombstone(now);
+            tombstones.put(key, tombstone);
+            tombstoneOrder.add(Map.entry(key, tombstone));
+            return null;
+        });
+        expireTombstones(now);
+    }
+
+    /**
+     * @return The number of indexed team members of all tenants.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds the best matching team members of the current tenant. Every whitespace-separated term of the query must be
+     * a prefix of one of a team member's tokens; the longest term may also be one edit away when
+     * it matches too few team members as typed.
+     * @param query The search terms.
+     * @param limit The maximum number of results, at most {@value #MAX_RESULTS}.
+     * @return The matching team members, best first.
+     */
+    public List<TeamMemberView> search(String query, int limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        int max = Math.min(limit, MAX_RESULTS);
+        String tenantId = TenantContext.getTenantId();
+        Map<String, TeamMemberView> results = new LinkedHashMap<>();
+        List<String> drivers = terms.stream().sorted(Comparator.comparingInt(String::length).reversed()).toList();
+        boolean truncated;
+        int budget = INITIAL_SCANNED_POSTINGS;
+        while (true) {
+            truncated = false;
+            for (String driver : drivers) {
+                truncated |= collect(tenantId, driver, terms, driver, max, budget, results);
+                if (results.size() == max) {
+                    return new ArrayList<>(results.values());
+                }
+            }
+            if (!truncated || budget == MAX_SCANNED_POSTINGS) {
+                break;
+            }
+            budget = Math.min(budget * 8, MAX_SCANNED_POSTINGS);
+        }
+        String longest = drivers.get(0);
+        if (!truncated && longest.length() >= MIN_FUZZY_TERM_LENGTH) {
+            for (String variant : oneEditAway(longest)) {
+                collect(tenantId, variant, terms, longest, max, MAX_SCANNED_POSTINGS, results);
+                if (results.size() == max) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Walks the postings of all tokens of the tenant starting with the prefix, adding the team
+     * members that also match the other terms.
+     * @return Whether the walk stopped at the budget before leaving the prefix range.
+     */
+    private boolean collect(String tenantId, String prefix, List<String> terms, String driver, int max, int budget,
+                            Map<String, TeamMemberView> results) {
+        String from = tenantId + SEPARATOR + prefix;
+        int scanned = 0;
+        for (String posting : postings.tailSet(from, true)) {
+            if (!posting.startsWith(from)) {
+                return false;
+            }
+            if (++scanned > budget) {
+                return true;
+            }
+            String memberId = posting.substring(posting.indexOf(SEPARATOR, from.length()) + 1);
+            if (results.containsKey(memberId)) {
+                continue;
+            }
+            Entry entry = entries.get(key(tenantId, memberId));
+            if (entry != null && matchesOtherTerms(entry.tokens(), terms, driver)) {
+                results.put(memberId, entry.teamMember());
+                if (results.size() == max) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void expireTombstones(long now) {
+        Map.Entry<String, Tombstone> oldest;
+        while ((oldest = tombstoneOrder.peek()) != null
+                && now - oldest.getValue().removedAt() > TOMBSTONE_RETENTION.toNanos()) {
+            if (tombstoneOrder.remove(oldest)) {
+                tombstones.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+    }
+
+    private static boolean matchesOtherTerms(String[] tokens, List<String> terms, String driver) {
+        for (String term : terms) {
+            if (term.equals(driver)) {
+                continue;
+            }
+            if (Arrays.stream(tokens).noneMatch(token -> token.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The distinct strings one deletion, transposition, substitution or insertion away from the term.
+     */
+    private static Set<String> oneEditAway(String term) {
+        Set<String> variants = new LinkedHashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        for (int i = 0; i < term.length() - 1; i++) {
+            variants.add(term.substring(0, i) + term.charAt(i + 1) + term.charAt(i) + term.substring(i + 2));
+        }
+        for (int i = 0; i <= term.length(); i++) {
+            for (int c = 0; c < ALPHABET.length(); c++) {
+                if (i < term.length()) {
+                    variants.add(term.substring(0, i) + ALPHABET.charAt(c) + term.substring(i + 1));
+                }
+                variants.add(term.substring(0, i) + ALPHABET.charAt(c) + term.substring(i));
+            }
+        }
+        variants.remove(term);
+        return variants;
+    }
+
+    private static boolean isOlder(TeamMemberView teamMember, TeamMemberView indexed) {
+        return teamMember.version() != null && indexed.version() != null
+                && teamMember.version() < indexed.version();
+    }
+
+    private static String[] tokens(TeamMemberView teamMember) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addNameTokens(tokens, teamMember.firstName());
+        addNameTokens(tokens, teamMember.lastName());
+        if (teamMember.email() != null) {
+            tokens.add(normalize(teamMember.email()));
+        }
+        tokens.remove("");
+        return tokens.toArray(String[]::new);
+    }
+
+    private static void addNameTokens(Set<String> tokens, String name) {
+        if (name != null) {
+            tokens.addAll(Arrays.asList(NAME_SEPARATORS.split(normalize(name).trim())));
+        }
+    }
+
+    private static List<String> terms(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(WHITESPACE.split(normalize(query).trim()))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Lower-cases the text and strips accents and control characters, so "José" matches "jose".
+     */
+    static String normalize(String text) {
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("\\p{Cntrl}", " ");
+    }
+
+    private static String posting(String tenantId, String token, String memberId) {
+        return tenantId + SEPARATOR + token + SEPARATOR + memberId;
+    }
+
+    private static String key(String tenantId, String memberId) {
+        return tenantId + SEPARATOR + memberId;
+    }
+
+    private record Entry(TeamMemberView teamMember, String[] tokens) {
+    }
+
+    /**
+     * The removal of a team member at a System.nanoTime() value; compared by identity, so that a
+     * removal is never mistaken for a later one.
+     */
+    private static final class Tombstone {
+
+        private final long removedAt;
+
+        private Tombstone(long removedAt) {
+            this.removedAt = removedAt;
+        }
+
+        private long removedAt() {
+            return removedAt;
+        }
+    }
+}
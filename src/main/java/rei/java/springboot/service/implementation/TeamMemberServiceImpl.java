@@ -1,80 +1,608 @@
 package rei.java.springboot.service.implementation;
 
+import jakarta.persistence.EntityExistsException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rei.java.springboot.config.CacheConfig;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.dto.TeamMemberLookup;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberPage;
+import rei.java.springboot.dto.TenantTeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
 import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
+import rei.java.springboot.repository.TeamMemberIngestRepository;
+import rei.java.springboot.replica.ReplicaRouting;
 import rei.java.springboot.repository.TeamMemberRepository;
 import rei.java.springboot.service.TeamMemberService;
+import rei.java.springboot.tenant.ShardRouter;
+import rei.java.springboot.tenant.TenantContext;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service layer implementation for TeamMember operations, implementing the TeamMemberService interface.
  */
 @Service
+@Profile("!reactive")
 public class TeamMemberServiceImpl implements TeamMemberService {
 
+    /**
+     * Upper bound for the page size of keyset-paginated reads.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Upper bound for the number of memberIds in one bulk delete, keeping the IN list bounded.
+     */
+    public static final int MAX_BULK_DELETE_SIZE = 1000;
+
+    /**
+     * Upper bound for the number of memberIds in one bulk lookup.
+     */
+    public static final int MAX_BULK_LOOKUP_SIZE = 1000;
+
+    /**
+     * The most memberIds read by one IN query of a bulk lookup, well within the bind parameter
+     * and IN list limits of the JDBC drivers.
+     */
+    static final int LOOKUP_CHUNK_SIZE = 500;
+
+    /**
+     * Properties name lookups may be sorted by; the default order follows the (last_name, first_name) index.
+     */
+    static final Set<String> SORTABLE_PROPERTIES = Set.of("firstName", "lastName", "email", "memberId");
+
+    /**
+     * Order of the pages across tenants, matching the ORDER BY of their queries.
+     */
+    private static final Comparator<TenantTeamMemberView> ACROSS_TENANTS_ORDER =
+            Comparator.comparing(TenantTeamMemberView::tenantId).thenComparing(TenantTeamMemberView::memberId);
+
     private final TeamMemberRepository teamMemberRepository;
 
+    private final TeamMemberBatchWriter teamMemberBatchWriter;
+
+    private final TeamMemberSearchIndex teamMemberSearchIndex;
+
+    private final TeamMemberChangeLog teamMemberChangeLog;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TeamMemberIngestRepository ingestRepository;
+
+    private final ObjectProvider<TeamMemberIngestQueue> ingestQueue;
+
+    private final ShardRouter shardRouter;
+
+    private final TeamMemberLookupCoalescer lookupCoalescer;
+
+    private final CacheManager cacheManager;
+
     /**
      * Constructs the TeamMemberServiceImpl with dependency injection of TeamMemberRepository.
      * @param teamMemberRepository The repository used for database operations.
+     * @param teamMemberBatchWriter The writer used for batched inserts.
+     * @param teamMemberSearchIndex The index used for type-ahead search.
+     * @param teamMemberChangeLog The log of the changes made to team members, read by sync clients.
+     * @param eventPublisher The publisher of the changes made to team members.
+     * @param ingestRepository The repository of the outcomes of asynchronously created team members.
+     * @param ingestQueue The write-behind queue of asynchronously created team members, if enabled.
+     * @param shardRouter The router reading the team members of all tenants from every shard.
+     * @param lookupCoalescer The coalescer sharing the queries of concurrent lookups by memberId.
+     * @param cacheManager The manager of the team member cache, read and filled by bulk lookups.
      */
-    public TeamMemberServiceImpl(TeamMemberRepository teamMemberRepository) {
+    public TeamMemberServiceImpl(TeamMemberRepository teamMemberRepository, TeamMemberBatchWriter teamMemberBatchWriter, TeamMemberSearchIndex teamMemberSearchIndex,
+                                 TeamMemberChangeLog teamMemberChangeLog, ApplicationEventPublisher eventPublisher,
+                                 TeamMemberIngestRepository ingestRepository, ObjectProvider<TeamMemberIngestQueue> ingestQueue,
+                                 ShardRouter shardRouter, TeamMemberLookupCoalescer lookupCoalescer, CacheManager cacheManager) {
         this.teamMemberRepository = teamMemberRepository;
+        this.teamMemberBatchWriter = teamMemberBatchWriter;
+        this.teamMemberSearchIndex = teamMemberSearchIndex;
+        this.teamMemberChangeLog = teamMemberChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.ingestRepository = ingestRepository;
+        this.ingestQueue = ingestQueue;
+        this.shardRouter = shardRouter;
+        this.lookupCoalescer = lookupCoalescer;
+        this.cacheManager = cacheManager;
     }
 
     /**
-     * Saves a new team member in the database, checking for email uniqueness.
+     * Saves a new team member in the database.
+     * Email and memberId uniqueness is enforced by the database rather than a lookup before the insert,
+     * and so always checked on the primary, never on a lagging read replica;
+     * as the team member has no version yet it is always inserted, never merged into an existing row.
+     * The creation is published, and so logged, in the transaction of the insert.
      * @param teamMember The team member to save.
      * @return The saved team member.
+     * @throws IllegalStateException if a team member already exists with the given email or memberId.
      */
     @Override
+    @Transactional
     public TeamMember saveTeamMember(TeamMember teamMember) {
-        Optional<TeamMember> existingMember = teamMemberRepository.findByEmail(teamMember.getEmail());
-        if (existingMember.isPresent()) {
-            throw new IllegalStateException("A team member already exists with the given email: " + teamMember.getEmail());
+        TeamMember saved;
+        try {
+            saved = teamMemberRepository.saveAndFlush(teamMember);
+        } catch (DataIntegrityViolationException e) {
+            throw conflictOrRethrow(e, teamMember);
         }
-        return teamMemberRepository.save(teamMember);
+        eventPublisher.publishEvent(TeamMemberChangedEvent.created(saved));
+        return saved;
+    }
+
+    /**
+     * Appends a new team member to the write-behind queue, without touching the database.
+     * Uniqueness is checked when the queue writes the team member.
+     * @param teamMember The team member to create.
+     * @return The QUEUED outcome, or empty if the queue is not enabled.
+     */
+    @Override
+    public Optional<TeamMemberIngest> enqueueTeamMember(TeamMember teamMember) {
+        TeamMemberIngestQueue queue = ingestQueue.getIfAvailable();
+        return queue == null ? Optional.empty() : Optional.of(queue.enqueue(teamMember));
     }
 
     /**
-     * Retrieves all team members from the database.
+     * Retrieves the outcome of an asynchronously created team member: QUEUED while it is in the
+     * queue, otherwise the outcome recorded when it was written. The outcome is read from the primary,
+     * as a replica may not have it yet when the team member has just left the queue.
+     * @param trackingId The tracking id of the team member.
+     * @return An Optional containing the outcome, or empty if the tracking id is unknown.
+     */
+    @Override
+    public Optional<TeamMemberIngest> getTeamMemberIngest(String trackingId) {
+        TeamMemberIngestQueue queue = ingestQueue.getIfAvailable();
+        Optional<TeamMemberIngest> queued = queue == null ? Optional.empty() : queue.getQueued(trackingId);
+        return queued.isPresent() ? queued : ReplicaRouting.callOnPrimary(() -> ingestRepository.findById(trackingId));
+    }
+
+    /**
+     * Saves many new team members, one chunk of the JDBC batch size at a time.
+     * Each chunk is committed on its own, so a chunk that fails in the database is reported
+     * as failed without undoing the chunks written before it. The batch writer publishes the
+     * creations within the transaction of their chunk.
+     * @param teamMembers The team members to save.
+     * @return The result for each team member, in submission order.
+     */
+    @Override
+    public List<TeamMemberBatchResult> saveTeamMembers(Iterator<TeamMember> teamMembers) {
+        int batchSize = teamMemberBatchWriter.getBatchSize();
+        List<TeamMemberBatchResult> results = new ArrayList<>();
+        List<TeamMember> chunk = new ArrayList<>(batchSize);
+        while (teamMembers.hasNext()) {
+            chunk.add(teamMembers.next());
+            if (chunk.size() == batchSize || !teamMembers.hasNext()) {
+                results.addAll(insertChunk(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Retrieves the views of all team members from the database.
      * @return A list of team members.
      */
     @Override
-    public List<TeamMember> getAllTeamMembers() {
-        return teamMemberRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<TeamMemberView> getAllTeamMembers() {
+        return teamMemberRepository.findAllViews();
+    }
+
+    /**
+     * Retrieves one page of team members using keyset pagination on memberId.
+     * One extra row is fetched to find out whether a following page exists.
+     * @param next The opaque cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of team members to return.
+     * @return The page of team members.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TeamMemberPage getTeamMemberPage(String next, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        PageRequest pageRequest = PageRequest.ofSize(limit + 1);
+        List<TeamMemberView> teamMembers = next == null
+                ? teamMemberRepository.findFirstPage(pageRequest)
+                : teamMemberRepository.findPageAfter(TeamMemberPage.decodeCursor(next), pageRequest);
+        return TeamMemberPage.of(teamMembers, limit);
+    }
+
+    /**
+     * Retrieves one page of the team members of all tenants using keyset pagination on tenant and memberId.
+     * Every shard is asked for one row more than the limit in parallel, and the sorted results are
+     * merged, so the page costs one indexed range scan per shard whatever its position.
+     * @param next The opaque cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of team members to return.
+     * @return The page of team members with their tenants.
+     */
+    @Override
+    public TenantTeamMemberPage getTeamMemberPageAcrossTenants(String next, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        String[] after = next == null ? null : TenantTeamMemberPage.decodeCursor(next);
+        PageRequest pageRequest = PageRequest.ofSize(limit + 1);
+        List<TenantTeamMemberView> teamMembers = shardRouter.readAllTenants(() -> after == null
+                        ? teamMemberRepository.findFirstPageAcrossTenants(pageRequest)
+                        : teamMemberRepository.findPageAcrossTenantsAfter(after[0], after[1], pageRequest))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(ACROSS_TENANTS_ORDER)
+                .limit(limit + 1)
+                .toList();
+        return TenantTeamMemberPage.of(teamMembers, limit);
+    }
+
+    /**
+     * Retrieves one slice of the team members with the given last name, and first name if given.
+     * Slices are read without a COUNT query. Team members are sorted by first name unless another
+     * sort is requested, and always by memberId last, so that slices do not overlap.
+     * @param firstName The first name, or null to match any first name.
+     * @param lastName The last name.
+     * @param pageable The page, page size and sort to read.
+     * @return The slice of matching team members.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TeamMemberView> getTeamMembersByName(String firstName, String lastName, Pageable pageable) {
+        if (lastName == null || lastName.isBlank()) {
+            throw new IllegalArgumentException("A lastName is required to look team members up by name");
+        }
+        if (pageable.isUnpaged() || pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Team members cannot be sorted by " + order.getProperty());
+            }
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("firstName");
+        if (sort.getOrderFor("memberId") == null) {
+            sort = sort.and(Sort.by("memberId"));
+        }
+        PageRequest pageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return firstName == null || firstName.isBlank()
+                ? teamMemberRepository.findByLastName(lastName, pageRequest)
+                : teamMemberRepository.findByLastNameAndFirstName(lastName, firstName, pageRequest);
+    }
+
+    /**
+     * Streams the views of all team members from a database cursor. Views are not managed,
+     * so the persistence context does not grow with the table.
+     * @param action The action to perform for each team member.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllTeamMembers(Consumer<TeamMemberView> action) {
+        try (Stream<TeamMemberView> teamMembers = teamMemberRepository.streamAll()) {
+            teamMembers.forEach(action);
+        }
     }
 
     /**
-     * Retrieves a team member by their unique memberId.
+     * Searches team members by name and email prefixes in the in-memory search index,
+     * without querying the database.
+     * @param query The search terms.
+     * @param limit The maximum number of team members to return.
+     * @return The best matching team members, best first.
+     */
+    @Override
+    public List<TeamMemberView> searchTeamMembers(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("A search query is required");
+        }
+        if (limit < 1 || limit > TeamMemberSearchIndex.MAX_RESULTS) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + TeamMemberSearchIndex.MAX_RESULTS + ": " + limit);
+        }
+        return teamMemberSearchIndex.search(query, limit);
+    }
+
+    /**
+     * Retrieves the view of a team member by their unique memberId.
+     * Found team members are served from the cache until they are written or expire;
+     * misses are not cached so newly created team members are visible immediately.
+     * The cached views are immutable, so callers cannot change what other requests are served.
+     * Misses are read from the primary, so a lagging read replica cannot cache a view older than
+     * the write that evicted it, and concurrent misses share one query. A view is only cached if its
+     * team member was not changed while it was read, so a read overtaken by a write cannot cache
+     * the view from before it after the write evicted it.
      * @param memberId The memberId of the team member.
-     * @return An Optional containing the found team member or empty if not found.
+     * @return An Optional containing the view of the found team member or empty if not found.
+     */
+    @Override
+    public Optional<TeamMemberView> getTeamMemberByMemberId(String memberId) {
+        Cache cache = cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE);
+        TeamMemberView cached = cache == null ? null : cache.get(TenantContext.key(memberId), TeamMemberView.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return lookupCoalescer.findViewById(memberId, (key, view) -> {
+            if (cache != null) {
+                cache.putIfAbsent(key, view);
+            }
+        });
+    }
+
+    /**
+     * Retrieves many team members by their memberIds. Team members in the cache are served from it;
+     * the others are read from the primary through the lookup coalescer, with one IN query per
+     * {@value #LOOKUP_CHUNK_SIZE} memberIds, and cached unless they changed while read or were cached
+     * meanwhile. Misses are not cached.
+     * @param memberIds The memberIds of the team members, at most {@value #MAX_BULK_LOOKUP_SIZE}.
+     * @return The found team members and the missing memberIds, both in the order the memberIds were first requested.
      */
     @Override
-    public Optional<TeamMember> getTeamMemberByMemberId(String memberId) {
-        return teamMemberRepository.findByMemberId(memberId);
+    public TeamMemberLookup getTeamMembersByMemberIds(List<String> memberIds) {
+        if (memberIds == null || memberIds.isEmpty() || memberIds.size() > MAX_BULK_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("between 1 and " + MAX_BULK_LOOKUP_SIZE + " memberIds are required");
+        }
+        Set<String> requested = new LinkedHashSet<>(memberIds);
+        Cache cache = cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE);
+        Map<String, TeamMemberView> found = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String memberId : requested) {
+            TeamMemberView cached = cache == null ? null : cache.get(TenantContext.key(memberId), TeamMemberView.class);
+            if (cached == null) {
+                uncached.add(memberId);
+            } else {
+                found.put(memberId, cached);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            found.putAll(lookupCoalescer.findViewsByIds(uncached, LOOKUP_CHUNK_SIZE, (key, view) -> {
+                if (cache != null) {
+                    cache.putIfAbsent(key, view);
+                }
+            }));
+        }
+        List<TeamMemberView> views = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String memberId : requested) {
+            TeamMemberView view = found.get(memberId);
+            if (view == null) {
+                missing.add(memberId);
+            } else {
+                views.add(view);
+            }
+        }
+        return new TeamMemberLookup(views, missing);
     }
 
     /**
-     * Updates an existing team member's details in the database.
+     * Replaces an existing team member's details with a single UPDATE statement.
+     * Whether the team member exists is taken from the number of updated rows; only when no row
+     * matched an expected version is the row looked up, to tell a conflict from a missing team member.
+     * Without an expected version, the new version is read once in the transaction, still holding the
+     * row lock of the UPDATE, so the complete team member is published and the listeners of the change
+     * do not each read it back after the commit.
+     * @param memberId The unique memberId of the team member to update.
      * @param teamMember The team member with updated information.
-     * @return The updated team member.
+     * @param expectedVersion The version the client last read, or null to overwrite any version.
+     * @return An Optional containing the updated team member with its new version, or empty if not found.
+     * @throws IllegalArgumentException if a required detail is missing.
+     * @throws IllegalStateException if another team member already has the given email.
+     * @throws ObjectOptimisticLockingFailureException if the team member has another version.
      */
     @Override
-    public TeamMember updateTeamMember(TeamMember teamMember) {
-        return teamMemberRepository.save(teamMember);
+    @Transactional
+    public Optional<TeamMember> updateTeamMember(String memberId, TeamMember teamMember, Long expectedVersion) {
+        if (teamMember.getFirstName() == null || teamMember.getLastName() == null || teamMember.getEmail() == null) {
+            throw new IllegalArgumentException("firstName, lastName and email are required");
+        }
+        int updated;
+        try {
+            updated = teamMemberRepository.updateByMemberId(memberId,
+                    teamMember.getFirstName(), teamMember.getLastName(), teamMember.getEmail(), expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            throw conflictOrRethrow(e, teamMember);
+        }
+        if (updated == 0) {
+            failIfVersionConflict(memberId, expectedVersion);
+            return Optional.empty();
+        }
+        Long version = expectedVersion == null
+                ? teamMemberRepository.findVersionById(memberId).orElse(null)
+                : Long.valueOf(expectedVersion + 1);
+        TeamMember result = TeamMember.builder()
+                .memberId(memberId)
+                .firstName(teamMember.getFirstName())
+                .lastName(teamMember.getLastName())
+                .email(teamMember.getEmail())
+                .version(version)
+                .build();
+        eventPublisher.publishEvent(TeamMemberChangedEvent.updated(memberId, result));
+        return Optional.of(result);
     }
 
     /**
-     * Deletes a team member from the database by their memberId.
+     * Updates only the changed columns of an existing team member, then reads it back
+     * in the same transaction. The team member is read first, and a patch that would leave all its
+     * fields as they are is neither written nor published as a change.
+     * @param memberId The unique memberId of the team member to update.
+     * @param changes The details to change; null fields are left unchanged.
+     * @param expectedVersion The version the client last read, or null to update any version.
+     * @return An Optional containing the updated team member, or empty if not found.
+     * @throws IllegalStateException if another team member already has the given email.
+     * @throws ObjectOptimisticLockingFailureException if the team member has another version.
+     */
+    @Override
+    @Transactional
+    public Optional<TeamMember> patchTeamMember(String memberId, TeamMember changes, Long expectedVersion) {
+        Optional<TeamMember> current = teamMemberRepository.findById(memberId);
+        if (current.isEmpty()) {
+            return current;
+        }
+        if (!changes(current.get(), changes)) {
+            if (expectedVersion != null && !expectedVersion.equals(current.get().getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(TeamMember.class, memberId);
+            }
+            return current;
+        }
+        int updated;
+        try {
+            updated = teamMemberRepository.patchByMemberId(memberId, changes, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            throw conflictOrRethrow(e, changes);
+        }
+        if (updated == 0) {
+            failIfVersionConflict(memberId, expectedVersion);
+            return Optional.empty();
+        }
+        Optional<TeamMember> result = teamMemberRepository.findById(memberId);
+        eventPublisher.publishEvent(TeamMemberChangedEvent.updated(memberId, result.orElse(null)));
+        return result;
+    }
+
+    /**
+     * Deletes a team member from the database by their memberId in a single DELETE statement.
      * @param memberId The unique memberId of the team member to delete.
+     * @param expectedVersion The version the client last read, or null to delete any version.
+     * @return true if a team member was deleted, false if none has the given memberId.
+     * @throws ObjectOptimisticLockingFailureException if the team member has another version.
      */
     @Override
-    public void deleteTeamMember(String memberId) {
-        teamMemberRepository.findByMemberId(memberId)
-            .ifPresent(teamMember -> teamMemberRepository.delete(teamMember));
+    @Transactional
+    public boolean deleteTeamMember(String memberId, Long expectedVersion) {
+        if (teamMemberRepository.deleteByMemberId(memberId, expectedVersion) > 0) {
+            eventPublisher.publishEvent(TeamMemberChangedEvent.deleted(memberId));
+            return true;
+        }
+        failIfVersionConflict(memberId, expectedVersion);
+        return false;
     }
-}
 
+    /**
+     * Deletes many team members by their memberIds in a single DELETE statement.
+     * The existing memberIds are looked up first in the same transaction, so deletions are only
+     * published, and tombstones only logged, for team members that existed.
+     * @param memberIds The memberIds of the team members to delete, at most {@value #MAX_BULK_DELETE_SIZE}.
+     * @return The number of deleted team members.
+     */
+    @Override
+    @Transactional
+    public int deleteTeamMembers(Collection<String> memberIds) {
+        if (memberIds == null || memberIds.isEmpty() || memberIds.size() > MAX_BULK_DELETE_SIZE) {
+            throw new IllegalArgumentException("between 1 and " + MAX_BULK_DELETE_SIZE + " memberIds are required");
+        }
+        List<String> existingMemberIds = teamMemberRepository.findExistingMemberIds(new HashSet<>(memberIds));
+        if (existingMemberIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = teamMemberRepository.deleteByMemberIdIn(existingMemberIds);
+        existingMemberIds.forEach(memberId -> eventPublisher.publishEvent(TeamMemberChangedEvent.deleted(memberId)));
+        return deleted;
+    }
+
+    /**
+     * Reads the committed changes after a sequence number of the change log, so sync clients
+     * only transfer what changed since their last read.
+     * @param since The sequence number returned as next by the previous read, 0 for all changes.
+     * @param limit The maximum number of changes to return.
+     * @return The changes in sequence order and the sequence number to continue from.
+     */
+    @Override
+    public TeamMemberChanges getTeamMemberChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative: " + since);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        return teamMemberChangeLog.read(since, limit);
+    }
+
+    /**
+     * Evicts a changed team member from the cache once the change is committed, and not before,
+     * so a lookup between the eviction and the commit cannot cache the view from before the change.
+     * The in-flight lookup of the team member is forgotten first, so a lookup that read it before
+     * the commit cannot cache it after the eviction either.
+     * @param event The change made to a team member.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamMemberChanged(TeamMemberChangedEvent event) {
+        lookupCoalescer.onTeamMemberChanged(event);
+        Cache cache = cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE);
+        if (cache != null) {
+            cache.evict(TenantContext.key(event.memberId()));
+        }
+    }
+
+    private List<TeamMemberBatchResult> insertChunk(List<TeamMember> chunk, int firstIndex) {
+        try {
+            return teamMemberBatchWriter.insert(chunk, firstIndex);
+        } catch (DataAccessException e) {
+            List<TeamMemberBatchResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                TeamMember teamMember = chunk.get(i);
+                results.add(TeamMemberBatchResult.failed(firstIndex + i,
+                        teamMember == null ? null : teamMember.getMemberId(),
+                        "The batch containing this team member was rejected: " + e.getMostSpecificCause().getMessage()));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Tells whether a patch sets any field of a team member to another value.
+     */
+    private static boolean changes(TeamMember teamMember, TeamMember changes) {
+        return changes.getFirstName() != null && !changes.getFirstName().equals(teamMember.getFirstName())
+                || changes.getLastName() != null && !changes.getLastName().equals(teamMember.getLastName())
+                || changes.getEmail() != null && !changes.getEmail().equals(teamMember.getEmail());
+    }
+
+    private void failIfVersionConflict(String memberId, Long expectedVersion) {
+        if (expectedVersion != null && teamMemberRepository.existsById(memberId)) {
+            throw new ObjectOptimisticLockingFailureException(TeamMember.class, memberId);
+        }
+    }
+
+    private static RuntimeException conflictOrRethrow(DataIntegrityViolationException e, TeamMember teamMember) {
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+            String constraintName = violation.getConstraintName().toLowerCase(Locale.ROOT);
+            if (constraintName.contains(TeamMember.EMAIL_CONSTRAINT)) {
+                return new IllegalStateException("A team member already exists with the given email: " + teamMember.getEmail(), e);
+            }
+            if (constraintName.contains("primary")) {
+                return new IllegalStateException("A team member already exists with the given memberId: " + teamMember.getMemberId(), e);
+            }
+        }
+        if (e.getCause() instanceof EntityExistsException) {
+            return new IllegalStateException("A team member already exists with the given memberId: " + teamMember.getMemberId(), e);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,112 @@
+package rei.java.springboot.tenant;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs reads of all tenants on every shard, for the admin views and the in-memory state built from
+ * the whole table. Without sharding, the application has one shard, the configured data source.
+ * <p>
+ * The shards are read in parallel, one thread per shard, so a scatter-gather read takes as long
+ * as the slowest shard rather than the sum of all of them. It fails if any shard fails, as a
+ * partial result cannot be told from a complete one by the caller.
+ */
+@Component
+@Profile("!reactive")
+public class ShardRouter implements DisposableBean {
+
+    /**
+     * Name of the only shard of an application without sharding.
+     */
+    public static final String SINGLE_SHARD = "default";
+
+    private final TenantRoutingDataSource routingDataSource;
+
+    private final TransactionTemplate readTransaction;
+
+    private final ExecutorService executor;
+
+    /**
+     * Constructs the ShardRouter.
+     * @param routingDataSource The data source routing to the shards, if sharding is enabled.
+     * @param transactionManager The transaction manager of the reads.
+     */
+    public ShardRouter(ObjectProvider<TenantRoutingDataSource> routingDataSource, PlatformTransactionManager transactionManager) {
+        this.routingDataSource = routingDataSource.getIfAvailable();
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // a new transaction, as one of the caller was begun for its own tenant
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        if (this.routingDataSource == null) {
+            this.executor = null;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(this.routingDataSource.getShards().size(), runnable -> {
+                Thread thread = new Thread(runnable, "team-shard-reader-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return The names of the shards.
+     */
+    public List<String> getShards() {
+        return routingDataSource == null ? List.of(SINGLE_SHARD) : routingDataSource.getShards();
+    }
+
+    /**
+     * @param tenantId A tenant identifier.
+     * @return The name of the shard holding the rows of the tenant.
+     */
+    public String shardFor(String tenantId) {
+        return routingDataSource == null ? SINGLE_SHARD : routingDataSource.shardFor(tenantId);
+    }
+
+    /**
+     * Runs a read on every shard in parallel, for all tenants and in a read-only transaction per shard.
+     * @param read The read, which sees the rows of all tenants of the shard it runs on.
+     * @return The result of the read on each shard, in the order of {@link #getShards()}.
+     */
+    public <T> List<T> readAllTenants(Supplier<T> read) {
+        Supplier<T> readAllTenants = () -> TenantContext.callAs(TenantContext.ALL_TENANTS,
+                () -> readTransaction.execute(status -> read.get()));
+        if (routingDataSource == null) {
+            return Collections.singletonList(readAllTenants.get());
+        }
+        List<CompletableFuture<T>> reads = routingDataSource.getShards().stream()
+                .map(shard -> CompletableFuture.supplyAsync(
+                        () -> routingDataSource.callOnShard(shard, readAllTenants), executor))
+                .toList();
+        try {
+            return reads.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package rei.java.springboot.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the tenant the current thread works for. Requests set it from their X-Tenant-ID header,
+ * see {@link TenantFilter}; background work sets it explicitly with {@link #callAs}.
+ * Hibernate restricts every query of a team member to the current tenant, and the routing data
+ * source connects to the shard of the current tenant.
+ */
+public final class TenantContext {
+
+    /**
+     * The tenant of requests without a tenant header, which owns all rows written before tenants existed.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Tenant identifier seeing the rows of all tenants, only used by cross-tenant reads of a whole shard.
+     */
+    public static final String ALL_TENANTS = "*";
+
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * @return The tenant of the current thread, the default tenant if none is set.
+     */
+    public static String getTenantId() {
+        String tenantId = TENANT.get();
+        return tenantId == null ? DEFAULT_TENANT : tenantId;
+    }
+
+    /**
+     * Runs an action for a tenant, then restores the tenant of the current thread.
+     * @param tenantId The tenant to work for.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    public static <T> T callAs(String tenantId, Supplier<T> action) {
+        String previous = set(tenantId);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs an action for a tenant, then restores the tenant of the current thread.
+     * @param tenantId The tenant to work for.
+     * @param action The action to run.
+     */
+    public static void runAs(String tenantId, Runnable action) {
+        callAs(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Sets the tenant of the current thread.
+     * @param tenantId The tenant to work for.
+     * @return The tenant set before, to be passed to {@link #restore}.
+     */
+    static String set(String tenantId) {
+        String previous = TENANT.get();
+        TENANT.set(tenantId);
+        return previous;
+    }
+
+    /**
+     * @param previous The tenant returned by {@link #set}, or null to unset the tenant.
+     */
+    static void restore(String previous) {
+        if (previous == null) {
+            TENANT.remove();
+        } else {
+            TENANT.set(previous);
+        }
+    }
+
+    /**
+     * @param key A key that is only unique within a tenant, such as a memberId.
+     * @return The key qualified with the current tenant, for caches shared by all tenants.
+     */
+    public static String key(String key) {
+        return getTenantId() + ':' + key;
+    }
+}
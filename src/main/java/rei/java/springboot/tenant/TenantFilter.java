@@ -0,0 +1,53 @@
+package rei.java.springboot.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Sets the tenant of each request from its X-Tenant-ID header, so that the request only reads and
+ * writes the team members of that tenant, on the shard of that tenant. Requests without the header
+ * work for the default tenant; requests with a malformed tenant are rejected with 400.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+
+    /**
+     * Tenant identifiers are short and free of separators, as they are part of cache keys and page cursors.
+     */
+    static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (tenantId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!TENANT_ID.matcher(tenantId).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + TENANT_HEADER + ": " + tenantId);
+            return;
+        }
+        String previous = TenantContext.set(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package rei.java.springboot.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Supplies the tenant of the current thread to Hibernate, which fills in and filters by the
+ * {@link org.hibernate.annotations.TenantId} columns. Configured through
+ * spring.jpa.properties.hibernate.tenant_identifier_resolver, so that it also applies to JPA test slices.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.getTenantId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    /**
+     * @param tenantId A tenant identifier.
+     * @return Whether the identifier sees the rows of all tenants.
+     */
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ALL_TENANTS.equals(tenantId);
+    }
+}
@@ -0,0 +1,98 @@
+package rei.java.springboot.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Data source connecting to the shard of the current tenant, as assigned by the {@link TenantShardRing}.
+ * The shard is chosen when a connection is obtained, i.e. when a transaction begins, so the tenant
+ * must not change within a transaction. Reads of all tenants name the shard they read explicitly.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private final TenantShardRing ring;
+
+    private final Map<String, DataSource> shards;
+
+    /**
+     * Constructs the TenantRoutingDataSource.
+     * @param ring The assignment of tenants to shards.
+     * @param shards The data source of each shard of the ring, by shard name.
+     */
+    public TenantRoutingDataSource(TenantShardRing ring, Map<String, DataSource> shards) {
+        this.ring = ring;
+        this.shards = new LinkedHashMap<>(shards);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return The names of the shards, in configuration order.
+     */
+    public List<String> getShards() {
+        return ring.getShards();
+    }
+
+    /**
+     * @param tenantId A tenant identifier.
+     * @return The name of the shard holding the rows of the tenant.
+     */
+    public String shardFor(String tenantId) {
+        return ring.shardFor(tenantId);
+    }
+
+    /**
+     * Runs an action connecting to the given shard, whatever the tenant of the current thread.
+     * @param shard The name of the shard.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    public <T> T callOnShard(String shard, Supplier<T> action) {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = SHARD.get();
+        if (shard != null) {
+            return shard;
+        }
+        String tenantId = TenantContext.getTenantId();
+        if (TenantContext.ALL_TENANTS.equals(tenantId)) {
+            throw new IllegalStateException("Reads of all tenants must name the shard they read");
+        }
+        return ring.shardFor(tenantId);
+    }
+
+    /**
+     * Closes the connection pools of the shards.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
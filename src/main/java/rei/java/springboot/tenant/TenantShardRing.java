@@ -0,0 +1,87 @@
+package rei.java.springboot.tenant;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning tenants to shards.
+ * <p>
+ * Every shard is placed on the ring at a number of virtual nodes, and a tenant belongs to the shard
+ * of the first virtual node at or after the hash of its identifier. Tenants are spread evenly, and
+ * adding a shard to N shards only moves about 1/(N+1) of the tenants, all of them to the new shard;
+ * their rows must be copied there before the new shard is configured. Large tenants can be pinned
+ * to a shard of their own, which takes precedence over the ring.
+ */
+public class TenantShardRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    private final List<String> shards;
+
+    private final Map<String, String> pinnedTenants;
+
+    /**
+     * Builds the ring.
+     * @param shards The names of the shards.
+     * @param virtualNodes The number of positions of each shard on the ring.
+     * @param pinnedTenants The shards of the tenants that are not placed by hashing, by tenant.
+     * @throws IllegalArgumentException if there is no shard, or a tenant is pinned to an unknown shard.
+     */
+    public TenantShardRing(Collection<String> shards, int virtualNodes, Map<String, String> pinnedTenants) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("At least one shard and one virtual node per shard are required");
+        }
+        pinnedTenants.forEach((tenantId, shard) -> {
+            if (!shards.contains(shard)) {
+                throw new IllegalArgumentException("Tenant " + tenantId + " is pinned to the unknown shard " + shard);
+            }
+        });
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + '#' + i), shard);
+            }
+        }
+        this.shards = List.copyOf(shards);
+        this.pinnedTenants = Map.copyOf(pinnedTenants);
+    }
+
+    /**
+     * @return The names of the shards, in configuration order.
+     */
+    public List<String> getShards() {
+        return shards;
+    }
+
+    /**
+     * @param tenantId A tenant identifier.
+     * @return The name of the shard holding the rows of the tenant.
+     */
+    public String shardFor(String tenantId) {
+        String pinned = pinnedTenants.get(tenantId);
+        if (pinned != null) {
+            return pinned;
+        }
+        Map.Entry<Long, String> node = ring.ceilingEntry(hash(tenantId));
+        return (node == null ? ring.firstEntry() : node).getValue();
+    }
+
+    /**
+     * @return The first 64 bits of the MD5 digest of the key, which spread similar keys evenly and
+     * stay the same across JVMs, unlike String#hashCode.
+     */
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package rei.java.springboot.tenant;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs the tasks of the application task executor for the tenant that submitted them, so streamed
+ * responses and other asynchronous request processing keep reading the tenant of the request.
+ */
+public class TenantTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String tenantId = TenantContext.getTenantId();
+        return () -> TenantContext.runAs(tenantId, runnable);
+    }
+}
@@ -0,0 +1,9 @@
+-- Baseline schema of team_member, matching what hibernate ddl-auto=update used to create.
+-- IF NOT EXISTS keeps the migration a no-op on databases created before migrations were introduced.
+CREATE TABLE IF NOT EXISTS team_member (
+    member_id  VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (member_id)
+);
@@ -0,0 +1,5 @@
+-- Email addresses are unique; inserts rely on this constraint instead of a lookup before each write.
+CREATE UNIQUE INDEX ux_team_member_email ON team_member (email);
+
+-- Serves the first/last name lookups.
+CREATE INDEX ix_team_member_name ON team_member (last_name, first_name);
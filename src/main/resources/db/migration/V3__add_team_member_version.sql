@@ -0,0 +1,2 @@
+-- Optimistic locking: incremented on every update and exposed as the ETag of a team member.
+ALTER TABLE team_member ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Append-only log of the writes made to team_member, read by incremental sync clients through
+-- GET /api/team/changes. seq is assigned by the application; deletions are rows without details.
+CREATE TABLE team_member_change (
+    seq         BIGINT       NOT NULL,
+    change_type VARCHAR(16)  NOT NULL,
+    member_id   VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(255),
+    last_name   VARCHAR(255),
+    email       VARCHAR(255),
+    version     BIGINT,
+    changed_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (seq)
+);
@@ -0,0 +1,10 @@
+-- Outcome of the team members accepted with Prefer: respond-async, written in the transaction that
+-- inserted them, so a write replayed from the local ingest log after a crash is recognised and skipped.
+CREATE TABLE team_member_ingest (
+    tracking_id  VARCHAR(36)  NOT NULL,
+    status       VARCHAR(16)  NOT NULL,
+    member_id    VARCHAR(255),
+    message      VARCHAR(512),
+    completed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (tracking_id)
+);
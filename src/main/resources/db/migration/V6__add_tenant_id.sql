@@ -0,0 +1,14 @@
+-- Tenant key of every team member, see TeamMember#tenantId. Rows written before tenants existed
+-- belong to the default tenant. memberIds and emails are unique per tenant, and every index leads
+-- with the tenant, as every query of a tenant is restricted to its rows.
+ALTER TABLE team_member ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE team_member DROP PRIMARY KEY;
+ALTER TABLE team_member ADD PRIMARY KEY (tenant_id, member_id);
+DROP INDEX ux_team_member_email ON team_member;
+CREATE UNIQUE INDEX ux_team_member_email ON team_member (tenant_id, email);
+DROP INDEX ix_team_member_name ON team_member;
+CREATE INDEX ix_team_member_name ON team_member (tenant_id, last_name, first_name);
+
+-- Sync clients and stream subscribers only read the changes of their own tenant.
+ALTER TABLE team_member_change ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+CREATE INDEX ix_team_member_change_tenant ON team_member_change (tenant_id, seq);
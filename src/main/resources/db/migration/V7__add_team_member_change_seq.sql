@@ -0,0 +1,14 @@
+-- Last sequence number of the change log of each tenant, see TeamMemberChangeLog. A writing
+-- transaction increments it for each change it logs and holds the row lock until it completes,
+-- so the changes of a tenant commit in sequence order. A row is created on the first change a
+-- tenant logs, from the highest seq of its changes.
+CREATE TABLE team_member_change_seq (
+    tenant_id VARCHAR(64) NOT NULL,
+    seq       BIGINT      NOT NULL,
+    PRIMARY KEY (tenant_id)
+);
+
+-- Sequence numbers are unique per tenant instead of shared by all tenants and shards.
+ALTER TABLE team_member_change DROP PRIMARY KEY;
+ALTER TABLE team_member_change ADD PRIMARY KEY (tenant_id, seq);
+DROP INDEX ix_team_member_change_tenant ON team_member_change;
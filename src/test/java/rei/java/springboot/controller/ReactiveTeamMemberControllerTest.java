@@ -0,0 +1,240 @@
+package rei.java.springboot.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.service.ReactiveTeamMemberService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Tests for the ReactiveTeamMemberController.
+ */
+@WebFluxTest(ReactiveTeamMemberController.class)
+@ActiveProfiles("reactive")
+public class ReactiveTeamMemberControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveTeamMemberService teamMemberService;
+
+    private static TeamMember teamMember(String memberId, String firstName, Long version) {
+        return TeamMember.builder()
+                .memberId(memberId)
+                .firstName(firstName)
+                .lastName("Johnson")
+                .email(firstName.toLowerCase() + ".johnson@example.com")
+                .version(version)
+                .build();
+    }
+
+    /**
+     * Test case for creating a new team member.
+     */
+    @Test
+    public void givenTeamMemberObject_whenCreateTeamMember_thenReturnSavedTeamMember() {
+        // given - the service saves the team member
+        given(teamMemberService.saveTeamMember(any(TeamMember.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // when - a POST request is made
+        // then - the team member is returned with 201 CREATED
+        webTestClient.post().uri("/api/team")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(teamMember("TM201", "Alice", null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.memberId").isEqualTo("TM201")
+                .jsonPath("$.email").isEqualTo("alice.johnson@example.com");
+    }
+
+    /**
+     * Test case for creating a team member with a taken email.
+     */
+    @Test
+    public void givenTakenEmail_whenCreateTeamMember_thenReturnConflict() {
+        // given - the service signals a conflict
+        given(teamMemberService.saveTeamMember(any(TeamMember.class)))
+                .willReturn(Mono.error(new IllegalStateException("A team member already exists with the given email")));
+
+        // when/then - the response is 409 CONFLICT
+        webTestClient.post().uri("/api/team")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(teamMember("TM201", "Alice", null))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    /**
+     * Test case for streaming all team members as newline-delimited JSON.
+     */
+    @Test
+    public void givenTeamMembers_whenGetAllTeamMembers_thenStreamNdjson() {
+        // given - the service streams two team members
+        given(teamMemberService.getAllTeamMembers())
+                .willReturn(Flux.just(teamMember("TM201", "Alice", 0L), teamMember("TM202", "Bob", 0L)));
+
+        // when - all team members are requested without an Accept header
+        // then - each team member is one line of NDJSON
+        List<TeamMember> teamMembers = webTestClient.get().uri("/api/team")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TeamMember.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertThat(teamMembers).extracting(TeamMember::getMemberId).containsExactly("TM201", "TM202");
+    }
+
+    /**
+     * Test case for retrieving all team members as a JSON array.
+     */
+    @Test
+    public void givenTeamMembers_whenGetAllTeamMembersAsJson_thenReturnArray() {
+        // given - the service streams two team members
+        given(teamMemberService.getAllTeamMembers())
+                .willReturn(Flux.just(teamMember("TM201", "Alice", 0L), teamMember("TM202", "Bob", 0L)));
+
+        // when/then - a client accepting JSON gets an array
+        webTestClient.get().uri("/api/team")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].memberId").isEqualTo("TM202");
+    }
+
+    /**
+     * Test case for retrieving a page of team members.
+     */
+    @Test
+    public void givenLimit_whenGetTeamMemberPage_thenReturnPage() {
+        // given - the service returns a page with a cursor
+        given(teamMemberService.getTeamMemberPage(null, 1))
+                .willReturn(Mono.just(new TeamMemberPage(List.of(TeamMemberView.of(teamMember("TM201", "Alice", 0L))), "VE0yMDE")));
+
+        // when/then - the page and its cursor are returned
+        webTestClient.get().uri("/api/team?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].memberId").isEqualTo("TM201")
+                .jsonPath("$.next").isEqualTo("VE0yMDE");
+    }
+
+    /**
+     * Test case for retrieving a team member with its ETag and revalidating it.
+     */
+    @Test
+    public void givenTeamMemberId_whenGetTeamMemberById_thenReturnTeamMemberWithETag() {
+        // given - the service finds the team member at version 2
+        given(teamMemberService.getTeamMemberByMemberId("TM201")).willReturn(Mono.just(teamMember("TM201", "Alice", 2L)));
+
+        // when/then - the team member is returned with its version as ETag
+        webTestClient.get().uri("/api/team/{id}", "TM201")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody()
+                .jsonPath("$.version").doesNotExist();
+
+        // when/then - revalidating with the ETag returns 304 NOT MODIFIED
+        webTestClient.get().uri("/api/team/{id}", "TM201")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    /**
+     * Test case for retrieving a team member that does not exist.
+     */
+    @Test
+    public void givenInvalidTeamMemberId_whenGetTeamMemberById_thenReturn404() {
+        // given - the service finds nothing
+        given(teamMemberService.getTeamMemberByMemberId("TM999")).willReturn(Mono.empty());
+
+        // when/then - the response is 404 NOT FOUND
+        webTestClient.get().uri("/api/team/{id}", "TM999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * Test case for updating a team member with an outdated ETag.
+     */
+    @Test
+    public void givenOutdatedETag_whenUpdateTeamMember_thenReturn412() {
+        // given - the service signals a version conflict
+        given(teamMemberService.updateTeamMember(eq("TM201"), any(TeamMember.class), eq(1L)))
+                .willReturn(Mono.error(new ObjectOptimisticLockingFailureException(TeamMember.class, "TM201")));
+
+        // when/then - the response is 412 PRECONDITION FAILED
+        webTestClient.put().uri("/api/team/{id}", "TM201")
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(teamMember("TM201", "Alicia", null))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    /**
+     * Test case for updating a team member with a weak ETag.
+     */
+    @Test
+    public void givenWeakETag_whenUpdateTeamMember_thenReturn400() {
+        // when/then - the If-Match header is rejected with 400 BAD REQUEST
+        webTestClient.put().uri("/api/team/{id}", "TM201")
+                .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(teamMember("TM201", "Alicia", null))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Test case for deleting team members one by one and in bulk.
+     */
+    @Test
+    public void givenTeamMemberIds_whenDeleteTeamMembers_thenReturnOutcome() {
+        // given - one team member exists, another does not
+        given(teamMemberService.deleteTeamMember(eq("TM201"), isNull())).willReturn(Mono.just(true));
+        given(teamMemberService.deleteTeamMember(eq("TM999"), isNull())).willReturn(Mono.just(false));
+        given(teamMemberService.deleteTeamMembers(List.of("TM201", "TM202"))).willReturn(Mono.just(2L));
+
+        // when/then - deletes report 200 OK, 404 NOT FOUND and the deleted count
+        webTestClient.delete().uri("/api/team/{id}", "TM201")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Team member deleted successfully!");
+        webTestClient.delete().uri("/api/team/{id}", "TM999")
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/team?ids=TM201,TM202")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(2);
+    }
+}
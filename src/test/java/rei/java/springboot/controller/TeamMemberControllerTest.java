@@ -1,33 +1,70 @@
 package rei.java.springboot.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.dto.TeamMemberLookup;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberPage;
+import rei.java.springboot.dto.TenantTeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
 import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberChange;
+import rei.java.springboot.model.TeamMemberIngest;
 import rei.java.springboot.service.TeamMemberService;
+import rei.java.springboot.service.implementation.TeamMemberChangeBroadcaster;
+import rei.java.springboot.tenant.TenantFilter;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Integration tests for the TeamMemberController.
  */
-@WebMvcTest
+@WebMvcTest(properties = "team.admin.token=admin-secret")
 public class TeamMemberControllerTest {
 
     @Autowired
@@ -36,6 +73,9 @@ public class TeamMemberControllerTest {
     @MockBean
     private TeamMemberService teamMemberService;
 
+    @MockBean
+    private TeamMemberChangeBroadcaster changeBroadcaster;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -72,6 +112,81 @@ public class TeamMemberControllerTest {
                 .andDo(print());
     }
 
+    /**
+     * Test case for creating team members from a JSON array.
+     * Ensures that the per-item results are returned with status 200 OK.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenTeamMemberArray_whenCreateTeamMembers_thenReturnResultPerItem() throws Exception {
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM126")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@domain.com")
+                .build();
+        TeamMember anotherTeamMember = TeamMember.builder()
+                .memberId("TM127")
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("john.doe@domain.com")
+                .build();
+
+        // given - mock the service method saveTeamMembers to accept the first and reject the second
+        given(teamMemberService.saveTeamMembers(any())).willAnswer(invocation -> {
+            Iterator<TeamMember> teamMembers = invocation.getArgument(0);
+            List<String> memberIds = new ArrayList<>();
+            teamMembers.forEachRemaining(member -> memberIds.add(member.getMemberId()));
+            return List.of(TeamMemberBatchResult.created(0, memberIds.get(0)),
+                    TeamMemberBatchResult.failed(1, memberIds.get(1), "A team member already exists with the given email"));
+        });
+
+        // when - perform the POST request with a JSON array
+        ResultActions response = mockMvc.perform(post("/api/team/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(teamMember, anotherTeamMember))));
+
+        // then - verify the response status and the result of each item
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].memberId", is("TM126")))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].memberId", is("TM127")))
+                .andExpect(jsonPath("$[1].status", is("FAILED")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for creating team members from newline-delimited JSON.
+     * Ensures that every line is passed to the service as a team member.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenNdjsonBody_whenCreateTeamMembers_thenReturnResultPerLine() throws Exception {
+        // given - mock the service method saveTeamMembers to accept every team member
+        given(teamMemberService.saveTeamMembers(any())).willAnswer(invocation -> {
+            Iterator<TeamMember> teamMembers = invocation.getArgument(0);
+            List<TeamMemberBatchResult> results = new ArrayList<>();
+            teamMembers.forEachRemaining(member -> results.add(TeamMemberBatchResult.created(results.size(), member.getMemberId())));
+            return results;
+        });
+
+        // when - perform the POST request with one team member per line
+        ResultActions response = mockMvc.perform(post("/api/team/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                        {"memberId":"TM126","firstName":"John","lastName":"Doe","email":"john.doe@domain.com"}
+                        {"memberId":"TM127","firstName":"Jane","lastName":"Doe","email":"jane.doe@domain.com"}
+                        """));
+
+        // then - verify the response status and the result of each line
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].memberId", is("TM127")))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andDo(print());
+    }
+
     /*
      * Test case for retrieving all team members.
      * Ensures that the list of team members is returned with status 200 OK.
@@ -96,12 +211,19 @@ public class TeamMemberControllerTest {
     
         List<TeamMember> teamMemberList = new ArrayList<>(List.of(teamMember, anotherTeamMember));
     
-        // given - mock the service method getAllTeamMembers
-        given(teamMemberService.getAllTeamMembers()).willReturn(teamMemberList);
+        // given - mock the service method streamAllTeamMembers
+        willAnswer(invocation -> {
+            Consumer<TeamMemberView> action = invocation.getArgument(0);
+            teamMemberList.stream().map(TeamMemberView::of).forEach(action);
+            return null;
+        }).given(teamMemberService).streamAllTeamMembers(any());
     
-        // when - perform the GET request to retrieve all team members
-        ResultActions response = mockMvc.perform(get("/api/team")
-                .contentType(MediaType.APPLICATION_JSON));
+        // when - perform the GET request to retrieve all team members and wait for the streamed body
+        MvcResult mvcResult = mockMvc.perform(get("/api/team")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(mvcResult));
     
         // then - verify the response status and the list of team members returned
         response.andExpect(status().isOk())
@@ -110,6 +232,204 @@ public class TeamMemberControllerTest {
                 .andExpect(jsonPath("$[1].memberId", is("TM128")))
                 .andDo(print());
     }
+
+    /**
+     * Test case for retrieving all team members in a binary encoding.
+     * Ensures that the streamed list is CBOR when the client prefers it, and JSON otherwise.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenCborAccepted_whenGetAllTeamMembers_thenStreamCbor() throws Exception {
+        // given - mock the service method streamAllTeamMembers
+        willAnswer(invocation -> {
+            Consumer<TeamMemberView> action = invocation.getArgument(0);
+            action.accept(new TeamMemberView("TM127", "Alice", "Smith", "alice.smith@domain.com", 0L));
+            return null;
+        }).given(teamMemberService).streamAllTeamMembers(any());
+
+        // when - perform the GET request preferring CBOR over JSON
+        MvcResult mvcResult = mockMvc.perform(get("/api/team")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult response = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, is(MediaType.APPLICATION_CBOR_VALUE)))
+                .andExpect(header().string(HttpHeaders.VARY, is(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        // then - the body decodes as a CBOR array of the team members
+        List<TeamMemberView> teamMembers = new CBORMapper().readValue(response.getResponse().getContentAsByteArray(),
+                new TypeReference<List<TeamMemberView>>() { });
+        assertThat(teamMembers).extracting(TeamMemberView::memberId).containsExactly("TM127");
+    }
+
+    /**
+     * Test case for retrieving a team member in a binary encoding.
+     * Ensures that the message converters answer Accept: application/x-jackson-smile with Smile.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenSmileAccepted_whenGetTeamMemberById_thenReturnSmile() throws Exception {
+        // given - mock the service method getTeamMemberByMemberId
+        given(teamMemberService.getTeamMemberByMemberId("TM129"))
+                .willReturn(Optional.of(new TeamMemberView("TM129", "Charlie", "Brown", "charlie.brown@domain.com", 2L)));
+
+        // when - perform the GET request accepting Smile
+        MvcResult response = mockMvc.perform(get("/api/team/{id}", "TM129")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, is("application/x-jackson-smile")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andReturn();
+
+        // then - the body decodes as the team member
+        TeamMemberView teamMember = new SmileMapper().readValue(response.getResponse().getContentAsByteArray(), TeamMemberView.class);
+        assertThat(teamMember.email()).isEqualTo("charlie.brown@domain.com");
+    }
+
+    /**
+     * Test case for retrieving a page of team members.
+     * Ensures that the page items and the cursor for the next page are returned with status 200 OK.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenLimit_whenGetTeamMemberPage_thenReturnPageWithNextCursor() throws Exception {
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM127")
+                .firstName("Alice")
+                .lastName("Smith")
+                .email("alice.smith@domain.com")
+                .build();
+
+        // given - mock the service method getTeamMemberPage
+        given(teamMemberService.getTeamMemberPage(null, 1)).willReturn(new TeamMemberPage(List.of(TeamMemberView.of(teamMember)), "VE0xMjc"));
+
+        // when - perform the GET request for the first page
+        ResultActions response = mockMvc.perform(get("/api/team")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then - verify the response status, the items and the next cursor
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(1)))
+                .andExpect(jsonPath("$.items[0].memberId", is("TM127")))
+                .andExpect(jsonPath("$.next", is("VE0xMjc")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for retrieving the last page of team members.
+     * Ensures that no cursor is returned once there are no more team members.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenNextCursor_whenGetTeamMemberPage_thenReturnLastPage() throws Exception {
+        // given - mock the service method getTeamMemberPage
+        given(teamMemberService.getTeamMemberPage("VE0xMjc", 10)).willReturn(new TeamMemberPage(List.of(), null));
+
+        // when - perform the GET request for the page after the cursor
+        ResultActions response = mockMvc.perform(get("/api/team")
+                .param("limit", "10")
+                .param("next", "VE0xMjc")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then - verify the response status and that there is no next cursor
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(0)))
+                .andExpect(jsonPath("$.next", nullValue()))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for retrieving a page of the team members of all tenants.
+     * Ensures that the page holds the tenant of every team member.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenAllTenants_whenGetTeamMemberPage_thenReturnPageAcrossTenants() throws Exception {
+        // given - mock the service method getTeamMemberPageAcrossTenants
+        given(teamMemberService.getTeamMemberPageAcrossTenants(null, 2)).willReturn(new TenantTeamMemberPage(List.of(
+                new TenantTeamMemberView("acme", "TM127", "Alice", "Smith", "alice.smith@domain.com", 0L),
+                new TenantTeamMemberView("globex", "TM127", "Bob", "Jones", "bob.jones@domain.com", 0L)), "Z2xvYmV4L1RNMTI3"));
+
+        // when - perform the GET request for the first page across tenants
+        ResultActions response = mockMvc.perform(get("/api/team")
+                .param("allTenants", "true")
+                .param("limit", "2")
+                .header(TeamMemberController.ADMIN_TOKEN_HEADER, "admin-secret")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then - verify the response status, the tenants of the items and the next cursor
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(2)))
+                .andExpect(jsonPath("$.items[0].tenantId", is("acme")))
+                .andExpect(jsonPath("$.items[1].tenantId", is("globex")))
+                .andExpect(jsonPath("$.next", is("Z2xvYmV4L1RNMTI3")))
+                .andDo(print());
+        verify(teamMemberService, never()).getTeamMemberPage(any(), anyInt());
+    }
+
+    /**
+     * Test case for retrieving a page of the team members of all tenants without the admin token.
+     * Ensures that the response status is 403 FORBIDDEN and no tenant is read.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenAllTenantsWithoutAdminToken_whenGetTeamMemberPage_thenReturnForbidden() throws Exception {
+        // when - perform the GET request across tenants without a token, then with a wrong one
+        ResultActions missing = mockMvc.perform(get("/api/team")
+                .param("allTenants", "true")
+                .param("limit", "2"));
+        ResultActions wrong = mockMvc.perform(get("/api/team")
+                .param("allTenants", "true")
+                .param("limit", "2")
+                .header(TeamMemberController.ADMIN_TOKEN_HEADER, "guess"));
+
+        // then - verify that both are refused
+        missing.andExpect(status().isForbidden());
+        wrong.andExpect(status().isForbidden());
+        verify(teamMemberService, never()).getTeamMemberPageAcrossTenants(any(), anyInt());
+    }
+
+    /**
+     * Test case for a request with a malformed tenant header.
+     * Ensures that the response status is 400 BAD REQUEST and the service is not called.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenInvalidTenantHeader_whenGetTeamMemberPage_thenReturnBadRequest() throws Exception {
+        // when - perform the GET request with a tenant identifier that is not allowed
+        ResultActions response = mockMvc.perform(get("/api/team")
+                .param("limit", "10")
+                .header(TenantFilter.TENANT_HEADER, "../other")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(teamMemberService, never()).getTeamMemberPage(any(), anyInt());
+    }
+
+    /**
+     * Test case for retrieving a page of team members with an invalid cursor.
+     * Ensures that the response status is 400 BAD REQUEST.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenInvalidCursor_whenGetTeamMemberPage_thenReturnBadRequest() throws Exception {
+        // given - mock the service method getTeamMemberPage to reject the cursor
+        given(teamMemberService.getTeamMemberPage("not a cursor", 10)).willThrow(new IllegalArgumentException("Invalid page cursor"));
+
+        // when - perform the GET request with the invalid cursor
+        ResultActions response = mockMvc.perform(get("/api/team")
+                .param("limit", "10")
+                .param("next", "not a cursor"));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
     
     /**
      * Test case for retrieving a single team member by memberId.
@@ -124,10 +444,11 @@ public class TeamMemberControllerTest {
                 .firstName("Charlie")
                 .lastName("Brown")
                 .email("charlie.brown@domain.com")
+                .version(2L)
                 .build();
     
         // given - mock the service method getTeamMemberByMemberId
-        given(teamMemberService.getTeamMemberByMemberId(teamMemberId)).willReturn(Optional.of(teamMember));
+        given(teamMemberService.getTeamMemberByMemberId(teamMemberId)).willReturn(Optional.of(TeamMemberView.of(teamMember)));
     
         // when - perform the GET request to retrieve the team member
         ResultActions response = mockMvc.perform(get("/api/team/{id}", teamMemberId)
@@ -139,6 +460,37 @@ public class TeamMemberControllerTest {
                 .andExpect(jsonPath("$.firstName", is(teamMember.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(teamMember.getLastName())))
                 .andExpect(jsonPath("$.email", is(teamMember.getEmail())))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for revalidating a team member with its current ETag.
+     * Ensures that the response status is 304 NOT MODIFIED without a body.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenCurrentETag_whenGetTeamMemberById_thenReturnNotModified() throws Exception {
+        String teamMemberId = "TM129";
+        TeamMember teamMember = TeamMember.builder()
+                .memberId(teamMemberId)
+                .firstName("Charlie")
+                .lastName("Brown")
+                .email("charlie.brown@domain.com")
+                .version(2L)
+                .build();
+
+        // given - mock the service method getTeamMemberByMemberId
+        given(teamMemberService.getTeamMemberByMemberId(teamMemberId)).willReturn(Optional.of(TeamMemberView.of(teamMember)));
+
+        // when - perform the GET request with the current ETag
+        ResultActions response = mockMvc.perform(get("/api/team/{id}", teamMemberId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""));
+
+        // then - verify the response status and that no body was written
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""))
                 .andDo(print());
     }
     
@@ -204,9 +556,9 @@ public class TeamMemberControllerTest {
                 .email("tina.greene@domain.com")
                 .build();
 
-        // given - mock the service method getTeamMemberByMemberId and updateTeamMember
-        given(teamMemberService.getTeamMemberByMemberId(teamMemberId)).willReturn(Optional.of(teamMember));
-        given(teamMemberService.updateTeamMember(any(TeamMember.class))).willAnswer((invocation) -> invocation.getArgument(0));
+        // given - mock the service method updateTeamMember
+        given(teamMemberService.updateTeamMember(eq(teamMemberId), any(TeamMember.class), isNull()))
+                .willAnswer((invocation) -> Optional.of(invocation.getArgument(1)));
 
         // when - perform the PUT request to update the team member
         ResultActions response = mockMvc.perform(put("/api/team/{id}", teamMemberId)
@@ -238,9 +590,8 @@ public class TeamMemberControllerTest {
                 .email("gina.carano@domain.com")
                 .build();
 
-        // given - mock the service method getTeamMemberByMemberId and updateTeamMember
-        given(teamMemberService.getTeamMemberByMemberId(teamMemberId)).willReturn(Optional.empty());
-        given(teamMemberService.updateTeamMember(any(TeamMember.class))).willAnswer((invocation) -> invocation.getArgument(0));
+        // given - mock the service method updateTeamMember to find no row to update
+        given(teamMemberService.updateTeamMember(eq(teamMemberId), any(TeamMember.class), isNull())).willReturn(Optional.empty());
 
         // when - perform the PUT request to update the team member
         ResultActions response = mockMvc.perform(put("/api/team/{id}", teamMemberId)
@@ -252,6 +603,58 @@ public class TeamMemberControllerTest {
                 .andDo(print());
     }
 
+    /**
+     * Test case for partially updating an existing team member.
+     * Ensures that only the submitted fields are passed on and the full team member is returned.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenChangedEmail_whenPatchTeamMember_thenReturnPatchedTeamMember() throws Exception {
+        String teamMemberId = "TM132";
+        TeamMember patchedTeamMember = TeamMember.builder()
+                .memberId(teamMemberId)
+                .firstName("Eva")
+                .lastName("Green")
+                .email("eva.green@newdomain.com")
+                .build();
+
+        // given - mock the service method patchTeamMember
+        given(teamMemberService.patchTeamMember(eq(teamMemberId),
+                argThat(changes -> changes.getFirstName() == null && "eva.green@newdomain.com".equals(changes.getEmail())), isNull()))
+                .willReturn(Optional.of(patchedTeamMember));
+
+        // when - perform the PATCH request with only the email
+        ResultActions response = mockMvc.perform(patch("/api/team/{id}", teamMemberId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"eva.green@newdomain.com\"}"));
+
+        // then - verify the response status and the full team member object
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Eva")))
+                .andExpect(jsonPath("$.email", is("eva.green@newdomain.com")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for partially updating a team member with an invalid memberId.
+     * Ensures that the response status is 404 NOT FOUND.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenInvalidTeamMemberId_whenPatchTeamMember_thenReturnEmpty() throws Exception {
+        // given - mock the service method patchTeamMember to find no row to update
+        given(teamMemberService.patchTeamMember(eq("TM999"), any(TeamMember.class), isNull())).willReturn(Optional.empty());
+
+        // when - perform the PATCH request
+        ResultActions response = mockMvc.perform(patch("/api/team/{id}", "TM999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@domain.com\"}"));
+
+        // then - verify the response status
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
     /**
      * Test case for deleting an existing team member by memberId.
      * Ensures that the response status is 200 OK.
@@ -262,7 +665,7 @@ public class TeamMemberControllerTest {
         String teamMemberId = "TM132";
 
         // given - mock the service method deleteTeamMember
-        willDoNothing().given(teamMemberService).deleteTeamMember(teamMemberId);
+        given(teamMemberService.deleteTeamMember(teamMemberId, null)).willReturn(true);
 
         // when - perform the DELETE request to delete the team member
         ResultActions response = mockMvc.perform(delete("/api/team/{id}", teamMemberId));
@@ -271,7 +674,454 @@ public class TeamMemberControllerTest {
         response.andExpect(status().isOk())
                 .andDo(print());
     }
-}
 
+    /**
+     * Test case for deleting a team member with an invalid memberId.
+     * Ensures that the response status is 404 NOT FOUND.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenInvalidTeamMemberId_whenDeleteTeamMember_return404() throws Exception {
+        // given - mock the service method deleteTeamMember to find no row to delete
+        given(teamMemberService.deleteTeamMember("TM999", null)).willReturn(false);
+
+        // when - perform the DELETE request
+        ResultActions response = mockMvc.perform(delete("/api/team/{id}", "TM999"));
+
+        // then - verify the response status
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for deleting many team members at once.
+     * Ensures that the number of deleted team members is returned with status 200 OK.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenTeamMemberIds_whenDeleteTeamMembers_returnDeletedCount() throws Exception {
+        // given - mock the service method deleteTeamMembers
+        given(teamMemberService.deleteTeamMembers(List.of("TM133", "TM134", "TM999"))).willReturn(2);
+
+        // when - perform the bulk DELETE request
+        ResultActions response = mockMvc.perform(delete("/api/team").param("ids", "TM133,TM134,TM999"));
+
+        // then - verify the response status and the deleted count
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for looking up many team members at once.
+     * Ensures that the found team members and the missing memberIds are returned in request order.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenTeamMemberIds_whenLookupTeamMembers_thenReturnFoundAndMissing() throws Exception {
+        // given - mock the service method getTeamMembersByMemberIds
+        List<String> memberIds = List.of("TM134", "TM999", "TM133");
+        given(teamMemberService.getTeamMembersByMemberIds(memberIds)).willReturn(new TeamMemberLookup(
+                List.of(new TeamMemberView("TM134", "Ben", "Stone", "ben.stone@domain.com", 0L),
+                        new TeamMemberView("TM133", "Ann", "Stone", "ann.stone@domain.com", 0L)),
+                List.of("TM999")));
+
+        // when - perform the lookup request
+        ResultActions response = mockMvc.perform(post("/api/team/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(memberIds)));
+
+        // then - verify the response status and the found and missing team members
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.size()", is(2)))
+                .andExpect(jsonPath("$.found[0].memberId", is("TM134")))
+                .andExpect(jsonPath("$.found[1].firstName", is("Ann")))
+                .andExpect(jsonPath("$.missing[0]", is("TM999")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for looking up team members without memberIds.
+     * Ensures that the lookup is rejected with status 400 Bad Request.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenNoTeamMemberIds_whenLookupTeamMembers_thenReturnBadRequest() throws Exception {
+        // given - the service rejects the memberIds
+        given(teamMemberService.getTeamMembersByMemberIds(List.of())).willThrow(new IllegalArgumentException("between 1 and 1000 memberIds are required"));
+
+        // when - perform the lookup request
+        ResultActions response = mockMvc.perform(post("/api/team/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for updating a team member with its current ETag.
+     * Ensures that the version is passed on and the new ETag is returned.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenCurrentETag_whenUpdateTeamMember_thenReturnNewETag() throws Exception {
+        String teamMemberId = "TM135";
+        TeamMember updatedTeamMember = TeamMember.builder()
+                .memberId(teamMemberId)
+                .firstName("Tina")
+                .lastName("Greene")
+                .email("tina.greene@domain.com")
+                .build();
+
+        // given - mock the service method updateTeamMember for the expected version
+        given(teamMemberService.updateTeamMember(eq(teamMemberId), any(TeamMember.class), eq(2L)))
+                .willAnswer((invocation) -> {
+                    TeamMember teamMember = invocation.getArgument(1);
+                    teamMember.setVersion(3L);
+                    return Optional.of(teamMember);
+                });
+
+        // when - perform the PUT request with the ETag that was read
+        ResultActions response = mockMvc.perform(put("/api/team/{id}", teamMemberId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedTeamMember)));
+
+        // then - verify the response status and the new ETag
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for updating a team member with an outdated ETag.
+     * Ensures that the response status is 412 PRECONDITION FAILED.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenOutdatedETag_whenUpdateTeamMember_thenReturnPreconditionFailed() throws Exception {
+        String teamMemberId = "TM135";
+        TeamMember updatedTeamMember = TeamMember.builder()
+                .memberId(teamMemberId)
+                .firstName("Tina")
+                .lastName("Greene")
+                .email("tina.greene@domain.com")
+                .build();
+
+        // given - mock the service method updateTeamMember to detect a concurrent change
+        given(teamMemberService.updateTeamMember(eq(teamMemberId), any(TeamMember.class), eq(1L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(TeamMember.class, teamMemberId));
+
+        // when - perform the PUT request with an outdated ETag
+        ResultActions response = mockMvc.perform(put("/api/team/{id}", teamMemberId)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedTeamMember)));
+
+        // then - verify the response status
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for deleting a team member with a malformed If-Match header.
+     * Ensures that the response status is 400 BAD REQUEST.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenWeakETag_whenDeleteTeamMember_thenReturnBadRequest() throws Exception {
+        // when - perform the DELETE request with a weak ETag
+        ResultActions response = mockMvc.perform(delete("/api/team/{id}", "TM135")
+                .header(HttpHeaders.IF_MATCH, "W/\"2\""));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for searching team members.
+     * Ensures that the matches are returned in ranking order with the default limit.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenQuery_whenSearchTeamMembers_thenReturnMatches() throws Exception {
+        // given - mock the service method searchTeamMembers
+        given(teamMemberService.searchTeamMembers("ali joh", 10)).willReturn(List.of(
+                new TeamMemberView("TM136", "Alice", "Johnson", "alice.johnson@example.com", 0L),
+                new TeamMemberView("TM137", "Alicia", "Johns", "alicia.johns@example.com", 0L)));
 
+        // when - perform the search request
+        ResultActions response = mockMvc.perform(get("/api/team/search").param("q", "ali joh"));
 
+        // then - verify the response status and the matches
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].memberId", is("TM136")))
+                .andExpect(jsonPath("$[1].memberId", is("TM137")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for searching team members with a blank query.
+     * Ensures that the response status is 400 BAD REQUEST.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenBlankQuery_whenSearchTeamMembers_thenReturnBadRequest() throws Exception {
+        // given - the service rejects the blank query
+        given(teamMemberService.searchTeamMembers(" ", 10)).willThrow(new IllegalArgumentException("A search query is required"));
+
+        // when - perform the search request
+        ResultActions response = mockMvc.perform(get("/api/team/search").param("q", " "));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for retrieving the team members with a given name.
+     * Ensures that the paging and sort parameters are passed on and the slice is returned without a total.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenName_whenGetTeamMembersByName_thenReturnSlice() throws Exception {
+        // given - mock the service method getTeamMembersByName
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by("email"));
+        given(teamMemberService.getTeamMembersByName("Alice", "Johnson", pageRequest)).willReturn(new SliceImpl<>(List.of(
+                new TeamMemberView("TM138", "Alice", "Johnson", "alice.j@example.com", 0L),
+                new TeamMemberView("TM139", "Alice", "Johnson", "alice.johnson@example.com", 0L)),
+                pageRequest, true));
+
+        // when - perform the name lookup request
+        ResultActions response = mockMvc.perform(get("/api/team")
+                .param("firstName", "Alice").param("lastName", "Johnson")
+                .param("page", "1").param("size", "2").param("sort", "email"));
+
+        // then - verify the response status and the slice
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(2)))
+                .andExpect(jsonPath("$.items[1].memberId", is("TM139")))
+                .andExpect(jsonPath("$.page", is(1)))
+                .andExpect(jsonPath("$.size", is(2)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for retrieving team members by first name only.
+     * Ensures that the response status is 400 BAD REQUEST, as the last name leads the name index.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenFirstNameOnly_whenGetTeamMembersByName_thenReturnBadRequest() throws Exception {
+        // when - perform the name lookup request without a last name
+        ResultActions response = mockMvc.perform(get("/api/team").param("firstName", "Alice"));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for retrieving the changes made since a sequence number.
+     * Ensures that creations carry the new details and deletions are tombstones with only the memberId.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenSince_whenGetTeamMemberChanges_thenReturnChangesWithTombstones() throws Exception {
+        // given - mock the service method getTeamMemberChanges
+        Instant changedAt = Instant.parse("2026-01-01T00:00:00Z");
+        given(teamMemberService.getTeamMemberChanges(41, 2)).willReturn(new TeamMemberChanges(List.of(
+                TeamMemberChange.builder().seq(42L).type(TeamMemberChangedEvent.Type.CREATED).memberId("TM140")
+                        .firstName("Alice").lastName("Johnson").email("alice.johnson@example.com").version(0L)
+                        .changedAt(changedAt).build(),
+                TeamMemberChange.builder().seq(43L).type(TeamMemberChangedEvent.Type.DELETED).memberId("TM141")
+                        .changedAt(changedAt).build()),
+                43, true));
+
+        // when - perform the change feed request
+        ResultActions response = mockMvc.perform(get("/api/team/changes").param("since", "41").param("limit", "2"));
+
+        // then - verify the changes, the tombstone and the sequence number to continue from
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].seq", is(42)))
+                .andExpect(jsonPath("$.items[0].type", is("CREATED")))
+                .andExpect(jsonPath("$.items[0].email", is("alice.johnson@example.com")))
+                .andExpect(jsonPath("$.items[1].type", is("DELETED")))
+                .andExpect(jsonPath("$.items[1].memberId", is("TM141")))
+                .andExpect(jsonPath("$.items[1].email").doesNotExist())
+                .andExpect(jsonPath("$.next", is(43)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for retrieving the changes with a negative sequence number.
+     * Ensures that the response status is 400 BAD REQUEST.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenNegativeSince_whenGetTeamMemberChanges_thenReturnBadRequest() throws Exception {
+        // given - the service rejects the sequence number
+        given(teamMemberService.getTeamMemberChanges(-1, 100)).willThrow(new IllegalArgumentException("since must not be negative: -1"));
+
+        // when - perform the change feed request
+        ResultActions response = mockMvc.perform(get("/api/team/changes").param("since", "-1"));
+
+        // then - verify the response status
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    /**
+     * Test case for subscribing to the change stream after a reconnect.
+     * Ensures that the Last-Event-ID header is passed on and the events are streamed as text/event-stream.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenLastEventId_whenStreamTeamMemberChanges_thenStreamEvents() throws Exception {
+        // given - mock the broadcaster to open a subscription
+        SseEmitter emitter = new SseEmitter();
+        given(changeBroadcaster.subscribe(42L)).willReturn(emitter);
+
+        // when - subscribe with the id of the last received event and push one event
+        MvcResult result = mockMvc.perform(get("/api/team/stream").header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("43").data("{\"memberId\":\"TM143\"}"));
+        emitter.complete();
+
+        // then - verify the content type and the streamed event
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, is(MediaType.TEXT_EVENT_STREAM_VALUE)))
+                .andExpect(content().string("id:43\ndata:{\"memberId\":\"TM143\"}\n\n"))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for creating a team member asynchronously.
+     * Ensures that the team member is queued and its tracking id returned with status 202 Accepted.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenPreferRespondAsync_whenCreateTeamMember_thenReturnAccepted() throws Exception {
+        // given - mock the service to queue the team member
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM126")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@domain.com")
+                .build();
+        String trackingId = "3f1c2a4e-8d6b-4c1e-9a7f-2b5d8e6c4a10";
+        given(teamMemberService.enqueueTeamMember(any(TeamMember.class))).willReturn(Optional.of(TeamMemberIngest.builder()
+                .trackingId(trackingId)
+                .status(TeamMemberIngest.Status.QUEUED)
+                .build()));
+
+        // when - perform the POST request preferring an asynchronous response
+        ResultActions response = mockMvc.perform(post("/api/team")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(teamMember)));
+
+        // then - verify the response status, the status location and that nothing was saved inline
+        response.andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/team/ingest/" + trackingId))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.trackingId", is(trackingId)))
+                .andExpect(jsonPath("$.status", is("QUEUED")))
+                .andExpect(jsonPath("$.memberId").doesNotExist())
+                .andDo(print());
+        verify(teamMemberService, never()).saveTeamMember(any(TeamMember.class));
+    }
+
+    /**
+     * Test case for creating a team member asynchronously while the ingest queue is not enabled.
+     * Ensures that the preference is ignored and the team member is created with status 201 Created.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenIngestQueueDisabled_whenCreateTeamMemberAsync_thenReturnCreated() throws Exception {
+        // given - the service has no ingest queue
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM126")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@domain.com")
+                .build();
+        given(teamMemberService.enqueueTeamMember(any(TeamMember.class))).willReturn(Optional.empty());
+        given(teamMemberService.saveTeamMember(any(TeamMember.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        // when - perform the POST request preferring an asynchronous response
+        ResultActions response = mockMvc.perform(post("/api/team")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(teamMember)));
+
+        // then - verify the team member was created synchronously
+        response.andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Preference-Applied"))
+                .andExpect(jsonPath("$.memberId", is("TM126")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for creating a team member asynchronously while the ingest queue is full.
+     * Ensures that the request is rejected with status 503 Service Unavailable and a Retry-After.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenFullIngestQueue_whenCreateTeamMemberAsync_thenReturnServiceUnavailable() throws Exception {
+        // given - the ingest queue rejects the team member
+        given(teamMemberService.enqueueTeamMember(any(TeamMember.class)))
+                .willThrow(new RejectedExecutionException("The team member ingest queue is full"));
+
+        // when - perform the POST request preferring an asynchronous response
+        ResultActions response = mockMvc.perform(post("/api/team")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"memberId\":\"TM126\"}"));
+
+        // then - verify the response status and the retry hint
+        response.andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andDo(print());
+    }
+
+    /**
+     * Test case for reading the outcome of an asynchronously created team member.
+     * Ensures that a rejected team member is reported with its reason, and an unknown tracking id with 404.
+     * @throws Exception in case of any errors during the test.
+     */
+    @Test
+    public void givenTrackingId_whenGetTeamMemberIngest_thenReturnOutcome() throws Exception {
+        // given - mock the service with a rejected team member
+        String trackingId = "3f1c2a4e-8d6b-4c1e-9a7f-2b5d8e6c4a10";
+        given(teamMemberService.getTeamMemberIngest(trackingId)).willReturn(Optional.of(TeamMemberIngest.builder()
+                .trackingId(trackingId)
+                .status(TeamMemberIngest.Status.FAILED)
+                .memberId("TM126")
+                .message("A team member already exists with the given email: john.doe@domain.com")
+                .completedAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .build()));
+        given(teamMemberService.getTeamMemberIngest("unknown")).willReturn(Optional.empty());
+
+        // when - perform the status requests
+        ResultActions response = mockMvc.perform(get("/api/team/ingest/{trackingId}", trackingId));
+        ResultActions unknown = mockMvc.perform(get("/api/team/ingest/{trackingId}", "unknown"));
+
+        // then - verify the outcome and the unknown tracking id
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("FAILED")))
+                .andExpect(jsonPath("$.memberId", is("TM126")))
+                .andExpect(jsonPath("$.message", is("A team member already exists with the given email: john.doe@domain.com")))
+                .andExpect(jsonPath("$.completedAt", is("2026-01-01T00:00:00Z")))
+                .andDo(print());
+        unknown.andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,104 @@
+package rei.java.springboot.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import rei.java.springboot.model.TeamMember;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for serving GET /api/team from the roster snapshot through the embedded Tomcat, which sends
+ * the snapshot files with sendfile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:roster-snapshot;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+public class TeamMemberRosterSnapshotServerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void snapshotDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("roster-snapshot");
+        registry.add("team.snapshot.directory", directory::toString);
+    }
+
+    private static TeamMember teamMember(String memberId, String firstName) {
+        return TeamMember.builder()
+                .memberId(memberId)
+                .firstName(firstName)
+                .lastName("Johnson")
+                .email(firstName.toLowerCase() + ".johnson@example.com")
+                .build();
+    }
+
+    private void create(String memberId, String firstName) {
+        assertThat(restTemplate.postForEntity("/api/team", teamMember(memberId, firstName), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+    }
+
+    private ResponseEntity<byte[]> getAll(MediaType accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(accept));
+        return restTemplate.exchange("/api/team", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    /**
+     * JUnit test for sending the roster from its snapshot, and the snapshot following the writes.
+     */
+    @Test
+    @DisplayName("JUnit test for sending all team members from the roster snapshot")
+    public void givenTeamMembers_whenGetAllTeamMembers_thenSendRosterSnapshot() throws Exception {
+        // given
+        create("TM201", "Alice");
+        create("TM202", "Bob");
+
+        // when
+        ResponseEntity<byte[]> json = getAll(MediaType.APPLICATION_JSON);
+
+        // then - the file is sent whole, with its length rather than in chunks
+        assertThat(json.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(json.getHeaders().getContentLength()).isEqualTo(json.getBody().length);
+        JsonNode roster = objectMapper.readTree(json.getBody());
+        assertThat(roster.size()).isEqualTo(2);
+        assertThat(roster.get(1).get("firstName").asText()).isEqualTo("Bob");
+
+        // when - a team member is renamed and another deleted
+        restTemplate.put("/api/team/TM202", teamMember("TM202", "Robert"));
+        restTemplate.delete("/api/team/TM201");
+
+        // then - the next response is sent from a snapshot with the changes, in every encoding
+        JsonNode changed = objectMapper.readTree(getAll(MediaType.APPLICATION_JSON).getBody());
+        assertThat(changed.size()).isEqualTo(1);
+        assertThat(changed.get(0).get("firstName").asText()).isEqualTo("Robert");
+        ResponseEntity<byte[]> cbor = getAll(MediaType.APPLICATION_CBOR);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.getBody())).isEqualTo(changed);
+    }
+}
@@ -0,0 +1,63 @@
+package rei.java.springboot.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the Prometheus scrape endpoint using TestContainers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebMvc
+@AutoConfigureObservability
+public class ActuatorMetricsITest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        teamMemberRepository.deleteAll();
+    }
+
+    // JUnit test for the endpoint, repository, connection pool and hibernate metrics
+    @Test
+    @DisplayName("JUnit test for scraping the team member metrics")
+    public void givenTeamMemberRequests_whenScrapePrometheus_thenReturnMetrics() throws Exception {
+        // given - a team member that is saved and looked up through the API
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM301").firstName("Liam").lastName("Neeson").email("liam.neeson@example.com").build());
+        mockMvc.perform(get("/api/team/{id}", "TM301")).andExpect(status().isOk());
+
+        // when - the Prometheus endpoint is scraped
+        // then - endpoint and repository histograms, pool gauges and hibernate statistics are exposed
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/api/team/{memberId}\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_query_executions_max_seconds")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+}
@@ -0,0 +1,261 @@
+package rei.java.springboot.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.ReactiveTeamMemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the ReactiveTeamMemberController using TestContainers.
+ * The scenarios are those of {@link TeamMemberControllerITest}, run against the WebFlux and R2DBC stack.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveTeamMemberControllerITest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveTeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Setup and finish methods to clean up the database before and after each test
+    @BeforeEach
+    void setup() {
+        databaseClient.sql("DELETE FROM team_member").then().block();
+    }
+
+    @AfterEach
+    void finish() {
+        databaseClient.sql("DELETE FROM team_member").then().block();
+    }
+
+    private void save(String memberId, String firstName, String lastName) {
+        teamMemberRepository.insert(TeamMember.builder()
+                .memberId(memberId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com")
+                .build()).block();
+    }
+
+    // JUnit test for creating a team member
+    @Test
+    @DisplayName("JUnit test for creating a team member")
+    public void givenTeamMemberObject_whenCreateTeamMember_thenReturnSavedTeamMember() {
+        // given - a team member object
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM201")
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email("alice.johnson@example.com")
+                .build();
+
+        // when - a POST request is made to create a new team member
+        // then - the response should be a 201 CREATED with the saved team member
+        webTestClient.post().uri("/api/team")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(teamMember)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.memberId").isEqualTo(teamMember.getMemberId())
+                .jsonPath("$.firstName").isEqualTo(teamMember.getFirstName())
+                .jsonPath("$.lastName").isEqualTo(teamMember.getLastName())
+                .jsonPath("$.email").isEqualTo(teamMember.getEmail());
+
+        // when/then - creating it again is a 409 CONFLICT
+        webTestClient.post().uri("/api/team")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(teamMember)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    // JUnit test for streaming all team members as newline-delimited JSON
+    @Test
+    @DisplayName("JUnit test for retrieving all team members")
+    public void givenListOfTeamMembers_whenGetAllTeamMembers_returnTeamMembersStream() {
+        // given - a list of team members
+        save("TM203", "Carol", "White");
+        save("TM202", "Bob", "Smith");
+
+        // when - a GET request is made to retrieve all team members
+        List<TeamMember> teamMembers = webTestClient.get().uri("/api/team")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TeamMember.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // then - the team members are streamed in memberId order
+        assertThat(teamMembers).extracting(TeamMember::getMemberId).containsExactly("TM202", "TM203");
+    }
+
+    // JUnit test for retrieving team members page by page
+    @Test
+    @DisplayName("JUnit test for retrieving team members page by page")
+    public void givenListOfTeamMembers_whenGetTeamMemberPages_thenReturnAllTeamMembersInOrder() {
+        // given - a list of team members
+        save("TM202", "Bob", "Smith");
+        save("TM203", "Carol", "White");
+
+        // when - the first page is requested
+        TeamMemberPage firstPage = webTestClient.get().uri("/api/team?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TeamMemberPage.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(firstPage.items()).extracting(TeamMemberView::memberId).containsExactly("TM202");
+
+        // then - the next page holds the remaining team member and ends the iteration
+        webTestClient.get().uri("/api/team?limit=1&next={next}", firstPage.next())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].memberId").isEqualTo("TM203")
+                .jsonPath("$.next").doesNotExist();
+    }
+
+    // JUnit test for retrieving a team member by ID, and by an invalid ID
+    @Test
+    @DisplayName("JUnit test for retrieving a team member by ID")
+    public void givenTeamMemberId_whenGetTeamMemberById_thenReturnTeamMemberObject() {
+        // given - a team member object is saved
+        save("TM204", "David", "Brown");
+
+        // when/then - the team member is returned with a 200 OK
+        webTestClient.get().uri("/api/team/{id}", "TM204")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.memberId").isEqualTo("TM204")
+                .jsonPath("$.email").isEqualTo("david.brown@example.com");
+
+        // when/then - an unknown ID is a 404 NOT FOUND
+        webTestClient.get().uri("/api/team/{id}", "TM999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // JUnit test for updating a team member, and one with an invalid ID
+    @Test
+    @DisplayName("JUnit test for updating a team member")
+    public void givenTeamMemberObject_whenUpdateTeamMember_thenReturnUpdatedTeamMember() {
+        // given - a team member object and the updated team member object
+        save("TM205", "Tina", "Adams");
+        TeamMember updatedTeamMember = TeamMember.builder()
+                .memberId("TM205")
+                .firstName("Mike")
+                .lastName("Adams")
+                .email("mike.adams@example.com")
+                .build();
+
+        // when/then - the updated team member is returned with a 200 OK
+        webTestClient.put().uri("/api/team/{id}", "TM205")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatedTeamMember)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Mike")
+                .jsonPath("$.email").isEqualTo("mike.adams@example.com");
+
+        // when/then - updating an unknown ID is a 404 NOT FOUND
+        webTestClient.put().uri("/api/team/{id}", "TM999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatedTeamMember)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // JUnit test for deleting team members one by one and in bulk
+    @Test
+    @DisplayName("JUnit test for deleting team members by ID")
+    public void givenTeamMemberIds_whenDeleteTeamMembers_thenReturnOutcome() {
+        // given - three team members are saved
+        save("TM206", "Hannah", "Clark");
+        save("TM207", "Ian", "Wright");
+        save("TM208", "Julia", "Roberts");
+
+        // when/then - deleting one returns 200 OK, deleting it again 404 NOT FOUND
+        webTestClient.delete().uri("/api/team/{id}", "TM206")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/team/{id}", "TM206")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // when/then - a bulk delete including an unknown ID reports the two deleted team members
+        webTestClient.delete().uri("/api/team?ids=TM207,TM208,TM999")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(2);
+    }
+
+    // JUnit test for conditional requests with the ETag of a team member
+    @Test
+    @DisplayName("JUnit test for revalidating and updating a team member with its ETag")
+    public void givenTeamMemberETag_whenConditionalRequests_thenHonourPreconditions() {
+        // given - a team member object is saved and read with its ETag
+        save("TM209", "Kate", "Moss");
+        String eTag = webTestClient.get().uri("/api/team/{id}", "TM209")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TeamMember.class)
+                .getResponseHeaders().getETag();
+        TeamMember update = TeamMember.builder()
+                .memberId("TM209").firstName("Katie").lastName("Moss").email("katie.moss@example.com").build();
+
+        // when/then - revalidating with the ETag returns 304 NOT MODIFIED
+        webTestClient.get().uri("/api/team/{id}", "TM209")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        // when/then - updating with the ETag succeeds and returns a new ETag
+        String newETag = webTestClient.put().uri("/api/team/{id}", "TM209")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TeamMember.class)
+                .getResponseHeaders().getETag();
+        assertThat(newETag).isNotEqualTo(eTag);
+
+        // when/then - writing again with the old ETag fails with 412 PRECONDITION FAILED
+        webTestClient.put().uri("/api/team/{id}", "TM209")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.delete().uri("/api/team/{id}", "TM209")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+}
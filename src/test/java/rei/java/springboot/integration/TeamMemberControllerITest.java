@@ -8,27 +8,40 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import rei.java.springboot.model.TeamMember;
 import rei.java.springboot.repository.TeamMemberRepository;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Integration tests for the TeamMemberController using TestContainers.
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "team.ingest.directory=${java.io.tmpdir}/team-member-ingest-${random.uuid}")
 @AutoConfigureWebMvc
 public class TeamMemberControllerITest extends AbstractContainerBaseTest {
 
@@ -43,6 +56,9 @@ public class TeamMemberControllerITest extends AbstractContainerBaseTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @LocalServerPort
+    private int port;
+
         // Setup and finish methods to initialize and clean up the database before and after each test
         @BeforeEach
         void setup() {
@@ -101,9 +117,12 @@ public class TeamMemberControllerITest extends AbstractContainerBaseTest {
         List<TeamMember> teamMemberList = new ArrayList<>(List.of(teamMember, anotherTeamMember));
         teamMemberRepository.saveAll(teamMemberList);
 
-        // when - a GET request is made to retrieve all team members
-        ResultActions response = mockMvc.perform(get("/api/team")
-                .contentType(MediaType.APPLICATION_JSON));
+        // when - a GET request is made to retrieve all team members and the streamed body is awaited
+        MvcResult mvcResult = mockMvc.perform(get("/api/team")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(mvcResult));
 
         // then - the response should be a 200 OK with the list of team members
         response.andExpect(status().isOk())
@@ -113,6 +132,40 @@ public class TeamMemberControllerITest extends AbstractContainerBaseTest {
                 .andDo(print());
         }
 
+        // JUnit test for retrieving team members page by page
+        @Test
+        @DisplayName("JUnit test for retrieving team members page by page")
+        public void givenListOfTeamMembers_whenGetTeamMemberPages_thenReturnAllTeamMembersInOrder() throws Exception {
+        // given - a list of team members
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM202")
+                .firstName("Bob")
+                .lastName("Smith")
+                .email("bob.smith@example.com")
+                .build();
+        TeamMember anotherTeamMember = TeamMember.builder()
+                .memberId("TM203")
+                .firstName("Carol")
+                .lastName("White")
+                .email("carol.white@example.com")
+                .build();
+        teamMemberRepository.saveAll(List.of(teamMember, anotherTeamMember));
+
+        // when - the first page is requested
+        MvcResult firstPage = mockMvc.perform(get("/api/team").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].memberId", is(teamMember.getMemberId())))
+                .andReturn();
+        String next = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("next").asText();
+
+        // then - the next page holds the remaining team member and ends the iteration
+        mockMvc.perform(get("/api/team").param("limit", "1").param("next", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].memberId", is(anotherTeamMember.getMemberId())))
+                .andExpect(jsonPath("$.next").doesNotExist())
+                .andDo(print());
+        }
+
         // JUnit test for retrieving a team member by ID
         @Test
         @DisplayName("JUnit test for retrieving a team member by ID")
@@ -231,4 +284,292 @@ public class TeamMemberControllerITest extends AbstractContainerBaseTest {
         response.andExpect(status().isOk())
                 .andDo(print());
         }
+
+        // JUnit test for deleting a team member that does not exist
+        @Test
+        @DisplayName("JUnit test for deleting a missing team member by ID")
+        public void givenMissingTeamMemberId_whenDeleteTeamMember_thenReturn404() throws Exception {
+        // when - a DELETE request is made for an unknown ID
+        ResultActions response = mockMvc.perform(delete("/api/team/{id}", "TM999"));
+
+        // then - the response should be a 404 NOT FOUND
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+        }
+
+        // JUnit test for deleting many team members at once
+        @Test
+        @DisplayName("JUnit test for deleting many team members by ID")
+        public void givenTeamMemberIds_whenDeleteTeamMembers_thenReturnDeletedCount() throws Exception {
+        // given - two team members are saved
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM207").firstName("Ian").lastName("Wright").email("ian.wright@example.com").build());
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM208").firstName("Julia").lastName("Roberts").email("julia.roberts@example.com").build());
+
+        // when - a bulk DELETE request is made including an unknown ID
+        ResultActions response = mockMvc.perform(delete("/api/team").param("ids", "TM207", "TM208", "TM999"));
+
+        // then - the response should report the two deleted team members
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)))
+                .andDo(print());
+        }
+
+        // JUnit test for looking up many team members at once
+        @Test
+        @DisplayName("JUnit test for looking up many team members by ID")
+        public void givenTeamMemberIds_whenLookupTeamMembers_thenReturnFoundAndMissing() throws Exception {
+        // given - two team members are saved, one of them cached by a single lookup
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM210").firstName("Leo").lastName("Grant").email("leo.grant@example.com").build());
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM211").firstName("Mia").lastName("Grant").email("mia.grant@example.com").build());
+        mockMvc.perform(get("/api/team/{id}", "TM211")).andExpect(status().isOk());
+
+        // when - a lookup request is made including an unknown ID
+        ResultActions response = mockMvc.perform(post("/api/team/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of("TM211", "TM999", "TM210"))));
+
+        // then - the response should hold the found team members and the unknown ID in request order
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.size()", is(2)))
+                .andExpect(jsonPath("$.found[0].firstName", is("Mia")))
+                .andExpect(jsonPath("$.found[1].firstName", is("Leo")))
+                .andExpect(jsonPath("$.missing[0]", is("TM999")))
+                .andDo(print());
+        }
+
+        // JUnit test for conditional requests with the ETag of a team member
+        @Test
+        @DisplayName("JUnit test for revalidating and updating a team member with its ETag")
+        public void givenTeamMemberETag_whenConditionalRequests_thenHonourPreconditions() throws Exception {
+        // given - a team member object is saved and read with its ETag
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM209").firstName("Kate").lastName("Moss").email("kate.moss@example.com").build());
+        String eTag = mockMvc.perform(get("/api/team/{id}", "TM209"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        TeamMember update = TeamMember.builder()
+                .memberId("TM209").firstName("Katie").lastName("Moss").email("katie.moss@example.com").build();
+
+        // when/then - revalidating with the ETag returns 304 NOT MODIFIED
+        mockMvc.perform(get("/api/team/{id}", "TM209").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // when/then - updating with the ETag succeeds and returns a new ETag
+        String newETag = mockMvc.perform(put("/api/team/{id}", "TM209")
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+
+        // when/then - writing again with the old ETag fails with 412 PRECONDITION FAILED
+        mockMvc.perform(put("/api/team/{id}", "TM209")
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/team/{id}", "TM209").header(HttpHeaders.IF_MATCH, eTag))
+                .andExpect(status().isPreconditionFailed());
+        }
+
+        // JUnit test for retrieving team members who share a name slice by slice
+        @Test
+        @DisplayName("JUnit test for retrieving team members by name")
+        public void givenTeamMembersSharingAName_whenGetTeamMembersByName_thenReturnSlices() throws Exception {
+        // given - three team members share the last name, two also the first name
+        teamMemberRepository.saveAll(List.of(
+                TeamMember.builder().memberId("TM211").firstName("Dale").lastName("Cooper").email("dale.cooper@example.com").build(),
+                TeamMember.builder().memberId("TM212").firstName("Dale").lastName("Cooper").email("dale.c@example.com").build(),
+                TeamMember.builder().memberId("TM213").firstName("Alice").lastName("Cooper").email("alice.cooper@example.com").build()));
+
+        // when/then - the full name matches two team members, one per slice
+        mockMvc.perform(get("/api/team").param("lastName", "Cooper").param("firstName", "Dale").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].memberId", is("TM211")))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+        mockMvc.perform(get("/api/team").param("lastName", "Cooper").param("firstName", "Dale").param("size", "1").param("page", "1"))
+                .andExpect(jsonPath("$.items[0].memberId", is("TM212")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        // when/then - the last name alone matches all three, by first name, or by email on request
+        mockMvc.perform(get("/api/team").param("lastName", "Cooper"))
+                .andExpect(jsonPath("$.items[*].memberId", contains("TM213", "TM211", "TM212")));
+        mockMvc.perform(get("/api/team").param("lastName", "Cooper").param("sort", "email,desc"))
+                .andExpect(jsonPath("$.items[*].memberId", contains("TM211", "TM212", "TM213")))
+                .andDo(print());
+        }
+
+        // JUnit test for searching team members while they are written
+        @Test
+        @DisplayName("JUnit test for searching team members")
+        public void givenWrittenTeamMembers_whenSearch_thenReflectCommittedChanges() throws Exception {
+        // given - a team member is created through the API
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM210").firstName("Laura").lastName("Palmer").email("laura.palmer@example.com").build();
+        mockMvc.perform(post("/api/team")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamMember)))
+                .andExpect(status().isCreated());
+
+        // when/then - it is found by a name prefix and a misspelling
+        mockMvc.perform(get("/api/team/search").param("q", "lau pal"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].memberId", is("TM210")));
+        mockMvc.perform(get("/api/team/search").param("q", "plamer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].memberId", is("TM210")));
+
+        // when/then - after a rename only the new name is found, after the delete nothing
+        TeamMember renamed = TeamMember.builder()
+                .memberId("TM210").firstName("Laura").lastName("Dern").email("laura.dern@example.com").build();
+        mockMvc.perform(put("/api/team/{id}", "TM210")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(renamed)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/team/search").param("q", "dern"))
+                .andExpect(jsonPath("$[0].memberId", is("TM210")));
+        mockMvc.perform(get("/api/team/search").param("q", "palmer"))
+                .andExpect(jsonPath("$.size()", is(0)));
+        mockMvc.perform(delete("/api/team/{id}", "TM210"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/team/search").param("q", "laura"))
+                .andExpect(jsonPath("$.size()", is(0)))
+                .andDo(print());
+        }
+
+        // JUnit test for reading the changes made since the last sync
+        @Test
+        @DisplayName("JUnit test for the team member change feed")
+        public void givenWrites_whenGetTeamMemberChanges_thenReturnOnlyDeltas() throws Exception {
+        // given - the position of a sync client at the end of the change log
+        MvcResult start = mockMvc.perform(get("/api/team/changes").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long since = objectMapper.readTree(start.getResponse().getContentAsString()).get("next").asLong();
+
+        // when - a team member is created, updated and deleted through the API
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM211").firstName("Dale").lastName("Cooper").email("dale.cooper@example.com").build();
+        mockMvc.perform(post("/api/team")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamMember)))
+                .andExpect(status().isCreated());
+        teamMember.setEmail("agent.cooper@example.com");
+        mockMvc.perform(put("/api/team/{id}", "TM211")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamMember)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/team/{id}", "TM211"))
+                .andExpect(status().isOk());
+
+        // then - only these three changes follow, the deletion as a tombstone
+        MvcResult changes = mockMvc.perform(get("/api/team/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].type", contains("CREATED", "UPDATED", "DELETED")))
+                .andExpect(jsonPath("$.items[1].email", is("agent.cooper@example.com")))
+                .andExpect(jsonPath("$.items[1].version", is(1)))
+                .andExpect(jsonPath("$.items[2].memberId", is("TM211")))
+                .andExpect(jsonPath("$.items[2].email").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andReturn();
+        long next = objectMapper.readTree(changes.getResponse().getContentAsString()).get("next").asLong();
+
+        // when/then - polling again returns nothing new and keeps the position
+        mockMvc.perform(get("/api/team/changes").param("since", String.valueOf(next)))
+                .andExpect(jsonPath("$.items.size()", is(0)))
+                .andExpect(jsonPath("$.next", is((int) next)))
+                .andDo(print());
+        }
+
+        // JUnit test for streaming changes to a subscriber
+        @Test
+        @DisplayName("JUnit test for the team member change stream")
+        public void givenSubscriber_whenTeamMemberCreated_thenPushChange() throws Exception {
+        // given - a client subscribed to the change stream
+        MvcResult stream = mockMvc.perform(get("/api/team/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when - a team member is created through the API
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM212").firstName("Audrey").lastName("Horne").email("audrey.horne@example.com").build();
+        mockMvc.perform(post("/api/team")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamMember)))
+                .andExpect(status().isCreated());
+
+        // then - the committed creation is pushed to the subscriber
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!stream.getResponse().getContentAsString().contains("TM212") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(stream.getResponse().getContentAsString())
+                .containsPattern("id:\\d+\ndata:\\{\"seq\":\\d+,\"type\":\"CREATED\",\"memberId\":\"TM212\"");
+        }
+
+        // JUnit test for compressing the list of all team members over HTTP
+        @Test
+        @DisplayName("JUnit test for gzip compressed team member lists")
+        public void givenManyTeamMembers_whenGetAllTeamMembersWithGzip_thenReturnCompressedList() throws Exception {
+        // given - enough team members for the list to exceed the compression threshold
+        List<TeamMember> teamMembers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            teamMembers.add(TeamMember.builder()
+                    .memberId(String.format("TM3%02d", i)).firstName("First" + i).lastName("Last" + i)
+                    .email("member" + i + "@example.com").build());
+        }
+        teamMemberRepository.saveAll(teamMembers);
+
+        // when - the list is requested through the web server accepting gzip
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/team"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        // then - the response is gzip encoded and holds all team members
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(objectMapper.readTree(body).size()).isEqualTo(100);
+        }
+        }
+
+        // JUnit test for creating a team member asynchronously
+        @Test
+        @DisplayName("JUnit test for asynchronous team member creation")
+        public void givenPreferRespondAsync_whenCreateTeamMember_thenAcceptAndCreateInBackground() throws Exception {
+        // given - a team member object
+        TeamMember teamMember = TeamMember.builder()
+                .memberId("TM213").firstName("Dale").lastName("Cooper").email("dale.cooper@example.com").build();
+
+        // when - the team member is posted preferring an asynchronous response
+        MvcResult accepted = mockMvc.perform(post("/api/team")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamMember)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status", is("QUEUED")))
+                .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+
+        // then - the status endpoint reports the creation once the queue has written it
+        long deadline = System.currentTimeMillis() + 10_000;
+        String status = "QUEUED";
+        while (status.equals("QUEUED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = objectMapper.readTree(mockMvc.perform(get(location)).andReturn().getResponse().getContentAsString())
+                    .get("status").asText();
+        }
+        assertThat(status).isEqualTo("CREATED");
+        mockMvc.perform(get("/api/team/{memberId}", "TM213"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("dale.cooper@example.com")))
+                .andDo(print());
+        }
 }
@@ -0,0 +1,123 @@
+package rei.java.springboot.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for picking the replica of read-only transactions.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+
+    private HikariDataSource busy;
+
+    private HikariDataSource idle;
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name);
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    public void setup() {
+        primary = pool("selection-primary");
+        busy = pool("selection-busy");
+        idle = pool("selection-idle");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        new ReplicaRoutingDataSource(primary, List.of(busy, idle), ReplicaRoutingDataSource.Selection.ROUND_ROBIN,
+                new SimpleMeterRegistry()).close();
+    }
+
+    /**
+     * JUnit test for the least-connections selection.
+     */
+    @Test
+    @DisplayName("JUnit test for picking the replica with the fewest connections in use")
+    public void givenBusyReplica_whenSelectReplica_thenPickReplicaWithFewestConnections() throws Exception {
+        // given - a connection in use on the first replica
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.<DataSource>of(busy, idle),
+                ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS, new SimpleMeterRegistry());
+        try (Connection connection = busy.getConnection()) {
+            // when/then - the second replica is picked whichever replica is next in turn
+            for (int i = 0; i < 4; i++) {
+                assertThat(dataSource.selectReplica()).isEqualTo(1);
+            }
+        }
+
+        // when/then - without connections in use the replicas are picked in turn
+        assertThat(List.of(dataSource.selectReplica(), dataSource.selectReplica())).containsExactlyInAnyOrder(0, 1);
+    }
+
+    /**
+     * JUnit test for serving reads from the primary when they must see the latest writes.
+     */
+    @Test
+    @DisplayName("JUnit test for reading from the primary when required")
+    public void givenPrimaryRequired_whenGetReadOnlyConnection_thenConnectToPrimary() throws Exception {
+        // given
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.<DataSource>of(busy, idle),
+                ReplicaRoutingDataSource.Selection.ROUND_ROBIN, new SimpleMeterRegistry());
+
+        // when - a read-only connection is used with and without the primary required
+        String onPrimary = ReplicaRouting.callOnPrimary(() -> databaseOfReadOnlyConnection(dataSource));
+        String onReplica = databaseOfReadOnlyConnection(dataSource);
+
+        // then
+        assertThat(onPrimary).isEqualTo("SELECTION-PRIMARY");
+        assertThat(onReplica).isIn("SELECTION-BUSY", "SELECTION-IDLE");
+    }
+
+    /**
+     * JUnit test for serving reads from the next replica when one fails to connect.
+     */
+    @Test
+    @DisplayName("JUnit test for counting the replicas that fail to connect and reading from the next one")
+    public void givenReplicaDown_whenGetReadOnlyConnection_thenCountFailoverAndConnectToNextReplica() throws Exception {
+        // given - a first replica that cannot be reached
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (HikariDataSource down = pool("selection-down")) {
+            down.setJdbcUrl("jdbc:h2:tcp://localhost:1/down");
+            down.setInitializationFailTimeout(-1);
+            down.setConnectionTimeout(250);
+            ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.<DataSource>of(down, idle),
+                    ReplicaRoutingDataSource.Selection.ROUND_ROBIN, meterRegistry);
+
+            // when - two reads are made, the first trying the replica that is down
+            String first = databaseOfReadOnlyConnection(dataSource);
+            String second = databaseOfReadOnlyConnection(dataSource);
+
+            // then - both are served by the other replica and the failure is counted
+            assertThat(List.of(first, second)).containsOnly("SELECTION-IDLE");
+            assertThat(meterRegistry.get("team.replicas.failovers").tag("replica", "selection-down").counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("team.replicas.failovers").tag("replica", "selection-idle").counter().count())
+                    .isZero();
+        }
+    }
+
+    private static String databaseOfReadOnlyConnection(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            return connection.getCatalog();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
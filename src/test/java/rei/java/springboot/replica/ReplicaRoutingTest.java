@@ -0,0 +1,180 @@
+package rei.java.springboot.replica;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the team member API with two read replicas, stood in for by in-memory H2 databases that
+ * are not replicated, so that each read shows which database served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "team.replicas.enabled=true",
+        "team.replicas.instances.r1.url=jdbc:h2:mem:replica-one;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "team.replicas.instances.r1.username=sa",
+        "team.replicas.instances.r1.password=",
+        "team.replicas.instances.r2.url=jdbc:h2:mem:replica-two;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "team.replicas.instances.r2.username=sa",
+        "team.replicas.instances.r2.password=",
+        "team.replicas.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private List<JdbcTemplate> databases() {
+        List<JdbcTemplate> databases = new ArrayList<>();
+        databases.add(new JdbcTemplate(routingDataSource.getTargetDataSource()));
+        routingDataSource.getReplicas().forEach(replica -> databases.add(new JdbcTemplate(replica)));
+        return databases;
+    }
+
+    private JdbcTemplate replica(int index) {
+        return new JdbcTemplate(routingDataSource.getReplicas().get(index));
+    }
+
+    private MvcResult create(String memberId, String email) throws Exception {
+        return mockMvc.perform(post("/api/team")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"memberId\":\"" + memberId + "\",\"firstName\":\"Alice\",\"lastName\":\"Johnson\",\"email\":\""
+                                + email + "\"}"))
+                .andReturn();
+    }
+
+    @BeforeEach
+    public void setup() {
+        // the replicas receive the schema through replication in production
+        for (DataSource replica : routingDataSource.getReplicas()) {
+            Flyway.configure().dataSource(replica).load().migrate();
+        }
+        replica(0).update("INSERT INTO team_member (member_id, first_name, last_name, email, version) VALUES ('RP1', 'Rita', 'Replica', 'rita@example.com', 0)");
+        replica(1).update("INSERT INTO team_member (member_id, first_name, last_name, email, version) VALUES ('RP2', 'Rory', 'Replica', 'rory@example.com', 0)");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (JdbcTemplate database : databases()) {
+            database.update("DELETE FROM team_member_change");
+            database.update("DELETE FROM team_member");
+        }
+    }
+
+    /**
+     * JUnit test for serving read-only transactions from the replicas in turn.
+     */
+    @Test
+    @DisplayName("JUnit test for reading pages of team members from each replica in turn")
+    public void givenTwoReplicas_whenGetTeamMemberPage_thenReadFromEachReplicaInTurn() throws Exception {
+        // when - two pages are read by a client that did not write
+        List<String> memberIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(get("/api/team").param("limit", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.size()", is(1)))
+                    .andReturn();
+            memberIds.add(JsonPath.read(result.getResponse().getContentAsString(), "$.items[0].memberId"));
+        }
+
+        // then - each replica served one of them
+        assertThat(memberIds).containsExactlyInAnyOrder("RP1", "RP2");
+    }
+
+    /**
+     * JUnit test for reading from the primary after a write of the same client.
+     */
+    @Test
+    @DisplayName("JUnit test for reading a client's own writes from the primary")
+    public void givenClientCreatedTeamMember_whenGetTeamMemberPage_thenReadFromPrimaryWithinWindow() throws Exception {
+        // given - a client creates a team member, which is written to the primary only
+        MvcResult created = create("TM201", "alice@example.com");
+        assertThat(created.getResponse().getStatus()).isEqualTo(201);
+        Cookie primaryUntil = created.getResponse().getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE);
+        assertThat(primaryUntil).isNotNull();
+
+        // when/then - the client reads its write from the primary
+        mockMvc.perform(get("/api/team").param("limit", "10").cookie(primaryUntil))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(1)))
+                .andExpect(jsonPath("$.items[0].memberId", is("TM201")))
+                .andExpect(cookie().doesNotExist(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE));
+
+        // when/then - other clients read from the replicas, which have not caught up
+        mockMvc.perform(get("/api/team").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].memberId", anyOf(is("RP1"), is("RP2"))));
+
+        // when/then - an expired window is read from the replicas again
+        mockMvc.perform(get("/api/team").param("limit", "10")
+                        .cookie(new Cookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE, Long.toString(System.currentTimeMillis() - 1))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].memberId", anyOf(is("RP1"), is("RP2"))));
+
+        // when/then - team members looked up by memberId are read from the primary by every client
+        mockMvc.perform(get("/api/team/TM201"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("alice@example.com")));
+    }
+
+    /**
+     * JUnit test for lookups posting their memberIds not starting a read-your-writes window.
+     */
+    @Test
+    @DisplayName("JUnit test for not starting a read-your-writes window for a posted lookup")
+    public void givenLookupPosted_whenFilter_thenSetNoPrimaryUntilCookie() throws Exception {
+        // when/then - a lookup, which only reads, sets no cookie
+        mockMvc.perform(post("/api/team/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"RP1\"]"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().doesNotExist(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE));
+
+        // when/then - a POST that writes still starts the window
+        assertThat(create("TM201", "alice@example.com").getResponse().getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE))
+                .isNotNull();
+    }
+
+    /**
+     * JUnit test for checking email uniqueness on the primary.
+     */
+    @Test
+    @DisplayName("JUnit test for checking email uniqueness on the primary rather than a replica")
+    public void givenEmailOnlyOnReplica_whenCreateTeamMember_thenCheckUniquenessOnPrimary() throws Exception {
+        // when/then - an email only found on a replica is not taken on the primary
+        assertThat(create("TM201", "rita@example.com").getResponse().getStatus()).isEqualTo(201);
+
+        // when/then - an email taken on the primary is a conflict
+        assertThat(create("TM202", "rita@example.com").getResponse().getStatus()).isEqualTo(409);
+    }
+}
@@ -0,0 +1,238 @@
+package rei.java.springboot.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+
+import java.util.List;
+
+/**
+ * Tests for the ReactiveTeamMemberRepository against an in-memory H2 database migrated by Flyway.
+ */
+@DataR2dbcTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-repository;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:reactive-repository;DB_CLOSE_DELAY=-1",
+        "spring.flyway.user=sa",
+        "spring.flyway.password="
+})
+@ActiveProfiles("reactive")
+@Import(ReactiveTeamMemberRepository.class)
+public class ReactiveTeamMemberRepositoryTest {
+
+    @Autowired
+    private ReactiveTeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private TeamMember teamMember;
+
+    /**
+     * Setup method to empty the table and initialize a test TeamMember before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        databaseClient.sql("DELETE FROM team_member").then().block();
+        teamMember = TeamMember.builder()
+                .memberId("TM201")
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email("alice.johnson@example.com")
+                .build();
+    }
+
+    /**
+     * Test for inserting a TeamMember and reading it back.
+     */
+    @Test
+    @DisplayName("JUnit test for insert and find by id operations")
+    public void givenTeamMember_whenInsert_thenFindByIdReturnsItWithFirstVersion() {
+        // when - the team member is inserted
+        StepVerifier.create(teamMemberRepository.insert(teamMember))
+                .expectNextMatches(saved -> saved.getVersion() == 0L)
+                .verifyComplete();
+
+        // then - it is found with its details and the first version
+        StepVerifier.create(teamMemberRepository.findById("TM201"))
+                .expectNextMatches(found -> found.getEmail().equals("alice.johnson@example.com") && found.getVersion() == 0L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.findById("TM999"))
+                .verifyComplete();
+    }
+
+    /**
+     * Test for the email unique constraint.
+     */
+    @Test
+    @DisplayName("JUnit test for inserting a team member with a taken email")
+    public void givenTakenEmail_whenInsert_thenThrowDataIntegrityViolation() {
+        // given - a team member is inserted
+        teamMemberRepository.insert(teamMember).block();
+
+        // when - another team member with the same email is inserted
+        TeamMember duplicate = TeamMember.builder()
+                .memberId("TM202").firstName("Alice").lastName("Jones").email("alice.johnson@example.com").build();
+
+        // then - the database rejects it
+        StepVerifier.create(teamMemberRepository.insert(duplicate))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+
+    /**
+     * Test for streaming and paging through all TeamMembers in memberId order.
+     */
+    @Test
+    @DisplayName("JUnit test for find all and find page operations")
+    public void givenTeamMembers_whenFindAllAndFindPage_thenReturnInMemberIdOrder() {
+        // given - three team members inserted out of order
+        for (String memberId : List.of("TM203", "TM201", "TM202")) {
+            teamMemberRepository.insert(TeamMember.builder()
+                    .memberId(memberId).firstName("First").lastName("Last").email(memberId + "@example.com").build()).block();
+        }
+
+        // when/then - all team members are streamed in memberId order
+        StepVerifier.create(teamMemberRepository.findAll().map(TeamMember::getMemberId))
+                .expectNext("TM201", "TM202", "TM203")
+                .verifyComplete();
+
+        // when/then - pages start after the given memberId
+        StepVerifier.create(teamMemberRepository.findPage(null, 2).map(TeamMemberView::memberId))
+                .expectNext("TM201", "TM202")
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.findPage("TM202", 2).map(TeamMemberView::memberId))
+                .expectNext("TM203")
+                .verifyComplete();
+    }
+
+    /**
+     * Test for updating a TeamMember only at the expected version.
+     */
+    @Test
+    @DisplayName("JUnit test for versioned update operation")
+    public void givenTeamMember_whenUpdateByMemberId_thenOnlyMatchingVersionIsUpdated() {
+        // given - a team member is inserted at version 0
+        teamMemberRepository.insert(teamMember).block();
+
+        // when/then - an update at another version changes nothing
+        StepVerifier.create(teamMemberRepository.updateByMemberId("TM201", "Alicia", "Johnson", "alicia@example.com", 5L))
+                .expectNext(0L)
+                .verifyComplete();
+
+        // when/then - an update at the current version changes the row and its version
+        StepVerifier.create(teamMemberRepository.updateByMemberId("TM201", "Alicia", "Johnson", "alicia@example.com", 0L))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.findById("TM201"))
+                .expectNextMatches(found -> found.getFirstName().equals("Alicia") && found.getVersion() == 1L)
+                .verifyComplete();
+    }
+
+    /**
+     * Test for patching only the given columns of a TeamMember.
+     */
+    @Test
+    @DisplayName("JUnit test for patch operation")
+    public void givenTeamMember_whenPatchByMemberId_thenOnlyGivenColumnsChange() {
+        // given - a team member is inserted
+        teamMemberRepository.insert(teamMember).block();
+
+        // when - only the last name is patched
+        StepVerifier.create(teamMemberRepository.patchByMemberId("TM201", TeamMember.builder().lastName("Smith").build(), null))
+                .expectNext(1L)
+                .verifyComplete();
+
+        // then - the other columns are unchanged and the version is incremented
+        StepVerifier.create(teamMemberRepository.findById("TM201"))
+                .expectNextMatches(found -> found.getFirstName().equals("Alice")
+                        && found.getLastName().equals("Smith")
+                        && found.getVersion() == 1L)
+                .verifyComplete();
+    }
+
+    /**
+     * Test for deleting TeamMembers one by one and in bulk.
+     */
+    @Test
+    @DisplayName("JUnit test for delete operations")
+    public void givenTeamMembers_whenDelete_thenReturnDeletedRowCounts() {
+        // given - two team members are inserted
+        teamMemberRepository.insert(teamMember).block();
+        teamMemberRepository.insert(TeamMember.builder()
+                .memberId("TM202").firstName("Bob").lastName("Smith").email("bob.smith@example.com").build()).block();
+
+        // when/then - a delete at another version changes nothing, one without a version deletes the row
+        StepVerifier.create(teamMemberRepository.deleteByMemberId("TM201", 3L))
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.deleteByMemberId("TM201", null))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.existsById("TM201"))
+                .expectNext(false)
+                .verifyComplete();
+
+        // when/then - a bulk delete ignores unknown memberIds
+        StepVerifier.create(teamMemberRepository.deleteByMemberIdIn(List.of("TM202", "TM999")))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    /**
+     * Test for keeping the reactive variant to the default tenant.
+     */
+    @Test
+    @DisplayName("JUnit test for reading and changing only the team members of the default tenant")
+    public void givenSameMemberIdInTwoTenants_whenReadAndWrite_thenOnlyDefaultTenantIsUsed() {
+        // given - a team member of the default tenant and one of another tenant with the same memberId and email
+        teamMemberRepository.insert(teamMember).block();
+        databaseClient.sql("INSERT INTO team_member (tenant_id, member_id, first_name, last_name, email, version) "
+                        + "VALUES ('acme', 'TM201', 'Bob', 'Smith', 'alice.johnson@example.com', 7)")
+                .then()
+                .block();
+
+        // when/then - reads only return the team member of the default tenant
+        StepVerifier.create(teamMemberRepository.findById("TM201"))
+                .expectNextMatches(found -> found.getFirstName().equals("Alice") && found.getVersion() == 0L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.findAll().map(TeamMember::getFirstName))
+                .expectNext("Alice")
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.findPage(null, 10).map(TeamMemberView::firstName))
+                .expectNext("Alice")
+                .verifyComplete();
+
+        // when/then - writes only change the team member of the default tenant
+        StepVerifier.create(teamMemberRepository.updateByMemberId("TM201", "Alicia", "Johnson", "alicia@example.com", null))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.patchByMemberId("TM201", TeamMember.builder().lastName("Jones").build(), null))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.deleteByMemberId("TM201", null))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(teamMemberRepository.deleteByMemberIdIn(List.of("TM201")))
+                .expectNext(0L)
+                .verifyComplete();
+
+        // then - the team member of the other tenant is unchanged
+        StepVerifier.create(databaseClient.sql("SELECT first_name, last_name, version FROM team_member WHERE tenant_id = 'acme'")
+                        .map(row -> row.get("first_name", String.class) + " " + row.get("last_name", String.class)
+                                + " " + row.get("version", Long.class))
+                        .all())
+                .expectNext("Bob Smith 7")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,66 @@
+package rei.java.springboot.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMemberChange;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the TeamMemberChangeRepository to verify reads of the change log.
+ */
+@DataJpaTest
+public class TeamMemberChangeRepositoryTest {
+
+    @Autowired
+    private TeamMemberChangeRepository changeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * Setup method to append five changes to the log before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        for (long seq = 1; seq <= 5; seq++) {
+            entityManager.persist(TeamMemberChange.builder()
+                    .seq(seq)
+                    .type(seq == 5 ? TeamMemberChangedEvent.Type.DELETED : TeamMemberChangedEvent.Type.CREATED)
+                    .memberId("TM20" + seq)
+                    .firstName(seq == 5 ? null : "Alice")
+                    .changedAt(Instant.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test for reading a range of the change log.
+     */
+    @Test
+    @DisplayName("JUnit test for reading a range of the change log")
+    public void givenChanges_whenFindChanges_thenReturnRangeInSeqOrder() {
+        // when - changes after 1 up to 4 are read, at most two of them, and then all of them
+        List<TeamMemberChange> firstTwo = changeRepository.findChanges(1, 4, PageRequest.ofSize(2));
+        List<TeamMemberChange> upToFour = changeRepository.findChanges(1, 4, PageRequest.ofSize(10));
+        List<TeamMemberChange> all = changeRepository.findChanges(0, Long.MAX_VALUE, PageRequest.ofSize(10));
+
+        // then - the changes are bounded on both sides and ordered by seq
+        assertThat(firstTwo).extracting(TeamMemberChange::getSeq).containsExactly(2L, 3L);
+        assertThat(upToFour).extracting(TeamMemberChange::getSeq).containsExactly(2L, 3L, 4L);
+        assertThat(all).extracting(TeamMemberChange::getMemberId).containsExactly("TM201", "TM202", "TM203", "TM204", "TM205");
+        assertThat(all.get(4).getFirstName()).isNull();
+        assertThat(changeRepository.findMaxSeq()).isEqualTo(5L);
+    }
+}
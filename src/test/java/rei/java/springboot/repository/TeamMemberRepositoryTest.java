@@ -1,16 +1,30 @@
 package rei.java.springboot.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.dto.TeamMemberView;
 import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.tenant.TenantContext;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for the TeamMemberRepository to verify database operations.
@@ -21,6 +35,9 @@ public class TeamMemberRepositoryTest {
     @Autowired
     private TeamMemberRepository teamMemberRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private TeamMember teamMember;
 
     /**
@@ -233,4 +250,326 @@ public class TeamMemberRepositoryTest {
         assertThat(foundTeamMember.getFirstName()).isEqualTo(teamMember.getFirstName());
         assertThat(foundTeamMember.getLastName()).isEqualTo(teamMember.getLastName());
     }
+
+    /**
+     * Test for reading TeamMembers page by page with keyset queries.
+     */
+    @Test
+    @DisplayName("JUnit test for keyset pagination of team members operation")
+    public void givenTeamMemberList_whenFindPages_thenReturnTeamMembersInMemberIdOrder() {
+        // given - precondition or setup
+        TeamMember anotherTeamMember = TeamMember.builder()
+                .memberId("TM200")
+                .firstName("Bob")
+                .lastName("Smith")
+                .email("bob.smith@example.com")
+                .build();
+        teamMemberRepository.save(teamMember);
+        teamMemberRepository.save(anotherTeamMember);
+
+        // when - action or behavior that we are going to test
+        List<TeamMemberView> firstPage = teamMemberRepository.findFirstPage(PageRequest.ofSize(1));
+        List<TeamMemberView> nextPage = teamMemberRepository.findPageAfter(firstPage.get(0).memberId(), PageRequest.ofSize(1));
+        List<TeamMemberView> lastPage = teamMemberRepository.findPageAfter(nextPage.get(0).memberId(), PageRequest.ofSize(1));
+
+        // then - verify the output
+        assertThat(firstPage).extracting(TeamMemberView::memberId).containsExactly("TM200");
+        assertThat(nextPage).extracting(TeamMemberView::memberId).containsExactly("TM201");
+        assertThat(lastPage).isEmpty();
+    }
+
+    /**
+     * Test for reading TeamMembers who share a name slice by slice.
+     */
+    @Test
+    @DisplayName("JUnit test for find team members by name slice by slice operation")
+    public void givenTeamMembersSharingAName_whenFindSlices_thenReturnAllMatches() {
+        // given - precondition or setup
+        teamMemberRepository.save(teamMember);
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM202").firstName("Alice").lastName("Johnson").email("alice.j@example.com").build());
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM203").firstName("Bob").lastName("Johnson").email("bob.johnson@example.com").build());
+
+        // when - action or behavior that we are going to test
+        PageRequest byMemberId = PageRequest.of(0, 1, Sort.by("memberId"));
+        Slice<TeamMember> firstSlice = teamMemberRepository.findByJPQL("Alice", "Johnson", byMemberId);
+        Slice<TeamMember> lastSlice = teamMemberRepository.findByJPQLNamedParameters("Alice", "Johnson", firstSlice.nextPageable());
+        Slice<TeamMember> nativeSlice = teamMemberRepository.findByNative("Alice", "Johnson",
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "member_id")));
+        Slice<TeamMember> namedNativeSlice = teamMemberRepository.findByNativeNamedParameters("Alice", "Johnson",
+                PageRequest.of(1, 1, Sort.by("member_id")));
+        Slice<TeamMemberView> lastNameSlice = teamMemberRepository.findByLastName("Johnson", PageRequest.of(0, 5, Sort.by("firstName", "memberId")));
+        Slice<TeamMemberView> fullNameSlice = teamMemberRepository.findByLastNameAndFirstName("Johnson", "Alice", PageRequest.of(0, 5, Sort.by("email")));
+
+        // then - verify the output
+        assertThatThrownBy(() -> teamMemberRepository.findByJPQL("Alice", "Johnson"))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+        assertThat(firstSlice.getContent()).extracting(TeamMember::getMemberId).containsExactly("TM201");
+        assertThat(firstSlice.hasNext()).isTrue();
+        assertThat(lastSlice.getContent()).extracting(TeamMember::getMemberId).containsExactly("TM202");
+        assertThat(lastSlice.hasNext()).isFalse();
+        assertThat(nativeSlice.getContent()).extracting(TeamMember::getMemberId).containsExactly("TM202", "TM201");
+        assertThat(namedNativeSlice.getContent()).extracting(TeamMember::getMemberId).containsExactly("TM202");
+        assertThat(lastNameSlice.getContent()).extracting(TeamMemberView::memberId).containsExactly("TM201", "TM202", "TM203");
+        assertThat(fullNameSlice.getContent()).extracting(TeamMemberView::memberId).containsExactly("TM202", "TM201");
+    }
+
+    /**
+     * Test that a slice is read with a single statement and no COUNT query.
+     */
+    @Test
+    @DisplayName("JUnit test for find team members by last name without count query operation")
+    public void givenTeamMembers_whenFindByLastName_thenRunSingleStatement() {
+        // given - precondition or setup
+        teamMemberRepository.saveAndFlush(teamMember);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when - action or behavior that we are going to test
+        Slice<TeamMemberView> slice = teamMemberRepository.findByLastName("Johnson", PageRequest.of(0, 10));
+
+        // then - verify the output
+        assertThat(slice.getContent()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test for streaming all TeamMembers.
+     */
+    @Test
+    @DisplayName("JUnit test for stream all team members operation")
+    public void givenTeamMemberList_whenStreamAll_thenReturnTeamMembersInMemberIdOrder() {
+        // given - precondition or setup
+        TeamMember anotherTeamMember = TeamMember.builder()
+                .memberId("TM200")
+                .firstName("Bob")
+                .lastName("Smith")
+                .email("bob.smith@example.com")
+                .build();
+        teamMemberRepository.save(teamMember);
+        teamMemberRepository.save(anotherTeamMember);
+
+        // when - action or behavior that we are going to test
+        List<String> memberIds;
+        try (Stream<TeamMemberView> teamMembers = teamMemberRepository.streamAll()) {
+            memberIds = teamMembers.map(TeamMemberView::memberId).toList();
+        }
+
+        // then - verify the output
+        assertThat(memberIds).containsExactly("TM200", "TM201");
+    }
+
+    /**
+     * Test for finding the taken emails and memberIds of a batch.
+     */
+    @Test
+    @DisplayName("JUnit test for find existing emails and memberIds operation")
+    public void givenTeamMember_whenFindExistingEmailsAndMemberIds_thenReturnOnlyTakenValues() {
+        // given - precondition or setup
+        teamMemberRepository.save(teamMember);
+
+        // when - action or behavior that we are going to test
+        List<String> emails = teamMemberRepository.findExistingEmails(List.of(teamMember.getEmail(), "free@example.com"));
+        List<String> memberIds = teamMemberRepository.findExistingMemberIds(List.of(teamMember.getMemberId(), "TM999"));
+
+        // then - verify the output
+        assertThat(emails).containsExactly(teamMember.getEmail());
+        assertThat(memberIds).containsExactly(teamMember.getMemberId());
+    }
+
+    /**
+     * Test for finding the views of several team members with one IN query.
+     */
+    @Test
+    @DisplayName("JUnit test for find team member views by memberIds operation")
+    public void givenTeamMember_whenFindViewsByIdIn_thenReturnOnlyFoundViews() {
+        // given - precondition or setup
+        teamMemberRepository.save(teamMember);
+
+        // when - action or behavior that we are going to test
+        List<TeamMemberView> views = teamMemberRepository.findViewsByIdIn(List.of(teamMember.getMemberId(), "TM999"));
+
+        // then - verify the output
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).memberId()).isEqualTo(teamMember.getMemberId());
+        assertThat(views.get(0).email()).isEqualTo(teamMember.getEmail());
+    }
+
+    /**
+     * Test for primary-key lookups being served from the persistence context.
+     */
+    @Test
+    @DisplayName("JUnit test for find team member by primary key operation")
+    public void givenTeamMember_whenFindByPrimaryKey_thenReturnManagedInstance() {
+        // given - precondition or setup
+        TeamMember savedTeamMember = teamMemberRepository.saveAndFlush(teamMember);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when - action or behavior that we are going to test
+        Optional<TeamMember> foundTeamMember = teamMemberRepository.findById(teamMember.getMemberId());
+
+        // then - verify the output
+        assertThat(foundTeamMember).containsSame(savedTeamMember);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(teamMemberRepository.existsById(teamMember.getMemberId())).isTrue();
+        assertThat(teamMemberRepository.existsById("TM999")).isFalse();
+    }
+
+    /**
+     * Test for primary-key lookups only seeing the TeamMembers of the current tenant.
+     * Runs without the test transaction, as a session keeps the tenant it was opened for.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("JUnit test for find team member by primary key within a tenant operation")
+    public void givenSameMemberIdInTwoTenants_whenFindById_thenReturnTeamMemberOfCurrentTenant() {
+        // given - precondition or setup
+        TenantContext.runAs("acme", () -> teamMemberRepository.save(teamMember));
+        TenantContext.runAs("globex", () -> teamMemberRepository.save(TeamMember.builder()
+                .memberId(teamMember.getMemberId())
+                .firstName("Bob")
+                .lastName("Smith")
+                .email(teamMember.getEmail())
+                .build()));
+
+        try {
+            // when - action or behavior that we are going to test
+            Optional<TeamMember> acmeTeamMember = TenantContext.callAs("acme",
+                    () -> teamMemberRepository.findById(teamMember.getMemberId()));
+            Optional<TeamMember> globexTeamMember = TenantContext.callAs("globex",
+                    () -> teamMemberRepository.findById(teamMember.getMemberId()));
+            Optional<TeamMember> otherTeamMember = TenantContext.callAs("initech",
+                    () -> teamMemberRepository.findById(teamMember.getMemberId()));
+
+            // then - verify the output
+            assertThat(acmeTeamMember).get().extracting(TeamMember::getFirstName).isEqualTo("Alice");
+            assertThat(globexTeamMember).get().extracting(TeamMember::getFirstName).isEqualTo("Bob");
+            assertThat(otherTeamMember).isEmpty();
+            long acmeCount = TenantContext.callAs("acme", teamMemberRepository::count);
+            assertThat(acmeCount).isEqualTo(1);
+        } finally {
+            TenantContext.runAs("acme", teamMemberRepository::deleteAll);
+            TenantContext.runAs("globex", teamMemberRepository::deleteAll);
+        }
+    }
+
+    /**
+     * Test for the unique constraint on email.
+     */
+    @Test
+    @DisplayName("JUnit test for save team member with a taken email operation")
+    public void givenTeamMemberWithTakenEmail_whenSave_thenThrowsDataIntegrityViolation() {
+        // given - precondition or setup
+        teamMemberRepository.saveAndFlush(teamMember);
+        TeamMember anotherTeamMember = TeamMember.builder()
+                .memberId("TM202")
+                .firstName("Alicia")
+                .lastName("Johnson")
+                .email(teamMember.getEmail())
+                .build();
+
+        // when - action or behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(() -> teamMemberRepository.saveAndFlush(anotherTeamMember))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * Test for updating a TeamMember with a single UPDATE statement.
+     */
+    @Test
+    @DisplayName("JUnit test for update team member by memberId operation")
+    public void givenTeamMember_whenUpdateByMemberId_thenReturnUpdatedRowCount() {
+        // given - precondition or setup
+        teamMemberRepository.save(teamMember);
+
+        // when - action or behavior that we are going to test
+        int updated = teamMemberRepository.updateByMemberId("TM201", "Alicia", "Jones", "alicia.jones@example.com", null);
+        int missing = teamMemberRepository.updateByMemberId("TM999", "Alicia", "Jones", "alicia.jones@example.com", null);
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        TeamMember updatedTeamMember = teamMemberRepository.findById("TM201").get();
+        assertThat(updatedTeamMember.getLastName()).isEqualTo("Jones");
+        assertThat(updatedTeamMember.getEmail()).isEqualTo("alicia.jones@example.com");
+    }
+
+    /**
+     * Test for patching only the given columns of a TeamMember.
+     */
+    @Test
+    @DisplayName("JUnit test for patch team member by memberId operation")
+    public void givenTeamMember_whenPatchByMemberId_thenOnlyGivenColumnsChange() {
+        // given - precondition or setup
+        teamMemberRepository.save(teamMember);
+        TeamMember changes = TeamMember.builder().email("alice.j@example.com").build();
+
+        // when - action or behavior that we are going to test
+        int updated = teamMemberRepository.patchByMemberId("TM201", changes, null);
+        int missing = teamMemberRepository.patchByMemberId("TM999", changes, null);
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        TeamMember patchedTeamMember = teamMemberRepository.findById("TM201").get();
+        assertThat(patchedTeamMember.getFirstName()).isEqualTo("Alice");
+        assertThat(patchedTeamMember.getEmail()).isEqualTo("alice.j@example.com");
+    }
+
+    /**
+     * Test for deleting TeamMembers with single DELETE statements.
+     */
+    @Test
+    @DisplayName("JUnit test for delete team members by memberId operation")
+    public void givenTeamMembers_whenDeleteByMemberId_thenReturnDeletedRowCount() {
+        // given - precondition or setup
+        teamMemberRepository.save(teamMember);
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM202").firstName("Bob").lastName("Smith").email("bob.smith@example.com").build());
+        teamMemberRepository.save(TeamMember.builder()
+                .memberId("TM203").firstName("Carol").lastName("White").email("carol.white@example.com").build());
+
+        // when - action or behavior that we are going to test
+        int deleted = teamMemberRepository.deleteByMemberId("TM201", null);
+        int missing = teamMemberRepository.deleteByMemberId("TM201", null);
+        int bulkDeleted = teamMemberRepository.deleteByMemberIdIn(List.of("TM202", "TM203", "TM999"));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(bulkDeleted).isEqualTo(2);
+        assertThat(teamMemberRepository.findAll()).isEmpty();
+    }
+
+    /**
+     * Test for the version check of the single-statement writes.
+     */
+    @Test
+    @DisplayName("JUnit test for versioned update and delete operations")
+    public void givenTeamMember_whenWriteWithVersion_thenOnlyCurrentVersionMatches() {
+        // given - precondition or setup
+        teamMemberRepository.saveAndFlush(teamMember);
+        Long version = teamMemberRepository.findById("TM201").get().getVersion();
+
+        // when - action or behavior that we are going to test
+        int updated = teamMemberRepository.updateByMemberId("TM201", "Alicia", "Jones", "alicia.jones@example.com", version);
+        int staleUpdate = teamMemberRepository.updateByMemberId("TM201", "Alice", "Johnson", "alice.johnson@example.com", version);
+        int stalePatch = teamMemberRepository.patchByMemberId("TM201", TeamMember.builder().firstName("Ali").build(), version);
+        int patched = teamMemberRepository.patchByMemberId("TM201", TeamMember.builder().firstName("Ali").build(), version + 1);
+        int staleDelete = teamMemberRepository.deleteByMemberId("TM201", version + 1);
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(staleUpdate).isZero();
+        assertThat(stalePatch).isZero();
+        assertThat(patched).isEqualTo(1);
+        assertThat(staleDelete).isZero();
+        TeamMember current = teamMemberRepository.findById("TM201").get();
+        assertThat(current.getFirstName()).isEqualTo("Ali");
+        assertThat(current.getVersion()).isEqualTo(version + 2);
+        assertThat(teamMemberRepository.deleteByMemberId("TM201", version + 2)).isEqualTo(1);
+    }
 }
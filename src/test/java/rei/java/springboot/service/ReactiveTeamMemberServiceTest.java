@@ -0,0 +1,166 @@
+package rei.java.springboot.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.ReactiveTeamMemberRepository;
+import rei.java.springboot.service.implementation.ReactiveTeamMemberServiceImpl;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ReactiveTeamMemberService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveTeamMemberServiceTest {
+
+    @Mock
+    private ReactiveTeamMemberRepository teamMemberRepository;
+
+    @InjectMocks
+    private ReactiveTeamMemberServiceImpl teamMemberService;
+
+    private TeamMember teamMember;
+
+    /**
+     * Setup method to initialize test data before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        teamMember = TeamMember.builder()
+                .memberId("TM201")
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email("alice.johnson@example.com")
+                .build();
+    }
+
+    /**
+     * JUnit test for saveTeamMember method with a taken email.
+     */
+    @Test
+    @DisplayName("JUnit test for saveTeamMember method with a taken email")
+    public void givenTakenEmail_whenSaveTeamMember_thenSignalIllegalState() {
+        // given - the database rejects the insert on the email index
+        given(teamMemberRepository.insert(teamMember)).willReturn(Mono.error(new DataIntegrityViolationException(
+                "Duplicate entry 'alice.johnson@example.com' for key 'team_member.ux_team_member_email'")));
+
+        // when/then - the conflict is signalled as an IllegalStateException
+        StepVerifier.create(teamMemberService.saveTeamMember(teamMember))
+                .expectErrorMatches(e -> e instanceof IllegalStateException && e.getMessage().contains("email"))
+                .verify();
+    }
+
+    /**
+     * JUnit test for getTeamMemberPage method.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberPage method")
+    public void givenMoreRowsThanLimit_whenGetTeamMemberPage_thenReturnPageWithCursor() {
+        // given - one row more than the limit is available after the cursor
+        TeamMemberView view = TeamMemberView.of(teamMember);
+        TeamMemberView another = new TeamMemberView("TM202", null, null, null, null);
+        given(teamMemberRepository.findPage("TM200", 2)).willReturn(Flux.just(view, another));
+
+        // when - a page of one is requested after TM200
+        // then - the page holds the first row and a cursor pointing after it
+        StepVerifier.create(teamMemberService.getTeamMemberPage(TeamMemberPage.encodeCursor("TM200"), 1))
+                .expectNextMatches(page -> page.items().equals(List.of(view))
+                        && TeamMemberPage.decodeCursor(page.next()).equals("TM201"))
+                .verifyComplete();
+    }
+
+    /**
+     * JUnit test for getTeamMemberPage method with an invalid limit.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberPage method with an invalid limit")
+    public void givenInvalidLimit_whenGetTeamMemberPage_thenSignalIllegalArgument() {
+        // when/then - the limit is rejected before the database is queried
+        StepVerifier.create(teamMemberService.getTeamMemberPage(null, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verify(teamMemberRepository, never()).findPage(null, 1);
+    }
+
+    /**
+     * JUnit test for updateTeamMember method.
+     */
+    @Test
+    @DisplayName("JUnit test for updateTeamMember method")
+    public void givenExpectedVersion_whenUpdateTeamMember_thenReturnNextVersion() {
+        // given - the update matches one row at version 3
+        given(teamMemberRepository.updateByMemberId("TM201", "Alice", "Johnson", "alice.johnson@example.com", 3L))
+                .willReturn(Mono.just(1L));
+
+        // when/then - the updated team member carries version 4
+        StepVerifier.create(teamMemberService.updateTeamMember("TM201", teamMember, 3L))
+                .expectNextMatches(updated -> updated.getVersion() == 4L)
+                .verifyComplete();
+    }
+
+    /**
+     * JUnit test for updateTeamMember method with an outdated version.
+     */
+    @Test
+    @DisplayName("JUnit test for updateTeamMember method with an outdated version")
+    public void givenOutdatedVersion_whenUpdateTeamMember_thenSignalOptimisticLockingFailure() {
+        // given - no row matches the version, but the team member exists
+        given(teamMemberRepository.updateByMemberId("TM201", "Alice", "Johnson", "alice.johnson@example.com", 3L))
+                .willReturn(Mono.just(0L));
+        given(teamMemberRepository.existsById("TM201")).willReturn(Mono.just(true));
+
+        // when/then - the conflict is signalled
+        StepVerifier.create(teamMemberService.updateTeamMember("TM201", teamMember, 3L))
+                .expectError(ObjectOptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    /**
+     * JUnit test for deleteTeamMember method with a missing team member.
+     */
+    @Test
+    @DisplayName("JUnit test for deleteTeamMember method with a missing team member")
+    public void givenMissingTeamMember_whenDeleteTeamMember_thenReturnFalse() {
+        // given - no row is deleted
+        given(teamMemberRepository.deleteByMemberId("TM999", null)).willReturn(Mono.just(0L));
+
+        // when/then - the delete reports that nothing was deleted, without looking the row up
+        StepVerifier.create(teamMemberService.deleteTeamMember("TM999", null))
+                .expectNext(false)
+                .verifyComplete();
+        verify(teamMemberRepository, never()).existsById("TM999");
+    }
+
+    /**
+     * JUnit test for deleteTeamMembers method.
+     */
+    @Test
+    @DisplayName("JUnit test for deleteTeamMembers method")
+    public void givenDuplicateMemberIds_whenDeleteTeamMembers_thenDeleteDistinctIds() {
+        // given - the repository deletes the distinct memberIds
+        given(teamMemberRepository.deleteByMemberIdIn(Set.of("TM201", "TM202"))).willReturn(Mono.just(2L));
+
+        // when/then - the number of deleted team members is returned
+        StepVerifier.create(teamMemberService.deleteTeamMembers(List.of("TM201", "TM202", "TM201")))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,101 @@
+package rei.java.springboot.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberBatchWriter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for TeamMemberBatchWriter against the embedded database.
+ */
+@DataJpaTest
+@Import(TeamMemberBatchWriter.class)
+public class TeamMemberBatchWriterTest {
+
+    @Autowired
+    private TeamMemberBatchWriter teamMemberBatchWriter;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    /**
+     * JUnit test for inserting a chunk with valid, duplicate and incomplete team members.
+     */
+    @Test
+    @DisplayName("JUnit test for batch insert of team members")
+    public void givenMixedChunk_whenInsert_thenOnlyValidTeamMembersCreated() {
+        // given - an existing team member and a chunk with one valid and several rejected team members
+        teamMemberRepository.saveAndFlush(TeamMember.builder()
+                .memberId("TM201")
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email("alice.johnson@example.com")
+                .build());
+        List<TeamMember> chunk = Arrays.asList(
+                TeamMember.builder().memberId("TM202").firstName("Bob").lastName("Smith").email("bob.smith@example.com").build(),
+                TeamMember.builder().memberId("TM201").firstName("Al").lastName("Johnson").email("al.johnson@example.com").build(),
+                TeamMember.builder().memberId("TM203").firstName("Alicia").lastName("Johnson").email("alice.johnson@example.com").build(),
+                TeamMember.builder().memberId("TM204").firstName("Bobby").lastName("Smith").email("bob.smith@example.com").build(),
+                TeamMember.builder().memberId("TM205").firstName("Carol").build(),
+                null);
+
+        // when - the chunk is inserted
+        List<TeamMemberBatchResult> results = teamMemberBatchWriter.insert(chunk, 10);
+
+        // then - only the valid team member is created and every item has a result
+        assertThat(results).extracting(TeamMemberBatchResult::index).containsExactly(10, 11, 12, 13, 14, 15);
+        assertThat(results).extracting(TeamMemberBatchResult::status).containsExactly(
+                TeamMemberBatchResult.Status.CREATED,
+                TeamMemberBatchResult.Status.FAILED,
+                TeamMemberBatchResult.Status.FAILED,
+                TeamMemberBatchResult.Status.FAILED,
+                TeamMemberBatchResult.Status.FAILED,
+                TeamMemberBatchResult.Status.FAILED);
+        assertThat(teamMemberRepository.findAll()).extracting(TeamMember::getMemberId)
+                .containsExactlyInAnyOrder("TM201", "TM202");
+    }
+
+    /**
+     * JUnit test for a chunk rejected by the database failing alone.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("JUnit test for batch insert of a chunk rejected by the database")
+    public void givenChunkRejectedByDatabase_whenInsert_thenThrowDataAccessExceptionAndKeepOtherChunks() {
+        // given - three chunks, the second holding a first name longer than its column
+        List<TeamMember> first = List.of(TeamMember.builder()
+                .memberId("TM201").firstName("Alice").lastName("Johnson").email("alice.johnson@example.com").build());
+        List<TeamMember> rejected = List.of(
+                TeamMember.builder().memberId("TM202").firstName("Bob").lastName("Smith").email("bob.smith@example.com").build(),
+                TeamMember.builder().memberId("TM203").firstName("C".repeat(300)).lastName("Jones").email("carol.jones@example.com").build());
+        List<TeamMember> last = List.of(TeamMember.builder()
+                .memberId("TM204").firstName("Dave").lastName("Brown").email("dave.brown@example.com").build());
+
+        try {
+            // when - the chunks are inserted one after the other
+            teamMemberBatchWriter.insert(first, 0);
+            assertThrows(DataAccessException.class, () -> teamMemberBatchWriter.insert(rejected, 1));
+            teamMemberBatchWriter.insert(last, 3);
+
+            // then - the rejected chunk is rolled back as a whole while the others are committed
+            assertThat(teamMemberRepository.findAll()).extracting(TeamMember::getMemberId)
+                    .containsExactlyInAnyOrder("TM201", "TM204");
+        } finally {
+            teamMemberRepository.deleteAllInBatch();
+        }
+    }
+}
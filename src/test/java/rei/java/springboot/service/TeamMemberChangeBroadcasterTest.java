@@ -0,0 +1,323 @@
+package rei.java.springboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import rei.java.springboot.controller.TeamMemberController;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMemberChange;
+import rei.java.springboot.service.implementation.TeamMemberChangeBroadcaster;
+import rei.java.springboot.service.implementation.TeamMemberChangeLog;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests for TeamMemberChangeBroadcaster, subscribed to through the stream endpoint of a standalone
+ * TeamMemberController so that events are written to real, asynchronously completed responses.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TeamMemberChangeBroadcasterTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private static final Duration WRITE_TIMEOUT = Duration.ofMillis(200);
+
+    /**
+     * Writes to the responses of requests with an X-Stall header block until released, as to a client that stopped reading.
+     */
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    @Mock
+    private TeamMemberChangeLog changeLog;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TeamMemberChangeBroadcaster broadcaster;
+
+    private MockMvc mockMvc;
+
+    private static TeamMemberChange change(long seq) {
+        return change(TenantContext.DEFAULT_TENANT, seq);
+    }
+
+    private static TeamMemberChange change(String tenantId, long seq) {
+        return TeamMemberChange.builder()
+                .seq(seq)
+                .tenantId(tenantId)
+                .type(TeamMemberChangedEvent.Type.UPDATED)
+                .memberId("TM" + seq)
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email("alice.johnson@example.com")
+                .version(seq)
+                .changedAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+    }
+
+    private static List<Long> eventIds(String content) {
+        return EVENT_ID.matcher(content).results().map(match -> Long.parseLong(match.group(1))).toList();
+    }
+
+    /**
+     * Waits until the streamed response satisfies the condition, or returns what was received after 10 seconds.
+     */
+    private static String awaitContent(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String content = result.getResponse().getContentAsString();
+        while (!condition.test(content) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    /**
+     * A filter blocking the writes to the responses of requests with an X-Stall header.
+     */
+    private Filter stallingFilter() {
+        return (request, response, chain) -> {
+            if (((HttpServletRequest) request).getHeader("X-Stall") == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            ServletOutputStream out = response.getOutputStream();
+            ServletOutputStream stalled = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        unstall.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                    out.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return out.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    out.setWriteListener(writeListener);
+                }
+            };
+            chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return stalled;
+                }
+            });
+        };
+    }
+
+    private MvcResult subscribe(Long lastEventId) throws Exception {
+        MockHttpServletRequestBuilder stream = get("/api/team/stream").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            stream.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(stream)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /**
+     * Setup method to build the broadcaster and a controller serving its stream.
+     */
+    @BeforeEach
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        broadcaster = new TeamMemberChangeBroadcaster(changeLog, objectMapper, meterRegistry, WRITE_TIMEOUT);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new TeamMemberController(mock(TeamMemberService.class), objectMapper, broadcaster,
+                        mock(ObjectProvider.class), false, ""))
+                .addFilters(stallingFilter())
+                .build();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        unstall.countDown();
+        broadcaster.destroy();
+    }
+
+    /**
+     * JUnit test for pushing committed changes to every subscriber.
+     */
+    @Test
+    @DisplayName("JUnit test for pushing changes to all subscribers")
+    public void givenSubscribers_whenChangesCommitted_thenPushEachChangeToAll() throws Exception {
+        // given - two subscribers
+        MvcResult first = subscribe(null);
+        MvcResult second = subscribe(null);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("team.changes.subscribers").gauge().value()).isEqualTo(2);
+
+        // when - two changes are committed
+        broadcaster.onTeamMemberChangeCommitted(change(1));
+        broadcaster.onTeamMemberChangeCommitted(change(2));
+
+        // then - both subscribers receive both changes in order, with the sequence number as id
+        for (MvcResult result : List.of(first, second)) {
+            String content = awaitContent(result, received -> eventIds(received).size() == 2);
+            assertThat(eventIds(content)).containsExactly(1L, 2L);
+            assertThat(content).contains("data:{\"seq\":1,\"type\":\"UPDATED\",\"memberId\":\"TM1\"");
+            assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        }
+    }
+
+    /**
+     * JUnit test for replaying missed changes to a reconnecting subscriber.
+     */
+    @Test
+    @DisplayName("JUnit test for replaying changes after Last-Event-ID")
+    public void givenLastEventId_whenSubscribe_thenReplayMissedChangesOnce() throws Exception {
+        // given - the change log holds two changes after the last one the client received
+        given(changeLog.read(5, TeamMemberChangeBroadcaster.BUFFER_SIZE))
+                .willReturn(new TeamMemberChanges(List.of(change(6), change(7)), 7, false));
+
+        // when - the client reconnects, then the last replayed change and a new one are broadcast
+        MvcResult result = subscribe(5L);
+        broadcaster.onTeamMemberChangeCommitted(change(7));
+        broadcaster.onTeamMemberChangeCommitted(change(8));
+
+        // then - each change is received once, replayed changes first
+        String content = awaitContent(result, received -> eventIds(received).contains(8L));
+        assertThat(eventIds(content)).containsExactly(6L, 7L, 8L);
+    }
+
+    /**
+     * JUnit test for a subscriber that falls behind by more than its buffer.
+     */
+    @Test
+    @DisplayName("JUnit test for dropping the oldest changes of a slow subscriber")
+    public void givenSlowSubscriber_whenBufferOverflows_thenDropOldestChanges() throws Exception {
+        // given - a subscriber whose replay is held, so nothing is sent to it meanwhile
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(changeLog.read(0, TeamMemberChangeBroadcaster.BUFFER_SIZE)).willAnswer(invocation -> {
+            replaying.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new TeamMemberChanges(List.of(), 0, false);
+        });
+        CompletableFuture<MvcResult> subscription = CompletableFuture.supplyAsync(() -> {
+            try {
+                return subscribe(0L);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(replaying.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // when - more changes than the buffer holds are committed before it catches up
+        int committed = TeamMemberChangeBroadcaster.BUFFER_SIZE + 44;
+        LongStream.rangeClosed(1, committed).forEach(seq -> broadcaster.onTeamMemberChangeCommitted(change(seq)));
+        release.countDown();
+        MvcResult result = subscription.get(10, TimeUnit.SECONDS);
+
+        // then - only the newest changes are delivered and the dropped ones are counted
+        String content = awaitContent(result, received -> eventIds(received).contains((long) committed));
+        assertThat(eventIds(content)).hasSize(TeamMemberChangeBroadcaster.BUFFER_SIZE)
+                .startsWith(45L)
+                .endsWith((long) committed);
+        assertThat(meterRegistry.get("team.changes.dropped").counter().count()).isEqualTo(44);
+    }
+
+    /**
+     * JUnit test for pushing changes only to the subscribers of their tenant.
+     */
+    @Test
+    @DisplayName("JUnit test for pushing changes to the subscribers of their tenant")
+    public void givenSubscribersOfTwoTenants_whenChangesCommitted_thenPushEachChangeToItsTenant() throws Exception {
+        // given - a subscriber of the default tenant and one of another tenant
+        MvcResult defaultTenant = subscribe(null);
+        MvcResult acme = TenantContext.callAs("acme", () -> {
+            try {
+                return subscribe(null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // when - a change of each tenant is committed
+        broadcaster.onTeamMemberChangeCommitted(change("acme", 1));
+        broadcaster.onTeamMemberChangeCommitted(change(TenantContext.DEFAULT_TENANT, 2));
+        broadcaster.onTeamMemberChangeCommitted(change("acme", 3));
+
+        // then - each subscriber only receives the changes of its tenant
+        assertThat(eventIds(awaitContent(acme, received -> eventIds(received).contains(3L)))).containsExactly(1L, 3L);
+        assertThat(eventIds(awaitContent(defaultTenant, received -> eventIds(received).contains(2L)))).containsExactly(2L);
+    }
+
+    /**
+     * JUnit test for subscribers that stopped reading.
+     */
+    @Test
+    @DisplayName("JUnit test for dropping subscribers whose writes block past the write timeout")
+    public void givenStalledSubscribers_whenChangeCommitted_thenDropThemAndPushToOthers() throws Exception {
+        // given - more subscribers that stopped reading than there are sender threads, and one reading
+        int stalled = 8;
+        for (int i = 0; i < stalled; i++) {
+            mockMvc.perform(get("/api/team/stream").accept(MediaType.TEXT_EVENT_STREAM).header("X-Stall", "true"))
+                    .andExpect(request().asyncStarted());
+        }
+        MvcResult reading = subscribe(null);
+
+        // when - a change is committed
+        broadcaster.onTeamMemberChangeCommitted(change(1));
+
+        // then - the reading subscriber receives it, and the stalled ones are dropped once their writes timed out
+        assertThat(eventIds(awaitContent(reading, received -> eventIds(received).contains(1L)))).containsExactly(1L);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (broadcaster.subscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("team.changes.write.timeouts").counter().count()).isEqualTo(stalled);
+
+        // when - the stalled writes complete, then another change is committed
+        unstall.countDown();
+        broadcaster.onTeamMemberChangeCommitted(change(2));
+
+        // then - the reading subscriber is still served
+        assertThat(eventIds(awaitContent(reading, received -> eventIds(received).contains(2L)))).containsExactly(1L, 2L);
+    }
+}
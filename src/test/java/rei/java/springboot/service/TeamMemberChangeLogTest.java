@@ -0,0 +1,213 @@
+package rei.java.springboot.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberChange;
+import rei.java.springboot.repository.TeamMemberChangeRepository;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberChangeLog;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for TeamMemberChangeLog against the embedded database. The writes are committed, as the
+ * log only shows changes once their transactions completed, and removed after each test.
+ */
+@DataJpaTest
+@Import(TeamMemberChangeLog.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+public class TeamMemberChangeLogTest {
+
+    @Autowired
+    private TeamMemberChangeLog changeLog;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private TeamMemberChangeRepository changeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private static TeamMember teamMember(String memberId, String firstName) {
+        return TeamMember.builder()
+                .memberId(memberId)
+                .firstName(firstName)
+                .lastName("Johnson")
+                .email(firstName.toLowerCase() + ".johnson@example.com")
+                .build();
+    }
+
+    private void create(TeamMember teamMember) {
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(TeamMemberChangedEvent.created(teamMemberRepository.saveAndFlush(teamMember))));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        TenantContext.runAs(TenantContext.ALL_TENANTS, () -> {
+            teamMemberRepository.deleteAllInBatch();
+            changeRepository.deleteAllInBatch();
+        });
+    }
+
+    /**
+     * JUnit test for logging creations, updates and deletions.
+     */
+    @Test
+    @DisplayName("JUnit test for logging creations, updates and deletions")
+    public void givenWrites_whenRead_thenReturnChangesInOrderWithTombstones() {
+        // given - the current end of the log
+        long since = changeLog.read(0, 1000).next();
+
+        // when - a team member is created, updated without a known version and deleted
+        create(teamMember("TM201", "Alice"));
+        transactionTemplate.executeWithoutResult(status -> {
+            teamMemberRepository.updateByMemberId("TM201", "Alicia", "Johnson", "alicia.johnson@example.com", null);
+            eventPublisher.publishEvent(TeamMemberChangedEvent.updated("TM201", null));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            teamMemberRepository.deleteByMemberId("TM201", null);
+            eventPublisher.publishEvent(TeamMemberChangedEvent.deleted("TM201"));
+        });
+        TeamMemberChanges firstTwo = changeLog.read(since, 2);
+        TeamMemberChanges rest = changeLog.read(firstTwo.next(), 2);
+
+        // then - the changes are read in order, the update is read back and the deletion is a tombstone
+        assertThat(firstTwo.items()).extracting(TeamMemberChange::getType)
+                .containsExactly(TeamMemberChangedEvent.Type.CREATED, TeamMemberChangedEvent.Type.UPDATED);
+        assertThat(firstTwo.items().get(1).getEmail()).isEqualTo("alicia.johnson@example.com");
+        assertThat(firstTwo.items().get(1).getVersion()).isEqualTo(1L);
+        assertThat(firstTwo.hasNext()).isTrue();
+        assertThat(rest.items()).singleElement().satisfies(tombstone -> {
+            assertThat(tombstone.getType()).isEqualTo(TeamMemberChangedEvent.Type.DELETED);
+            assertThat(tombstone.getMemberId()).isEqualTo("TM201");
+            assertThat(tombstone.getEmail()).isNull();
+        });
+        assertThat(rest.hasNext()).isFalse();
+        assertThat(changeLog.read(rest.next(), 2).items()).isEmpty();
+        assertThat(changeLog.read(rest.next(), 2).next()).isEqualTo(rest.next());
+    }
+
+    /**
+     * JUnit test for writes waiting for the change in flight before them, and rolled back changes.
+     */
+    @Test
+    @DisplayName("JUnit test for committing changes in sequence order")
+    public void givenChangeInFlight_whenLaterWrite_thenCommitLaterChangeAfterIt() throws Exception {
+        // given - a transaction that logged a change but has not committed yet
+        long since = changeRepository.findLastSeq(TenantContext.DEFAULT_TENANT).orElse(0L);
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slowWrite = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(TeamMemberChangedEvent.created(teamMemberRepository.saveAndFlush(teamMember("TM201", "Alice"))));
+            logged.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(logged.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // when - a later change is logged meanwhile
+        CompletableFuture<Void> laterWrite = CompletableFuture.runAsync(() -> create(teamMember("TM202", "Bob")));
+
+        // then - it waits for the change in flight, so readers cannot move past it
+        Thread.sleep(200);
+        assertThat(laterWrite).isNotDone();
+        assertThat(changeLog.read(since, 10).items()).isEmpty();
+
+        // when - the first transaction commits, a third one rolls back and a fourth one commits
+        commit.countDown();
+        slowWrite.get(10, TimeUnit.SECONDS);
+        laterWrite.get(10, TimeUnit.SECONDS);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(TeamMemberChangedEvent.created(teamMemberRepository.saveAndFlush(teamMember("TM203", "Carol"))));
+            status.setRollbackOnly();
+        });
+        create(teamMember("TM204", "Dave"));
+
+        // then - the committed changes are numbered in commit order, without the rolled back one
+        assertThat(changeLog.read(since, 10).items())
+                .extracting(TeamMemberChange::getMemberId, TeamMemberChange::getSeq)
+                .containsExactly(tuple("TM201", since + 1), tuple("TM202", since + 2), tuple("TM204", since + 3));
+    }
+
+    /**
+     * JUnit test for numbering the changes of each tenant on their own.
+     */
+    @Test
+    @DisplayName("JUnit test for numbering the changes of each tenant on their own")
+    public void givenTwoTenants_whenWrite_thenNumberChangesPerTenant() {
+        // given - the last sequence numbers of two tenants
+        long since = changeRepository.findLastSeq(TenantContext.DEFAULT_TENANT).orElse(0L);
+        long acmeSince = changeRepository.findLastSeq("acme").orElse(0L);
+
+        // when - both create a team member with the same memberId
+        create(teamMember("TM201", "Alice"));
+        TenantContext.runAs("acme", () -> create(teamMember("TM201", "Bob")));
+        TenantContext.runAs("acme", () -> create(teamMember("TM202", "Carol")));
+
+        // then - each tenant reads its own changes, numbered from its own last change
+        assertThat(changeLog.read(since, 10).items()).extracting(TeamMemberChange::getFirstName, TeamMemberChange::getSeq)
+                .containsExactly(tuple("Alice", since + 1));
+        assertThat(TenantContext.callAs("acme", () -> changeLog.read(acmeSince, 10).items()))
+                .extracting(TeamMemberChange::getFirstName, TeamMemberChange::getSeq)
+                .containsExactly(tuple("Bob", acmeSince + 1), tuple("Carol", acmeSince + 2));
+    }
+
+    /**
+     * JUnit test for publishing logged changes once their transaction committed.
+     */
+    @Test
+    @DisplayName("JUnit test for publishing committed changes")
+    public void givenCommittedAndRolledBackWrites_whenCompleted_thenPublishOnlyCommittedChanges() {
+        // given - a transaction that logs a change but is still open
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(TeamMemberChangedEvent.created(teamMemberRepository.saveAndFlush(teamMember("TM201", "Alice"))));
+
+            // then - nothing is published before the commit
+            assertThat(applicationEvents.stream(TeamMemberChange.class)).isEmpty();
+        });
+
+        // when - the transaction committed and another one rolls back
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(TeamMemberChangedEvent.created(teamMemberRepository.saveAndFlush(teamMember("TM202", "Bob"))));
+            status.setRollbackOnly();
+        });
+
+        // then - only the committed change was published, with its sequence number
+        assertThat(applicationEvents.stream(TeamMemberChange.class)).singleElement().satisfies(change -> {
+            assertThat(change.getMemberId()).isEqualTo("TM201");
+            assertThat(change.getSeq()).isEqualTo(changeLog.read(0, 1000).next());
+        });
+    }
+}
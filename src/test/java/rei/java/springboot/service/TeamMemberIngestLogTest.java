@@ -0,0 +1,203 @@
+package rei.java.springboot.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rei.java.springboot.service.implementation.TeamMemberIngestLog;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for TeamMemberIngestLog on a temporary directory, reopening the log as after a restart.
+ */
+public class TeamMemberIngestLogTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    private Path directory;
+
+    private static byte[] payload(int i) {
+        return ("{\"memberId\":\"TM" + i + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(List<TeamMemberIngestLog.Entry> entries) {
+        return entries.stream().map(entry -> new String(entry.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private List<String> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).filter(name -> name.endsWith(".log")).sorted().toList();
+        }
+    }
+
+    /**
+     * JUnit test for recovering the records appended before a restart.
+     */
+    @Test
+    @DisplayName("JUnit test for recovering appended records across segments")
+    public void givenAppendedRecords_whenReopened_thenRecoverThemInOrder() throws IOException {
+        // given - more records than fit in one segment are appended, then the log is closed
+        List<UUID> trackingIds = Stream.generate(UUID::randomUUID).limit(20).toList();
+        long lastPosition = 0;
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.recover()).isEmpty();
+            for (int i = 0; i < trackingIds.size(); i++) {
+                lastPosition = log.append(trackingIds.get(i), payload(i));
+            }
+        }
+
+        // when - the log is opened again
+        List<TeamMemberIngestLog.Entry> entries;
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            entries = log.recover();
+        }
+
+        // then - every record is recovered in append order, with the tracking id it was appended with
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(entries).extracting(TeamMemberIngestLog.Entry::trackingId).containsExactlyElementsOf(trackingIds);
+        assertThat(payloads(entries)).first().isEqualTo("{\"memberId\":\"TM0\"}");
+        assertThat(entries.get(entries.size() - 1).position()).isEqualTo(lastPosition);
+    }
+
+    /**
+     * JUnit test for checkpointing written records.
+     */
+    @Test
+    @DisplayName("JUnit test for skipping and deleting checkpointed records")
+    public void givenCheckpoint_whenReopened_thenRecoverOnlyLaterRecordsAndDeleteOldSegments() throws IOException {
+        // given - records spanning several segments, checkpointed up to the fifteenth
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            log.recover();
+            for (int i = 0; i < 20; i++) {
+                long position = log.append(UUID.randomUUID(), payload(i));
+                if (i == 14) {
+                    log.checkpoint(position);
+                }
+            }
+        }
+
+        // when - the log is opened again
+        List<TeamMemberIngestLog.Entry> entries;
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            entries = log.recover();
+        }
+
+        // then - only the records after the checkpoint are recovered and consumed segments are gone
+        assertThat(payloads(entries)).containsExactly(
+                "{\"memberId\":\"TM15\"}", "{\"memberId\":\"TM16\"}", "{\"memberId\":\"TM17\"}",
+                "{\"memberId\":\"TM18\"}", "{\"memberId\":\"TM19\"}");
+        assertThat(segmentFiles()).first().isNotEqualTo(String.format("%020d.log", 0));
+    }
+
+    /**
+     * JUnit test for a record torn by a crash.
+     */
+    @Test
+    @DisplayName("JUnit test for ending the log at a torn record")
+    public void givenTornRecord_whenReopened_thenRecoverRecordsBeforeItAndAppendOverIt() throws IOException {
+        // given - three records, the second of which is corrupted as by a crash during the write
+        UUID first = UUID.randomUUID();
+        long tornAt;
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            log.recover();
+            tornAt = log.append(first, payload(1));
+            log.append(UUID.randomUUID(), payload(2));
+            log.append(UUID.randomUUID(), payload(3));
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(directory.resolve(String.format("%020d.log", 0)).toFile(), "rw")) {
+            // a byte of the payload of the second record, after its 24 byte header
+            segment.seek(tornAt + 30);
+            segment.write('x');
+        }
+
+        // when - the log is opened again and a record is appended
+        UUID appended = UUID.randomUUID();
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.recover()).extracting(TeamMemberIngestLog.Entry::trackingId).containsExactly(first);
+            assertThat(log.append(appended, payload(4))).isGreaterThan(tornAt);
+        }
+
+        // then - the appended record follows the last intact one
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.recover()).extracting(TeamMemberIngestLog.Entry::trackingId).containsExactly(first, appended);
+        }
+    }
+
+    /**
+     * JUnit test for opening a log that is already open.
+     */
+    @Test
+    @DisplayName("JUnit test for rejecting records larger than a segment and a second writer")
+    public void givenOpenLog_whenOpenedAgainOrOversizedRecordAppended_thenThrowsException() throws IOException {
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            log.recover();
+
+            // when/then - a record larger than a segment is rejected
+            assertThrows(IllegalArgumentException.class, () -> log.append(UUID.randomUUID(), new byte[SEGMENT_SIZE]));
+
+            // when/then - the directory cannot be opened twice
+            assertThrows(RuntimeException.class, () -> new TeamMemberIngestLog(directory, SEGMENT_SIZE));
+        }
+    }
+
+    /**
+     * JUnit test for sharing a force between the records appended before it.
+     */
+    @Test
+    @DisplayName("JUnit test for forcing the records appended before a force once")
+    public void givenAppendedRecords_whenForced_thenForceEachRecordOnce() throws Exception {
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, SEGMENT_SIZE)) {
+            log.recover();
+
+            // given - two records appended before a force
+            long first = log.append(UUID.randomUUID(), payload(1));
+            long second = log.append(UUID.randomUUID(), payload(2));
+
+            // when/then - the force for the second record also covers the first
+            assertThat(log.force(second)).isTrue();
+            assertThat(log.force(first)).isFalse();
+            assertThat(log.force(second)).isFalse();
+
+            // when/then - a record appended later needs a force of its own
+            long third = log.append(UUID.randomUUID(), payload(3));
+            assertThat(log.force(third)).isTrue();
+
+            // when - records are appended and forced by several threads at once
+            ExecutorService appenders = Executors.newFixedThreadPool(4);
+            long last = 0;
+            try {
+                List<Future<Long>> appends = IntStream.range(0, 40)
+                        .mapToObj(i -> appenders.submit(() -> {
+                            long position = log.append(UUID.randomUUID(), payload(i));
+                            log.force(position);
+                            return position;
+                        }))
+                        .toList();
+                for (Future<Long> append : appends) {
+                    last = Math.max(last, append.get(10, TimeUnit.SECONDS));
+                }
+            } finally {
+                appenders.shutdown();
+            }
+
+            // then - every record is covered by a force
+            assertThat(log.force(last)).isFalse();
+        }
+    }
+}
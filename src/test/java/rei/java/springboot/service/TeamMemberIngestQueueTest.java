@@ -0,0 +1,277 @@
+package rei.java.springboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.DataException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
+import rei.java.springboot.repository.TeamMemberIngestRepository;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberBatchWriter;
+import rei.java.springboot.service.implementation.TeamMemberIngestLog;
+import rei.java.springboot.service.implementation.TeamMemberIngestQueue;
+import rei.java.springboot.service.implementation.TeamMemberIngestWriter;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for TeamMemberIngestQueue draining into the embedded database. The drainer commits its own
+ * transactions, so the tests run without one and clean up after themselves.
+ */
+@DataJpaTest
+@Import({TeamMemberIngestWriter.class, TeamMemberBatchWriter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TeamMemberIngestQueueTest {
+
+    @Autowired
+    private TeamMemberIngestWriter ingestWriter;
+
+    @Autowired
+    private TeamMemberBatchWriter teamMemberBatchWriter;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private TeamMemberIngestRepository ingestRepository;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TeamMemberIngestQueue queue;
+
+    private static TeamMember teamMember(String memberId, String email) {
+        return TeamMember.builder()
+                .memberId(memberId)
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email(email)
+                .build();
+    }
+
+    private TeamMemberIngestQueue queue() {
+        return queue(ingestWriter);
+    }
+
+    private TeamMemberIngestQueue queue(TeamMemberIngestWriter ingestWriter) {
+        return new TeamMemberIngestQueue(directory, 64 * 1024, 1000, false, teamMemberBatchWriter, ingestWriter,
+                objectMapper, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Waits until the queue has written everything it accepted, for up to 10 seconds.
+     */
+    private void awaitDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queue.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.size()).isZero();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (queue != null) {
+            queue.stop();
+        }
+        ingestRepository.deleteAll();
+        teamMemberRepository.deleteAll();
+    }
+
+    /**
+     * JUnit test for writing queued team members in the background.
+     */
+    @Test
+    @DisplayName("JUnit test for writing queued team members and their outcomes")
+    public void givenQueuedTeamMembers_whenDrained_thenCreateValidOnesAndRecordOutcomes() throws InterruptedException {
+        // given - a running queue
+        queue = queue();
+        queue.start();
+
+        // when - two team members with the same email are queued
+        TeamMemberIngest first = queue.enqueue(teamMember("TM201", "alice.johnson@example.com"));
+        TeamMemberIngest second = queue.enqueue(teamMember("TM202", "alice.johnson@example.com"));
+        assertThat(first.getStatus()).isEqualTo(TeamMemberIngest.Status.QUEUED);
+        awaitDrained();
+
+        // then - the first is created, the second rejected, and both outcomes are recorded
+        assertThat(teamMemberRepository.findAll()).extracting(TeamMember::getMemberId).containsExactly("TM201");
+        assertThat(ingestRepository.findById(first.getTrackingId())).get()
+                .extracting(TeamMemberIngest::getStatus).isEqualTo(TeamMemberIngest.Status.CREATED);
+        TeamMemberIngest rejected = ingestRepository.findById(second.getTrackingId()).orElseThrow();
+        assertThat(rejected.getStatus()).isEqualTo(TeamMemberIngest.Status.FAILED);
+        assertThat(rejected.getMessage()).isEqualTo("A team member already exists with the given email: alice.johnson@example.com");
+        assertThat(queue.getQueued(first.getTrackingId())).isEmpty();
+    }
+
+    /**
+     * JUnit test for draining on after the database rejected a batch.
+     */
+    @Test
+    @DisplayName("JUnit test for recording the team members the database rejects as failed")
+    public void givenTeamMemberRejectedByDatabase_whenDrained_thenRecordFailureAndKeepDraining() throws InterruptedException {
+        // given - a running queue
+        queue = queue();
+        queue.start();
+
+        // when - a team member whose first name does not fit its column is queued next to a valid one
+        TeamMemberIngest valid = queue.enqueue(teamMember("TM201", "alice.johnson@example.com"));
+        TeamMember tooLong = teamMember("TM202", "bob.smith@example.com");
+        tooLong.setFirstName("B".repeat(300));
+        TeamMemberIngest rejected = queue.enqueue(tooLong);
+        awaitDrained();
+
+        // then - the valid one is created and the rejected one recorded as failed
+        assertThat(ingestRepository.findById(valid.getTrackingId())).get()
+                .extracting(TeamMemberIngest::getStatus).isEqualTo(TeamMemberIngest.Status.CREATED);
+        TeamMemberIngest failed = ingestRepository.findById(rejected.getTrackingId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(TeamMemberIngest.Status.FAILED);
+        assertThat(failed.getMessage()).startsWith("The team member was rejected by the database: ");
+
+        // when/then - the queue keeps writing later team members
+        TeamMemberIngest later = queue.enqueue(teamMember("TM203", "carol.white@example.com"));
+        awaitDrained();
+        assertThat(ingestRepository.findById(later.getTrackingId())).get()
+                .extracting(TeamMemberIngest::getStatus).isEqualTo(TeamMemberIngest.Status.CREATED);
+        assertThat(teamMemberRepository.findAll()).extracting(TeamMember::getMemberId).containsExactlyInAnyOrder("TM201", "TM203");
+    }
+
+    /**
+     * JUnit test for draining on after a batch failed with an exception that was not translated.
+     */
+    @Test
+    @DisplayName("JUnit test for recording the team members of a batch failing unexpectedly as failed")
+    public void givenBatchFailingUnexpectedly_whenDrained_thenRecordFailureAndKeepDraining() throws InterruptedException {
+        // given - a writer failing with a raw Hibernate exception, then with an unexpected one
+        TeamMemberIngestWriter failingWriter = mock(TeamMemberIngestWriter.class);
+        given(failingWriter.write(anyMap()))
+                .willThrow(new DataException("value too long", new SQLException("Value too long for column")))
+                .willThrow(new IllegalStateException("Unexpected failure"));
+        queue = queue(failingWriter);
+        queue.start();
+
+        // when
+        TeamMemberIngest first = queue.enqueue(teamMember("TM201", "alice.johnson@example.com"));
+        awaitDrained();
+        TeamMemberIngest second = queue.enqueue(teamMember("TM202", "bob.smith@example.com"));
+        awaitDrained();
+
+        // then - both are recorded as failed and the drainer is still running
+        verify(failingWriter, timeout(10_000)).fail(eq(first.getTrackingId()), any(), eq(
+                "The team member was rejected by the database: Value too long for column"));
+        verify(failingWriter, timeout(10_000)).fail(eq(second.getTrackingId()), any(), eq(
+                "The team member could not be written: Unexpected failure"));
+        assertThat(queue.getQueued(second.getTrackingId())).isEmpty();
+        assertThat(queue.enqueue(teamMember("TM203", "carol.white@example.com")).getStatus())
+                .isEqualTo(TeamMemberIngest.Status.QUEUED);
+    }
+
+    /**
+     * JUnit test for replaying the ingest log after a restart.
+     */
+    @Test
+    @DisplayName("JUnit test for writing the team members left in the log once")
+    public void givenUncheckpointedLog_whenStarted_thenWriteOnlyTeamMembersWithoutOutcome() throws IOException, InterruptedException {
+        // given - a log holding two team members, the first of which was committed before the crash
+        UUID committed = UUID.randomUUID();
+        UUID lost = UUID.randomUUID();
+        try (TeamMemberIngestLog log = new TeamMemberIngestLog(directory, 64 * 1024)) {
+            log.recover();
+            log.append(committed, objectMapper.writeValueAsBytes(Map.of("tenantId", TenantContext.DEFAULT_TENANT,
+                    "teamMember", teamMember("TM201", "alice.johnson@example.com"))));
+            log.append(lost, objectMapper.writeValueAsBytes(Map.of("tenantId", TenantContext.DEFAULT_TENANT,
+                    "teamMember", teamMember("TM202", "bob.smith@example.com"))));
+        }
+        ingestRepository.saveAndFlush(TeamMemberIngest.builder()
+                .trackingId(committed.toString())
+                .status(TeamMemberIngest.Status.CREATED)
+                .memberId("TM201")
+                .completedAt(Instant.now())
+                .build());
+
+        // when - the queue is started
+        queue = queue();
+        queue.start();
+        awaitDrained();
+
+        // then - only the team member without a recorded outcome is written
+        assertThat(teamMemberRepository.findAll()).extracting(TeamMember::getMemberId).containsExactly("TM202");
+        assertThat(ingestRepository.findAll()).extracting(TeamMemberIngest::getTrackingId)
+                .containsExactlyInAnyOrder(committed.toString(), lost.toString());
+    }
+
+    /**
+     * JUnit test for writing queued team members of several tenants.
+     */
+    @Test
+    @DisplayName("JUnit test for writing queued team members into the tenant that queued them")
+    public void givenTeamMembersQueuedByTwoTenants_whenDrained_thenCreateEachInItsTenant() throws InterruptedException {
+        // given - a running queue
+        queue = queue();
+        queue.start();
+
+        // when - the same team member is queued by two tenants, next to one of the default tenant
+        TenantContext.runAs("acme", () -> queue.enqueue(teamMember("TM201", "alice.johnson@example.com")));
+        queue.enqueue(teamMember("TM202", "bob.smith@example.com"));
+        TenantContext.runAs("globex", () -> queue.enqueue(teamMember("TM201", "alice.johnson@example.com")));
+        awaitDrained();
+
+        // then - each tenant holds the team members it queued
+        try {
+            assertThat(teamMemberRepository.findAll()).extracting(TeamMember::getMemberId).containsExactly("TM202");
+            List<TeamMember> acme = TenantContext.callAs("acme", teamMemberRepository::findAll);
+            List<TeamMember> globex = TenantContext.callAs("globex", teamMemberRepository::findAll);
+            assertThat(acme).extracting(TeamMember::getMemberId).containsExactly("TM201");
+            assertThat(globex).extracting(TeamMember::getMemberId).containsExactly("TM201");
+        } finally {
+            TenantContext.runAs("acme", teamMemberRepository::deleteAll);
+            TenantContext.runAs("globex", teamMemberRepository::deleteAll);
+        }
+    }
+
+    /**
+     * JUnit test for enqueueing while the queue is not running.
+     */
+    @Test
+    @DisplayName("JUnit test for rejecting team members when the queue is stopped")
+    public void givenStoppedQueue_whenEnqueue_thenThrowsException() {
+        // given - a queue that was started and stopped
+        queue = queue();
+        queue.start();
+        queue.stop();
+
+        // when/then - new team members are rejected
+        assertThrows(RejectedExecutionException.class, () -> queue.enqueue(teamMember("TM201", "alice.johnson@example.com")));
+        assertThat(queue.isRunning()).isFalse();
+    }
+}
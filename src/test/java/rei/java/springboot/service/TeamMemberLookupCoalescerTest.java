@@ -0,0 +1,284 @@
+package rei.java.springboot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberLookupCoalescer;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for coalescing concurrent team member lookups.
+ */
+public class TeamMemberLookupCoalescerTest {
+
+    private TeamMemberRepository teamMemberRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    private static TeamMemberView view(String memberId) {
+        return new TeamMemberView(memberId, "Alice", "Johnson", memberId.toLowerCase() + "@example.com", 0L);
+    }
+
+    @BeforeEach
+    public void setup() {
+        teamMemberRepository = mock(TeamMemberRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    private TeamMemberLookupCoalescer coalescer(Duration batchWindow, int maxBatchSize) {
+        return new TeamMemberLookupCoalescer(teamMemberRepository, batchWindow, maxBatchSize, meterRegistry);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    /**
+     * Waits until the given number of lookups reached the coalescer.
+     */
+    private void awaitLookups(int lookups) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("team.lookups") < lookups && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        // the last lookup needs a moment from counting to joining the in-flight one
+        Thread.sleep(50);
+    }
+
+    /**
+     * JUnit test for concurrent lookups of the same memberId sharing one query.
+     */
+    @Test
+    @DisplayName("JUnit test for concurrent lookups of one memberId sharing a single query")
+    public void givenQueryInFlight_whenFindViewByIdConcurrently_thenShareOneQuery() throws Exception {
+        // given - a query that takes until released
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return Optional.of(view("TM201"));
+        }).given(teamMemberRepository).findViewById("TM201");
+
+        // when - eight lookups arrive while it is in flight
+        List<Future<Optional<TeamMemberView>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> coalescer.findViewById("TM201")));
+        }
+        awaitLookups(8);
+        release.countDown();
+
+        // then - all of them get the result of one query
+        for (Future<Optional<TeamMemberView>> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).contains(view("TM201"));
+        }
+        verify(teamMemberRepository, times(1)).findViewById("TM201");
+        assertThat(count("team.lookups.queries")).isEqualTo(1);
+
+        // when/then - a later lookup queries again
+        assertThat(coalescer.findViewById("TM201")).contains(view("TM201"));
+        verify(teamMemberRepository, times(2)).findViewById("TM201");
+    }
+
+    /**
+     * JUnit test for lookups arriving after a committed change not sharing a result read before it.
+     */
+    @Test
+    @DisplayName("JUnit test for querying again after the team member changed")
+    public void givenQueryInFlight_whenTeamMemberChanged_thenLaterLookupQueriesAgain() throws Exception {
+        // given - a lookup in flight that read the team member before the change
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return Optional.of(view("TM201"));
+        }).willReturn(Optional.empty()).given(teamMemberRepository).findViewById("TM201");
+        Future<Optional<TeamMemberView>> before = executor.submit(() -> coalescer.findViewById("TM201"));
+        awaitLookups(1);
+
+        // when - the team member is deleted, then looked up again
+        coalescer.onTeamMemberChanged(TeamMemberChangedEvent.deleted("TM201"));
+        Optional<TeamMemberView> after = coalescer.findViewById("TM201");
+        release.countDown();
+
+        // then
+        assertThat(after).isEmpty();
+        assertThat(before.get(10, TimeUnit.SECONDS)).isPresent();
+        verify(teamMemberRepository, times(2)).findViewById("TM201");
+    }
+
+    /**
+     * JUnit test for a single lookup only handing on its result when the team member did not change while read.
+     */
+    @Test
+    @DisplayName("JUnit test for not handing on a team member changed while the lookup read it")
+    public void givenLookupInFlight_whenTeamMemberChanged_thenDoNotHandOnChangedTeamMember() throws Exception {
+        // given - a lookup reading the team member until released
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return Optional.of(view("TM201"));
+        }).willReturn(Optional.of(view("TM201"))).given(teamMemberRepository).findViewById("TM201");
+        Map<String, TeamMemberView> unchanged = new ConcurrentHashMap<>();
+        Future<Optional<TeamMemberView>> changed = executor.submit(() -> coalescer.findViewById("TM201", unchanged::put));
+        awaitLookups(1);
+
+        // when - the team member is changed before the read returns
+        coalescer.onTeamMemberChanged(TeamMemberChangedEvent.deleted("TM201"));
+        release.countDown();
+
+        // then - the view is returned but not handed on
+        assertThat(changed.get(10, TimeUnit.SECONDS)).contains(view("TM201"));
+        assertThat(unchanged).isEmpty();
+
+        // when/then - a lookup without a change meanwhile hands its view on
+        assertThat(coalescer.findViewById("TM201", unchanged::put)).contains(view("TM201"));
+        assertThat(unchanged).containsOnlyKeys(TenantContext.key("TM201"));
+    }
+
+    /**
+     * JUnit test for merging lookups of different memberIds into one IN query.
+     */
+    @Test
+    @DisplayName("JUnit test for batching lookups of different memberIds into one query")
+    public void givenBatchWindow_whenFindViewByIdConcurrently_thenReadBatchWithOneQuery() throws Exception {
+        // given - a window long enough for all lookups to join, closed early once the batch is full
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ofSeconds(10), 3);
+        given(teamMemberRepository.findViewsByIdIn(anyCollection())).willReturn(List.of(view("TM201"), view("TM202")));
+
+        // when - three different memberIds are looked up, one of them missing
+        Future<Optional<TeamMemberView>> first = executor.submit(() -> coalescer.findViewById("TM201"));
+        Future<Optional<TeamMemberView>> second = executor.submit(() -> coalescer.findViewById("TM202"));
+        Future<Optional<TeamMemberView>> missing = executor.submit(() -> coalescer.findViewById("TM299"));
+
+        // then - they are read with one query, well before the window ends
+        assertThat(first.get(5, TimeUnit.SECONDS)).contains(view("TM201"));
+        assertThat(second.get(5, TimeUnit.SECONDS)).contains(view("TM202"));
+        assertThat(missing.get(5, TimeUnit.SECONDS)).isEmpty();
+        verify(teamMemberRepository, times(1)).findViewsByIdIn(anyCollection());
+        verify(teamMemberRepository, never()).findViewById("TM201");
+        assertThat(meterRegistry.get("team.lookups.batch.size").summary().max()).isEqualTo(3);
+    }
+
+    /**
+     * JUnit test for reading many memberIds in chunks and handing them on for caching.
+     */
+    @Test
+    @DisplayName("JUnit test for reading many memberIds with one query per chunk")
+    public void givenManyMemberIds_whenFindViewsByIds_thenQueryInChunks() {
+        // given - five memberIds, two of them stored
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        List<String> memberIds = List.of("TM201", "TM202", "TM203", "TM204", "TM205");
+        given(teamMemberRepository.findViewsByIdIn(List.of("TM201", "TM202", "TM203"))).willReturn(List.of(view("TM201")));
+        given(teamMemberRepository.findViewsByIdIn(List.of("TM204", "TM205"))).willReturn(List.of(view("TM205")));
+        Map<String, TeamMemberView> unchanged = new HashMap<>();
+
+        // when - they are looked up in chunks of three
+        Map<String, TeamMemberView> found = coalescer.findViewsByIds(memberIds, 3, unchanged::put);
+
+        // then - the stored ones are found and handed on under their tenant-qualified memberIds
+        assertThat(found).containsOnlyKeys("TM201", "TM205");
+        assertThat(unchanged).containsOnlyKeys(TenantContext.key("TM201"), TenantContext.key("TM205"));
+        assertThat(count("team.lookups")).isEqualTo(5);
+        assertThat(count("team.lookups.queries")).isEqualTo(2);
+    }
+
+    /**
+     * JUnit test for a bulk lookup sharing its query with single lookups and not caching changed team members.
+     */
+    @Test
+    @DisplayName("JUnit test for not handing on a team member changed while the bulk lookup read it")
+    public void givenBulkLookupInFlight_whenTeamMemberChanged_thenDoNotHandOnChangedTeamMember() throws Exception {
+        // given - a bulk lookup reading two team members until released
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return List.of(view("TM201"), view("TM202"));
+        }).given(teamMemberRepository).findViewsByIdIn(anyCollection());
+        Map<String, TeamMemberView> unchanged = new ConcurrentHashMap<>();
+        Future<Map<String, TeamMemberView>> bulk = executor.submit(
+                () -> coalescer.findViewsByIds(List.of("TM201", "TM202"), 100, unchanged::put));
+        assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // when - a single lookup of one of them arrives, then the other one is changed
+        Future<Optional<TeamMemberView>> single = executor.submit(() -> coalescer.findViewById("TM201"));
+        awaitLookups(3);
+        coalescer.onTeamMemberChanged(TeamMemberChangedEvent.deleted("TM202"));
+        release.countDown();
+
+        // then - the single lookup shares the bulk query, and only the unchanged team member is handed on
+        assertThat(single.get(10, TimeUnit.SECONDS)).contains(view("TM201"));
+        assertThat(bulk.get(10, TimeUnit.SECONDS)).containsOnlyKeys("TM201", "TM202");
+        assertThat(unchanged).containsOnlyKeys(TenantContext.key("TM201"));
+        verify(teamMemberRepository, never()).findViewById("TM201");
+    }
+
+    /**
+     * JUnit test for every waiting lookup failing with the exception of the shared query.
+     */
+    @Test
+    @DisplayName("JUnit test for rethrowing the exception of a shared query to every lookup")
+    public void givenFailingQuery_whenFindViewByIdConcurrently_thenEveryLookupThrows() throws Exception {
+        // given - a query that fails once released
+        TeamMemberLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            throw new QueryTimeoutException("timeout");
+        }).given(teamMemberRepository).findViewById("TM201");
+
+        // when
+        Future<Optional<TeamMemberView>> first = executor.submit(() -> coalescer.findViewById("TM201"));
+        Future<Optional<TeamMemberView>> second = executor.submit(() -> coalescer.findViewById("TM201"));
+        awaitLookups(2);
+        release.countDown();
+
+        // then
+        for (Future<Optional<TeamMemberView>> result : List.of(first, second)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertThat(e.getCause()).isInstanceOf(QueryTimeoutException.class);
+        }
+        verify(teamMemberRepository, times(1)).findViewById("TM201");
+    }
+}
@@ -0,0 +1,298 @@
+package rei.java.springboot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberRosterSnapshot;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for TeamMemberRosterSnapshot against the embedded database. The writes are committed, as the
+ * snapshot is built in a transaction of its own and only applies committed changes.
+ */
+@DataJpaTest
+@AutoConfigureJson
+@Import(TeamMemberRosterSnapshot.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TeamMemberRosterSnapshotTest {
+
+    @Autowired
+    private TeamMemberRosterSnapshot snapshot;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void snapshotDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("roster-snapshot");
+        registry.add("team.snapshot.directory", directory::toString);
+    }
+
+    private static TeamMember teamMember(String memberId, String firstName) {
+        return TeamMember.builder()
+                .memberId(memberId)
+                .firstName(firstName)
+                .lastName("Johnson")
+                .email(firstName.toLowerCase() + ".johnson@example.com")
+                .build();
+    }
+
+    private TeamMember create(TeamMember teamMember) {
+        return transactionTemplate.execute(status -> {
+            TeamMember saved = teamMemberRepository.saveAndFlush(teamMember);
+            eventPublisher.publishEvent(TeamMemberChangedEvent.created(saved));
+            return saved;
+        });
+    }
+
+    private TeamMember rename(TeamMember teamMember, String firstName) {
+        return transactionTemplate.execute(status -> {
+            teamMember.setFirstName(firstName);
+            TeamMember saved = teamMemberRepository.saveAndFlush(teamMember);
+            eventPublisher.publishEvent(TeamMemberChangedEvent.updated(saved.getMemberId(), saved));
+            return saved;
+        });
+    }
+
+    private void delete(String memberId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            teamMemberRepository.deleteById(memberId);
+            eventPublisher.publishEvent(TeamMemberChangedEvent.deleted(memberId));
+        });
+    }
+
+    private JsonNode read(MediaType encoding, ObjectMapper mapper) throws IOException {
+        return mapper.readTree(Files.readAllBytes(snapshot.current(encoding).path()));
+    }
+
+    private List<String> firstNames() throws IOException {
+        List<String> firstNames = new ArrayList<>();
+        read(MediaType.APPLICATION_JSON, objectMapper).forEach(teamMember -> firstNames.add(teamMember.get("firstName").asText()));
+        return firstNames;
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        TenantContext.runAs(TenantContext.ALL_TENANTS, teamMemberRepository::deleteAllInBatch);
+        snapshot.destroy();
+    }
+
+    /**
+     * JUnit test for building the snapshot in every encoding.
+     */
+    @Test
+    @DisplayName("JUnit test for building the same roster in JSON, CBOR and Smile")
+    public void givenTeamMembers_whenCurrent_thenWriteRosterInEveryEncoding() throws Exception {
+        // given
+        create(teamMember("TM201", "Alice"));
+        create(teamMember("TM203", "Carol"));
+
+        // when
+        JsonNode json = read(MediaType.APPLICATION_JSON, objectMapper);
+        JsonNode cbor = read(MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()));
+        JsonNode smile = read(TeamMemberRosterSnapshot.APPLICATION_SMILE, new ObjectMapper(new SmileFactory()));
+
+        // then - the roster as GET /api/team streams it, in every encoding
+        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get(0).get("memberId").asText()).isEqualTo("TM201");
+        assertThat(json.get(1).get("email").asText()).isEqualTo("carol.johnson@example.com");
+        assertThat(json.get(0).has("version")).isFalse();
+        assertThat(cbor).isEqualTo(json);
+        assertThat(smile).isEqualTo(json);
+        assertThat(snapshot.current(MediaType.APPLICATION_JSON).size())
+                .isEqualTo(Files.size(snapshot.current(MediaType.APPLICATION_JSON).path()));
+    }
+
+    /**
+     * JUnit test for applying committed changes to the snapshot.
+     */
+    @Test
+    @DisplayName("JUnit test for applying creations, updates and deletions in a new generation")
+    public void givenSnapshot_whenTeamMembersChange_thenWriteNewGenerationWithChanges() throws Exception {
+        // given - a snapshot of three team members
+        TeamMember alice = create(teamMember("TM201", "Alice"));
+        TeamMember carol = create(teamMember("TM203", "Carol"));
+        create(teamMember("TM205", "Eve"));
+        Path first = snapshot.current(MediaType.APPLICATION_JSON).path();
+
+        // when/then - without changes the same generation is served
+        assertThat(snapshot.current(MediaType.APPLICATION_JSON).path()).isEqualTo(first);
+
+        // when - a team member is created between the others, one renamed and one deleted
+        create(teamMember("TM202", "Bob"));
+        carol = rename(carol, "Caroline");
+        delete(alice.getMemberId());
+        create(teamMember("TM206", "Frank"));
+
+        // then - a new generation holds the changes, in the same order in every encoding
+        JsonNode json = read(MediaType.APPLICATION_JSON, objectMapper);
+        assertThat(firstNames()).containsExactly("Bob", "Caroline", "Eve", "Frank");
+        assertThat(read(MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()))).isEqualTo(json);
+        assertThat(read(TeamMemberRosterSnapshot.APPLICATION_SMILE, new ObjectMapper(new SmileFactory()))).isEqualTo(json);
+        Path second = snapshot.current(MediaType.APPLICATION_JSON).path();
+        assertThat(second).isNotEqualTo(first);
+        assertThat(first).exists();
+
+        // when - a stale change arrives after a newer one
+        rename(carol, "Carla");
+        TeamMember stale = teamMember("TM203", "Caro");
+        stale.setVersion(0L);
+        eventPublisher.publishEvent(TeamMemberChangedEvent.updated("TM203", stale));
+
+        // then - the newer version is kept, and the replaced generations are kept for the retention
+        assertThat(firstNames()).containsExactly("Bob", "Carla", "Eve", "Frank");
+        assertThat(first).exists();
+        assertThat(second).exists();
+    }
+
+    /**
+     * JUnit test for applying a team member deleted and created again, which restarts at version 0.
+     */
+    @Test
+    @DisplayName("JUnit test for replacing a deleted team member by the one created again with a lower version")
+    public void givenRenamedTeamMember_whenDeletedAndCreatedAgain_thenWriteCreatedTeamMember() throws Exception {
+        // given - a team member renamed twice, at version 2 in the snapshot
+        TeamMember alice = create(teamMember("TM201", "Alice"));
+        alice = rename(alice, "Alicia");
+        rename(alice, "Ali");
+        assertThat(firstNames()).containsExactly("Ali");
+
+        // when - it is deleted and created again at version 0 before the next read
+        delete("TM201");
+        create(teamMember("TM201", "Alison"));
+
+        // then
+        assertThat(firstNames()).containsExactly("Alison");
+    }
+
+    /**
+     * JUnit test for deleting the replaced generations once the retention passed.
+     */
+    @Test
+    @DisplayName("JUnit test for deleting replaced generations but the last once the retention passed")
+    public void givenNoRetention_whenTeamMembersChange_thenDeleteReplacedGenerationsButLast() throws Exception {
+        // given - a snapshot keeping replaced generations no longer than needed
+        TeamMemberRosterSnapshot noRetention = new TeamMemberRosterSnapshot(Files.createTempDirectory("roster-snapshot"),
+                teamMemberRepository, objectMapper, transactionManager, Duration.ZERO, Duration.ofMinutes(10), 1000);
+        try {
+            TeamMember alice = create(teamMember("TM201", "Alice"));
+            Path first = noRetention.current(MediaType.APPLICATION_JSON).path();
+
+            // when - two changes are applied by two reads
+            alice = rename(alice, "Alicia");
+            noRetention.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", alice));
+            Path second = noRetention.current(MediaType.APPLICATION_JSON).path();
+            alice = rename(alice, "Ali");
+            noRetention.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", alice));
+            Path third = noRetention.current(MediaType.APPLICATION_JSON).path();
+
+            // then - the generation replaced last is still kept for the responses being sent
+            assertThat(first).doesNotExist();
+            assertThat(second).exists();
+            assertThat(third).exists();
+        } finally {
+            noRetention.destroy();
+        }
+    }
+
+    /**
+     * JUnit test for keeping a snapshot per tenant.
+     */
+    @Test
+    @DisplayName("JUnit test for keeping the roster of each tenant in its own snapshot")
+    public void givenTwoTenants_whenCurrent_thenServeRosterOfCurrentTenant() throws Exception {
+        // given
+        create(teamMember("TM201", "Alice"));
+        TenantContext.runAs("acme", () -> create(teamMember("TM201", "Bob")));
+
+        // when
+        List<String> defaultTenant = firstNames();
+        List<String> acme = TenantContext.callAs("acme", () -> {
+            try {
+                return firstNames();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // then
+        assertThat(defaultTenant).containsExactly("Alice");
+        assertThat(acme).containsExactly("Bob");
+    }
+
+    /**
+     * JUnit test for evicting the snapshots of tenants beyond the maximum and of idle tenants.
+     */
+    @Test
+    @DisplayName("JUnit test for evicting the snapshots of least recently read and idle tenants")
+    public void givenManyTenants_whenCurrent_thenEvictLeastRecentlyReadAndIdleSnapshots() throws Exception {
+        // given - a snapshot keeping two tenants, each no longer than 200 milliseconds without a read
+        TeamMemberRosterSnapshot bounded = new TeamMemberRosterSnapshot(Files.createTempDirectory("roster-snapshot"),
+                teamMemberRepository, objectMapper, transactionManager, Duration.ZERO, Duration.ofMillis(200), 2);
+        try {
+            create(teamMember("TM201", "Alice"));
+            Path defaultTenant = bounded.current(MediaType.APPLICATION_JSON).path();
+            Path acme = TenantContext.callAs("acme", () -> bounded.current(MediaType.APPLICATION_JSON).path());
+            assertThat(bounded.tenantCount()).isEqualTo(2);
+
+            // when - a third tenant is read
+            TenantContext.runAs("globex", () -> bounded.current(MediaType.APPLICATION_JSON));
+
+            // then - the snapshot read least recently is evicted with its files
+            assertThat(bounded.tenantCount()).isEqualTo(2);
+            assertThat(defaultTenant).doesNotExist();
+            assertThat(acme).exists();
+
+            // when - the other tenants stay idle, then the first one is read again
+            Thread.sleep(300);
+            Path rebuilt = bounded.current(MediaType.APPLICATION_JSON).path();
+
+            // then - the idle snapshots are evicted and the first one is built again
+            assertThat(bounded.tenantCount()).isEqualTo(1);
+            assertThat(acme).doesNotExist();
+            assertThat(objectMapper.readTree(Files.readAllBytes(rebuilt)).get(0).get("firstName").asText()).isEqualTo("Alice");
+        } finally {
+            bounded.destroy();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package rei.java.springboot.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.dto.TenantTeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberSearchIndex;
+import rei.java.springboot.tenant.ShardRouter;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the in-memory TeamMemberSearchIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TeamMemberSearchIndexTest {
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    private TeamMemberSearchIndex searchIndex;
+
+    private static TeamMember teamMember(String memberId, String firstName, String lastName, long version) {
+        return TeamMember.builder()
+                .memberId(memberId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com")
+                .version(version)
+                .build();
+    }
+
+    private static TeamMemberView view(String memberId, String firstName, String lastName, long version) {
+        return TeamMemberView.of(teamMember(memberId, firstName, lastName, version));
+    }
+
+    private static TenantTeamMemberView tenantView(String tenantId, String memberId, String firstName, String lastName) {
+        TeamMemberView view = view(memberId, firstName, lastName, 0);
+        return new TenantTeamMemberView(tenantId, memberId, view.firstName(), view.lastName(), view.email(), view.version());
+    }
+
+    private List<String> search(String query) {
+        return searchIndex.search(query, 10).stream().map(TeamMemberView::memberId).toList();
+    }
+
+    /**
+     * Setup method to build the index from the repository before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        searchIndex = new TeamMemberSearchIndex(teamMemberRepository, shardRouter);
+        given(shardRouter.readAllTenants(any())).willAnswer(invocation -> Collections.singletonList(invocation.<Supplier<?>>getArgument(0).get()));
+        given(teamMemberRepository.streamAllTenants()).willReturn(Stream.of(
+                tenantView(TenantContext.DEFAULT_TENANT, "TM201", "Alice", "Johnson"),
+                tenantView(TenantContext.DEFAULT_TENANT, "TM202", "Alicia", "Keys"),
+                tenantView(TenantContext.DEFAULT_TENANT, "TM203", "Al", "Pacino"),
+                tenantView(TenantContext.DEFAULT_TENANT, "TM204", "José", "Álvarez"),
+                tenantView(TenantContext.DEFAULT_TENANT, "TM205", "Bob", "Alison"),
+                tenantView("acme", "TM201", "Wile", "Coyote")));
+        searchIndex.rebuild();
+    }
+
+    /**
+     * JUnit test for prefix search ranking.
+     */
+    @Test
+    @DisplayName("JUnit test for prefix search ranking")
+    public void givenPrefix_whenSearch_thenExactTokensFirstThenAlphabetically() {
+        // when - a prefix shared by first and last names is searched
+        // then - the exact token comes first, then matching tokens alphabetically, each team member once
+        assertThat(search("al")).containsExactly("TM203", "TM201", "TM202", "TM205", "TM204");
+        assertThat(searchIndex.search("al", 2)).hasSize(2);
+    }
+
+    /**
+     * JUnit test for multi-term and email search.
+     */
+    @Test
+    @DisplayName("JUnit test for multi-term and email search")
+    public void givenSeveralTermsOrEmail_whenSearch_thenAllTermsMustMatch() {
+        // when/then - every term must prefix a token of the team member, in any order and case
+        assertThat(search("JOH ali")).containsExactly("TM201");
+        assertThat(search("alicia.k")).containsExactly("TM202");
+        assertThat(search("ali zzz")).isEmpty();
+    }
+
+    /**
+     * JUnit test for accent-insensitive search.
+     */
+    @Test
+    @DisplayName("JUnit test for accent-insensitive search")
+    public void givenQueryWithoutAccents_whenSearch_thenMatchAccentedNames() {
+        // when/then - accents are ignored on both sides
+        assertThat(search("jose alv")).containsExactly("TM204");
+        assertThat(search("Álvarez")).containsExactly("TM204");
+    }
+
+    /**
+     * JUnit test for fuzzy search.
+     */
+    @Test
+    @DisplayName("JUnit test for fuzzy search")
+    public void givenMisspelledTerm_whenSearch_thenMatchOneEditAway() {
+        // when/then - a transposition, a substitution and a missing letter still match
+        assertThat(search("jonhson")).containsExactly("TM201");
+        assertThat(search("pacimo")).containsExactly("TM203");
+        assertThat(search("kys")).containsExactly("TM202");
+        // short terms are only prefix matched
+        assertThat(search("xl")).isEmpty();
+    }
+
+    /**
+     * JUnit test for incremental index updates.
+     */
+    @Test
+    @DisplayName("JUnit test for incremental index updates")
+    public void givenChangeEvents_whenSearch_thenReflectChanges() {
+        // when - a team member is created, another renamed and a third deleted
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.created(teamMember("TM206", "Zoe", "Saldana", 0)));
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", teamMember("TM201", "Alice", "Cooper", 1)));
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.deleted("TM202"));
+
+        // then - searches see the new state only
+        assertThat(search("zoe")).containsExactly("TM206");
+        assertThat(search("cooper")).containsExactly("TM201");
+        assertThat(search("johnson")).isEmpty();
+        assertThat(search("keys")).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(6);
+    }
+
+    /**
+     * JUnit test for out-of-order and incomplete change events.
+     */
+    @Test
+    @DisplayName("JUnit test for out-of-order and incomplete change events")
+    public void givenOlderOrVersionlessUpdate_whenOnTeamMemberChanged_thenKeepNewestState() {
+        // given - the team member is at version 2
+        searchIndex.put(view("TM201", "Alice", "Cooper", 2));
+
+        // when - an older update arrives late
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", teamMember("TM201", "Alice", "Smith", 1)));
+
+        // then - it is ignored
+        assertThat(search("smith")).isEmpty();
+
+        // when - an update without a known version arrives, the team member is read back
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view("TM201", "Alice", "Brown", 3)));
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", TeamMember.builder().memberId("TM201").build()));
+
+        // then - the stored state is indexed
+        assertThat(search("brown")).containsExactly("TM201");
+        assertThat(search("cooper")).isEmpty();
+    }
+
+    /**
+     * JUnit test for a change made before a deletion arriving after it.
+     */
+    @Test
+    @DisplayName("JUnit test for not indexing a deleted team member again")
+    public void givenDeletedTeamMember_whenEarlierUpdateArrivesLate_thenKeepItRemoved() {
+        // given - the team member is deleted
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.deleted("TM201"));
+
+        // when - an update committed before the deletion arrives late, with a newer version than indexed
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.empty());
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", teamMember("TM201", "Alice", "Cooper", 1)));
+
+        // then - the primary no longer has it, so it stays removed
+        assertThat(search("cooper")).isEmpty();
+        assertThat(search("johnson")).isEmpty();
+
+        // when - it is created again, restarting at version 0
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view("TM201", "Alice", "Brown", 0)));
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.created(teamMember("TM201", "Alice", "Brown", 0)));
+
+        // then - the team member read back from the primary is indexed, and later changes apply as usual
+        assertThat(search("brown")).containsExactly("TM201");
+        searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.updated("TM201", teamMember("TM201", "Alice", "Green", 1)));
+        assertThat(search("green")).containsExactly("TM201");
+        verify(teamMemberRepository, times(2)).findViewById("TM201");
+    }
+
+    /**
+     * JUnit test for searching within a tenant.
+     */
+    @Test
+    @DisplayName("JUnit test for searching within a tenant")
+    public void givenTeamMembersOfSeveralTenants_whenSearch_thenFindOnlyCurrentTenant() {
+        // when/then - each tenant only finds its own team members, also under a shared memberId
+        assertThat(search("coyote")).isEmpty();
+        assertThat(TenantContext.callAs("acme", () -> search("coyote"))).containsExactly("TM201");
+        assertThat(TenantContext.callAs("acme", () -> search("al"))).isEmpty();
+
+        // when - the team member of the other tenant is deleted
+        TenantContext.runAs("acme", () -> searchIndex.onTeamMemberChanged(TeamMemberChangedEvent.deleted("TM201")));
+
+        // then - the team member with the same memberId of the default tenant is kept
+        assertThat(TenantContext.callAs("acme", () -> search("coyote"))).isEmpty();
+        assertThat(search("johnson")).containsExactly("TM201");
+    }
+}
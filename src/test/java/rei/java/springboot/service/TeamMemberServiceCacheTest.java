@@ -0,0 +1,255 @@
+package rei.java.springboot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import rei.java.springboot.config.CacheConfig;
+import rei.java.springboot.dto.TeamMemberLookup;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.repository.TeamMemberIngestRepository;
+import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberBatchWriter;
+import rei.java.springboot.service.implementation.TeamMemberChangeLog;
+import rei.java.springboot.service.implementation.TeamMemberLookupCoalescer;
+import rei.java.springboot.service.implementation.TeamMemberSearchIndex;
+import rei.java.springboot.service.implementation.TeamMemberServiceImpl;
+import rei.java.springboot.tenant.ShardRouter;
+import rei.java.springboot.tenant.TenantContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the read-through cache in front of TeamMemberService lookups.
+ */
+@SpringBootTest(classes = {TeamMemberServiceImpl.class, TeamMemberLookupCoalescer.class, SimpleMeterRegistry.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class TeamMemberServiceCacheTest {
+
+    @MockBean
+    private TeamMemberRepository teamMemberRepository;
+
+    @MockBean
+    private TeamMemberBatchWriter teamMemberBatchWriter;
+
+    @MockBean
+    private TeamMemberSearchIndex teamMemberSearchIndex;
+
+    @MockBean
+    private TeamMemberChangeLog teamMemberChangeLog;
+
+    @MockBean
+    private TeamMemberIngestRepository ingestRepository;
+
+    @MockBean
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TeamMemberService teamMemberService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private TeamMember teamMember;
+
+    private TeamMemberView view;
+
+    /**
+     * Setup method to initialize test data and clear the cache before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE).clear();
+        teamMember = TeamMember.builder()
+                .memberId("TM201")
+                .firstName("Alice")
+                .lastName("Johnson")
+                .email("alice.johnson@example.com")
+                .build();
+        view = TeamMemberView.of(teamMember);
+    }
+
+    /**
+     * JUnit test for repeated getTeamMemberByMemberId calls being served from the cache.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberByMemberId cache hit")
+    public void givenCachedTeamMember_whenGetTeamMemberByMemberId_thenRepositoryQueriedOnce() {
+        // given - a team member in the repository
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view));
+
+        // when - the team member is looked up twice
+        Optional<TeamMemberView> first = teamMemberService.getTeamMemberByMemberId("TM201");
+        Optional<TeamMemberView> second = teamMemberService.getTeamMemberByMemberId("TM201");
+
+        // then - both lookups return the team member but only the first reaches the repository
+        assertThat(first).contains(view);
+        assertThat(second).contains(view);
+        verify(teamMemberRepository, times(1)).findViewById("TM201");
+    }
+
+    /**
+     * JUnit test for team members of different tenants being cached separately.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberByMemberId cache per tenant")
+    public void givenSameMemberIdInTwoTenants_whenGetTeamMemberByMemberId_thenCacheEachTenant() {
+        // given - the repository holds a different team member with the same memberId for each tenant
+        TeamMemberView acmeView = new TeamMemberView("TM201", "Wile", "Coyote", "wile.coyote@example.com", 0L);
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view), Optional.of(acmeView));
+
+        // when - the memberId is looked up twice by each tenant
+        teamMemberService.getTeamMemberByMemberId("TM201");
+        Optional<TeamMemberView> acme = TenantContext.callAs("acme", () -> teamMemberService.getTeamMemberByMemberId("TM201"));
+        Optional<TeamMemberView> cached = teamMemberService.getTeamMemberByMemberId("TM201");
+        Optional<TeamMemberView> acmeCached = TenantContext.callAs("acme", () -> teamMemberService.getTeamMemberByMemberId("TM201"));
+
+        // then - each tenant is served its own team member, and each is read once
+        assertThat(cached).contains(view);
+        assertThat(acme).contains(acmeView);
+        assertThat(acmeCached).contains(acmeView);
+        verify(teamMemberRepository, times(2)).findViewById("TM201");
+    }
+
+    /**
+     * JUnit test for misses not being cached.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberByMemberId cache miss")
+    public void givenUnknownMemberId_whenGetTeamMemberByMemberId_thenMissIsNotCached() {
+        // given - no team member in the repository at first, then one is created
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.empty(), Optional.of(view));
+
+        // when - the team member is looked up before and after it exists
+        Optional<TeamMemberView> before = teamMemberService.getTeamMemberByMemberId("TM201");
+        Optional<TeamMemberView> after = teamMemberService.getTeamMemberByMemberId("TM201");
+
+        // then - the second lookup sees the new team member
+        assertThat(before).isEmpty();
+        assertThat(after).contains(view);
+    }
+
+    /**
+     * JUnit test for writes evicting cached team members.
+     */
+    @Test
+    @DisplayName("JUnit test for cache eviction on update and delete")
+    public void givenCachedTeamMember_whenUpdateOrDeleteTeamMember_thenCacheEntryEvicted() {
+        // given - a cached team member
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view));
+        given(teamMemberRepository.updateByMemberId("TM201", "Alice", "Johnson", "alice.johnson@example.com", null))
+                .willReturn(1);
+        teamMemberService.getTeamMemberByMemberId("TM201");
+
+        // when - the team member is updated and looked up again
+        teamMemberService.updateTeamMember("TM201", teamMember, null);
+        teamMemberService.getTeamMemberByMemberId("TM201");
+
+        // then - the lookup after the update reaches the repository again
+        verify(teamMemberRepository, times(2)).findViewById("TM201");
+
+        // when - the team member is cached again and then deleted
+        given(teamMemberRepository.deleteByMemberId("TM201", null)).willReturn(1);
+        teamMemberService.getTeamMemberByMemberId("TM201");
+        teamMemberService.deleteTeamMember("TM201", null);
+
+        // then - the cache no longer holds the team member
+        assertThat(cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE).get(TenantContext.key("TM201"))).isNull();
+    }
+
+    /**
+     * JUnit test for a lookup overtaken by an update not caching the view it read before the update.
+     */
+    @Test
+    @DisplayName("JUnit test for not caching a view read before a concurrent update")
+    public void givenLookupInFlight_whenUpdateTeamMember_thenViewReadBeforeIsNotCached() throws Exception {
+        // given - a lookup reading the team member until released
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return Optional.of(view);
+        }).given(teamMemberRepository).findViewById("TM201");
+        given(teamMemberRepository.updateByMemberId("TM201", "Alice", "Johnson", "alice.johnson@example.com", null))
+                .willReturn(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<TeamMemberView>> lookup = executor.submit(() -> teamMemberService.getTeamMemberByMemberId("TM201"));
+            assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // when - the team member is updated before the read returns
+            teamMemberService.updateTeamMember("TM201", teamMember, null);
+            release.countDown();
+
+            // then - the lookup returns what it read, but the cache does not keep it
+            assertThat(lookup.get(10, TimeUnit.SECONDS)).contains(view);
+            assertThat(cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE).get(TenantContext.key("TM201"))).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * JUnit test for bulk deletes evicting all cached team members.
+     */
+    @Test
+    @DisplayName("JUnit test for cache eviction on bulk delete")
+    public void givenCachedTeamMember_whenDeleteTeamMembers_thenCacheCleared() {
+        // given - a cached team member
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view));
+        given(teamMemberRepository.findExistingMemberIds(Set.of("TM201", "TM202"))).willReturn(List.of("TM201"));
+        given(teamMemberRepository.deleteByMemberIdIn(List.of("TM201"))).willReturn(1);
+        teamMemberService.getTeamMemberByMemberId("TM201");
+
+        // when - team members are deleted in bulk
+        teamMemberService.deleteTeamMembers(List.of("TM201", "TM202"));
+
+        // then - the cache no longer holds the team member
+        assertThat(cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE).get(TenantContext.key("TM201"))).isNull();
+    }
+
+    /**
+     * JUnit test for bulk lookups sharing the cache with single lookups.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMembersByMemberIds cache hits and fills")
+    public void givenCachedTeamMember_whenGetTeamMembersByMemberIds_thenQueryOnlyUncached() {
+        // given - one team member cached by a single lookup, another only in the repository
+        TeamMemberView other = new TeamMemberView("TM202", "Bob", "Smith", "bob.smith@example.com", 0L);
+        given(teamMemberRepository.findViewById("TM201")).willReturn(Optional.of(view));
+        given(teamMemberRepository.findViewsByIdIn(List.of("TM202"))).willReturn(List.of(other));
+        teamMemberService.getTeamMemberByMemberId("TM201");
+
+        // when - both are looked up in bulk, then the second one on its own
+        TeamMemberLookup lookup = teamMemberService.getTeamMembersByMemberIds(List.of("TM201", "TM202"));
+        Optional<TeamMemberView> single = teamMemberService.getTeamMemberByMemberId("TM202");
+
+        // then - the bulk lookup only queried the uncached team member, and cached it for the single lookup
+        assertThat(lookup.found()).containsExactly(view, other);
+        assertThat(single).contains(other);
+        verify(teamMemberRepository, times(1)).findViewsByIdIn(List.of("TM202"));
+        verify(teamMemberRepository, never()).findViewById("TM202");
+    }
+}
@@ -4,22 +4,54 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import rei.java.springboot.config.CacheConfig;
+import rei.java.springboot.dto.TeamMemberBatchResult;
+import rei.java.springboot.dto.TeamMemberChanges;
+import rei.java.springboot.dto.TeamMemberLookup;
+import rei.java.springboot.dto.TeamMemberPage;
+import rei.java.springboot.dto.TeamMemberView;
+import rei.java.springboot.event.TeamMemberChangedEvent;
 import rei.java.springboot.model.TeamMember;
+import rei.java.springboot.model.TeamMemberIngest;
+import rei.java.springboot.repository.TeamMemberIngestRepository;
 import rei.java.springboot.repository.TeamMemberRepository;
+import rei.java.springboot.service.implementation.TeamMemberBatchWriter;
+import rei.java.springboot.service.implementation.TeamMemberChangeLog;
+import rei.java.springboot.service.implementation.TeamMemberIngestQueue;
+import rei.java.springboot.service.implementation.TeamMemberLookupCoalescer;
+import rei.java.springboot.service.implementation.TeamMemberSearchIndex;
 import rei.java.springboot.service.implementation.TeamMemberServiceImpl;
+import rei.java.springboot.tenant.TenantContext;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +63,33 @@ public class TeamMemberServiceTest {
     @Mock
     private TeamMemberRepository teamMemberRepository;
 
+    @Mock
+    private TeamMemberBatchWriter teamMemberBatchWriter;
+
+    @Mock
+    private TeamMemberSearchIndex teamMemberSearchIndex;
+
+    @Mock
+    private TeamMemberChangeLog teamMemberChangeLog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TeamMemberIngestRepository ingestRepository;
+
+    @Mock
+    private ObjectProvider<TeamMemberIngestQueue> ingestQueueProvider;
+
+    @Mock
+    private TeamMemberIngestQueue ingestQueue;
+
+    @Mock
+    private TeamMemberLookupCoalescer lookupCoalescer;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private TeamMemberServiceImpl teamMemberService;
 
@@ -56,8 +115,7 @@ public class TeamMemberServiceTest {
     @DisplayName("JUnit test for saveTeamMember method")
     public void givenTeamMemberObject_whenSaveTeamMember_thenReturnTeamMember() {
         // given - a team member object and mock repository behavior
-        given(teamMemberRepository.findByEmail(teamMember.getEmail())).willReturn(Optional.empty());
-        given(teamMemberRepository.save(teamMember)).willReturn(teamMember);
+        given(teamMemberRepository.saveAndFlush(teamMember)).willReturn(teamMember);
 
         // when - the saveTeamMember method is called
         TeamMember savedTeamMember = teamMemberService.saveTeamMember(teamMember);
@@ -73,13 +131,71 @@ public class TeamMemberServiceTest {
     @Test
     @DisplayName("JUnit test for saveTeamMember method which throws exception")
     public void givenExistingEmail_whenSaveTeamMember_thenThrowsException() {
-        // given - a team member with an existing email in the repository
-        given(teamMemberRepository.findByEmail(teamMember.getEmail())).willReturn(Optional.of(teamMember));
+        // given - the unique email index rejects the insert
+        given(teamMemberRepository.saveAndFlush(teamMember)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "PUBLIC.UX_TEAM_MEMBER_EMAIL")));
 
         // when - the saveTeamMember method is called with the existing email
-        // then - an IllegalStateException should be thrown and the save method should never be called
+        // then - an IllegalStateException should be thrown without a lookup by email before the insert
         assertThrows(IllegalStateException.class, () -> teamMemberService.saveTeamMember(teamMember));
-        verify(teamMemberRepository, never()).save(any(TeamMember.class));
+        verify(teamMemberRepository, never()).findByEmail(any());
+    }
+
+    /**
+     * JUnit test for saveTeamMember method with an existing memberId.
+     */
+    @Test
+    @DisplayName("JUnit test for saveTeamMember method with an existing memberId")
+    public void givenExistingMemberId_whenSaveTeamMember_thenThrowsException() {
+        // given - the primary key rejects the insert instead of the existing team member being overwritten
+        given(teamMemberRepository.saveAndFlush(teamMember)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "PUBLIC.PRIMARY_KEY_6 ON PUBLIC.TEAM_MEMBER(MEMBER_ID)")));
+
+        // when - the saveTeamMember method is called with the existing memberId
+        // then - an IllegalStateException should be thrown
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> teamMemberService.saveTeamMember(teamMember));
+        assertThat(e.getMessage()).contains("memberId");
+    }
+
+    /**
+     * JUnit test for saveTeamMembers method.
+     */
+    @Test
+    @DisplayName("JUnit test for saveTeamMembers method")
+    public void givenTeamMemberList_whenSaveTeamMembers_thenWriteInChunksOfBatchSize() {
+        // given - three team members and a batch size of two
+        TeamMember anotherTeamMember = TeamMember.builder().memberId("TM202").build();
+        TeamMember thirdTeamMember = TeamMember.builder().memberId("TM203").build();
+        given(teamMemberBatchWriter.getBatchSize()).willReturn(2);
+        given(teamMemberBatchWriter.insert(List.of(teamMember, anotherTeamMember), 0)).willReturn(List.of(
+                TeamMemberBatchResult.created(0, "TM201"),
+                TeamMemberBatchResult.created(1, "TM202")));
+        given(teamMemberBatchWriter.insert(List.of(thirdTeamMember), 2)).willReturn(List.of(
+                TeamMemberBatchResult.created(2, "TM203")));
+
+        // when - the saveTeamMembers method is called
+        List<TeamMemberBatchResult> results = teamMemberService.saveTeamMembers(
+                List.of(teamMember, anotherTeamMember, thirdTeamMember).iterator());
+
+        // then - every team member should have a result in submission order
+        assertThat(results).extracting(TeamMemberBatchResult::memberId).containsExactly("TM201", "TM202", "TM203");
+    }
+
+    /**
+     * JUnit test for saveTeamMembers method when the database rejects a chunk.
+     */
+    @Test
+    @DisplayName("JUnit test for saveTeamMembers method, negative scenario")
+    public void givenRejectedChunk_whenSaveTeamMembers_thenReportChunkAsFailed() {
+        // given - the writer fails on the only chunk
+        given(teamMemberBatchWriter.getBatchSize()).willReturn(2);
+        given(teamMemberBatchWriter.insert(List.of(teamMember), 0)).willThrow(new DataIntegrityViolationException("duplicate"));
+
+        // when - the saveTeamMembers method is called
+        List<TeamMemberBatchResult> results = teamMemberService.saveTeamMembers(List.of(teamMember).iterator());
+
+        // then - the team member should be reported as failed
+        assertThat(results).extracting(TeamMemberBatchResult::status).containsExactly(TeamMemberBatchResult.Status.FAILED);
     }
 
     /**
@@ -95,10 +211,10 @@ public class TeamMemberServiceTest {
                 .lastName("Smith")
                 .email("bob.smith@example.com")
                 .build();
-        given(teamMemberRepository.findAll()).willReturn(List.of(teamMember, anotherTeamMember));
+        given(teamMemberRepository.findAllViews()).willReturn(List.of(TeamMemberView.of(teamMember), TeamMemberView.of(anotherTeamMember)));
 
         // when - the getAllTeamMembers method is called
-        List<TeamMember> teamMemberList = teamMemberService.getAllTeamMembers();
+        List<TeamMemberView> teamMemberList = teamMemberService.getAllTeamMembers();
 
         // then - the returned list should not be null and should contain the correct number of team members
         assertThat(teamMemberList).isNotNull();
@@ -112,15 +228,56 @@ public class TeamMemberServiceTest {
     @DisplayName("JUnit test for getAllTeamMembers method, negative scenario")
     public void givenEmptyList_whenGetAllTeamMembers_thenReturnEmptyList() {
         // given - an empty list of team members in the repository
-        given(teamMemberRepository.findAll()).willReturn(Collections.emptyList());
+        given(teamMemberRepository.findAllViews()).willReturn(Collections.emptyList());
 
         // when - the getAllTeamMembers method is called
-        List<TeamMember> teamMemberList = teamMemberService.getAllTeamMembers();
+        List<TeamMemberView> teamMemberList = teamMemberService.getAllTeamMembers();
 
         // then - the returned list should be empty
         assertThat(teamMemberList).isEmpty();
     }
 
+    /**
+     * JUnit test for getTeamMemberPage method when more team members follow the page.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberPage method")
+    public void givenMoreTeamMembersThanLimit_whenGetTeamMemberPage_thenReturnPageWithNextCursor() {
+        // given - one more team member than the requested limit in the repository
+        TeamMemberView view = TeamMemberView.of(teamMember);
+        TeamMemberView anotherView = new TeamMemberView("TM202", "Bob", "Smith", "bob.smith@example.com", 0L);
+        given(teamMemberRepository.findFirstPage(PageRequest.ofSize(2))).willReturn(List.of(view, anotherView));
+
+        // when - the getTeamMemberPage method is called for the first page
+        TeamMemberPage page = teamMemberService.getTeamMemberPage(null, 1);
+
+        // then - the page should hold the first team member and a cursor pointing after it
+        assertThat(page.items()).containsExactly(view);
+        assertThat(page.next()).isNotNull();
+
+        // when - the next page is requested with the returned cursor
+        given(teamMemberRepository.findPageAfter("TM201", PageRequest.ofSize(2))).willReturn(List.of(anotherView));
+        TeamMemberPage nextPage = teamMemberService.getTeamMemberPage(page.next(), 1);
+
+        // then - the next page should hold the remaining team member and no cursor
+        assertThat(nextPage.items()).containsExactly(anotherView);
+        assertThat(nextPage.next()).isNull();
+    }
+
+    /**
+     * JUnit test for getTeamMemberPage method, negative scenario.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberPage method, negative scenario")
+    public void givenInvalidLimit_whenGetTeamMemberPage_thenThrowsException() {
+        // when - the getTeamMemberPage method is called with limits out of range
+        // then - an IllegalArgumentException should be thrown and the repository never queried
+        assertThrows(IllegalArgumentException.class, () -> teamMemberService.getTeamMemberPage(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.getTeamMemberPage(null, TeamMemberServiceImpl.MAX_PAGE_SIZE + 1));
+        verify(teamMemberRepository, never()).findFirstPage(any());
+    }
+
     /**
      * JUnit test for getTeamMemberByMemberId method.
      */
@@ -128,10 +285,10 @@ public class TeamMemberServiceTest {
     @DisplayName("JUnit test for getTeamMemberByMemberId method")
     public void givenMemberId_whenGetTeamMemberByMemberId_thenReturnTeamMember() {
         // given - a team member with a specific ID in the repository
-        given(teamMemberRepository.findByMemberId("TM201")).willReturn(Optional.of(teamMember));
+        given(lookupCoalescer.findViewById(eq("TM201"), any())).willReturn(Optional.of(TeamMemberView.of(teamMember)));
 
         // when - the getTeamMemberByMemberId method is called with the specific ID
-        Optional<TeamMember> teamMemberOptional = teamMemberService.getTeamMemberByMemberId(teamMember.getMemberId());
+        Optional<TeamMemberView> teamMemberOptional = teamMemberService.getTeamMemberByMemberId(teamMember.getMemberId());
 
         // then - the returned optional should not be null and should contain the team member
         assertThat(teamMemberOptional).isNotNull();
@@ -144,15 +301,80 @@ public class TeamMemberServiceTest {
     @DisplayName("JUnit test for getTeamMemberByMemberId method, negative scenario")
     public void givenMemberId_whenGetTeamMemberByMemberId_thenReturnNull() {
         // given - no team member with the specific ID in the repository
-        given(teamMemberRepository.findByMemberId("TM201")).willReturn(Optional.empty());
+        given(lookupCoalescer.findViewById(eq("TM201"), any())).willReturn(Optional.empty());
 
         // when - the getTeamMemberByMemberId method is called with the specific ID
-        Optional<TeamMember> teamMemberOptional = teamMemberService.getTeamMemberByMemberId(teamMember.getMemberId());
+        Optional<TeamMemberView> teamMemberOptional = teamMemberService.getTeamMemberByMemberId(teamMember.getMemberId());
 
         // then - the returned optional should be empty
         assertThat(teamMemberOptional).isEmpty();
     }
 
+    /**
+     * JUnit test for getTeamMembersByMemberIds method.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMembersByMemberIds method")
+    public void givenCachedAndUncachedMemberIds_whenGetTeamMembersByMemberIds_thenReturnFoundAndMissingInRequestOrder() {
+        // given - one team member in the cache, one only in the repository and one unknown
+        TeamMemberView cached = TeamMemberView.of(teamMember);
+        TeamMemberView stored = new TeamMemberView("TM202", "Bob", "Smith", "bob.smith@example.com", 0L);
+        Cache cache = new ConcurrentMapCache(CacheConfig.TEAM_MEMBERS_CACHE);
+        cache.put(TenantContext.key("TM201"), cached);
+        given(cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE)).willReturn(cache);
+        given(lookupCoalescer.findViewsByIds(eq(List.of("TM202", "TM999")), eq(500), any())).willAnswer(invocation -> {
+            BiConsumer<String, TeamMemberView> unchanged = invocation.getArgument(2);
+            unchanged.accept(TenantContext.key("TM202"), stored);
+            return Map.of("TM202", stored);
+        });
+
+        // when - the getTeamMembersByMemberIds method is called with a repeated memberId
+        TeamMemberLookup lookup = teamMemberService.getTeamMembersByMemberIds(List.of("TM202", "TM201", "TM999", "TM201"));
+
+        // then - only the uncached memberIds are looked up, and only the found team member is cached
+        assertThat(lookup.found()).containsExactly(stored, cached);
+        assertThat(lookup.missing()).containsExactly("TM999");
+        assertThat(cache.get(TenantContext.key("TM202"), TeamMemberView.class)).isEqualTo(stored);
+        assertThat(cache.get(TenantContext.key("TM999"))).isNull();
+    }
+
+    /**
+     * JUnit test for getTeamMembersByMemberIds method with more memberIds than one IN query reads.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMembersByMemberIds method (chunked queries)")
+    public void givenManyMemberIds_whenGetTeamMembersByMemberIds_thenQueryInChunks() {
+        // given - 600 memberIds, none of them cached or stored
+        List<String> memberIds = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            memberIds.add("TM" + i);
+        }
+        given(cacheManager.getCache(CacheConfig.TEAM_MEMBERS_CACHE)).willReturn(new ConcurrentMapCache(CacheConfig.TEAM_MEMBERS_CACHE));
+        given(lookupCoalescer.findViewsByIds(eq(memberIds), eq(500), any())).willReturn(Map.of());
+
+        // when - the getTeamMembersByMemberIds method is called
+        TeamMemberLookup lookup = teamMemberService.getTeamMembersByMemberIds(memberIds);
+
+        // then - they are looked up together, to be read with one query per 500 memberIds
+        verify(lookupCoalescer).findViewsByIds(eq(memberIds), eq(500), any());
+        assertThat(lookup.found()).isEmpty();
+        assertThat(lookup.missing()).isEqualTo(memberIds);
+    }
+
+    /**
+     * JUnit test for getTeamMembersByMemberIds method with too many memberIds.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMembersByMemberIds method (too many memberIds)")
+    public void givenTooManyMemberIds_whenGetTeamMembersByMemberIds_thenThrowsException() {
+        // given
+        List<String> memberIds = Collections.nCopies(TeamMemberServiceImpl.MAX_BULK_LOOKUP_SIZE + 1, "TM201");
+
+        // when/then - the lookup is rejected before reaching the cache or the repository
+        assertThrows(IllegalArgumentException.class, () -> teamMemberService.getTeamMembersByMemberIds(memberIds));
+        verifyNoInteractions(cacheManager, teamMemberRepository, lookupCoalescer);
+    }
+
     /**
      * JUnit test for updateTeamMember method.
      */
@@ -160,15 +382,141 @@ public class TeamMemberServiceTest {
     @DisplayName("JUnit test for updateTeamMember method")
     public void givenTeamMemberObject_whenUpdateTeamMember_thenReturnUpdatedTeamMember() {
         // given - a team member object and mock repository behavior
-        given(teamMemberRepository.save(teamMember)).willReturn(teamMember);
         teamMember.setEmail("jack.green@example.com");
+        given(teamMemberRepository.updateByMemberId(teamMember.getMemberId(), teamMember.getFirstName(),
+                teamMember.getLastName(), "jack.green@example.com", null)).willReturn(1);
+        given(teamMemberRepository.findVersionById(teamMember.getMemberId())).willReturn(Optional.of(5L));
+
+        // when - the updateTeamMember method is called
+        Optional<TeamMember> updatedTeamMember = teamMemberService.updateTeamMember(teamMember.getMemberId(), teamMember, null);
+
+        // then - the returned updated team member should have the updated email and the new version,
+        // and the published change should be complete
+        assertThat(updatedTeamMember).isPresent();
+        assertThat(updatedTeamMember.get().getEmail()).isEqualTo("jack.green@example.com");
+        assertThat(updatedTeamMember.get().getVersion()).isEqualTo(5L);
+        verify(teamMemberRepository, never()).findById(any(String.class));
+        ArgumentCaptor<TeamMemberChangedEvent> event = ArgumentCaptor.forClass(TeamMemberChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().teamMember().getVersion()).isEqualTo(5L);
+    }
+
+    /**
+     * JUnit test for updateTeamMember method with an unknown memberId.
+     */
+    @Test
+    @DisplayName("JUnit test for updateTeamMember method (not found)")
+    public void givenUnknownMemberId_whenUpdateTeamMember_thenReturnEmpty() {
+        // given - the UPDATE statement matches no row
+        given(teamMemberRepository.updateByMemberId(teamMember.getMemberId(), teamMember.getFirstName(),
+                teamMember.getLastName(), teamMember.getEmail(), null)).willReturn(0);
 
         // when - the updateTeamMember method is called
-        TeamMember updatedTeamMember = teamMemberService.updateTeamMember(teamMember);
+        Optional<TeamMember> updatedTeamMember = teamMemberService.updateTeamMember(teamMember.getMemberId(), teamMember, null);
 
-        // then - the returned updated team member should not be null and should have the updated email
-        assertThat(updatedTeamMember).isNotNull();
-        assertThat(updatedTeamMember.getEmail()).isEqualTo("jack.green@example.com");
+        // then - the returned optional should be empty
+        assertThat(updatedTeamMember).isEmpty();
+    }
+
+    /**
+     * JUnit test for updateTeamMember method with a missing field.
+     */
+    @Test
+    @DisplayName("JUnit test for updateTeamMember method (incomplete team member)")
+    public void givenIncompleteTeamMember_whenUpdateTeamMember_thenThrowsException() {
+        // given - a team member without an email
+        teamMember.setEmail(null);
+
+        // when/then - the update is rejected before reaching the repository
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.updateTeamMember(teamMember.getMemberId(), teamMember, null));
+        verifyNoInteractions(teamMemberRepository);
+    }
+
+    /**
+     * JUnit test for updateTeamMember method with an outdated version.
+     */
+    @Test
+    @DisplayName("JUnit test for updateTeamMember method (version conflict)")
+    public void givenOutdatedVersion_whenUpdateTeamMember_thenThrowsException() {
+        // given - the UPDATE statement matches no row although the team member exists
+        given(teamMemberRepository.updateByMemberId(teamMember.getMemberId(), teamMember.getFirstName(),
+                teamMember.getLastName(), teamMember.getEmail(), 3L)).willReturn(0);
+        given(teamMemberRepository.existsById(teamMember.getMemberId())).willReturn(true);
+
+        // when/then - the update is reported as an optimistic locking failure
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> teamMemberService.updateTeamMember(teamMember.getMemberId(), teamMember, 3L));
+    }
+
+    /**
+     * JUnit test for updateTeamMember method with the current version.
+     */
+    @Test
+    @DisplayName("JUnit test for updateTeamMember method (current version)")
+    public void givenCurrentVersion_whenUpdateTeamMember_thenReturnNextVersion() {
+        // given - the UPDATE statement matches the expected version
+        given(teamMemberRepository.updateByMemberId(teamMember.getMemberId(), teamMember.getFirstName(),
+                teamMember.getLastName(), teamMember.getEmail(), 3L)).willReturn(1);
+
+        // when - the updateTeamMember method is called with the expected version
+        Optional<TeamMember> updatedTeamMember = teamMemberService.updateTeamMember(teamMember.getMemberId(), teamMember, 3L);
+
+        // then - the returned team member carries the incremented version without reading it back
+        assertThat(updatedTeamMember).isPresent();
+        assertThat(updatedTeamMember.get().getVersion()).isEqualTo(4L);
+        verify(teamMemberRepository, never()).existsById(any());
+        verify(teamMemberRepository, never()).findVersionById(any());
+    }
+
+    /**
+     * JUnit test for patchTeamMember method.
+     */
+    @Test
+    @DisplayName("JUnit test for patchTeamMember method")
+    public void givenChangedEmail_whenPatchTeamMember_thenReturnPatchedTeamMember() {
+        // given - a partial team member carrying only the new email
+        TeamMember changes = TeamMember.builder().email("jack.green@example.com").build();
+        given(teamMemberRepository.patchByMemberId(teamMember.getMemberId(), changes, null)).willReturn(1);
+        TeamMember patched = TeamMember.builder()
+                .memberId(teamMember.getMemberId())
+                .firstName(teamMember.getFirstName())
+                .lastName(teamMember.getLastName())
+                .email("jack.green@example.com")
+                .build();
+        given(teamMemberRepository.findById(teamMember.getMemberId())).willReturn(Optional.of(teamMember), Optional.of(patched));
+
+        // when - the patchTeamMember method is called
+        Optional<TeamMember> patchedTeamMember = teamMemberService.patchTeamMember(teamMember.getMemberId(), changes, null);
+
+        // then - the returned team member should have the new email
+        assertThat(patchedTeamMember).isPresent();
+        assertThat(patchedTeamMember.get().getEmail()).isEqualTo("jack.green@example.com");
+        verify(eventPublisher).publishEvent(TeamMemberChangedEvent.updated(teamMember.getMemberId(), patched));
+    }
+
+    /**
+     * JUnit test for patchTeamMember method when the patch changes no field.
+     */
+    @Test
+    @DisplayName("JUnit test for patchTeamMember method (no change)")
+    public void givenUnchangedEmail_whenPatchTeamMember_thenReturnTeamMemberWithoutUpdate() {
+        // given - a partial team member carrying the email the team member already has
+        teamMember.setVersion(3L);
+        TeamMember changes = TeamMember.builder().email(teamMember.getEmail()).build();
+        given(teamMemberRepository.findById(teamMember.getMemberId())).willReturn(Optional.of(teamMember));
+
+        // when - the patchTeamMember method is called
+        Optional<TeamMember> patchedTeamMember = teamMemberService.patchTeamMember(teamMember.getMemberId(), changes, 3L);
+
+        // then - the team member is returned as it is, without an update or an event
+        assertThat(patchedTeamMember).contains(teamMember);
+        verify(teamMemberRepository, never()).patchByMemberId(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+
+        // when/then - a stale version is still a conflict
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> teamMemberService.patchTeamMember(teamMember.getMemberId(), changes, 2L));
     }
 
     /**
@@ -176,18 +524,260 @@ public class TeamMemberServiceTest {
      */
     @Test
     @DisplayName("JUnit test for deleteTeamMember method")
-    public void givenMemberId_whenDeleteTeamMember_thenDoNothing() {
+    public void givenMemberId_whenDeleteTeamMember_thenReturnTrue() {
         // given - a team member ID and mock repository behavior for deleting
         String memberId = "TM201";
-        willDoNothing().given(teamMemberRepository).deleteByMemberId(memberId);
+        given(teamMemberRepository.deleteByMemberId(memberId, null)).willReturn(1);
 
         // when - the deleteTeamMember method is called with the member ID
-        teamMemberService.deleteTeamMember(memberId);
+        boolean deleted = teamMemberService.deleteTeamMember(memberId, null);
 
-        // then - verify that the deleteByMemberId method is called only once
-        verify(teamMemberRepository, times(1)).deleteByMemberId(memberId);
+        // then - verify that a single DELETE is issued without loading the team member
+        assertThat(deleted).isTrue();
+        verify(teamMemberRepository, times(1)).deleteByMemberId(memberId, null);
+        verify(teamMemberRepository, never()).findById(memberId);
     }
-}
 
+    /**
+     * JUnit test for deleteTeamMember method with an unknown memberId.
+     */
+    @Test
+    @DisplayName("JUnit test for deleteTeamMember method (not found)")
+    public void givenUnknownMemberId_whenDeleteTeamMember_thenReturnFalse() {
+        // given - the DELETE statement matches no row
+        given(teamMemberRepository.deleteByMemberId("TM999", null)).willReturn(0);
+
+        // when - the deleteTeamMember method is called
+        boolean deleted = teamMemberService.deleteTeamMember("TM999", null);
+
+        // then - nothing was deleted
+        assertThat(deleted).isFalse();
+    }
+
+    /**
+     * JUnit test for deleteTeamMembers method.
+     */
+    @Test
+    @DisplayName("JUnit test for deleteTeamMembers method")
+    public void givenMemberIds_whenDeleteTeamMembers_thenReturnDeletedCount() {
+        // given - duplicate and unknown memberIds and mock repository behavior for deleting
+        given(teamMemberRepository.findExistingMemberIds(Set.of("TM201", "TM202", "TM999"))).willReturn(List.of("TM201", "TM202"));
+        given(teamMemberRepository.deleteByMemberIdIn(List.of("TM201", "TM202"))).willReturn(2);
+
+        // when - the deleteTeamMembers method is called
+        int deleted = teamMemberService.deleteTeamMembers(List.of("TM201", "TM202", "TM201", "TM999"));
+
+        // then - the existing memberIds are deleted in one statement and only their deletions published
+        assertThat(deleted).isEqualTo(2);
+        verify(eventPublisher).publishEvent(TeamMemberChangedEvent.deleted("TM201"));
+        verify(eventPublisher).publishEvent(TeamMemberChangedEvent.deleted("TM202"));
+        verify(eventPublisher, never()).publishEvent(TeamMemberChangedEvent.deleted("TM999"));
+    }
+
+    /**
+     * JUnit test for deleteTeamMembers method without memberIds.
+     */
+    @Test
+    @DisplayName("JUnit test for deleteTeamMembers method (no memberIds)")
+    public void givenNoMemberIds_whenDeleteTeamMembers_thenThrowsException() {
+        // when/then - the bulk delete is rejected before reaching the repository
+        assertThrows(IllegalArgumentException.class, () -> teamMemberService.deleteTeamMembers(List.of()));
+        verifyNoInteractions(teamMemberRepository);
+    }
+
+    /**
+     * JUnit test for deleteTeamMember method with an outdated version.
+     */
+    @Test
+    @DisplayName("JUnit test for deleteTeamMember method (version conflict)")
+    public void givenOutdatedVersion_whenDeleteTeamMember_thenThrowsException() {
+        // given - the DELETE statement matches no row although the team member exists
+        given(teamMemberRepository.deleteByMemberId("TM201", 3L)).willReturn(0);
+        given(teamMemberRepository.existsById("TM201")).willReturn(true);
+
+        // when/then - the delete is reported as an optimistic locking failure
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> teamMemberService.deleteTeamMember("TM201", 3L));
+    }
+
+    /**
+     * JUnit test for saveTeamMember method publishing the change.
+     */
+    @Test
+    @DisplayName("JUnit test for saveTeamMember method (change event)")
+    public void givenTeamMemberObject_whenSaveTeamMember_thenPublishCreatedEvent() {
+        // given - mock repository behavior for saving
+        given(teamMemberRepository.saveAndFlush(teamMember)).willReturn(teamMember);
+
+        // when - the saveTeamMember method is called
+        teamMemberService.saveTeamMember(teamMember);
+
+        // then - the creation is published for the search index and other listeners
+        verify(eventPublisher).publishEvent(TeamMemberChangedEvent.created(teamMember));
+    }
+
+    /**
+     * JUnit test for searchTeamMembers method.
+     */
+    @Test
+    @DisplayName("JUnit test for searchTeamMembers method")
+    public void givenQuery_whenSearchTeamMembers_thenReturnIndexMatches() {
+        // given - mock search index behavior
+        TeamMemberView view = TeamMemberView.of(teamMember);
+        given(teamMemberSearchIndex.search("ali", 10)).willReturn(List.of(view));
+
+        // when - the searchTeamMembers method is called
+        List<TeamMemberView> teamMembers = teamMemberService.searchTeamMembers("ali", 10);
+
+        // then - the matches come from the index, not the database
+        assertThat(teamMembers).containsExactly(view);
+        verifyNoInteractions(teamMemberRepository);
+    }
+
+    /**
+     * JUnit test for searchTeamMembers method with invalid arguments.
+     */
+    @Test
+    @DisplayName("JUnit test for searchTeamMembers method (invalid arguments)")
+    public void givenBlankQueryOrInvalidLimit_whenSearchTeamMembers_thenThrowsException() {
+        // when/then - a blank query and a limit above the maximum are rejected
+        assertThrows(IllegalArgumentException.class, () -> teamMemberService.searchTeamMembers(" ", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.searchTeamMembers("ali", TeamMemberSearchIndex.MAX_RESULTS + 1));
+        verifyNoInteractions(teamMemberSearchIndex);
+    }
+
+    /**
+     * JUnit test for getTeamMembersByName method.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMembersByName method")
+    public void givenName_whenGetTeamMembersByName_thenReturnSliceInIndexOrder() {
+        // given - mock repository behavior for the full name and the last name only
+        PageRequest byFirstName = PageRequest.of(2, 20, Sort.by("firstName", "memberId"));
+        PageRequest byEmail = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "email").and(Sort.by("memberId")));
+        TeamMemberView view = TeamMemberView.of(teamMember);
+        given(teamMemberRepository.findByLastNameAndFirstName("Johnson", "Alice", byFirstName))
+                .willReturn(new SliceImpl<>(List.of(view), byFirstName, true));
+        given(teamMemberRepository.findByLastName("Johnson", byEmail))
+                .willReturn(new SliceImpl<>(List.of(view), byEmail, false));
+
+        // when - the getTeamMembersByName method is called without and with a sort
+        Slice<TeamMemberView> fullName = teamMemberService.getTeamMembersByName("Alice", "Johnson", PageRequest.of(2, 20));
+        Slice<TeamMemberView> lastName = teamMemberService.getTeamMembersByName(null, "Johnson",
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "email")));
+
+        // then - the slices are sorted by first name by default and always by memberId last
+        assertThat(fullName.getContent()).containsExactly(view);
+        assertThat(fullName.hasNext()).isTrue();
+        assertThat(lastName.hasNext()).isFalse();
+    }
+
+    /**
+     * JUnit test for getTeamMembersByName method with invalid arguments.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMembersByName method (invalid arguments)")
+    public void givenMissingLastNameOrInvalidPage_whenGetTeamMembersByName_thenThrowsException() {
+        // when/then - a missing last name, an oversized page and an unknown sort property are rejected
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.getTeamMembersByName("Alice", " ", PageRequest.of(0, 20)));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.getTeamMembersByName("Alice", "Johnson", PageRequest.of(0, TeamMemberServiceImpl.MAX_PAGE_SIZE + 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.getTeamMembersByName("Alice", "Johnson", PageRequest.of(0, 20, Sort.by("version"))));
+        verifyNoInteractions(teamMemberRepository);
+    }
+
+    /**
+     * JUnit test for getTeamMemberChanges method.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberChanges method")
+    public void givenSince_whenGetTeamMemberChanges_thenReadFromChangeLog() {
+        // given - mock change log behavior
+        TeamMemberChanges changes = new TeamMemberChanges(List.of(), 7, false);
+        given(teamMemberChangeLog.read(7, 50)).willReturn(changes);
+
+        // when - the getTeamMemberChanges method is called
+        TeamMemberChanges result = teamMemberService.getTeamMemberChanges(7, 50);
+
+        // then - the changes come from the change log
+        assertThat(result).isSameAs(changes);
+    }
+
+    /**
+     * JUnit test for getTeamMemberChanges method with invalid arguments.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberChanges method (invalid arguments)")
+    public void givenNegativeSinceOrInvalidLimit_whenGetTeamMemberChanges_thenThrowsException() {
+        // when/then - a negative sequence number and limits out of range are rejected
+        assertThrows(IllegalArgumentException.class, () -> teamMemberService.getTeamMemberChanges(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> teamMemberService.getTeamMemberChanges(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamMemberService.getTeamMemberChanges(0, TeamMemberServiceImpl.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(teamMemberChangeLog);
+    }
+
+    /**
+     * JUnit test for enqueueTeamMember method.
+     */
+    @Test
+    @DisplayName("JUnit test for enqueueTeamMember method")
+    public void givenIngestQueue_whenEnqueueTeamMember_thenQueueWithoutDatabaseAccess() {
+        // given - an enabled ingest queue
+        TeamMemberIngest queued = TeamMemberIngest.builder()
+                .trackingId("3f1c2a4e-8d6b-4c1e-9a7f-2b5d8e6c4a10")
+                .status(TeamMemberIngest.Status.QUEUED)
+                .build();
+        given(ingestQueueProvider.getIfAvailable()).willReturn(ingestQueue);
+        given(ingestQueue.enqueue(teamMember)).willReturn(queued);
+
+        // when - the enqueueTeamMember method is called
+        Optional<TeamMemberIngest> result = teamMemberService.enqueueTeamMember(teamMember);
+
+        // then - the team member is queued and nothing is written inline
+        assertThat(result).containsSame(queued);
+        verifyNoInteractions(teamMemberRepository, teamMemberBatchWriter, eventPublisher);
+    }
+
+    /**
+     * JUnit test for enqueueTeamMember method without an ingest queue.
+     */
+    @Test
+    @DisplayName("JUnit test for enqueueTeamMember method (queue not enabled)")
+    public void givenNoIngestQueue_whenEnqueueTeamMember_thenReturnEmpty() {
+        // given - the ingest queue is not enabled
+        given(ingestQueueProvider.getIfAvailable()).willReturn(null);
+
+        // when - the enqueueTeamMember method is called
+        Optional<TeamMemberIngest> result = teamMemberService.enqueueTeamMember(teamMember);
 
+        // then - the caller has to create the team member itself
+        assertThat(result).isEmpty();
+    }
 
+    /**
+     * JUnit test for getTeamMemberIngest method.
+     */
+    @Test
+    @DisplayName("JUnit test for getTeamMemberIngest method")
+    public void givenTrackingIds_whenGetTeamMemberIngest_thenReturnQueuedOrRecordedOutcome() {
+        // given - one team member still queued and one already written
+        TeamMemberIngest queued = TeamMemberIngest.builder().trackingId("queued").status(TeamMemberIngest.Status.QUEUED).build();
+        TeamMemberIngest created = TeamMemberIngest.builder().trackingId("written").status(TeamMemberIngest.Status.CREATED).build();
+        given(ingestQueueProvider.getIfAvailable()).willReturn(ingestQueue);
+        given(ingestQueue.getQueued("queued")).willReturn(Optional.of(queued));
+        given(ingestQueue.getQueued("written")).willReturn(Optional.empty());
+        given(ingestRepository.findById("written")).willReturn(Optional.of(created));
+
+        // when - the getTeamMemberIngest method is called for both
+        Optional<TeamMemberIngest> queuedResult = teamMemberService.getTeamMemberIngest("queued");
+        Optional<TeamMemberIngest> writtenResult = teamMemberService.getTeamMemberIngest("written");
+
+        // then - the queue answers for queued team members, the recorded outcomes for the others
+        assertThat(queuedResult).containsSame(queued);
+        assertThat(writtenResult).containsSame(created);
+        verify(ingestRepository, never()).findById("queued");
+    }
+}
@@ -0,0 +1,84 @@
+package rei.java.springboot.tenant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the consistent hash ring assigning tenants to shards.
+ */
+public class TenantShardRingTest {
+
+    private static final List<String> TENANTS = IntStream.range(0, 10_000).mapToObj(i -> "tenant-" + i).toList();
+
+    private static Map<String, String> assignments(TenantShardRing ring) {
+        return TENANTS.stream().collect(Collectors.toMap(Function.identity(), ring::shardFor));
+    }
+
+    /**
+     * JUnit test for spreading tenants over the shards.
+     */
+    @Test
+    @DisplayName("JUnit test for spreading tenants evenly over the shards")
+    public void givenFourShards_whenShardFor_thenSpreadTenantsEvenly() {
+        // given - a ring of four shards
+        TenantShardRing ring = new TenantShardRing(List.of("s1", "s2", "s3", "s4"), 128, Map.of());
+
+        // when - many tenants are assigned
+        Map<String, Long> tenantsPerShard = TENANTS.stream()
+                .collect(Collectors.groupingBy(ring::shardFor, Collectors.counting()));
+
+        // then - every shard holds a quarter of them, give or take a fifth
+        assertThat(tenantsPerShard).containsOnlyKeys("s1", "s2", "s3", "s4");
+        assertThat(tenantsPerShard.values()).allSatisfy(count -> assertThat(count).isBetween(2_000L, 3_000L));
+        assertThat(ring.shardFor("tenant-42")).isEqualTo(new TenantShardRing(List.of("s1", "s2", "s3", "s4"), 128, Map.of())
+                .shardFor("tenant-42"));
+    }
+
+    /**
+     * JUnit test for adding a shard.
+     */
+    @Test
+    @DisplayName("JUnit test for moving only tenants to an added shard")
+    public void givenAddedShard_whenShardFor_thenMoveOnlyTenantsToTheNewShard() {
+        // given - the assignments of a ring of four shards
+        Map<String, String> before = assignments(new TenantShardRing(List.of("s1", "s2", "s3", "s4"), 128, Map.of()));
+
+        // when - a fifth shard is added
+        Map<String, String> after = assignments(new TenantShardRing(List.of("s1", "s2", "s3", "s4", "s5"), 128, Map.of()));
+
+        // then - about a fifth of the tenants move, all of them to the new shard
+        List<String> moved = TENANTS.stream().filter(tenant -> !before.get(tenant).equals(after.get(tenant))).toList();
+        assertThat(moved).allSatisfy(tenant -> assertThat(after.get(tenant)).isEqualTo("s5"));
+        assertThat(moved.size()).isBetween(1_500, 2_500);
+    }
+
+    /**
+     * JUnit test for pinning tenants to a shard.
+     */
+    @Test
+    @DisplayName("JUnit test for pinned tenants and invalid rings")
+    public void givenPinnedTenant_whenShardFor_thenReturnPinnedShard() {
+        // given - a tenant pinned to the shard it would not be hashed to
+        TenantShardRing unpinned = new TenantShardRing(List.of("s1", "s2"), 128, Map.of());
+        String other = unpinned.shardFor("acme").equals("s1") ? "s2" : "s1";
+
+        // when - the tenant is assigned by a ring pinning it
+        TenantShardRing ring = new TenantShardRing(List.of("s1", "s2"), 128, Map.of("acme", other));
+
+        // then - the pin takes precedence over the hash
+        assertThat(ring.shardFor("acme")).isEqualTo(other);
+
+        // when/then - rings without shards, or pinning to an unknown shard, are rejected
+        assertThrows(IllegalArgumentException.class, () -> new TenantShardRing(List.of(), 128, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new TenantShardRing(List.of("s1"), 128, Map.of("acme", "s9")));
+    }
+}
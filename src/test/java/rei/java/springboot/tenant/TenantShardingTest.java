@@ -0,0 +1,150 @@
+package rei.java.springboot.tenant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import rei.java.springboot.controller.TeamMemberController;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the team member API on two shards, stood in for by in-memory H2 databases, with the
+ * tenant acme pinned to the first shard and globex to the second.
+ */
+@SpringBootTest(properties = {
+        "team.sharding.enabled=true",
+        "team.sharding.shards.one.url=jdbc:h2:mem:shard-one;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "team.sharding.shards.one.username=sa",
+        "team.sharding.shards.one.password=",
+        "team.sharding.shards.two.url=jdbc:h2:mem:shard-two;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "team.sharding.shards.two.username=sa",
+        "team.sharding.shards.two.password=",
+        "team.sharding.tenants.acme=one",
+        "team.sharding.tenants.globex=two",
+        "team.admin.token=admin-secret"
+})
+@AutoConfigureMockMvc
+public class TenantShardingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TenantRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate shard(String name) {
+        return new JdbcTemplate((DataSource) routingDataSource.getResolvedDataSources().get(name));
+    }
+
+    private void create(String tenantId, String memberId, String firstName) throws Exception {
+        mockMvc.perform(post("/api/team")
+                        .header(TenantFilter.TENANT_HEADER, tenantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"memberId\":\"" + memberId + "\",\"firstName\":\"" + firstName
+                                + "\",\"lastName\":\"Johnson\",\"email\":\"" + firstName.toLowerCase() + "@example.com\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (String name : routingDataSource.getShards()) {
+            shard(name).update("DELETE FROM team_member_change");
+            shard(name).update("DELETE FROM team_member");
+        }
+    }
+
+    /**
+     * JUnit test for storing the team members of each tenant on its shard.
+     */
+    @Test
+    @DisplayName("JUnit test for isolating tenants sharing a memberId on their shards")
+    public void givenTwoTenants_whenCreateTeamMember_thenStoreEachOnItsShardAndReadOnlyOwn() throws Exception {
+        // when - both tenants create a team member with the same memberId and email
+        create("acme", "TM201", "Alice");
+        create("globex", "TM201", "Alice");
+
+        // then - each row is stored on the shard of its tenant
+        assertThat(shard("one").queryForList("SELECT tenant_id FROM team_member", String.class)).containsExactly("acme");
+        assertThat(shard("two").queryForList("SELECT tenant_id FROM team_member", String.class)).containsExactly("globex");
+
+        // when - globex renames its team member
+        mockMvc.perform(patch("/api/team/TM201")
+                        .header(TenantFilter.TENANT_HEADER, "globex")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Alicia\"}"))
+                .andExpect(status().isOk());
+
+        // then - each tenant reads its own team member, and other tenants none
+        mockMvc.perform(get("/api/team/TM201").header(TenantFilter.TENANT_HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Alice")));
+        mockMvc.perform(get("/api/team/TM201").header(TenantFilter.TENANT_HEADER, "globex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Alicia")));
+        mockMvc.perform(get("/api/team/TM201").header(TenantFilter.TENANT_HEADER, "initech"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/team/search").param("q", "alice").header(TenantFilter.TENANT_HEADER, "initech"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(0)));
+    }
+
+    /**
+     * JUnit test for paging through the team members of all tenants across the shards.
+     */
+    @Test
+    @DisplayName("JUnit test for merging the pages of all shards in tenant and memberId order")
+    public void givenTeamMembersOnTwoShards_whenGetTeamMemberPageAcrossTenants_thenMergeInKeysetOrder() throws Exception {
+        // given - team members of acme on the first shard and of globex on the second
+        create("globex", "TM201", "Carol");
+        create("acme", "TM202", "Bob");
+        create("acme", "TM201", "Alice");
+
+        // when - the first page of two team members across tenants is read
+        JsonNode first = objectMapper.readTree(mockMvc.perform(get("/api/team")
+                        .param("allTenants", "true")
+                        .param("limit", "2")
+                        .header(TeamMemberController.ADMIN_TOKEN_HEADER, "admin-secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        // then - it holds the team members of acme in memberId order, followed by a cursor
+        assertThat(first.findValuesAsText("memberId")).containsExactly("TM201", "TM202");
+        assertThat(first.findValuesAsText("tenantId")).containsExactly("acme", "acme");
+        assertThat(first.get("next").isNull()).isFalse();
+
+        // when/then - the following page holds the team member of globex and ends the listing
+        mockMvc.perform(get("/api/team")
+                        .param("allTenants", "true")
+                        .param("limit", "2")
+                        .header(TeamMemberController.ADMIN_TOKEN_HEADER, "admin-secret")
+                        .param("next", first.get("next").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(1)))
+                .andExpect(jsonPath("$.items[0].tenantId", is("globex")))
+                .andExpect(jsonPath("$.items[0].memberId", is("TM201")))
+                .andExpect(jsonPath("$.next", nullValue()));
+        assertThat(List.of(routingDataSource.shardFor("acme"), routingDataSource.shardFor("globex")))
+                .containsExactly("one", "two");
+    }
+}